@@ -13,7 +13,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
@@ -26,38 +29,45 @@ import com.puzzletimer.database.CategoryDAO;
 import com.puzzletimer.database.ColorDAO;
 import com.puzzletimer.database.ConfigurationDAO;
 import com.puzzletimer.database.DatabaseException;
+import com.puzzletimer.database.PersonalRecordDAO;
 import com.puzzletimer.database.SolutionDAO;
 import com.puzzletimer.gui.MainFrame;
 import com.puzzletimer.models.Category;
 import com.puzzletimer.models.ColorScheme;
 import com.puzzletimer.models.ConfigurationEntry;
+import com.puzzletimer.models.PersonalRecord;
+import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.Solution;
 import com.puzzletimer.models.Timing;
 import com.puzzletimer.parsers.ScrambleParserProvider;
 import com.puzzletimer.puzzles.PuzzleProvider;
+import com.puzzletimer.scramblers.Scrambler;
 import com.puzzletimer.scramblers.ScramblerProvider;
+import com.puzzletimer.solvers.SolverRegistry;
+import com.puzzletimer.solvers.TableRegistry;
 import com.puzzletimer.state.CategoryManager;
 import com.puzzletimer.state.ColorManager;
 import com.puzzletimer.state.ConfigurationManager;
 import com.puzzletimer.state.MessageManager;
+import com.puzzletimer.state.PersonalRecordManager;
 import com.puzzletimer.state.ScrambleManager;
 import com.puzzletimer.state.SessionManager;
 import com.puzzletimer.state.SolutionManager;
 import com.puzzletimer.state.TimerManager;
 import com.puzzletimer.state.MessageManager.MessageType;
-import com.puzzletimer.statistics.Best;
-import com.puzzletimer.statistics.BestAverage;
-import com.puzzletimer.statistics.BestMean;
-import com.puzzletimer.statistics.StatisticalMeasure;
 import com.puzzletimer.timer.Timer;
+import com.puzzletimer.tips.Tip;
 import com.puzzletimer.tips.TipProvider;
 import com.puzzletimer.util.SolutionUtils;
 
 public class Main {
+    private static final int DEFAULT_POOL_SIZE = 5;
+
     private ConfigurationDAO configurationDAO;
     private ColorDAO colorDAO;
     private CategoryDAO categoryDAO;
     private SolutionDAO solutionDAO;
+    private PersonalRecordDAO personalRecordDAO;
 
     private MessageManager messageManager;
     private ConfigurationManager configurationManager;
@@ -67,9 +77,11 @@ public class Main {
     private ScrambleParserProvider scrambleParserProvider;
     private ScramblerProvider scramblerProvider;
     private TipProvider tipProvider;
+    private SolverRegistry solverRegistry;
     private CategoryManager categoryManager;
     private ScrambleManager scrambleManager;
     private SolutionManager solutionManager;
+    private PersonalRecordManager personalRecordManager;
     private SessionManager sessionManager;
 
     public Main() {
@@ -122,7 +134,7 @@ public class Main {
         }
 
         // update database if necessary
-        String[] versions = { "0.3", "0.4", "0.5" };
+        String[] versions = { "0.3", "0.4", "0.5", "0.6", "0.7" };
 
         for (;;) {
             String currentVersion = "";
@@ -186,56 +198,16 @@ public class Main {
             this.configurationManager.getConfiguration("INSPECTION-TIME-ENABLED").equals("TRUE"));
         this.timerManager.addListener(new TimerManager.Listener() {
             @Override
-            public void solutionFinished(Timing timing, String penalty) {
-                // add solution
-                Main.this.solutionManager.addSolution(
-                    new Solution(
-                        UUID.randomUUID(),
-                        Main.this.categoryManager.getCurrentCategory().getCategoryId(),
-                        Main.this.scrambleManager.getCurrentScramble(),
-                        timing,
-                        penalty));
-
-                // check for personal records
-                StatisticalMeasure[] measures = {
-                    new Best(1, Integer.MAX_VALUE),
-                    new BestMean(3, 3),
-                    new BestMean(100, 100),
-                    new BestAverage(5, 5),
-                    new BestAverage(12, 12),
-                };
-
-                String[] descriptions = {
-                    _("main.single"),
-                    _("main.mean_of_3"),
-                    _("main.mean_of_100"),
-                    _("main.average_of_5"),
-                    _("main.average_of_12"),
-                };
-
-                Solution[] solutions = Main.this.solutionManager.getSolutions();
-                Solution[] sessionSolutions = Main.this.sessionManager.getSolutions();
-
-                for (int i = 0; i < measures.length; i++) {
-                    if (sessionSolutions.length < measures[i].getMinimumWindowSize()) {
-                        continue;
-                    }
-
-                    measures[i].setSolutions(solutions);
-                    long allTimeBest = measures[i].getValue();
-
-                    measures[i].setSolutions(sessionSolutions);
-                    long sessionBest = measures[i].getValue();
-
-                    if (measures[i].getWindowPosition() == 0 && sessionBest <= allTimeBest) {
-                        Main.this.messageManager.enqueueMessage(
-                            MessageType.INFORMATION,
-                            String.format(_("main.personal_record_message"),
-                                Main.this.categoryManager.getCurrentCategory().getDescription(),
-                                SolutionUtils.formatMinutes(measures[i].getValue()),
-                                descriptions[i]));
+            public void solutionFinished(final Timing timing, final String penalty) {
+                // a solve finished while its scramble was being prepared is
+                // added once the scramble is ready
+                final UUID categoryId = Main.this.categoryManager.getCurrentCategory().getCategoryId();
+                Main.this.scrambleManager.takeCurrentScramble(new ScrambleManager.ScrambleCallback() {
+                    @Override
+                    public void scrambleReady(Scramble scramble) {
+                        addSolution(new Solution(UUID.randomUUID(), categoryId, scramble, timing, penalty));
                     }
-                }
+                });
 
                 // gerate next scramble
                 Main.this.scrambleManager.changeScramble();
@@ -285,6 +257,43 @@ public class Main {
         // tip provider
         this.tipProvider = new TipProvider();
 
+        // solver registry
+        this.solverRegistry = new SolverRegistry(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        for (final Scrambler scrambler : this.scramblerProvider.getAll()) {
+            this.solverRegistry.register(
+                scrambler.getScramblerInfo().getScramblerId(),
+                scrambler.getScramblerInfo().getPuzzleId(),
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        scrambler.initialize();
+                    }
+                });
+        }
+        for (final Tip tip : this.tipProvider.getAll()) {
+            this.solverRegistry.register(
+                tip.getTipId(),
+                tip.getPuzzleId(),
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        tip.initialize();
+                    }
+                });
+        }
+
+        // report the memory used by the tables once they're all built
+        final AtomicBoolean tablesReported = new AtomicBoolean(false);
+        this.solverRegistry.addListener(new SolverRegistry.Listener() {
+            @Override
+            public void solverReady(String solverId) {
+                if (Main.this.solverRegistry.isReady() && !tablesReported.getAndSet(true)) {
+                    System.out.println(describeTables());
+                }
+            }
+        });
+
         // category DAO
         this.categoryDAO = new CategoryDAO(connection);
 
@@ -309,8 +318,12 @@ public class Main {
                     category.getCategoryId().toString());
 
                 try {
-                    Main.this.solutionManager.loadSolutions(
-                        Main.this.solutionDAO.getAll(category));
+                    Solution[] solutions = Main.this.solutionDAO.getAll(category);
+                    Main.this.personalRecordManager.loadSolutions(
+                        category,
+                        solutions,
+                        Main.this.personalRecordDAO.getAll(category));
+                    Main.this.solutionManager.loadSolutions(solutions);
                     Main.this.sessionManager.clearSession();
                 } catch (DatabaseException e) {
                     Main.this.messageManager.enqueueMessage(
@@ -353,10 +366,25 @@ public class Main {
             }
         });
 
+        // start building the tables of the current puzzle first
+        this.solverRegistry.start(
+            this.scramblerProvider.get(currentCategory.getScramblerId())
+                .getScramblerInfo().getPuzzleId());
+
         // scramble manager
         this.scrambleManager = new ScrambleManager(
             this.scramblerProvider,
-            this.scramblerProvider.get(currentCategory.getScramblerId()));
+            this.solverRegistry,
+            this.scramblerProvider.get(currentCategory.getScramblerId()),
+            parsePoolSize(this.configurationManager.getConfiguration("SCRAMBLE-POOL-SIZE")));
+        this.configurationManager.addListener(new ConfigurationManager.Listener() {
+            @Override
+            public void configurationEntryUpdated(String key, String value) {
+                if (key.equals("SCRAMBLE-POOL-SIZE")) {
+                    Main.this.scrambleManager.setPoolSize(parsePoolSize(value));
+                }
+            }
+        });
         this.categoryManager.addListener(new CategoryManager.Listener() {
             @Override
             public void currentCategoryChanged(Category category) {
@@ -421,10 +449,125 @@ public class Main {
             }
         });
 
+        // personal record DAO
+        this.personalRecordDAO = new PersonalRecordDAO(connection);
+
+        // personal record manager
+        this.personalRecordManager = new PersonalRecordManager();
+        this.personalRecordManager.addListener(new PersonalRecordManager.Listener() {
+            @Override
+            public void personalRecordsUpdated(PersonalRecord[] records) {
+                try {
+                    Main.this.personalRecordDAO.update(records);
+                } catch (DatabaseException e) {
+                    Main.this.messageManager.enqueueMessage(
+                        MessageType.ERROR,
+                        String.format(_("main.database_error_message"), e.getMessage()));
+                }
+            }
+        });
+        this.solutionManager.addListener(new SolutionManager.Listener() {
+            @Override
+            public void solutionAdded(Solution solution) {
+                Main.this.personalRecordManager.addSolution(solution);
+            }
+
+            @Override
+            public void solutionsAdded(Solution[] solutions) {
+                Main.this.personalRecordManager.addSolutions(solutions);
+            }
+
+            @Override
+            public void solutionUpdated(Solution solution) {
+                Main.this.personalRecordManager.updateSolution(solution);
+            }
+
+            @Override
+            public void solutionRemoved(Solution solution) {
+                Main.this.personalRecordManager.removeSolution(solution);
+            }
+        });
+
         // session manager
         this.sessionManager = new SessionManager();
     }
 
+    private void addSolution(Solution solution) {
+        // the category may have changed while the scramble was prepared, in
+        // which case the solution is only stored
+        if (!solution.getCategoryId().equals(this.categoryManager.getCurrentCategory().getCategoryId())) {
+            try {
+                this.solutionDAO.insert(solution);
+            } catch (DatabaseException e) {
+                this.messageManager.enqueueMessage(
+                    MessageType.ERROR,
+                    String.format(_("main.database_error_message"), e.getMessage()));
+            }
+
+            return;
+        }
+
+        // add solution
+        this.solutionManager.addSolution(solution);
+
+        // check for personal records
+        String[] descriptions = {
+            _("main.single"),
+            _("main.mean_of_3"),
+            _("main.mean_of_100"),
+            _("main.average_of_5"),
+            _("main.average_of_12"),
+        };
+
+        PersonalRecord[] records = this.personalRecordManager.getPersonalRecords();
+        int nSessionSolutions = this.sessionManager.getNumberOfSolutions();
+
+        for (int i = 0; i < records.length; i++) {
+            if (nSessionSolutions < this.personalRecordManager.getWindowSize(i)) {
+                continue;
+            }
+
+            if (this.personalRecordManager.isNewestRecord(i)) {
+                this.messageManager.enqueueMessage(
+                    MessageType.INFORMATION,
+                    String.format(_("main.personal_record_message"),
+                        this.categoryManager.getCurrentCategory().getDescription(),
+                        SolutionUtils.formatMinutes(records[i].getValue()),
+                        descriptions[i]));
+            }
+        }
+    }
+
+    // memory used by the solver tables of each puzzle and time spent
+    // building them
+    private static String describeTables() {
+        HashMap<String, Long> memoryUsage = TableRegistry.getMemoryUsage();
+        HashMap<String, Long> buildTimes = TableRegistry.getBuildTimes();
+
+        StringBuilder description = new StringBuilder("solver tables:");
+        long totalMemoryUsage = 0;
+        for (String puzzleId : new TreeSet<String>(memoryUsage.keySet())) {
+            description.append(String.format(
+                " %s %.1f MB in %d ms,",
+                puzzleId,
+                memoryUsage.get(puzzleId) / 1048576.0,
+                buildTimes.get(puzzleId)));
+            totalMemoryUsage += memoryUsage.get(puzzleId);
+        }
+        description.append(String.format(" %.1f MB in total", totalMemoryUsage / 1048576.0));
+
+        return description.toString();
+    }
+
+    // the pool size setting, ignoring values that aren't sizes
+    private static int parsePoolSize(String value) {
+        try {
+            return Math.max(0, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return DEFAULT_POOL_SIZE;
+        }
+    }
+
     public static void main(String[] args) {
         SwingUtilities.invokeLater(new Runnable() {
             public void run() {
@@ -0,0 +1,83 @@
+package com.puzzletimer.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import com.puzzletimer.models.Category;
+import com.puzzletimer.models.PersonalRecord;
+
+public class PersonalRecordDAO {
+    private Connection connection;
+
+    public PersonalRecordDAO(Connection connection) {
+        this.connection = connection;
+    }
+
+    public PersonalRecord[] getAll(Category category) {
+        ArrayList<PersonalRecord> records = new ArrayList<PersonalRecord>();
+
+        try {
+            PreparedStatement statement = this.connection.prepareStatement(
+                "SELECT CATEGORY_ID, MEASURE_ID, VALUE " +
+                "FROM PERSONAL_RECORD " +
+                "WHERE CATEGORY_ID = ?");
+
+            statement.setString(1, category.getCategoryId().toString());
+
+            ResultSet resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+                UUID categoryId = UUID.fromString(resultSet.getString(1));
+                String measureId = resultSet.getString(2);
+                long value = resultSet.getLong(3);
+
+                records.add(new PersonalRecord(categoryId, measureId, value));
+            }
+
+            statement.close();
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+
+        PersonalRecord[] recordsArray = new PersonalRecord[records.size()];
+        records.toArray(recordsArray);
+
+        return recordsArray;
+    }
+
+    public void update(PersonalRecord[] records) {
+        try {
+            this.connection.setAutoCommit(false);
+
+            PreparedStatement statement = this.connection.prepareStatement(
+                "MERGE INTO PERSONAL_RECORD (CATEGORY_ID, MEASURE_ID, VALUE) " +
+                "KEY (CATEGORY_ID, MEASURE_ID) " +
+                "VALUES (?, ?, ?)");
+
+            for (PersonalRecord record : records) {
+                statement.setString(1, record.getCategoryId().toString());
+                statement.setString(2, record.getMeasureId());
+                statement.setLong(3, record.getValue());
+
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+            statement.close();
+
+            this.connection.commit();
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } finally {
+            try {
+                this.connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                throw new DatabaseException(e);
+            }
+        }
+    }
+}
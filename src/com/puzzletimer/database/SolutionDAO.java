@@ -54,12 +54,16 @@ public class SolutionDAO {
                 UUID categoryId = UUID.fromString(resultSet.getString(2));
                 String scramblerId = resultSet.getString(3);
                 String sequence = resultSet.getString(4);
-                Date start = resultSet.getTimestamp(5);
-                Date end = resultSet.getTimestamp(6);
+                Timestamp start = resultSet.getTimestamp(5);
+                Timestamp end = resultSet.getTimestamp(6);
                 String penalty = resultSet.getString(7);
 
+                Timing timing = new Timing(
+                    new Date(start.getTime()),
+                    getNanoTime(end) - getNanoTime(start));
+
                 Scramble scramble = new Scramble(scramblerId, scramblerParser.parse(sequence));
-                Solution solution = new Solution(solutionId, categoryId, scramble, new Timing(start, end), penalty);
+                Solution solution = new Solution(solutionId, categoryId, scramble, timing, penalty);
 
                 solutions.add(solution);
             }
@@ -90,7 +94,7 @@ public class SolutionDAO {
                 statement.setString(3, solution.getScramble().getScramblerId());
                 statement.setString(4, solution.getScramble().getRawSequence());
                 statement.setTimestamp(5, new Timestamp(solution.getTiming().getStart().getTime()));
-                statement.setTimestamp(6, new Timestamp(solution.getTiming().getEnd().getTime()));
+                statement.setTimestamp(6, getEnd(solution.getTiming()));
                 statement.setString(7, solution.getPenalty());
 
                 statement.addBatch();
@@ -116,7 +120,7 @@ public class SolutionDAO {
             PreparedStatement statement = this.connection.prepareStatement(
                 "UPDATE SOLUTION SET END = ?, PENALTY = ? WHERE SOLUTION_ID = ?");
 
-            statement.setTimestamp(1, new Timestamp(solution.getTiming().getEnd().getTime()));
+            statement.setTimestamp(1, getEnd(solution.getTiming()));
             statement.setString(2, solution.getPenalty());
             statement.setString(3, solution.getSolutionId().toString());
 
@@ -142,4 +146,20 @@ public class SolutionDAO {
             throw new DatabaseException(e);
         }
     }
+
+    // the end is stored as the start plus the elapsed time, keeping its
+    // sub-millisecond part
+    private static Timestamp getEnd(Timing timing) {
+        long nanoTime = 1000000L * timing.getStart().getTime() + timing.getElapsedNanoTime();
+
+        Timestamp end = new Timestamp(1000L * (nanoTime / 1000000000L));
+        end.setNanos((int) (nanoTime % 1000000000L));
+
+        return end;
+    }
+
+    // nanoseconds since the epoch
+    private static long getNanoTime(Timestamp timestamp) {
+        return 1000000000L * (timestamp.getTime() / 1000L) + timestamp.getNanos();
+    }
 }
@@ -7,58 +7,69 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.text.DateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 
 import javax.swing.JPanel;
 
-import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.util.SolutionUtils;
 
 @SuppressWarnings("serial")
 public class GraphPanel extends JPanel {
-    ArrayList<Long> solutionTimes;
+    long[] solutionTimes;
     private long solutionIntervalStart;
     private long solutionIntervalEnd;
-    ArrayList<Long> startTimes;
+    long[] startTimes;
+    int nTimes;
     long startIntervalStart;
     long startIntervalEnd;
+    private long[] binSums;
+    private int[] binCounts;
 
-    public GraphPanel(Solution[] solutions) {
+    public GraphPanel(SolveSeries series) {
         setBackground(Color.WHITE);
-        setSolutions(solutions);
+        this.solutionTimes = new long[0];
+        this.startTimes = new long[0];
+        this.binSums = new long[0];
+        this.binCounts = new int[0];
+        setSolutions(series);
     }
 
-    public void setSolutions(Solution[] solutions) {
+    public void setSolutions(SolveSeries series) {
         // apply +2, filter DNFs
-        this.solutionTimes = new ArrayList<Long>();
-        this.startTimes = new ArrayList<Long>();
-        for (Solution solution : solutions) {
-            long time = SolutionUtils.realTime(solution);
+        if (this.solutionTimes.length < series.size()) {
+            this.solutionTimes = new long[series.size()];
+            this.startTimes = new long[series.size()];
+        }
+
+        this.nTimes = 0;
+        for (int i = 0; i < series.size(); i++) {
+            long time = series.getRealTime(i);
             if (time != Long.MAX_VALUE) {
-                this.solutionTimes.add(time);
-                this.startTimes.add(solution.getTiming().getStart().getTime());
+                this.solutionTimes[this.nTimes] = time;
+                this.startTimes[this.nTimes] = series.getStart(i);
+                this.nTimes++;
             }
         }
 
         // define solution times interval size
-        if (this.solutionTimes.size() == 0) {
+        if (this.nTimes == 0) {
             this.solutionIntervalStart = 17000;
             this.solutionIntervalEnd = 23000;
         } else {
             // mean
             long mean = 0;
-            for (int i = 0; i < this.solutionTimes.size(); i++) {
-                mean += this.solutionTimes.get(i);
+            for (int i = 0; i < this.nTimes; i++) {
+                mean += this.solutionTimes[i];
             }
-            mean /= this.solutionTimes.size();
+            mean /= this.nTimes;
 
             // standard deviation
             long variance = 0;
-            for (int i = 0; i < this.solutionTimes.size(); i++) {
-                variance += Math.pow(this.solutionTimes.get(i) - mean, 2d);
+            for (int i = 0; i < this.nTimes; i++) {
+                variance += Math.pow(this.solutionTimes[i] - mean, 2d);
             }
-            variance /= this.solutionTimes.size();
+            variance /= this.nTimes;
 
             long standardDeviation = (long) Math.sqrt(variance);
 
@@ -67,20 +78,20 @@ public class GraphPanel extends JPanel {
         }
 
         // define start times interval size
-        if (this.solutionTimes.size() == 0) {
+        if (this.nTimes == 0) {
             Date now = new Date();
             this.startIntervalStart = now.getTime() - 5000;
             this.startIntervalEnd = now.getTime() + 5000;
-        } else if (this.solutionTimes.size() == 1) {
-            this.startIntervalStart = this.startTimes.get(0) - 5000;
-            this.startIntervalEnd = this.startTimes.get(0) + 5000;
+        } else if (this.nTimes == 1) {
+            this.startIntervalStart = this.startTimes[0] - 5000;
+            this.startIntervalEnd = this.startTimes[0] + 5000;
         } else {
-            this.startIntervalStart = this.startTimes.get(this.startTimes.size() - 1);
-            this.startIntervalEnd = this.startTimes.get(0);
+            this.startIntervalStart = this.startTimes[0];
+            this.startIntervalEnd = this.startTimes[this.nTimes - 1];
 
             if (this.startIntervalStart == this.startIntervalEnd) {
-                this.startIntervalStart = this.startTimes.get(0) - 5000;
-                this.startIntervalEnd = this.startTimes.get(0) + 5000;
+                this.startIntervalStart = this.startTimes[this.nTimes - 1] - 5000;
+                this.startIntervalEnd = this.startTimes[this.nTimes - 1] + 5000;
             }
         }
 
@@ -162,23 +173,25 @@ public class GraphPanel extends JPanel {
         // draw points
         int nBins = getWidth() - wBase;
 
-        ArrayList<ArrayList<Long>> bins = new ArrayList<ArrayList<Long>>(nBins);
+        if (this.binSums.length < nBins) {
+            this.binSums = new long[nBins];
+            this.binCounts = new int[nBins];
+        }
+
         for (int i = 0; i < nBins; i++) {
-            bins.add(new ArrayList<Long>());
+            this.binSums[i] = 0;
+            this.binCounts[i] = 0;
         }
 
-        for (int i = 0; i < this.solutionTimes.size(); i++) {
-            int bin = (int) ((nBins - 1) * (this.startTimes.get(i) - this.startIntervalStart) / (this.startIntervalEnd - this.startIntervalStart));
-            bins.get(bin).add(this.solutionTimes.get(i));
+        for (int i = 0; i < this.nTimes; i++) {
+            int bin = (int) ((nBins - 1) * (this.startTimes[i] - this.startIntervalStart) / (this.startIntervalEnd - this.startIntervalStart));
+            this.binSums[bin] += this.solutionTimes[i];
+            this.binCounts[bin]++;
         }
 
         for (int i = 0; i < nBins; i++) {
-            if (bins.get(i).size() > 0) {
-                long mean = 0;
-                for (long time : bins.get(i)) {
-                    mean += time;
-                }
-                mean /= bins.get(i).size();
+            if (this.binCounts[i] > 0) {
+                long mean = this.binSums[i] / this.binCounts[i];
 
                 if (mean >= this.solutionIntervalStart && mean < this.solutionIntervalEnd) {
                     int x = wBase + i;
@@ -9,7 +9,7 @@ import java.awt.RenderingHints;
 
 import javax.swing.JPanel;
 
-import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.util.SolutionUtils;
 
 @SuppressWarnings("serial")
@@ -17,36 +17,42 @@ public class HistogramPanel extends JPanel {
     private long[] bins;
     private long intervalStart;
     private long intervalEnd;
+    private long[] times;
 
-    public HistogramPanel(Solution[] solutions, int nBins) {
+    public HistogramPanel(SolveSeries series, int nBins) {
         setBackground(Color.WHITE);
 
         this.bins = new long[nBins];
-        setSolutions(solutions);
+        this.times = new long[0];
+        setSolutions(series);
     }
 
-    public void setSolutions(Solution[] solutions) {
+    public void setSolutions(SolveSeries series) {
         // apply +2, filter DNF
-        long[] times = SolutionUtils.realTimes(solutions, true);
+        if (this.times.length < series.size()) {
+            this.times = new long[series.size()];
+        }
+        long[] times = this.times;
+        int nTimes = series.getRealTimes(0, series.size(), times, true);
 
         // define interval size
-        if (times.length == 0) {
+        if (nTimes == 0) {
             this.intervalStart = 17000;
             this.intervalEnd = 23000;
         } else {
             // mean
             long mean = 0;
-            for (int i = 0; i < times.length; i++) {
+            for (int i = 0; i < nTimes; i++) {
                 mean += times[i];
             }
-            mean /= times.length;
+            mean /= nTimes;
 
             // standard deviation
             long variance = 0;
-            for (int i = 0; i < times.length; i++) {
+            for (int i = 0; i < nTimes; i++) {
                 variance += Math.pow(times[i] - mean, 2d);
             }
-            variance /= times.length;
+            variance /= nTimes;
 
             long stddev = (long) Math.sqrt(variance);
 
@@ -59,7 +65,7 @@ public class HistogramPanel extends JPanel {
             this.bins[i] = 0;
         }
 
-        for (int i = 0; i < times.length; i++) {
+        for (int i = 0; i < nTimes; i++) {
             if (times[i] >= this.intervalStart && times[i] < this.intervalEnd) {
                 int bin = (int) (this.bins.length * (times[i] - this.intervalStart) / (this.intervalEnd - this.intervalStart));
                 this.bins[bin]++;
@@ -36,6 +36,7 @@ import net.miginfocom.swing.MigLayout;
 import com.puzzletimer.models.Category;
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.models.Timing;
 import com.puzzletimer.parsers.ScrambleParser;
 import com.puzzletimer.parsers.ScrambleParserProvider;
@@ -45,15 +46,18 @@ import com.puzzletimer.state.CategoryManager;
 import com.puzzletimer.state.ScrambleManager;
 import com.puzzletimer.state.SessionManager;
 import com.puzzletimer.state.SolutionManager;
+import com.puzzletimer.state.SolutionsChange;
+import com.puzzletimer.state.SortedSolveSeries;
 import com.puzzletimer.statistics.Average;
 import com.puzzletimer.statistics.Best;
 import com.puzzletimer.statistics.BestAverage;
 import com.puzzletimer.statistics.BestMean;
+import com.puzzletimer.statistics.IncrementalStatisticalMeasure;
+import com.puzzletimer.statistics.IncrementalStatistics;
 import com.puzzletimer.statistics.InterquartileMean;
 import com.puzzletimer.statistics.Mean;
 import com.puzzletimer.statistics.Percentile;
 import com.puzzletimer.statistics.StandardDeviation;
-import com.puzzletimer.statistics.StatisticalMeasure;
 import com.puzzletimer.statistics.Worst;
 import com.puzzletimer.util.SolutionUtils;
 
@@ -208,6 +212,8 @@ public class HistoryFrame extends JFrame {
     private JLabel labelAverageOf12;
     private JLabel labelBestAverageOf12;
     private JTable table;
+    private DefaultTableModel tableModel;
+    private DateFormat dateFormat;
     private JButton buttonAddSolutions;
     private JButton buttonEdit;
     private JButton buttonRemove;
@@ -215,6 +221,8 @@ public class HistoryFrame extends JFrame {
     private JButton buttonSelectNone;
     private JButton buttonOk;
 
+    private IncrementalStatistics statistics;
+
     public HistoryFrame(
             final ScramblerProvider scramblerProvider,
             final ScrambleParserProvider scrambleParserProvider,
@@ -229,6 +237,9 @@ public class HistoryFrame extends JFrame {
 
         createComponents();
 
+        this.statistics = new IncrementalStatistics(createMeasures());
+        this.dateFormat = DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.MEDIUM);
+
         // title
         categoryManager.addListener(new CategoryManager.Listener() {
             @Override
@@ -244,16 +255,21 @@ public class HistoryFrame extends JFrame {
         // statistics, table
         solutionManager.addListener(new SolutionManager.Listener() {
             @Override
-            public void solutionsUpdated(Solution[] solutions) {
-                int[] selectedRows = new int[solutions.length];
+            public void solutionsChanged(SolutionsChange change) {
+                int[] selectedRows = new int[change.getSeries().size()];
                 for (int i = 0; i < selectedRows.length; i++) {
                     selectedRows[i] = i;
                 }
 
-                HistoryFrame.this.histogramPanel.setSolutions(solutions);
-                HistoryFrame.this.graphPanel.setSolutions(solutions);
-                updateStatistics(solutions, selectedRows);
-                updateTable(solutions);
+                HistoryFrame.this.histogramPanel.setSolutions(change.getSeries());
+                HistoryFrame.this.graphPanel.setSolutions(change.getSeries());
+                if (change.isAppend()) {
+                    HistoryFrame.this.statistics.addSolution(change.getSolution());
+                } else {
+                    HistoryFrame.this.statistics.setSolutions(change.getSolutions());
+                }
+                updateStatistics(HistoryFrame.this.statistics, selectedRows);
+                updateTable(change);
             }
         });
         solutionManager.notifyListeners();
@@ -265,6 +281,8 @@ public class HistoryFrame extends JFrame {
                 public void valueChanged(ListSelectionEvent event) {
                     Solution[] solutions = solutionManager.getSolutions();
                     Solution[] selectedSolutions;
+                    SolveSeries selectedSeries;
+                    IncrementalStatistics statistics;
 
                     int[] selectedRows = HistoryFrame.this.table.getSelectedRows();
                     if (selectedRows.length <= 0) {
@@ -274,16 +292,24 @@ public class HistoryFrame extends JFrame {
                         }
 
                         selectedSolutions = solutions;
+                        selectedSeries = solutionManager.getSolveSeries();
+                        // kept up to date by the solution manager listener
+                        statistics = HistoryFrame.this.statistics;
                     } else {
                         selectedSolutions = new Solution[selectedRows.length];
                         for (int i = 0; i < selectedSolutions.length; i++) {
                             selectedSolutions[i] = solutions[selectedRows[i]];
                         }
+
+                        selectedSeries = new SortedSolveSeries(selectedSolutions);
+
+                        statistics = new IncrementalStatistics(createMeasures());
+                        statistics.setSolutions(selectedSolutions);
                     }
 
-                    HistoryFrame.this.histogramPanel.setSolutions(selectedSolutions);
-                    HistoryFrame.this.graphPanel.setSolutions(selectedSolutions);
-                    updateStatistics(selectedSolutions, selectedRows);
+                    HistoryFrame.this.histogramPanel.setSolutions(selectedSeries);
+                    HistoryFrame.this.graphPanel.setSolutions(selectedSeries);
+                    updateStatistics(statistics, selectedRows);
 
                     HistoryFrame.this.buttonEdit.setEnabled(
                         HistoryFrame.this.table.getSelectedRowCount() == 1);
@@ -441,14 +467,14 @@ public class HistoryFrame extends JFrame {
         add(new JLabel(_("history.histogram")), "span, wrap");
 
         // histogram
-        this.histogramPanel = new HistogramPanel(new Solution[0], 17);
+        this.histogramPanel = new HistogramPanel(new SortedSolveSeries(), 17);
         add(this.histogramPanel, "growx, height 90, span, wrap");
 
         // labelGraph
         add(new JLabel(_("history.graph")), "span, wrap");
 
         // Graph
-        this.graphPanel = new GraphPanel(new Solution[0]);
+        this.graphPanel = new GraphPanel(new SortedSolveSeries());
         add(this.graphPanel, "growx, height 90, span, wrap");
 
         // labelStatistics
@@ -601,8 +627,36 @@ public class HistoryFrame extends JFrame {
         add(this.buttonOk, "tag ok, span");
     }
 
-    private void updateStatistics(Solution[] solutions, final int[] selectedRows) {
-        this.labelNumberOfSolutions.setText(Integer.toString(solutions.length));
+    private static IncrementalStatisticalMeasure[] createMeasures() {
+        return new IncrementalStatisticalMeasure[] {
+            new Best(1, Integer.MAX_VALUE),
+            new Mean(3, 3),
+            new BestMean(3, Integer.MAX_VALUE),
+
+            new Mean(1, Integer.MAX_VALUE),
+            new Percentile(1, Integer.MAX_VALUE, 0.25),
+            new Mean(10, 10),
+            new BestMean(10, Integer.MAX_VALUE),
+
+            new Average(3, Integer.MAX_VALUE),
+            new Percentile(1, Integer.MAX_VALUE, 0.5),
+            new Mean(100, 100),
+            new BestMean(100, Integer.MAX_VALUE),
+
+            new InterquartileMean(3, Integer.MAX_VALUE),
+            new Percentile(1, Integer.MAX_VALUE, 0.75),
+            new Average(5, 5),
+            new BestAverage(5, Integer.MAX_VALUE),
+
+            new StandardDeviation(1, Integer.MAX_VALUE),
+            new Worst(1, Integer.MAX_VALUE),
+            new Average(12, 12),
+            new BestAverage(12, Integer.MAX_VALUE),
+        };
+    }
+
+    private void updateStatistics(IncrementalStatistics statistics, final int[] selectedRows) {
+        this.labelNumberOfSolutions.setText(Integer.toString(statistics.getNumberOfSolutions()));
 
         JLabel labels[] = {
             this.labelBest,
@@ -630,31 +684,7 @@ public class HistoryFrame extends JFrame {
             this.labelBestAverageOf12,
         };
 
-        StatisticalMeasure[] measures = {
-            new Best(1, Integer.MAX_VALUE),
-            new Mean(3, 3),
-            new BestMean(3, Integer.MAX_VALUE),
-
-            new Mean(1, Integer.MAX_VALUE),
-            new Percentile(1, Integer.MAX_VALUE, 0.25),
-            new Mean(10, 10),
-            new BestMean(10, Integer.MAX_VALUE),
-
-            new Average(3, Integer.MAX_VALUE),
-            new Percentile(1, Integer.MAX_VALUE, 0.5),
-            new Mean(100, 100),
-            new BestMean(100, Integer.MAX_VALUE),
-
-            new InterquartileMean(3, Integer.MAX_VALUE),
-            new Percentile(1, Integer.MAX_VALUE, 0.75),
-            new Average(5, 5),
-            new BestAverage(5, Integer.MAX_VALUE),
-
-            new StandardDeviation(1, Integer.MAX_VALUE),
-            new Worst(1, Integer.MAX_VALUE),
-            new Average(12, 12),
-            new BestAverage(12, Integer.MAX_VALUE),
-        };
+        IncrementalStatisticalMeasure[] measures = statistics.getMeasures();
 
         boolean[] clickable = {
             true,
@@ -683,15 +713,7 @@ public class HistoryFrame extends JFrame {
         };
 
         for (int i = 0; i < labels.length; i++) {
-            if (solutions.length >= measures[i].getMinimumWindowSize()) {
-                int size = Math.min(solutions.length, measures[i].getMaximumWindowSize());
-
-                Solution[] window = new Solution[size];
-                for (int j = 0; j < size; j++) {
-                    window[j] = solutions[j];
-                }
-
-                measures[i].setSolutions(window);
+            if (statistics.isAvailable(i)) {
                 labels[i].setText(SolutionUtils.formatMinutes(measures[i].getValue()));
             } else {
                 labels[i].setText("XX:XX.XX");
@@ -705,7 +727,7 @@ public class HistoryFrame extends JFrame {
 
                 labels[i].setCursor(new Cursor(Cursor.DEFAULT_CURSOR));
 
-                if (solutions.length >= measures[i].getMinimumWindowSize()) {
+                if (statistics.isAvailable(i)) {
                     labels[i].setCursor(new Cursor(Cursor.HAND_CURSOR));
 
                     final int windowSize = measures[i].getMinimumWindowSize();
@@ -732,20 +754,58 @@ public class HistoryFrame extends JFrame {
         }
     }
 
+    // applies a single change to the table, keeping the row numbers up to
+    // date. rows are newest first
+    private void updateTable(SolutionsChange change) {
+        if (this.tableModel == null || change.getType() == SolutionsChange.Type.RESET) {
+            updateTable(change.getSolutions());
+            return;
+        }
+
+        this.table.clearSelection();
+
+        int nSolutions = change.getSeries().size();
+        int row;
+        switch (change.getType()) {
+            case INSERTED:
+                row = nSolutions - 1 - change.getPosition();
+                this.tableModel.insertRow(row, createRow(change.getSolution(), change.getPosition() + 1));
+                break;
+
+            case REMOVED:
+                row = nSolutions - change.getPosition();
+                this.tableModel.removeRow(row);
+                break;
+
+            default:
+                row = nSolutions - 1 - change.getPosition();
+                Object[] rowData = createRow(change.getSolution(), change.getPosition() + 1);
+                for (int i = 0; i < rowData.length; i++) {
+                    this.tableModel.setValueAt(rowData[i], row, i);
+                }
+                return;
+        }
+
+        // the newer rows move up or down by one
+        for (int i = 0; i < row; i++) {
+            this.tableModel.setValueAt(nSolutions - i, i, 0);
+        }
+    }
+
     private void updateTable(Solution[] solutions) {
-        DefaultTableModel tableModel = new DefaultTableModel() {
+        this.tableModel = new DefaultTableModel() {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false;
             }
         };
-        tableModel.addColumn(_("history.#"));
-        tableModel.addColumn(_("history.start"));
-        tableModel.addColumn(_("history.time"));
-        tableModel.addColumn(_("history.penalty"));
-        tableModel.addColumn(_("history.scramble"));
+        this.tableModel.addColumn(_("history.#"));
+        this.tableModel.addColumn(_("history.start"));
+        this.tableModel.addColumn(_("history.time"));
+        this.tableModel.addColumn(_("history.penalty"));
+        this.tableModel.addColumn(_("history.scramble"));
 
-        this.table.setModel(tableModel);
+        this.table.setModel(this.tableModel);
 
         this.table.setAutoResizeMode(JTable.AUTO_RESIZE_LAST_COLUMN);
 
@@ -755,22 +815,24 @@ public class HistoryFrame extends JFrame {
             indexColumn.setPreferredWidth(columnsWidth[i]);
         }
 
-        DateFormat dateFormat = DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.MEDIUM);
-
         for (int i = 0; i < solutions.length; i++) {
-            // start
-            String sStart = dateFormat.format(solutions[i].getTiming().getStart());
-
-            // time
-            String sTime = SolutionUtils.formatMinutes(solutions[i].getTiming().getElapsedTime());
-
-            tableModel.addRow(new Object[] {
-                solutions.length - i,
-                sStart,
-                sTime,
-                solutions[i].getPenalty(),
-                solutions[i].getScramble().getRawSequence(),
-            });
+            this.tableModel.addRow(createRow(solutions[i], solutions.length - i));
         }
     }
+
+    private Object[] createRow(Solution solution, int number) {
+        // start
+        String sStart = this.dateFormat.format(solution.getTiming().getStart());
+
+        // time
+        String sTime = SolutionUtils.formatMinutes(solution.getTiming().getElapsedTime());
+
+        return new Object[] {
+            number,
+            sStart,
+            sTime,
+            solution.getPenalty(),
+            solution.getScramble().getRawSequence(),
+        };
+    }
 }
@@ -61,16 +61,18 @@ import com.puzzletimer.state.MessageManager;
 import com.puzzletimer.state.ScrambleManager;
 import com.puzzletimer.state.SessionManager;
 import com.puzzletimer.state.SolutionManager;
+import com.puzzletimer.state.SolutionsChange;
 import com.puzzletimer.state.TimerManager;
 import com.puzzletimer.state.MessageManager.MessageType;
 import com.puzzletimer.statistics.Average;
 import com.puzzletimer.statistics.Best;
 import com.puzzletimer.statistics.BestAverage;
 import com.puzzletimer.statistics.BestMean;
+import com.puzzletimer.statistics.IncrementalStatisticalMeasure;
+import com.puzzletimer.statistics.IncrementalStatistics;
 import com.puzzletimer.statistics.Mean;
 import com.puzzletimer.statistics.Percentile;
 import com.puzzletimer.statistics.StandardDeviation;
-import com.puzzletimer.statistics.StatisticalMeasure;
 import com.puzzletimer.statistics.Worst;
 import com.puzzletimer.timer.ControlKeysTimer;
 import com.puzzletimer.timer.SpaceKeyTimer;
@@ -92,6 +94,11 @@ public class MainFrame extends JFrame {
                 public void scrambleChanged(Scramble scramble) {
                     setScramble(scramble);
                 }
+
+                @Override
+                public void scramblePreparing(Scramble scramble) {
+                    setPreparing();
+                }
             });
         }
 
@@ -134,6 +141,18 @@ public class MainFrame extends JFrame {
             revalidate();
             repaint();
         }
+
+        private void setPreparing() {
+            removeAll();
+
+            JLabel label = new JLabel(_("main.preparing_scramble"));
+            label.setFont(new Font("Arial", Font.PLAIN, 18));
+            label.setForeground(Color.GRAY);
+            add(label, "gap 10");
+
+            revalidate();
+            repaint();
+        }
     }
 
     private class TimerPanel extends JPanel {
@@ -242,8 +261,15 @@ public class MainFrame extends JFrame {
 
             sessionManager.addListener(new SessionManager.Listener() {
                 @Override
-                public void solutionsUpdated(Solution[] solutions) {
-                    setSolutions(solutions);
+                public void solutionsChanged(SolutionsChange change) {
+                    // a new solution only needs a row at the top
+                    if (change.isAppend()) {
+                        addSolution(change.getSolution(), change.getSeries().size(), 0);
+                        TimesScrollPane.this.panel.revalidate();
+                        TimesScrollPane.this.panel.repaint();
+                    } else {
+                        setSolutions(change.getSolutions());
+                    }
                 }
             });
         }
@@ -260,73 +286,77 @@ public class MainFrame extends JFrame {
                     ""));
         }
 
-        private void setSolutions(final Solution[] solutions) {
+        private void setSolutions(Solution[] solutions) {
             this.panel.removeAll();
 
             for (int i = 0; i < solutions.length; i++) {
-                final Solution solution = solutions[i];
-
-                JLabel labelIndex = new JLabel(Integer.toString(solutions.length - i) + ".");
-                labelIndex.setFont(new Font("Tahoma", Font.BOLD, 13));
-                this.panel.add(labelIndex);
+                addSolution(solutions[i], solutions.length - i, -1);
+            }
 
-                JLabel labelTime = new JLabel(SolutionUtils.formatMinutes(solutions[i].getTiming().getElapsedTime()));
-                labelTime.setFont(new Font("Tahoma", Font.PLAIN, 13));
-                this.panel.add(labelTime);
+            setViewportView(this.panel);
+        }
 
-                final JLabel labelPlus2 = new JLabel("+2");
-                labelPlus2.setFont(new Font("Tahoma", Font.PLAIN, 13));
-                if (!solution.getPenalty().equals("+2")) {
-                    labelPlus2.setForeground(Color.LIGHT_GRAY);
-                }
-                labelPlus2.setCursor(new Cursor(Cursor.HAND_CURSOR));
-                labelPlus2.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mouseClicked(MouseEvent e) {
-                        if (!solution.getPenalty().equals("+2")) {
-                            TimesScrollPane.this.solutionManager.updateSolution(
-                                solution.setPenalty("+2"));
-                        } else if (solution.getPenalty().equals("+2")) {
-                            TimesScrollPane.this.solutionManager.updateSolution(
-                                solution.setPenalty(""));
-                        }
+        // adds the components of a row at the given component index, or at
+        // the end if it is -1
+        private void addSolution(final Solution solution, int number, int index) {
+            JLabel labelIndex = new JLabel(Integer.toString(number) + ".");
+            labelIndex.setFont(new Font("Tahoma", Font.BOLD, 13));
+            this.panel.add(labelIndex, null, index);
+
+            JLabel labelTime = new JLabel(SolutionUtils.formatMinutes(solution.getTiming().getElapsedTime()));
+            labelTime.setFont(new Font("Tahoma", Font.PLAIN, 13));
+            this.panel.add(labelTime, null, index < 0 ? -1 : index + 1);
+
+            final JLabel labelPlus2 = new JLabel("+2");
+            labelPlus2.setFont(new Font("Tahoma", Font.PLAIN, 13));
+            if (!solution.getPenalty().equals("+2")) {
+                labelPlus2.setForeground(Color.LIGHT_GRAY);
+            }
+            labelPlus2.setCursor(new Cursor(Cursor.HAND_CURSOR));
+            labelPlus2.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (!solution.getPenalty().equals("+2")) {
+                        TimesScrollPane.this.solutionManager.updateSolution(
+                            solution.setPenalty("+2"));
+                    } else if (solution.getPenalty().equals("+2")) {
+                        TimesScrollPane.this.solutionManager.updateSolution(
+                            solution.setPenalty(""));
                     }
-                });
-                this.panel.add(labelPlus2);
-
-                final JLabel labelDNF = new JLabel("DNF");
-                labelDNF.setFont(new Font("Tahoma", Font.PLAIN, 13));
-                if (!solution.getPenalty().equals("DNF")) {
-                    labelDNF.setForeground(Color.LIGHT_GRAY);
                 }
-                labelDNF.setCursor(new Cursor(Cursor.HAND_CURSOR));
-                labelDNF.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mouseClicked(MouseEvent e) {
-                        if (!solution.getPenalty().equals("DNF")) {
-                            TimesScrollPane.this.solutionManager.updateSolution(
-                                solution.setPenalty("DNF"));
-                        } else if (solution.getPenalty().equals("DNF")) {
-                            TimesScrollPane.this.solutionManager.updateSolution(
-                                solution.setPenalty(""));
-                        }
-                    }
-                });
-                this.panel.add(labelDNF);
+            });
+            this.panel.add(labelPlus2, null, index < 0 ? -1 : index + 2);
 
-                JLabel labelX = new JLabel();
-                labelX.setIcon(new ImageIcon(getClass().getResource("/com/puzzletimer/resources/x.png")));
-                labelX.setCursor(new Cursor(Cursor.HAND_CURSOR));
-                labelX.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mouseClicked(MouseEvent e) {
-                        TimesScrollPane.this.solutionManager.removeSolution(solution);
-                    }
-                });
-                this.panel.add(labelX, "wrap");
+            final JLabel labelDNF = new JLabel("DNF");
+            labelDNF.setFont(new Font("Tahoma", Font.PLAIN, 13));
+            if (!solution.getPenalty().equals("DNF")) {
+                labelDNF.setForeground(Color.LIGHT_GRAY);
             }
+            labelDNF.setCursor(new Cursor(Cursor.HAND_CURSOR));
+            labelDNF.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (!solution.getPenalty().equals("DNF")) {
+                        TimesScrollPane.this.solutionManager.updateSolution(
+                            solution.setPenalty("DNF"));
+                    } else if (solution.getPenalty().equals("DNF")) {
+                        TimesScrollPane.this.solutionManager.updateSolution(
+                            solution.setPenalty(""));
+                    }
+                }
+            });
+            this.panel.add(labelDNF, null, index < 0 ? -1 : index + 3);
 
-            setViewportView(this.panel);
+            JLabel labelX = new JLabel();
+            labelX.setIcon(new ImageIcon(getClass().getResource("/com/puzzletimer/resources/x.png")));
+            labelX.setCursor(new Cursor(Cursor.HAND_CURSOR));
+            labelX.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    TimesScrollPane.this.solutionManager.removeSolution(solution);
+                }
+            });
+            this.panel.add(labelX, "wrap", index < 0 ? -1 : index + 4);
         }
     }
 
@@ -362,7 +392,7 @@ public class MainFrame extends JFrame {
                 this.labelBestAverageOf12,
             };
 
-            final StatisticalMeasure[] measures = {
+            final IncrementalStatistics statistics = new IncrementalStatistics(new IncrementalStatisticalMeasure[] {
                 new Mean(1, Integer.MAX_VALUE),
                 new Average(3, Integer.MAX_VALUE),
                 new Best(1, Integer.MAX_VALUE),
@@ -375,21 +405,20 @@ public class MainFrame extends JFrame {
                 new BestAverage(5, Integer.MAX_VALUE),
                 new Average(12, 12),
                 new BestAverage(12, Integer.MAX_VALUE),
-            };
+            });
 
             sessionManager.addListener(new SessionManager.Listener() {
                 @Override
-                public void solutionsUpdated(Solution[] solutions) {
-                    for (int i = 0; i < labels.length; i++) {
-                        if (solutions.length >= measures[i].getMinimumWindowSize()) {
-                            int size = Math.min(solutions.length, measures[i].getMaximumWindowSize());
-
-                            Solution[] window = new Solution[size];
-                            for (int j = 0; j < size; j++) {
-                                window[j] = solutions[j];
-                            }
+                public void solutionsChanged(SolutionsChange change) {
+                    if (change.isAppend()) {
+                        statistics.addSolution(change.getSolution());
+                    } else {
+                        statistics.setSolutions(change.getSolutions());
+                    }
 
-                            measures[i].setSolutions(window);
+                    IncrementalStatisticalMeasure[] measures = statistics.getMeasures();
+                    for (int i = 0; i < labels.length; i++) {
+                        if (statistics.isAvailable(i)) {
                             labels[i].setText(SolutionUtils.formatMinutes(measures[i].getValue()));
                         } else {
                             labels[i].setText("XX:XX.XX");
@@ -527,6 +556,11 @@ public class MainFrame extends JFrame {
                 public void scrambleChanged(Scramble scramble) {
                     setScramble(scramble);
                 }
+
+                @Override
+                public void scramblePreparing(Scramble scramble) {
+                    setScramble(scramble);
+                }
             });
         }
 
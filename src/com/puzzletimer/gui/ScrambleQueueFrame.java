@@ -13,6 +13,9 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import javax.swing.JButton;
 import javax.swing.JComboBox;
@@ -21,11 +24,13 @@ import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JSpinner;
 import javax.swing.JTable;
 import javax.swing.KeyStroke;
 import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -38,6 +43,7 @@ import com.puzzletimer.models.Category;
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.parsers.ScrambleParser;
 import com.puzzletimer.parsers.ScrambleParserProvider;
+import com.puzzletimer.scramblers.ScrambleBatch;
 import com.puzzletimer.scramblers.Scrambler;
 import com.puzzletimer.scramblers.ScramblerProvider;
 import com.puzzletimer.state.CategoryManager;
@@ -54,8 +60,14 @@ public class ScrambleQueueFrame extends JFrame {
     private JComboBox comboBoxScrambler;
     private JSpinner spinnerNumberOfScrambles;
     private JButton buttonImportFromScrambler;
+    private JProgressBar progressBarImport;
     private JButton buttonOk;
 
+    private ExecutorService scrambleExecutor;
+    private ScrambleBatch scrambleBatch;
+    private ArrayList<Scramble> generatedScrambles;
+    private boolean flushScheduled;
+
     public ScrambleQueueFrame(
             final ScrambleParserProvider scrambleParserProvider,
             final ScramblerProvider scramblerProvider,
@@ -68,8 +80,30 @@ public class ScrambleQueueFrame extends JFrame {
 
         createComponents();
 
+        this.scrambleExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "scramble-generator");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        this.scrambleBatch = null;
+        this.generatedScrambles = new ArrayList<Scramble>();
+        this.flushScheduled = false;
+
         // on category change
         categoryManager.addListener(new CategoryManager.Listener() {
+            @Override
+            public void currentCategoryChanged(Category category) {
+                // scrambles of the previous category are no longer wanted
+                if (ScrambleQueueFrame.this.scrambleBatch != null) {
+                    ScrambleQueueFrame.this.scrambleBatch.cancel();
+                }
+            }
+
             @Override
             public void categoriesUpdated(Category[] categories, Category currentCategory) {
                 // title
@@ -250,16 +284,45 @@ public class ScrambleQueueFrame extends JFrame {
         this.buttonImportFromScrambler.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent event) {
+                // the button cancels the running import
+                if (ScrambleQueueFrame.this.scrambleBatch != null) {
+                    ScrambleQueueFrame.this.scrambleBatch.cancel();
+                    return;
+                }
+
                 Scrambler scrambler =
                     (Scrambler) ScrambleQueueFrame.this.comboBoxScrambler.getSelectedItem();
+                int nScrambles =
+                    (Integer) ScrambleQueueFrame.this.spinnerNumberOfScrambles.getValue();
 
-                Scramble[] scrambles = new Scramble[
-                    (Integer) ScrambleQueueFrame.this.spinnerNumberOfScrambles.getValue()];
-                for (int i = 0; i < scrambles.length; i++) {
-                    scrambles[i] = scrambler.getNextScramble();
-                }
+                final ScrambleBatch scrambleBatch = new ScrambleBatch(scrambler, nScrambles, new ScrambleBatch.Listener() {
+                    @Override
+                    public void scrambleGenerated(Scramble scramble, int nGenerated, int nScrambles) {
+                        addGeneratedScramble(scramble, scrambleManager);
+                    }
 
-                scrambleManager.addScrambles(scrambles);
+                    @Override
+                    public void batchFinished(int nGenerated, int nScrambles, boolean cancelled) {
+                        SwingUtilities.invokeLater(new Runnable() {
+                            @Override
+                            public void run() {
+                                ScrambleQueueFrame.this.scrambleBatch = null;
+                                ScrambleQueueFrame.this.buttonImportFromScrambler.setText(_("scramble_queue.import"));
+                                ScrambleQueueFrame.this.progressBarImport.setVisible(false);
+                            }
+                        });
+                    }
+                });
+
+                ScrambleQueueFrame.this.scrambleBatch = scrambleBatch;
+                ScrambleQueueFrame.this.buttonImportFromScrambler.setText(_("scramble_queue.cancel"));
+                ScrambleQueueFrame.this.progressBarImport.setMaximum(nScrambles);
+                ScrambleQueueFrame.this.progressBarImport.setValue(0);
+                ScrambleQueueFrame.this.progressBarImport.setVisible(true);
+
+                scrambleBatch.start(
+                    ScrambleQueueFrame.this.scrambleExecutor,
+                    Runtime.getRuntime().availableProcessors());
             }
         });
 
@@ -289,7 +352,7 @@ public class ScrambleQueueFrame extends JFrame {
             new MigLayout(
                 "fill",
                 "[fill][pref!]",
-                "[pref!][]12[pref!][pref!]16[pref!]"));
+                "[pref!][]12[pref!][pref!][pref!]16[pref!]"));
 
         // labelQueue
         add(new JLabel(_("scramble_queue.queue")), "span, wrap");
@@ -341,11 +404,52 @@ public class ScrambleQueueFrame extends JFrame {
         this.buttonImportFromScrambler = new JButton(_("scramble_queue.import"));
         add(this.buttonImportFromScrambler, "wrap");
 
+        // progressBarImport
+        this.progressBarImport = new JProgressBar();
+        this.progressBarImport.setStringPainted(true);
+        this.progressBarImport.setVisible(false);
+        add(this.progressBarImport, "growx, span, wrap, hidemode 3");
+
         // buttonOK
         this.buttonOk = new JButton(_("scramble_queue.ok"));
         add(this.buttonOk, "tag ok, span");
     }
 
+    // scrambles are generated faster than the queue table can be rebuilt, so
+    // they are collected and added to the queue in groups on the EDT
+    private void addGeneratedScramble(Scramble scramble, final ScrambleManager scrambleManager) {
+        synchronized (this.generatedScrambles) {
+            this.generatedScrambles.add(scramble);
+            if (this.flushScheduled) {
+                return;
+            }
+            this.flushScheduled = true;
+        }
+
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                Scramble[] scrambles;
+                synchronized (ScrambleQueueFrame.this.generatedScrambles) {
+                    scrambles = new Scramble[ScrambleQueueFrame.this.generatedScrambles.size()];
+                    ScrambleQueueFrame.this.generatedScrambles.toArray(scrambles);
+                    ScrambleQueueFrame.this.generatedScrambles.clear();
+                    ScrambleQueueFrame.this.flushScheduled = false;
+                }
+
+                // drop scrambles generated after a cancellation
+                ScrambleBatch scrambleBatch = ScrambleQueueFrame.this.scrambleBatch;
+                if (scrambleBatch == null || scrambleBatch.isCancelled()) {
+                    return;
+                }
+
+                scrambleManager.addScrambles(scrambles);
+                ScrambleQueueFrame.this.progressBarImport.setValue(
+                    scrambleBatch.getNumberOfGeneratedScrambles());
+            }
+        });
+    }
+
     private void updateTable(Scramble[] queue) {
         DefaultTableModel tableModel = new DefaultTableModel() {
             @Override
@@ -0,0 +1,71 @@
+package com.puzzletimer.models;
+
+import java.util.HashMap;
+
+// compact codes for the moves of a puzzle family
+//
+// the code of a move is its index in the family's list of moves, so
+// sequences can be stored as byte arrays and resolved by array lookups
+public class MoveNotation {
+    public static final MoveNotation RUBIKS_CUBE = new MoveNotation(new String[] {
+        "U", "U2", "U'",
+        "D", "D2", "D'",
+        "L", "L2", "L'",
+        "R", "R2", "R'",
+        "F", "F2", "F'",
+        "B", "B2", "B'",
+    });
+
+    private final String[] moveNames;
+    private final HashMap<String, Byte> moveCodes;
+
+    public MoveNotation(String[] moveNames) {
+        this.moveNames = moveNames;
+        this.moveCodes = new HashMap<String, Byte>();
+        for (int i = 0; i < moveNames.length; i++) {
+            this.moveCodes.put(moveNames[i], (byte) i);
+        }
+    }
+
+    public int getNumberOfMoves() {
+        return this.moveNames.length;
+    }
+
+    public String getMoveName(int moveCode) {
+        return this.moveNames[moveCode];
+    }
+
+    // returns -1 for moves outside the notation
+    public int getMoveCode(String moveName) {
+        Byte moveCode = this.moveCodes.get(moveName);
+        if (moveCode == null) {
+            return -1;
+        }
+
+        return moveCode;
+    }
+
+    // returns null if some move is outside the notation
+    public byte[] encode(String[] sequence) {
+        byte[] moveCodes = new byte[sequence.length];
+        for (int i = 0; i < sequence.length; i++) {
+            Byte moveCode = this.moveCodes.get(sequence[i]);
+            if (moveCode == null) {
+                return null;
+            }
+
+            moveCodes[i] = moveCode;
+        }
+
+        return moveCodes;
+    }
+
+    public String[] decode(byte[] moveCodes) {
+        String[] sequence = new String[moveCodes.length];
+        for (int i = 0; i < moveCodes.length; i++) {
+            sequence[i] = this.moveNames[moveCodes[i]];
+        }
+
+        return sequence;
+    }
+}
@@ -0,0 +1,27 @@
+package com.puzzletimer.models;
+
+import java.util.UUID;
+
+public class PersonalRecord {
+    private final UUID categoryId;
+    private final String measureId;
+    private final long value;
+
+    public PersonalRecord(UUID categoryId, String measureId, long value) {
+        this.categoryId = categoryId;
+        this.measureId = measureId;
+        this.value = value;
+    }
+
+    public UUID getCategoryId() {
+        return this.categoryId;
+    }
+
+    public String getMeasureId() {
+        return this.measureId;
+    }
+
+    public long getValue() {
+        return this.value;
+    }
+}
@@ -5,13 +5,26 @@ import com.puzzletimer.util.StringUtils;
 
 public class Scramble {
     private final String scramblerId;
-    private final String[] sequence;
-    private final String rawSequence;
+    private volatile MoveNotation notation;
+    private volatile byte[] moveCodes;
+    private volatile String[] sequence;
+    private volatile String rawSequence;
 
     public Scramble(String scramblerId, String[] sequence) {
         this.scramblerId = scramblerId;
+        this.notation = null;
+        this.moveCodes = null;
         this.sequence = sequence;
-        this.rawSequence = StringUtils.join(" ", sequence);
+        this.rawSequence = null;
+    }
+
+    // the move names are only built when the scramble is displayed
+    public Scramble(String scramblerId, MoveNotation notation, byte[] moveCodes) {
+        this.scramblerId = scramblerId;
+        this.notation = notation;
+        this.moveCodes = moveCodes;
+        this.sequence = null;
+        this.rawSequence = null;
     }
 
     public String getScramblerId() {
@@ -19,10 +32,34 @@ public class Scramble {
     }
 
     public String[] getSequence() {
+        if (this.sequence == null) {
+            this.sequence = this.notation.decode(this.moveCodes);
+        }
+
         return this.sequence;
     }
 
     public String getRawSequence() {
+        if (this.rawSequence == null) {
+            this.rawSequence = StringUtils.join(" ", getSequence());
+        }
+
         return this.rawSequence;
     }
+
+    // the moves as codes of the given notation, or null if some move is
+    // outside of it. scrambles built from move names are encoded only once
+    public byte[] getMoveCodes(MoveNotation notation) {
+        if (notation == this.notation) {
+            return this.moveCodes;
+        }
+
+        byte[] moveCodes = notation.encode(getSequence());
+        if (this.notation == null) {
+            this.moveCodes = moveCodes;
+            this.notation = notation;
+        }
+
+        return moveCodes;
+    }
 }
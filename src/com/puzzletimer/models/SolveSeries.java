@@ -0,0 +1,36 @@
+package com.puzzletimer.models;
+
+import java.util.UUID;
+
+// read-only view of solutions, oldest first, ordered by start and then by
+// id. positional access takes constant time. the series may be changed by
+// its owner between calls
+public interface SolveSeries {
+    byte NO_PENALTY = 0;
+    byte PLUS_TWO = 1;
+    byte DNF = 2;
+
+    int size();
+    long getStart(int index);
+    long getElapsedTime(int index);
+    byte getPenalty(int index);
+    Solution getSolution(int index);
+    UUID getSolutionId(int index);
+
+    // newest first
+    Solution[] getSolutions();
+
+    // elapsed time with the penalty applied, Long.MAX_VALUE for DNFs
+    long getRealTime(int index);
+
+    // copies the real times from start (inclusive) to end (exclusive) into
+    // times, and returns how many were copied
+    int getRealTimes(int start, int end, long[] times, boolean filterDNF);
+
+    // position of the solution, or -(insertion point) - 1 if it isn't in
+    // the series
+    int indexOf(Solution solution);
+
+    // position of the solution with the given id, or -1
+    int indexOf(UUID solutionId);
+}
@@ -2,13 +2,24 @@ package com.puzzletimer.models;
 
 import java.util.Date;
 
+// the start and end are wall-clock times, for display and ordering. the
+// elapsed time is kept separately, in nanoseconds, so that it can be
+// measured with a monotonic clock and isn't affected by clock adjustments
 public class Timing {
     private final Date start;
     private final Date end;
+    private final long elapsedNanoTime;
 
     public Timing(Date start, Date end) {
         this.start = start;
         this.end = end;
+        this.elapsedNanoTime = 1000000L * (end.getTime() - start.getTime());
+    }
+
+    public Timing(Date start, long elapsedNanoTime) {
+        this.start = start;
+        this.end = new Date(start.getTime() + elapsedNanoTime / 1000000L);
+        this.elapsedNanoTime = elapsedNanoTime;
     }
 
     public Date getStart() {
@@ -19,14 +30,12 @@ public class Timing {
         return this.end;
     }
 
-    public long getElapsedTime() {
-        long elapsedTime = this.end == null ?
-            new Date().getTime() - this.start.getTime() :
-            this.end.getTime() - this.start.getTime();
+    public long getElapsedNanoTime() {
+        return this.elapsedNanoTime;
+    }
 
+    public long getElapsedTime() {
         // truncate to centiseconds
-        elapsedTime = 10 * (elapsedTime / 10);
-
-        return elapsedTime;
+        return 10 * (this.elapsedNanoTime / 10000000L);
     }
 }
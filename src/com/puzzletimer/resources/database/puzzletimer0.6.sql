@@ -0,0 +1,13 @@
+BEGIN TRANSACTION;
+
+-- configuration
+
+INSERT INTO CONFIGURATION VALUES
+    ('SCRAMBLE-POOL-SIZE', '5');
+
+
+-- version
+
+UPDATE CONFIGURATION SET VALUE = '0.6' WHERE KEY = 'VERSION';
+
+COMMIT;
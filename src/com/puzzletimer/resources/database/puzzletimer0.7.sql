@@ -0,0 +1,19 @@
+BEGIN TRANSACTION;
+
+-- personal records
+
+CREATE TABLE PERSONAL_RECORD(
+    CATEGORY_ID UUID,
+    MEASURE_ID VARCHAR(128),
+    VALUE BIGINT,
+
+    PRIMARY KEY(CATEGORY_ID, MEASURE_ID),
+    FOREIGN KEY(CATEGORY_ID) REFERENCES CATEGORY(CATEGORY_ID) ON DELETE CASCADE
+);
+
+
+-- version
+
+UPDATE CONFIGURATION SET VALUE = '0.7' WHERE KEY = 'VERSION';
+
+COMMIT;
@@ -15,6 +15,10 @@ public class EmptyScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+    }
+
     @Override
     public Scramble getNextScramble() {
         return new Scramble(
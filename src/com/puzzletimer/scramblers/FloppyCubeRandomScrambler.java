@@ -1,18 +1,16 @@
 package com.puzzletimer.scramblers;
 
-import java.util.Random;
-
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.ScramblerInfo;
 import com.puzzletimer.solvers.FloppyCubeSolver;
 
 public class FloppyCubeRandomScrambler implements Scrambler {
     private ScramblerInfo scramblerInfo;
-    private Random random;
+    private PerThreadRandom random;
 
     public FloppyCubeRandomScrambler(ScramblerInfo scramblerInfo) {
         this.scramblerInfo = scramblerInfo;
-        this.random = new Random();
+        this.random = new PerThreadRandom();
     }
 
     @Override
@@ -20,12 +18,17 @@ public class FloppyCubeRandomScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+        FloppyCubeSolver.initialize();
+    }
+
     @Override
     public Scramble getNextScramble() {
         return new Scramble(
             getScramblerInfo().getScramblerId(),
             FloppyCubeSolver.generate(
-                FloppyCubeSolver.getRandomState(this.random)));
+                FloppyCubeSolver.getRandomState(this.random.get())));
     }
 
     @Override
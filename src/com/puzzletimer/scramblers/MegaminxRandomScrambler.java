@@ -1,16 +1,14 @@
 package com.puzzletimer.scramblers;
-import java.util.Random;
 
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.ScramblerInfo;
 
-
 public class MegaminxRandomScrambler implements Scrambler {
     private ScramblerInfo scramblerInfo;
-    private Random random;
+    private PerThreadRandom random;
 
     public MegaminxRandomScrambler(ScramblerInfo scramblerInfo) {
-        this.random = new Random();
+        this.random = new PerThreadRandom();
         this.scramblerInfo = scramblerInfo;
     }
 
@@ -19,6 +17,10 @@ public class MegaminxRandomScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+    }
+
     @Override
     public Scramble getNextScramble() {
         String[] sequence = new String[77];
@@ -26,9 +28,9 @@ public class MegaminxRandomScrambler implements Scrambler {
         for (int i = 0; i < 7; i++) {
             for (int j = 0; j < 5; j++) {
                 sequence[11 * i + 2 * j] =
-                    this.random.nextInt(2) == 0 ? "R++" : "R--";
+                    this.random.get().nextInt(2) == 0 ? "R++" : "R--";
                 sequence[11 * i + 2 * j + 1] =
-                    this.random.nextInt(2) == 0 ? "D++" : "D--";
+                    this.random.get().nextInt(2) == 0 ? "D++" : "D--";
             }
 
             sequence[11 * i + 10] = sequence[11 * i + 9] == "D++" ? "U" : "U'";
@@ -0,0 +1,12 @@
+package com.puzzletimer.scramblers;
+
+import java.util.Random;
+
+// random number generator with one instance per thread, so that scramblers
+// can be used from several threads without contending on a shared generator
+class PerThreadRandom extends ThreadLocal<Random> {
+    @Override
+    protected Random initialValue() {
+        return new Random();
+    }
+}
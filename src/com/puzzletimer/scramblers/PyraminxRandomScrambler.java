@@ -1,7 +1,5 @@
 package com.puzzletimer.scramblers;
 
-import java.util.Random;
-
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.ScramblerInfo;
 import com.puzzletimer.solvers.PyraminxSolver;
@@ -9,12 +7,12 @@ import com.puzzletimer.solvers.PyraminxSolver;
 public class PyraminxRandomScrambler implements Scrambler {
     private ScramblerInfo scramblerInfo;
     private PyraminxSolver solver;
-    private Random random;
+    private PerThreadRandom random;
 
     public PyraminxRandomScrambler(ScramblerInfo scramblerInfo, int minScrambleLength) {
         this.scramblerInfo = scramblerInfo;
         this.solver = new PyraminxSolver(minScrambleLength);
-        this.random = new Random();
+        this.random = new PerThreadRandom();
     }
 
     @Override
@@ -22,12 +20,17 @@ public class PyraminxRandomScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+        this.solver.initialize();
+    }
+
     @Override
     public Scramble getNextScramble() {
         return new Scramble(
             getScramblerInfo().getScramblerId(),
             this.solver.generate(
-                this.solver.getRandomState(this.random)));
+                this.solver.getRandomState(this.random.get())));
     }
 
     @Override
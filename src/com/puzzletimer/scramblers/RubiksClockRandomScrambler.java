@@ -1,18 +1,16 @@
 package com.puzzletimer.scramblers;
 
-import java.util.Random;
-
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.ScramblerInfo;
 import com.puzzletimer.solvers.RubiksClockSolver;
 
 public class RubiksClockRandomScrambler implements Scrambler {
     private ScramblerInfo scramblerInfo;
-    private Random random;
+    private PerThreadRandom random;
 
     public RubiksClockRandomScrambler(ScramblerInfo scramblerInfo) {
         this.scramblerInfo = scramblerInfo;
-        this.random = new Random();
+        this.random = new PerThreadRandom();
     }
 
     @Override
@@ -20,11 +18,15 @@ public class RubiksClockRandomScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+    }
+
     @Override
     public Scramble getNextScramble() {
         return new Scramble(
             getScramblerInfo().getScramblerId(),
-            RubiksClockSolver.getRandomSequence(this.random));
+            RubiksClockSolver.getRandomSequence(this.random.get()));
     }
 
     @Override
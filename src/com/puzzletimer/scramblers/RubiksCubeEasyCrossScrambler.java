@@ -1,6 +1,7 @@
 package com.puzzletimer.scramblers;
 import java.util.ArrayList;
 
+import com.puzzletimer.models.MoveNotation;
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.ScramblerInfo;
 import com.puzzletimer.solvers.RubiksCubeCrossSolver;
@@ -29,6 +30,12 @@ public class RubiksCubeEasyCrossScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+        RubiksCubeCrossSolver.initialize();
+        RubiksCubeSolver.initialize();
+    }
+
     @Override
     public Scramble getNextScramble() {
         State x = new State(
@@ -46,7 +53,8 @@ public class RubiksCubeEasyCrossScrambler implements Scrambler {
             if (solution.get(0).length <= this.maxDistance) {
                 return new Scramble(
                     getScramblerInfo().getScramblerId(),
-                    RubiksCubeSolver.generate(state));
+                    MoveNotation.RUBIKS_CUBE,
+                    RubiksCubeSolver.generateMoveCodes(state));
             }
         }
     }
@@ -1,7 +1,6 @@
 package com.puzzletimer.scramblers;
 
 import java.util.HashMap;
-import java.util.Random;
 
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.ScramblerInfo;
@@ -9,11 +8,11 @@ import com.puzzletimer.solvers.RubiksCubeRUSolver;
 
 public class RubiksCubeLUScrambler implements Scrambler {
     private ScramblerInfo scramblerInfo;
-    private Random random;
+    private PerThreadRandom random;
 
     public RubiksCubeLUScrambler(ScramblerInfo scramblerInfo) {
         this.scramblerInfo = scramblerInfo;
-        this.random = new Random();
+        this.random = new PerThreadRandom();
     }
 
     @Override
@@ -21,6 +20,11 @@ public class RubiksCubeLUScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+        RubiksCubeRUSolver.initialize();
+    }
+
     @Override
     public Scramble getNextScramble() {
         HashMap<String, String> mirror = new HashMap<String, String>();
@@ -33,7 +37,7 @@ public class RubiksCubeLUScrambler implements Scrambler {
 
         String[] sequence =
             RubiksCubeRUSolver.generate(
-                RubiksCubeRUSolver.getRandomState(this.random));
+                RubiksCubeRUSolver.getRandomState(this.random.get()));
         for (int i = 0; i < sequence.length; i++) {
             sequence[i] = mirror.get(sequence[i]);
         }
@@ -1,18 +1,16 @@
 package com.puzzletimer.scramblers;
 
-import java.util.Random;
-
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.ScramblerInfo;
 import com.puzzletimer.solvers.RubiksCubeRUSolver;
 
 public class RubiksCubeRUScrambler implements Scrambler {
     private ScramblerInfo scramblerInfo;
-    private Random random;
+    private PerThreadRandom random;
 
     public RubiksCubeRUScrambler(ScramblerInfo scramblerInfo) {
         this.scramblerInfo = scramblerInfo;
-        this.random = new Random();
+        this.random = new PerThreadRandom();
     }
 
     @Override
@@ -20,12 +18,17 @@ public class RubiksCubeRUScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+        RubiksCubeRUSolver.initialize();
+    }
+
     @Override
     public Scramble getNextScramble() {
         return new Scramble(
             getScramblerInfo().getScramblerId(),
             RubiksCubeRUSolver.generate(
-                RubiksCubeRUSolver.getRandomState(this.random)));
+                RubiksCubeRUSolver.getRandomState(this.random.get())));
     }
 
     @Override
@@ -1,9 +1,8 @@
 package com.puzzletimer.scramblers;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Random;
 
+import com.puzzletimer.models.MoveNotation;
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.ScramblerInfo;
 import com.puzzletimer.solvers.RubiksCubeSolver;
@@ -14,7 +13,11 @@ public class RubiksCubeRandomScrambler implements Scrambler {
     private byte[] cornersOrientation;
     private byte[] edgesPermutation;
     private byte[] edgesOrientation;
-    private Random random;
+    private byte[] freeCorners;
+    private byte[] freeCornersPositions;
+    private byte[] freeEdges;
+    private byte[] freeEdgesPositions;
+    private PerThreadRandom random;
 
     public RubiksCubeRandomScrambler(
             ScramblerInfo scramblerInfo,
@@ -27,7 +30,11 @@ public class RubiksCubeRandomScrambler implements Scrambler {
         this.cornersOrientation = cornersOrientation;
         this.edgesPermutation = edgesPermutation;
         this.edgesOrientation = edgesOrientation;
-        this.random = new Random();
+        this.freeCorners = freePieces(cornersPermutation);
+        this.freeCornersPositions = freePositions(cornersPermutation);
+        this.freeEdges = freePieces(edgesPermutation);
+        this.freeEdgesPositions = freePositions(edgesPermutation);
+        this.random = new PerThreadRandom();
     }
 
     @Override
@@ -35,6 +42,11 @@ public class RubiksCubeRandomScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+        RubiksCubeSolver.initialize();
+    }
+
     private int permutationSign(byte[] permutation) {
         int nInversions = 0;
         for (int i = 0; i < permutation.length; i++) {
@@ -48,115 +60,111 @@ public class RubiksCubeRandomScrambler implements Scrambler {
         return nInversions % 2 == 0 ? 1 : -1;
     }
 
-    public RubiksCubeSolver.State getRandomState() {
-        byte[] cornersPermutation;
-        byte[] cornersOrientation;
-        byte[] edgesPermutation;
-        byte[] edgesOrientation;
-
-        do {
-            // corners permutation
-            ArrayList<Byte> undefinedCornersPermutation = new ArrayList<Byte>();
-            for (int i = 0; i < this.cornersPermutation.length; i++) {
-                undefinedCornersPermutation.add((byte) i);
+    // positions left undefined by a permutation
+    private static byte[] freePositions(byte[] permutation) {
+        int nFreePositions = 0;
+        for (int i = 0; i < permutation.length; i++) {
+            if (permutation[i] < 0) {
+                nFreePositions++;
             }
+        }
 
-            for (int i = 0; i < this.cornersPermutation.length; i++) {
-                if (this.cornersPermutation[i] >= 0) {
-                    undefinedCornersPermutation.remove((Byte) this.cornersPermutation[i]);
-                }
+        byte[] freePositions = new byte[nFreePositions];
+        for (int i = 0, j = 0; i < permutation.length; i++) {
+            if (permutation[i] < 0) {
+                freePositions[j++] = (byte) i;
             }
+        }
 
-            Collections.shuffle(undefinedCornersPermutation, this.random);
+        return freePositions;
+    }
 
-            cornersPermutation = new byte[this.cornersPermutation.length];
-            for (int i = 0; i < cornersPermutation.length; i++) {
-                if (this.cornersPermutation[i] >= 0) {
-                    cornersPermutation[i] = this.cornersPermutation[i];
-                } else {
-                    cornersPermutation[i] = undefinedCornersPermutation.get(0);
-                    undefinedCornersPermutation.remove(0);
-                }
+    // pieces not placed by a permutation
+    private static byte[] freePieces(byte[] permutation) {
+        boolean[] isPlaced = new boolean[permutation.length];
+        for (int i = 0; i < permutation.length; i++) {
+            if (permutation[i] >= 0) {
+                isPlaced[permutation[i]] = true;
             }
+        }
 
-            // corners orientation
-            int nUndefinedCornerOrientations = 0;
-            for (int i = 0; i < this.cornersOrientation.length; i++) {
-                if (this.cornersOrientation[i] < 0) {
-                    nUndefinedCornerOrientations++;
-                }
+        byte[] freePieces = new byte[freePositions(permutation).length];
+        for (int i = 0, j = 0; i < permutation.length; i++) {
+            if (!isPlaced[i]) {
+                freePieces[j++] = (byte) i;
             }
+        }
 
-            int cornersOrientationSum = 0;
-            cornersOrientation = new byte[this.cornersOrientation.length];
-            for (int i = 0; i < cornersOrientation.length; i++) {
-                if (this.cornersOrientation[i] >= 0) {
-                    cornersOrientation[i] = this.cornersOrientation[i];
-                } else {
-                    if (nUndefinedCornerOrientations == 1) {
-                        cornersOrientation[i] = (byte) ((3 - cornersOrientationSum) % 3);
-                    } else {
-                        cornersOrientation[i] = (byte) this.random.nextInt(3);
-                    }
-
-                    nUndefinedCornerOrientations--;
-                }
+        return freePieces;
+    }
 
-                cornersOrientationSum += cornersOrientation[i];
-                cornersOrientationSum %= 3;
-            }
+    // places the free pieces on the free positions in a uniformly random
+    // order (inside-out fisher-yates shuffle)
+    private static byte[] randomPermutation(byte[] permutation, byte[] freePositions, byte[] freePieces, Random random) {
+        byte[] randomPermutation = permutation.clone();
+        for (int i = 0; i < freePositions.length; i++) {
+            int j = random.nextInt(i + 1);
+            randomPermutation[freePositions[i]] = randomPermutation[freePositions[j]];
+            randomPermutation[freePositions[j]] = freePieces[i];
+        }
 
-            // edges permutation
-            ArrayList<Byte> undefinedEdgesPermutation = new ArrayList<Byte>();
-            for (int i = 0; i < this.edgesPermutation.length; i++) {
-                undefinedEdgesPermutation.add((byte) i);
-            }
+        return randomPermutation;
+    }
 
-            for (int i = 0; i < this.edgesPermutation.length; i++) {
-                if (this.edgesPermutation[i] >= 0) {
-                    undefinedEdgesPermutation.remove((Byte) this.edgesPermutation[i]);
-                }
+    // fills the undefined orientations at random, keeping the sum of all
+    // orientations a multiple of nValues
+    private static byte[] randomOrientation(byte[] orientation, int nValues, Random random) {
+        int nUndefinedOrientations = 0;
+        for (int i = 0; i < orientation.length; i++) {
+            if (orientation[i] < 0) {
+                nUndefinedOrientations++;
             }
+        }
 
-            Collections.shuffle(undefinedEdgesPermutation, this.random);
-
-            edgesPermutation = new byte[this.edgesPermutation.length];
-            for (int i = 0; i < edgesPermutation.length; i++) {
-                if (this.edgesPermutation[i] >= 0) {
-                    edgesPermutation[i] = this.edgesPermutation[i];
+        int orientationSum = 0;
+        byte[] randomOrientation = new byte[orientation.length];
+        for (int i = 0; i < randomOrientation.length; i++) {
+            if (orientation[i] >= 0) {
+                randomOrientation[i] = orientation[i];
+            } else {
+                if (nUndefinedOrientations == 1) {
+                    randomOrientation[i] = (byte) ((nValues - orientationSum) % nValues);
                 } else {
-                    edgesPermutation[i] = undefinedEdgesPermutation.get(0);
-                    undefinedEdgesPermutation.remove(0);
+                    randomOrientation[i] = (byte) random.nextInt(nValues);
                 }
-            }
 
-            // edges orientation
-            int nUndefinedEdgeOrientations = 0;
-            for (int i = 0; i < this.edgesOrientation.length; i++) {
-                if (this.edgesOrientation[i] < 0) {
-                    nUndefinedEdgeOrientations++;
-                }
+                nUndefinedOrientations--;
             }
 
-            int edgesOrientationSum = 0;
-            edgesOrientation = new byte[this.edgesOrientation.length];
-            for (int i = 0; i < edgesOrientation.length; i++) {
-                if (this.edgesOrientation[i] >= 0) {
-                    edgesOrientation[i] = this.edgesOrientation[i];
-                } else {
-                    if (nUndefinedEdgeOrientations == 1) {
-                        edgesOrientation[i] = (byte) ((2 - edgesOrientationSum) % 2);
-                    } else {
-                        edgesOrientation[i] = (byte) this.random.nextInt(2);
-                    }
+            orientationSum += randomOrientation[i];
+            orientationSum %= nValues;
+        }
 
-                    nUndefinedEdgeOrientations--;
-                }
+        return randomOrientation;
+    }
 
-                edgesOrientationSum += edgesOrientation[i];
-                edgesOrientationSum %= 2;
+    public RubiksCubeSolver.State getRandomState() {
+        Random random = this.random.get();
+
+        byte[] cornersPermutation =
+            randomPermutation(this.cornersPermutation, this.freeCornersPositions, this.freeCorners, random);
+        byte[] cornersOrientation =
+            randomOrientation(this.cornersOrientation, 3, random);
+        byte[] edgesPermutation =
+            randomPermutation(this.edgesPermutation, this.freeEdgesPositions, this.freeEdges, random);
+        byte[] edgesOrientation =
+            randomOrientation(this.edgesOrientation, 2, random);
+
+        // swapping two free pieces pairs up the permutations of either parity,
+        // so fixing the parity this way keeps the distribution uniform. when no
+        // two pieces are free, the parities are set by the scrambler's definition
+        if (permutationSign(cornersPermutation) != permutationSign(edgesPermutation)) {
+            if (this.freeEdgesPositions.length >= 2) {
+                swap(edgesPermutation, this.freeEdgesPositions[0], this.freeEdgesPositions[1]);
+            } else if (this.freeCornersPositions.length >= 2) {
+                swap(cornersPermutation, this.freeCornersPositions[0], this.freeCornersPositions[1]);
             }
-        } while (permutationSign(cornersPermutation) != permutationSign(edgesPermutation));
+        }
 
         return new RubiksCubeSolver.State(
             cornersPermutation,
@@ -165,11 +173,18 @@ public class RubiksCubeRandomScrambler implements Scrambler {
             edgesOrientation);
     }
 
+    private static void swap(byte[] permutation, int i, int j) {
+        byte temp = permutation[i];
+        permutation[i] = permutation[j];
+        permutation[j] = temp;
+    }
+
     @Override
     public Scramble getNextScramble() {
         return new Scramble(
             getScramblerInfo().getScramblerId(),
-            RubiksCubeSolver.generate(getRandomState()));
+            MoveNotation.RUBIKS_CUBE,
+            RubiksCubeSolver.generateMoveCodes(getRandomState()));
     }
 
     @Override
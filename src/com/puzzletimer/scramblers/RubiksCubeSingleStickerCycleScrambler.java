@@ -1,5 +1,6 @@
 package com.puzzletimer.scramblers;
 
+import com.puzzletimer.models.MoveNotation;
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.ScramblerInfo;
 import com.puzzletimer.solvers.RubiksCubeSolver;
@@ -23,6 +24,11 @@ public class RubiksCubeSingleStickerCycleScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+        RubiksCubeSolver.initialize();
+    }
+
     @Override
     public Scramble getNextScramble() {
         RubiksCubeSolver.State state = null;
@@ -95,7 +101,8 @@ public class RubiksCubeSingleStickerCycleScrambler implements Scrambler {
 
         return new Scramble(
             getScramblerInfo().getScramblerId(),
-            RubiksCubeSolver.generate(state));
+            MoveNotation.RUBIKS_CUBE,
+            RubiksCubeSolver.generateMoveCodes(state));
     }
 
     @Override
@@ -1,18 +1,16 @@
 package com.puzzletimer.scramblers;
 
-import java.util.Random;
-
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.ScramblerInfo;
 import com.puzzletimer.solvers.RubiksDominoSolver;
 
 public class RubiksDominoRandomScrambler implements Scrambler {
     private ScramblerInfo scramblerInfo;
-    private Random random;
+    private PerThreadRandom random;
 
     public RubiksDominoRandomScrambler(ScramblerInfo scramblerInfo) {
         this.scramblerInfo = scramblerInfo;
-        this.random = new Random();
+        this.random = new PerThreadRandom();
     }
 
     @Override
@@ -20,12 +18,17 @@ public class RubiksDominoRandomScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+        RubiksDominoSolver.initialize();
+    }
+
     @Override
     public Scramble getNextScramble() {
         return new Scramble(
             getScramblerInfo().getScramblerId(),
             RubiksDominoSolver.generate(
-                RubiksDominoSolver.getRandomState(this.random)));
+                RubiksDominoSolver.getRandomState(this.random.get())));
     }
 
     @Override
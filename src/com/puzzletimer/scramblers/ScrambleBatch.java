@@ -0,0 +1,91 @@
+package com.puzzletimer.scramblers;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.puzzletimer.models.Scramble;
+
+// generates a number of scrambles in parallel
+//
+// the work is shared by a fixed number of workers that take scrambles from a
+// common counter, so fast and slow scrambles balance out. listeners are
+// called from the worker threads, in completion order.
+public class ScrambleBatch {
+    public static class Listener {
+        public void scrambleGenerated(Scramble scramble, int nGenerated, int nScrambles) { }
+        public void batchFinished(int nGenerated, int nScrambles, boolean cancelled) { }
+    }
+
+    private Scrambler scrambler;
+    private int nScrambles;
+    private Listener listener;
+    private AtomicInteger nStarted;
+    private AtomicInteger nGenerated;
+    private AtomicInteger nRunningWorkers;
+    private volatile boolean cancelled;
+
+    public ScrambleBatch(Scrambler scrambler, int nScrambles, Listener listener) {
+        this.scrambler = scrambler;
+        this.nScrambles = nScrambles;
+        this.listener = listener;
+        this.nStarted = new AtomicInteger();
+        this.nGenerated = new AtomicInteger();
+        this.nRunningWorkers = new AtomicInteger();
+        this.cancelled = false;
+    }
+
+    public int getNumberOfScrambles() {
+        return this.nScrambles;
+    }
+
+    public int getNumberOfGeneratedScrambles() {
+        return this.nGenerated.get();
+    }
+
+    public void start(Executor executor, int nWorkers) {
+        nWorkers = Math.max(1, Math.min(nWorkers, this.nScrambles));
+        this.nRunningWorkers.set(nWorkers);
+
+        for (int i = 0; i < nWorkers; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        work();
+                    } finally {
+                        if (ScrambleBatch.this.nRunningWorkers.decrementAndGet() == 0) {
+                            ScrambleBatch.this.listener.batchFinished(
+                                ScrambleBatch.this.nGenerated.get(),
+                                ScrambleBatch.this.nScrambles,
+                                ScrambleBatch.this.cancelled);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    private void work() {
+        this.scrambler.initialize();
+
+        while (!this.cancelled && this.nStarted.getAndIncrement() < this.nScrambles) {
+            Scramble scramble = this.scrambler.getNextScramble();
+            if (this.cancelled) {
+                break;
+            }
+
+            this.listener.scrambleGenerated(
+                scramble,
+                this.nGenerated.incrementAndGet(),
+                this.nScrambles);
+        }
+    }
+
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+}
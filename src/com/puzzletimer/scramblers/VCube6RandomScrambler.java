@@ -1,7 +1,6 @@
 package com.puzzletimer.scramblers;
 
 import java.util.Arrays;
-import java.util.Random;
 
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.models.ScramblerInfo;
@@ -9,12 +8,12 @@ import com.puzzletimer.models.ScramblerInfo;
 public class VCube6RandomScrambler implements Scrambler {
     private ScramblerInfo scramblerInfo;
     private int scrambleLength;
-    private Random random;
+    private PerThreadRandom random;
 
     public VCube6RandomScrambler(ScramblerInfo scramblerInfo, int scrambleLength) {
         this.scramblerInfo = scramblerInfo;
         this.scrambleLength = scrambleLength;
-        this.random = new Random();
+        this.random = new PerThreadRandom();
     }
 
     @Override
@@ -22,6 +21,10 @@ public class VCube6RandomScrambler implements Scrambler {
         return this.scramblerInfo;
     }
 
+    @Override
+    public void initialize() {
+    }
+
     @Override
     public Scramble getNextScramble() {
         int[] slice = new int[this.scrambleLength];
@@ -29,8 +32,8 @@ public class VCube6RandomScrambler implements Scrambler {
 
         int i = 0;
         while (i < this.scrambleLength) {
-            int s = this.random.nextInt(15);
-            int p = this.random.nextInt(3);
+            int s = this.random.get().nextInt(15);
+            int p = this.random.get().nextInt(3);
 
             boolean ignore = false;
             for (int j = i - 1; j >= 0; j--) {
@@ -0,0 +1,58 @@
+package com.puzzletimer.solvers;
+
+// table of distances modulo 3 stored in two bits per entry
+//
+// the distances of neighboring positions differ by at most one, so a search
+// that knows the exact distance of a position can recover the distance of
+// each neighbor from its residue. this allows tables whose distances don't
+// fit in two bits at half the memory of a pruning table. EMPTY marks entries
+// that haven't been reached yet.
+public class CompactPruningTable {
+    public static final int EMPTY = 3;
+
+    private int size;
+    private byte[] data;
+
+    public CompactPruningTable(int size) {
+        this.size = size;
+        this.data = new byte[(size + 3) / 4];
+        for (int i = 0; i < this.data.length; i++) {
+            this.data[i] = (byte) 0xFF;
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int get(int index) {
+        return (this.data[index >> 2] >> ((index & 3) << 1)) & 3;
+    }
+
+    // distance of a neighbor of a position at the given distance
+    public int getNeighborDistance(int index, int distance) {
+        int difference = get(index) - distance % 3;
+        if (difference == 1 || difference == -2) {
+            return distance + 1;
+        }
+        if (difference == -1 || difference == 2) {
+            return distance - 1;
+        }
+
+        return distance;
+    }
+
+    public void set(int index, int distance) {
+        int shift = (index & 3) << 1;
+        this.data[index >> 2] = (byte) ((this.data[index >> 2] & ~(3 << shift)) | ((distance % 3) << shift));
+    }
+
+    // memory used by the entries, in bytes
+    public long getMemorySize() {
+        return this.data.length;
+    }
+
+    byte[] getData() {
+        return this.data;
+    }
+}
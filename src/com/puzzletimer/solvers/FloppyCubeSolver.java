@@ -46,17 +46,12 @@ public class FloppyCubeSolver {
     private static int N_CORNERS_PERMUTATION = 24;
     private static int N_EDGES_ORIENTATION = 16;
 
-    private static int distance[][];
+    private static PruningTable distance;
 
     static {
-        distance = new int[N_CORNERS_PERMUTATION][N_EDGES_ORIENTATION];
-        for (int i = 0; i < distance.length; i++) {
-            for (int j = 0; j < distance[i].length; j++) {
-                distance[i][j] = -1;
-            }
-        }
+        distance = new PruningTable(N_CORNERS_PERMUTATION, N_EDGES_ORIENTATION);
 
-        distance[0][0] = 0;
+        distance.set(0, 0, 0);
 
         int nVisited;
         int depth = 0;
@@ -65,7 +60,7 @@ public class FloppyCubeSolver {
 
             for (int i = 0; i < N_CORNERS_PERMUTATION; i++) {
                 for (int j = 0; j < N_EDGES_ORIENTATION; j++) {
-                    if (distance[i][j] == depth) {
+                    if (distance.get(i, j) == depth) {
                         State state = new State(
                             IndexMapping.indexToPermutation(i, 4),
                             IndexMapping.indexToOrientation(j, 2, 4));
@@ -78,8 +73,8 @@ public class FloppyCubeSolver {
                             int edgesOrientationIndex =
                                 IndexMapping.orientationToIndex(newState.edgesOrientation, 2);
 
-                            if (distance[cornersPermutationIndex][edgesOrientationIndex] == -1) {
-                                distance[cornersPermutationIndex][edgesOrientationIndex] = depth + 1;
+                            if (distance.get(cornersPermutationIndex, edgesOrientationIndex) == PruningTable.EMPTY) {
+                                distance.set(cornersPermutationIndex, edgesOrientationIndex, depth + 1);
                                 nVisited++;
                             }
                         }
@@ -88,7 +83,11 @@ public class FloppyCubeSolver {
             }
 
             depth++;
-        } while (nVisited > 0);
+        } while (nVisited > 0 && depth < PruningTable.EMPTY - 1);
+    }
+
+    public static void initialize() {
+        // the tables are built by the static initializers on first access
     }
 
     public static String[] solve(State state) {
@@ -100,7 +99,7 @@ public class FloppyCubeSolver {
             int edgesOrientationIndex =
                 IndexMapping.orientationToIndex(state.edgesOrientation, 2);
 
-            if (distance[cornersPermutationIndex][edgesOrientationIndex] == 0) {
+            if (distance.get(cornersPermutationIndex, edgesOrientationIndex) == 0) {
                 break;
             }
 
@@ -112,8 +111,8 @@ public class FloppyCubeSolver {
                 int nextEdgesOrientationIndex =
                     IndexMapping.orientationToIndex(nextState.edgesOrientation, 2);
 
-                if (distance[nextCornersPermutationIndex][nextEdgesOrientationIndex] ==
-                    distance[cornersPermutationIndex][edgesOrientationIndex] - 1) {
+                if (distance.get(nextCornersPermutationIndex, nextEdgesOrientationIndex) ==
+                    distance.get(cornersPermutationIndex, edgesOrientationIndex) - 1) {
                     sequence.add(move);
                     state = nextState;
                     break;
@@ -145,7 +144,7 @@ public class FloppyCubeSolver {
             int edgesOrientationIndex =
                 random.nextInt(N_EDGES_ORIENTATION);
 
-            if (distance[cornersPermutationIndex][edgesOrientationIndex] >= 0) {
+            if (distance.get(cornersPermutationIndex, edgesOrientationIndex) != PruningTable.EMPTY) {
                 byte[] cornersPermutation =
                     IndexMapping.indexToPermutation(cornersPermutationIndex, 4);
                 byte[] edgesOrientation =
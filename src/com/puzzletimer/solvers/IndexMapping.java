@@ -1,10 +1,59 @@
 package com.puzzletimer.solvers;
 
+// the permutation functions keep track of the values seen so far in an int
+// bitmask. the number of smaller values to the right of an entry is then the
+// number of smaller values overall minus those to its left, both given by a
+// bit count. entries that are not distinct values from 0 to 31 are ranked by
+// comparing them with each other instead
 public class IndexMapping {
-    // permutation
-    public static int permutationToIndex(byte[] permutation) {
+    // nthBit[12 * mask + n] is the position of the n-th set bit of a 12 bit mask
+    private static byte[] nthBit;
+
+    static {
+        nthBit = new byte[12 << 12];
+        for (int mask = 0; mask < 1 << 12; mask++) {
+            for (int i = 0, n = 0; i < 12; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    nthBit[12 * mask + n++] = (byte) i;
+                }
+            }
+        }
+    }
+
+    private static int nthBit(int mask, int n) {
+        if (mask < 1 << 12) {
+            return nthBit[12 * mask + n];
+        }
+
+        for (;;) {
+            int bit = Integer.numberOfTrailingZeros(mask);
+            if (n-- == 0) {
+                return bit;
+            }
+            mask &= mask - 1;
+        }
+    }
+
+    // bitmask of the values of a permutation, or -1 if they are not distinct
+    // values from 0 to 31
+    private static int valuesMask(byte[] permutation) {
+        int values = 0;
+        for (int i = 0; i < permutation.length; i++) {
+            if (permutation[i] < 0 || permutation[i] > 31 || (values & (1 << permutation[i])) != 0) {
+                return -1;
+            }
+
+            values |= 1 << permutation[i];
+        }
+
+        return values;
+    }
+
+    // index of the first nDigits entries, by comparing them with the entries
+    // to their right
+    private static int permutationToIndex(byte[] permutation, int nDigits) {
         int index = 0;
-        for (int i = 0; i < permutation.length - 1; i++) {
+        for (int i = 0; i < nDigits; i++) {
             index *= permutation.length - i;
             for (int j = i + 1; j < permutation.length; j++) {
                 if (permutation[i] > permutation[j]) {
@@ -16,17 +65,66 @@ public class IndexMapping {
         return index;
     }
 
+    private static int permutationToIndex(byte[] permutation, byte[] movePermutation, int nDigits) {
+        int values = valuesMask(permutation);
+        if (values == -1) {
+            byte[] result = new byte[movePermutation.length];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = permutation[movePermutation[i]];
+            }
+
+            return permutationToIndex(result, nDigits);
+        }
+
+        int index = 0;
+        int seen = 0;
+        for (int i = 0; i < nDigits; i++) {
+            int value = permutation[movePermutation[i]];
+            int smaller = (1 << value) - 1;
+            index *= movePermutation.length - i;
+            index += Integer.bitCount(values & smaller) - Integer.bitCount(seen & smaller);
+            seen |= 1 << value;
+        }
+
+        return index;
+    }
+
+    // permutation
+    public static int permutationToIndex(byte[] permutation) {
+        int values = valuesMask(permutation);
+        if (values == -1) {
+            return permutationToIndex(permutation, permutation.length - 1);
+        }
+
+        int index = 0;
+        int seen = 0;
+        for (int i = 0; i < permutation.length - 1; i++) {
+            int smaller = (1 << permutation[i]) - 1;
+            index *= permutation.length - i;
+            index += Integer.bitCount(values & smaller) - Integer.bitCount(seen & smaller);
+            seen |= 1 << permutation[i];
+        }
+
+        return index;
+    }
+
+    // index of the permutation of a state after a move, without building it
+    public static int permutationToIndex(byte[] permutation, byte[] movePermutation) {
+        return permutationToIndex(permutation, movePermutation, movePermutation.length - 1);
+    }
+
     public static byte[] indexToPermutation(int index, int length) {
         byte[] permutation = new byte[length];
-        permutation[length - 1] = 0;
         for (int i = length - 2; i >= 0; i--) {
             permutation[i] = (byte) (index % (length - i));
             index /= length - i;
-            for (int j = i + 1; j < length; j++) {
-                if (permutation[j] >= permutation[i]) {
-                    permutation[j]++;
-                }
-            }
+        }
+
+        // each digit selects among the values not used yet
+        int unused = (1 << length) - 1;
+        for (int i = 0; i < length; i++) {
+            permutation[i] = (byte) nthBit(unused, permutation[i]);
+            unused &= ~(1 << permutation[i]);
         }
 
         return permutation;
@@ -34,34 +132,43 @@ public class IndexMapping {
 
     // even permutation
     public static int evenPermutationToIndex(byte[] permutation) {
+        int values = valuesMask(permutation);
+        if (values == -1) {
+            return permutationToIndex(permutation, permutation.length - 2);
+        }
+
         int index = 0;
+        int seen = 0;
         for (int i = 0; i < permutation.length - 2; i++) {
+            int smaller = (1 << permutation[i]) - 1;
             index *= permutation.length - i;
-            for (int j = i + 1; j < permutation.length; j++) {
-                if (permutation[i] > permutation[j]) {
-                    index++;
-                }
-            }
+            index += Integer.bitCount(values & smaller) - Integer.bitCount(seen & smaller);
+            seen |= 1 << permutation[i];
         }
 
         return index;
     }
 
+    // index of the even permutation of a state after a move, without building it
+    public static int evenPermutationToIndex(byte[] permutation, byte[] movePermutation) {
+        return permutationToIndex(permutation, movePermutation, movePermutation.length - 2);
+    }
+
     public static byte[] indexToEvenPermutation(int index, int length) {
         int sum = 0;
         byte[] permutation = new byte[length];
-
-        permutation[length - 1] = 1;
-        permutation[length - 2] = 0;
         for (int i = length - 3; i >= 0; i--) {
             permutation[i] = (byte) (index % (length - i));
             sum += permutation[i];
             index /= length - i;
-            for (int j = i + 1; j < length; j++) {
-                if (permutation[j] >= permutation[i]) {
-                    permutation[j]++;
-                }
-            }
+        }
+
+        // each digit selects among the values not used yet. the last two
+        // values go in increasing order, unless that makes the permutation odd
+        int unused = (1 << length) - 1;
+        for (int i = 0; i < length; i++) {
+            permutation[i] = (byte) nthBit(unused, permutation[i]);
+            unused &= ~(1 << permutation[i]);
         }
 
         if (sum % 2 != 0) {
@@ -103,6 +210,16 @@ public class IndexMapping {
         return index;
     }
 
+    // index of the orientation of a state after a move, without building it
+    public static int zeroSumOrientationToIndex(byte[] orientation, byte[] movePermutation, byte[] moveOrientation, int nValues) {
+        int index = 0;
+        for (int i = 0; i < movePermutation.length - 1; i++) {
+            index = nValues * index + (orientation[movePermutation[i]] + moveOrientation[i]) % nValues;
+        }
+
+        return index;
+    }
+
     public static byte[] indexToZeroSumOrientation(int index, int nValues, int length) {
         byte[] orientation = new byte[length];
         orientation[length - 1] = 0;
@@ -118,18 +235,24 @@ public class IndexMapping {
     }
 
     // combinations
-    private static int nChooseK(int n, int k) {
-        int value = 1;
+    private static int[][] nChooseK;
 
-        for (int i = 0; i < k; i++) {
-            value *= n - i;
+    static {
+        nChooseK = new int[32][32];
+        for (int n = 0; n < nChooseK.length; n++) {
+            nChooseK[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                nChooseK[n][k] = nChooseK[n - 1][k - 1] + nChooseK[n - 1][k];
+            }
         }
+    }
 
-        for (int i = 0; i < k; i++) {
-            value /= k - i;
+    private static int nChooseK(int n, int k) {
+        if (k < 0 || k > n) {
+            return 0;
         }
 
-        return value;
+        return nChooseK[n][k];
     }
 
     public static int combinationToIndex(boolean[] combination, int k) {
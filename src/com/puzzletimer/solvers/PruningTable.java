@@ -0,0 +1,70 @@
+package com.puzzletimer.solvers;
+
+// table of distances stored in four bits per entry
+//
+// entries are indexed either directly or by (row, column), with the rows laid
+// out one after the other. EMPTY marks entries that haven't been reached yet;
+// distances of 15 or more are stored as EMPTY as well, which keeps the table
+// usable as a lower bound.
+public class PruningTable {
+    public static final int EMPTY = 0xF;
+
+    private int nRows;
+    private int nColumns;
+    private byte[] data;
+
+    public PruningTable(int nRows, int nColumns) {
+        this.nRows = nRows;
+        this.nColumns = nColumns;
+        this.data = new byte[(nRows * nColumns + 1) / 2];
+        for (int i = 0; i < this.data.length; i++) {
+            this.data[i] = (byte) 0xFF;
+        }
+    }
+
+    public PruningTable(int size) {
+        this(1, size);
+    }
+
+    public int getNumberOfRows() {
+        return this.nRows;
+    }
+
+    public int getNumberOfColumns() {
+        return this.nColumns;
+    }
+
+    public int size() {
+        return this.nRows * this.nColumns;
+    }
+
+    public int get(int index) {
+        return (this.data[index >> 1] >> ((index & 1) << 2)) & 0xF;
+    }
+
+    public int get(int row, int column) {
+        return get(row * this.nColumns + column);
+    }
+
+    public void set(int index, int distance) {
+        if (distance > EMPTY) {
+            distance = EMPTY;
+        }
+
+        int shift = (index & 1) << 2;
+        this.data[index >> 1] = (byte) ((this.data[index >> 1] & ~(0xF << shift)) | (distance << shift));
+    }
+
+    public void set(int row, int column, int distance) {
+        set(row * this.nColumns + column, distance);
+    }
+
+    // memory used by the entries, in bytes
+    public long getMemorySize() {
+        return this.data.length;
+    }
+
+    byte[] getData() {
+        return this.data;
+    }
+}
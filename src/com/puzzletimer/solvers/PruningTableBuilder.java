@@ -0,0 +1,323 @@
+package com.puzzletimer.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// fills pruning tables with a breadth-first search split across threads
+//
+// each depth is found by scanning the table in chunks, one task per chunk.
+// while the table is mostly empty the scan expands the entries of the
+// current depth (forward search); once more than half of the table has been
+// reached it looks for empty entries with a neighbor at the current depth
+// instead (backward search), which stops at the first such neighbor. the
+// backward search assumes that the inverse of every move is also a move.
+//
+// entries are packed into ints while the table is being built so that they
+// can be updated with compare-and-set. compact tables are built the same
+// way, with distances modulo 3.
+public class PruningTableBuilder {
+    public interface Graph {
+        int getNumberOfMoves();
+        int move(int index, int move);
+    }
+
+    private static final int N_CHUNKS_PER_THREAD = 8;
+    private static final int MIN_PARALLEL_SIZE = 65536;
+
+    private static ExecutorService executor = null;
+    private static int nThreads = 0;
+
+    // graph whose positions are tuples of coordinates, each with its own
+    // move table, indexed in row-major order
+    public static Graph product(final int[][]... moveTables) {
+        final int nMoves = moveTables[0][0].length;
+
+        // the common cases avoid the general decoding loop
+        if (moveTables.length == 1) {
+            final int[][] moveTable = moveTables[0];
+
+            return new Graph() {
+                @Override
+                public int getNumberOfMoves() {
+                    return nMoves;
+                }
+
+                @Override
+                public int move(int index, int move) {
+                    return moveTable[index][move];
+                }
+            };
+        }
+
+        if (moveTables.length == 2) {
+            final int[][] rowMove = moveTables[0];
+            final int[][] columnMove = moveTables[1];
+            final int nColumns = columnMove.length;
+
+            return new Graph() {
+                @Override
+                public int getNumberOfMoves() {
+                    return nMoves;
+                }
+
+                @Override
+                public int move(int index, int move) {
+                    int row = index / nColumns;
+                    int column = index - row * nColumns;
+
+                    return rowMove[row][move] * nColumns + columnMove[column][move];
+                }
+            };
+        }
+
+        final int[] sizes = new int[moveTables.length];
+        for (int i = 0; i < moveTables.length; i++) {
+            sizes[i] = moveTables[i].length;
+        }
+
+        return new Graph() {
+            @Override
+            public int getNumberOfMoves() {
+                return nMoves;
+            }
+
+            @Override
+            public int move(int index, int move) {
+                int next = 0;
+                int stride = 1;
+                for (int i = moveTables.length - 1; i >= 0; i--) {
+                    int coordinate = index % sizes[i];
+                    index /= sizes[i];
+
+                    next += moveTables[i][coordinate][move] * stride;
+                    stride *= sizes[i];
+                }
+
+                return next;
+            }
+        };
+    }
+
+    public static PruningTable build(int size, int goal, Graph graph) {
+        return build(1, size, goal, graph);
+    }
+
+    public static PruningTable build(int nRows, int nColumns, int goal, Graph graph) {
+        Entries entries = search(new Entries(nRows * nColumns, 4), goal, graph);
+
+        PruningTable table = new PruningTable(nRows, nColumns);
+        entries.copyTo(table.getData());
+
+        return table;
+    }
+
+    public static CompactPruningTable buildCompact(int size, int goal, Graph graph) {
+        Entries entries = search(new Entries(size, 2), goal, graph);
+
+        CompactPruningTable table = new CompactPruningTable(size);
+        entries.copyTo(table.getData());
+
+        return table;
+    }
+
+    private static Entries search(Entries entries, int goal, Graph graph) {
+        int size = entries.size();
+        entries.set(goal, entries.encode(0));
+
+        int nVisited = 1;
+        for (int depth = 0; depth < entries.getMaximumDepth() && nVisited < size; depth++) {
+            int nNext = scan(entries, graph, depth, nVisited > size / 2);
+            if (nNext == 0) {
+                break;
+            }
+
+            nVisited += nNext;
+        }
+
+        return entries;
+    }
+
+    private static int scan(final Entries entries, final Graph graph, final int depth, final boolean backward) {
+        int size = entries.size();
+        if (size < MIN_PARALLEL_SIZE || getNumberOfThreads() <= 1) {
+            return scan(entries, graph, depth, backward, 0, size);
+        }
+
+        // chunks start on int boundaries
+        int nChunks = getNumberOfThreads() * N_CHUNKS_PER_THREAD;
+        int chunkSize = ((size + nChunks - 1) / nChunks + 15) & ~15;
+
+        ArrayList<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int start = 0; start < size; start += chunkSize) {
+            final int from = start;
+            final int to = Math.min(start + chunkSize, size);
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    return scan(entries, graph, depth, backward, from, to);
+                }
+            });
+        }
+
+        int nNext = 0;
+        try {
+            List<Future<Integer>> results = getExecutor().invokeAll(tasks);
+            for (Future<Integer> result : results) {
+                nNext += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+
+        return nNext;
+    }
+
+    // with distances modulo 3, the entries found at the current depth also
+    // include those three levels up. expanding them again is harmless, as
+    // all of their neighbors have been reached already, and no empty entry
+    // can have them as neighbors.
+    private static int scan(Entries entries, Graph graph, int depth, boolean backward, int from, int to) {
+        int nMoves = graph.getNumberOfMoves();
+        int current = entries.encode(depth);
+        int next = entries.encode(depth + 1);
+        int nNext = 0;
+
+        for (int i = from; i < to; i++) {
+            if (backward) {
+                if (entries.get(i) != entries.getEmpty()) {
+                    continue;
+                }
+
+                for (int j = 0; j < nMoves; j++) {
+                    if (entries.get(graph.move(i, j)) == current) {
+                        entries.set(i, next);
+                        nNext++;
+                        break;
+                    }
+                }
+            } else {
+                if (entries.get(i) != current) {
+                    continue;
+                }
+
+                for (int j = 0; j < nMoves; j++) {
+                    if (entries.set(graph.move(i, j), next)) {
+                        nNext++;
+                    }
+                }
+            }
+        }
+
+        return nNext;
+    }
+
+    // table entries of four bits (distances) or two bits (distances modulo
+    // 3), packed into ints in the same order as the bytes of the tables, low
+    // bits first
+    private static class Entries {
+        private int size;
+        private int bits;
+        private int indexShift;
+        private int indexMask;
+        private int empty;
+        private AtomicIntegerArray words;
+
+        public Entries(int size, int bits) {
+            this.size = size;
+            this.bits = bits;
+            this.indexShift = bits == 4 ? 3 : 4;
+            this.indexMask = (1 << this.indexShift) - 1;
+            this.empty = (1 << bits) - 1;
+
+            this.words = new AtomicIntegerArray((size + this.indexMask) >> this.indexShift);
+            for (int i = 0; i < this.words.length(); i++) {
+                this.words.set(i, -1);
+            }
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        public int getEmpty() {
+            return this.empty;
+        }
+
+        public int getMaximumDepth() {
+            return this.bits == 4 ? PruningTable.EMPTY - 1 : Integer.MAX_VALUE;
+        }
+
+        public int encode(int depth) {
+            return this.bits == 4 ? depth : depth % 3;
+        }
+
+        public int get(int index) {
+            return (this.words.get(index >> this.indexShift) >>> ((index & this.indexMask) * this.bits)) & this.empty;
+        }
+
+        // sets an empty entry; returns false if the entry was already set
+        public boolean set(int index, int value) {
+            int shift = (index & this.indexMask) * this.bits;
+            for (;;) {
+                int word = this.words.get(index >> this.indexShift);
+                if (((word >>> shift) & this.empty) != this.empty) {
+                    return false;
+                }
+
+                int newWord = (word & ~(this.empty << shift)) | (value << shift);
+                if (this.words.compareAndSet(index >> this.indexShift, word, newWord)) {
+                    return true;
+                }
+            }
+        }
+
+        public void copyTo(byte[] data) {
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) (this.words.get(i >> 2) >>> ((i & 3) << 3));
+            }
+        }
+    }
+
+    private static synchronized int getNumberOfThreads() {
+        if (nThreads == 0) {
+            nThreads = Runtime.getRuntime().availableProcessors();
+        }
+
+        return nThreads;
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            final AtomicInteger nCreatedThreads = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(
+                getNumberOfThreads(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "pruning-table-builder-" + nCreatedThreads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        }
+
+        return executor;
+    }
+}
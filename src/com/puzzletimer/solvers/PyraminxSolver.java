@@ -1,5 +1,6 @@
 package com.puzzletimer.solvers;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Random;
@@ -49,8 +50,12 @@ public class PyraminxSolver {
     public final int N_EDGES_PERMUTATIONS = 360;
     public final int N_EDGES_ORIENTATIONS = 32;
 
+    // tables cache
+    private static final String CACHE_FILE_NAME = "puzzletimer.pyraminx.tables";
+    private static final int CACHE_VERSION = 1;
+
     private int minScrambleLength;
-    private boolean initialized;
+    private volatile boolean initialized;
     private State[] tipMoves;
     private String[] tipMoveNames;
     private State[] moves;
@@ -59,17 +64,63 @@ public class PyraminxSolver {
     private int[][] verticesOrientationMove;
     private int[][] edgesPermutationMove;
     private int[][] edgesOrientationMove;
-    private byte[] tipsOrientationDistance;
-    private byte[] verticesOrientationDistance;
-    private byte[] edgesPermutationDistance;
-    private byte[] edgesOrientationDistance;
+    private PruningTable tipsOrientationDistance;
+    private PruningTable distance;
 
     public PyraminxSolver(int minScrambleLength) {
         this.minScrambleLength = minScrambleLength;
         this.initialized = false;
     }
 
-    private void initialize() {
+    public synchronized void initialize() {
+        if (this.initialized) {
+            return;
+        }
+
+        // the tables don't depend on the minimum scramble length
+        PyraminxSolver tables = TableRegistry.get(
+            "PYRAMINX",
+            "PYRAMINX",
+            new TableRegistry.Builder<PyraminxSolver>() {
+                @Override
+                public PyraminxSolver build() {
+                    PyraminxSolver solver = new PyraminxSolver(0);
+                    solver.buildTables();
+                    return solver;
+                }
+
+                @Override
+                public long getMemorySize(PyraminxSolver tables) {
+                    return tables.getMemorySize();
+                }
+            });
+        this.tipMoves = tables.tipMoves;
+        this.tipMoveNames = tables.tipMoveNames;
+        this.moves = tables.moves;
+        this.moveNames = tables.moveNames;
+        this.tipsOrientationMove = tables.tipsOrientationMove;
+        this.verticesOrientationMove = tables.verticesOrientationMove;
+        this.edgesPermutationMove = tables.edgesPermutationMove;
+        this.edgesOrientationMove = tables.edgesOrientationMove;
+        this.tipsOrientationDistance = tables.tipsOrientationDistance;
+        this.distance = tables.distance;
+
+        this.initialized = true;
+    }
+
+    private long getMemorySize() {
+        return
+            TableRegistry.getMemorySize(
+                this.tipsOrientationMove,
+                this.verticesOrientationMove,
+                this.edgesPermutationMove,
+                this.edgesOrientationMove) +
+            TableRegistry.getMemorySize(
+                this.tipsOrientationDistance,
+                this.distance);
+    }
+
+    private void buildTables() {
         State moveu = new State(new byte[] { 1, 0, 0, 0 }, new byte[] { 0, 0, 0, 0 }, new byte[] { 0, 1, 2, 3, 4, 5 }, new byte[] { 0, 0, 0, 0, 0, 0 });
         State movel = new State(new byte[] { 0, 1, 0, 0 }, new byte[] { 0, 0, 0, 0 }, new byte[] { 0, 1, 2, 3, 4, 5 }, new byte[] { 0, 0, 0, 0, 0, 0 });
         State mover = new State(new byte[] { 0, 0, 1, 0 }, new byte[] { 0, 0, 0, 0 }, new byte[] { 0, 1, 2, 3, 4, 5 }, new byte[] { 0, 0, 0, 0, 0, 0 });
@@ -137,7 +188,7 @@ public class PyraminxSolver {
         for (int i = 0; i < this.edgesPermutationMove.length; i++) {
             State state = new State(new byte[4], new byte[4], IndexMapping.indexToEvenPermutation(i, 6), new byte[6]);
             for (int j = 0; j < this.moves.length; j++) {
-                this.edgesPermutationMove[i][j] = IndexMapping.evenPermutationToIndex(state.multiply(this.moves[j]).edgesPermutation);
+                this.edgesPermutationMove[i][j] = IndexMapping.evenPermutationToIndex(state.edgesPermutation, this.moves[j].edgesPermutation);
             }
         }
 
@@ -145,113 +196,42 @@ public class PyraminxSolver {
         for (int i = 0; i < this.edgesOrientationMove.length; i++) {
             State state = new State(new byte[4], new byte[4], new byte[6], IndexMapping.indexToZeroSumOrientation(i, 2, 6));
             for (int j = 0; j < this.moves.length; j++) {
-                this.edgesOrientationMove[i][j] = IndexMapping.zeroSumOrientationToIndex(state.multiply(this.moves[j]).edgesOrientation, 2);
+                this.edgesOrientationMove[i][j] = IndexMapping.zeroSumOrientationToIndex(state.edgesOrientation, this.moves[j].edgesPermutation, this.moves[j].edgesOrientation, 2);
             }
         }
 
         // prune tables
-        this.tipsOrientationDistance = new byte[this.N_TIPS_ORIENTATIONS];
-        for (int i = 0; i < this.tipsOrientationDistance.length; i++) {
-            this.tipsOrientationDistance[i] = -1;
-        }
-        this.tipsOrientationDistance[0] = 0;
-
-        int depth = 0;
-        int nVisited;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < this.tipsOrientationDistance.length; i++) {
-                if (this.tipsOrientationDistance[i] == depth) {
-                    for (int k = 0; k < this.tipMoves.length; k++) {
-                        int next = this.tipsOrientationMove[i][k];
-                        if (this.tipsOrientationDistance[next] < 0) {
-                            this.tipsOrientationDistance[next] = (byte) (depth + 1);
-                            nVisited++;
-                        }
-                    }
-                }
-            }
-
-            depth++;
-        } while (nVisited > 0);
-
-        this.verticesOrientationDistance = new byte[this.N_VERTICES_ORIENTATIONS];
-        for (int i = 0; i < this.verticesOrientationDistance.length; i++) {
-            this.verticesOrientationDistance[i] = -1;
+        this.tipsOrientationDistance = PruningTableBuilder.build(
+            this.N_TIPS_ORIENTATIONS,
+            0,
+            PruningTableBuilder.product(this.tipsOrientationMove));
+
+        // distance table (exact distances of all the positions without tips)
+        File cacheFile = new File(CACHE_FILE_NAME);
+        this.distance = TableCache.load(
+            cacheFile,
+            CACHE_VERSION,
+            1,
+            this.N_VERTICES_ORIENTATIONS * this.N_EDGES_PERMUTATIONS * this.N_EDGES_ORIENTATIONS);
+        if (this.distance == null) {
+            this.distance = PruningTableBuilder.build(
+                this.N_VERTICES_ORIENTATIONS * this.N_EDGES_PERMUTATIONS * this.N_EDGES_ORIENTATIONS,
+                distanceIndex(0, 0, 0),
+                PruningTableBuilder.product(
+                    this.verticesOrientationMove,
+                    this.edgesPermutationMove,
+                    this.edgesOrientationMove));
+
+            TableCache.store(cacheFile, CACHE_VERSION, this.distance);
         }
-        this.verticesOrientationDistance[0] = 0;
-
-        depth = 0;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < this.verticesOrientationDistance.length; i++) {
-                if (this.verticesOrientationDistance[i] == depth) {
-                    for (int k = 0; k < this.moves.length; k++) {
-                        int next = this.verticesOrientationMove[i][k];
-                        if (this.verticesOrientationDistance[next] < 0) {
-                            this.verticesOrientationDistance[next] = (byte) (depth + 1);
-                            nVisited++;
-                        }
-                    }
-                }
-            }
-
-            depth++;
-        } while (nVisited > 0);
-
-        this.edgesPermutationDistance = new byte[this.N_EDGES_PERMUTATIONS];
-        for (int i = 0; i < this.edgesPermutationDistance.length; i++) {
-            this.edgesPermutationDistance[i] = -1;
-        }
-        this.edgesPermutationDistance[0] = 0;
-
-        depth = 0;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < this.edgesPermutationDistance.length; i++) {
-                if (this.edgesPermutationDistance[i] == depth) {
-                    for (int k = 0; k < this.moves.length; k++) {
-                        int next = this.edgesPermutationMove[i][k];
-                        if (this.edgesPermutationDistance[next] < 0) {
-                            this.edgesPermutationDistance[next] = (byte) (depth + 1);
-                            nVisited++;
-                        }
-                    }
-                }
-            }
-
-            depth++;
-        } while (nVisited > 0);
-
-        this.edgesOrientationDistance = new byte[this.N_EDGES_ORIENTATIONS];
-        for (int i = 0; i < this.edgesOrientationDistance.length; i++) {
-            this.edgesOrientationDistance[i] = -1;
-        }
-        this.edgesOrientationDistance[0] = 0;
-
-        depth = 0;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < this.edgesOrientationDistance.length; i++) {
-                if (this.edgesOrientationDistance[i] == depth) {
-                    for (int k = 0; k < this.moves.length; k++) {
-                        int next = this.edgesOrientationMove[i][k];
-                        if (this.edgesOrientationDistance[next] < 0) {
-                            this.edgesOrientationDistance[next] = (byte) (depth + 1);
-                            nVisited++;
-                        }
-                    }
-                }
-            }
+    }
 
-            depth++;
-        } while (nVisited > 0);
+    private int distanceIndex(int verticesOrientation, int edgesPermutation, int edgesOrientation) {
+        int index = verticesOrientation;
+        index = index * this.N_EDGES_PERMUTATIONS + edgesPermutation;
+        index = index * this.N_EDGES_ORIENTATIONS + edgesOrientation;
 
-        this.initialized = true;
+        return index;
     }
 
     private String[] solveTips(State state) {
@@ -278,7 +258,7 @@ public class PyraminxSolver {
             return tipsOrientation == 0;
         }
 
-        if (this.tipsOrientationDistance[tipsOrientation] <= depth) {
+        if (this.tipsOrientationDistance.get(tipsOrientation) <= depth) {
             for (int i = 0; i < this.tipMoves.length; i++) {
                 if (i / 2 == lastVertex) {
                     continue;
@@ -311,6 +291,31 @@ public class PyraminxSolver {
         int edgesOrientation =
             IndexMapping.zeroSumOrientationToIndex(state.edgesOrientation, 2);
 
+        // positions at least as far as the minimum scramble length are solved
+        // optimally by walking down the distance table
+        int distance = this.distance.get(distanceIndex(verticesOrientation, edgesPermutation, edgesOrientation));
+        if (distance >= this.minScrambleLength) {
+            String[] sequence = new String[distance];
+            for (int i = 0; i < sequence.length; i++) {
+                for (int k = 0; k < this.moves.length; k++) {
+                    int nextVerticesOrientation = this.verticesOrientationMove[verticesOrientation][k];
+                    int nextEdgesPermutation = this.edgesPermutationMove[edgesPermutation][k];
+                    int nextEdgesOrientation = this.edgesOrientationMove[edgesOrientation][k];
+
+                    if (this.distance.get(distanceIndex(nextVerticesOrientation, nextEdgesPermutation, nextEdgesOrientation)) == distance - 1 - i) {
+                        sequence[i] = this.moveNames[k];
+                        verticesOrientation = nextVerticesOrientation;
+                        edgesPermutation = nextEdgesPermutation;
+                        edgesOrientation = nextEdgesOrientation;
+                        break;
+                    }
+                }
+            }
+
+            return sequence;
+        }
+
+        // closer positions need longer solutions than the optimal ones
         for (int depth = this.minScrambleLength; ; depth++) {
             ArrayList<String> solution = new ArrayList<String>();
             if (search(verticesOrientation, edgesPermutation, edgesOrientation, depth, solution, -1)) {
@@ -335,9 +340,7 @@ public class PyraminxSolver {
                    edgesOrientation == 0;
         }
 
-        if (this.verticesOrientationDistance[verticesOrientation] <= depth &&
-            this.edgesPermutationDistance[edgesPermutation] <= depth &&
-            this.edgesOrientationDistance[edgesOrientation] <= depth) {
+        if (this.distance.get(distanceIndex(verticesOrientation, edgesPermutation, edgesOrientation)) <= depth) {
             for (int i = 0; i < this.moves.length; i++) {
                 if (i / 2 == lastVertex) {
                     continue;
@@ -153,64 +153,23 @@ public class RubiksCubeCrossSolver {
     }
 
     // distance tables
-    private static byte[] edgesPermutationDistance;
-    private static byte[] edgesOrientationDistance;
+    private static PruningTable edgesPermutationDistance;
+    private static PruningTable edgesOrientationDistance;
 
     static {
-        // edges permutation
-        edgesPermutationDistance = new byte[N_EDGES_COMBINATIONS * N_EDGES_PERMUTATIONS];
-        for (int i = 0; i < edgesPermutationDistance.length; i++) {
-            edgesPermutationDistance[i] = -1;
-        }
-        edgesPermutationDistance[goalEdgesPermutation] = 0;
-
-        int distance = 0;
-        int nVisited = 1;
-        while (nVisited < N_EDGES_COMBINATIONS * N_EDGES_PERMUTATIONS) {
-            for (int i = 0; i < edgesPermutationDistance.length; i++) {
-                if (edgesPermutationDistance[i] != distance) {
-                    continue;
-                }
-
-                for (int j = 0; j < edgesPermutationMove[i].length; j++) {
-                    int next = edgesPermutationMove[i][j];
-                    if (edgesPermutationDistance[next] < 0) {
-                        edgesPermutationDistance[next] = (byte) (distance + 1);
-                        nVisited++;
-                    }
-                }
-            }
-
-            distance++;
-        }
-
-
-        // edges orientation
-        edgesOrientationDistance = new byte[N_EDGES_COMBINATIONS * N_EDGES_ORIENTATIONS];
-        for (int i = 0; i < edgesOrientationDistance.length; i++) {
-            edgesOrientationDistance[i] = -1;
-        }
-        edgesOrientationDistance[goalEdgesOrientation] = 0;
-
-        distance = 0;
-        nVisited = 1;
-        while (nVisited < N_EDGES_COMBINATIONS * N_EDGES_ORIENTATIONS) {
-            for (int i = 0; i < edgesOrientationDistance.length; i++) {
-                if (edgesOrientationDistance[i] != distance) {
-                    continue;
-                }
-
-                for (int j = 0; j < edgesOrientationMove[i].length; j++) {
-                    int next = edgesOrientationMove[i][j];
-                    if (edgesOrientationDistance[next] < 0) {
-                        edgesOrientationDistance[next] = (byte) (distance + 1);
-                        nVisited++;
-                    }
-                }
-            }
+        edgesPermutationDistance = PruningTableBuilder.build(
+            N_EDGES_COMBINATIONS * N_EDGES_PERMUTATIONS,
+            goalEdgesPermutation,
+            PruningTableBuilder.product(edgesPermutationMove));
+
+        edgesOrientationDistance = PruningTableBuilder.build(
+            N_EDGES_COMBINATIONS * N_EDGES_ORIENTATIONS,
+            goalEdgesOrientation,
+            PruningTableBuilder.product(edgesOrientationMove));
+    }
 
-            distance++;
-        }
+    public static void initialize() {
+        // the tables are built by the static initializers on first access
     }
 
     public static ArrayList<String[]> solve(State state) {
@@ -258,8 +217,8 @@ public class RubiksCubeCrossSolver {
             return;
         }
 
-        if (edgesPermutationDistance[edgesPermutation] > depth ||
-            edgesOrientationDistance[edgesOrientation] > depth) {
+        if (edgesPermutationDistance.get(edgesPermutation) > depth ||
+            edgesOrientationDistance.get(edgesOrientation) > depth) {
             return;
         }
 
@@ -222,80 +222,28 @@ public class RubiksCubeRUSolver {
     }
 
     // distance tables
-    private static byte[][] cornersDistance;
-    private static byte[][] edgesDistance;
+    private static PruningTable cornersDistance;
+    private static PruningTable edgesDistance;
 
 
     static {
         // corners
-        cornersDistance = new byte[N_CORNERS_PERMUTATIONS][N_CORNERS_ORIENTATIONS];
-        for (int i = 0; i < cornersDistance.length; i++) {
-            for (int j = 0; j < cornersDistance[i].length; j++) {
-                cornersDistance[i][j] = -1;
-            }
-        }
-        cornersDistance[goalCornersPermutation][goalCornersOrientation] = 0;
-
-        int distance = 0;
-        int nVisited;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < cornersDistance.length; i++) {
-                for (int j = 0; j < cornersDistance[i].length; j++) {
-                    if (cornersDistance[i][j] != distance) {
-                        continue;
-                    }
-
-                    for (int k = 0; k < cornersPermutationMove[i].length; k++) {
-                        int nextPermutation = cornersPermutationMove[i][k];
-                        int nextOrientation = cornersOrientationMove[j][k];
-                        if (cornersDistance[nextPermutation][nextOrientation] < 0) {
-                            cornersDistance[nextPermutation][nextOrientation] =
-                                (byte) (distance + 1);
-                            nVisited++;
-                        }
-                    }
-                }
-            }
-
-            distance++;
-        } while (nVisited > 0);
+        cornersDistance = PruningTableBuilder.build(
+            N_CORNERS_PERMUTATIONS,
+            N_CORNERS_ORIENTATIONS,
+            goalCornersPermutation * N_CORNERS_ORIENTATIONS + goalCornersOrientation,
+            PruningTableBuilder.product(cornersPermutationMove, cornersOrientationMove));
 
         // edges
-        edgesDistance = new byte[N_EDGES_PERMUTATIONS][N_EDGES_ORIENTATIONS];
-        for (int i = 0; i < edgesDistance.length; i++) {
-            for (int j = 0; j < edgesDistance[i].length; j++) {
-                edgesDistance[i][j] = -1;
-            }
-        }
-        edgesDistance[goalEdgesPermutation][goalEdgesOrientation] = 0;
-
-        distance = 0;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < edgesDistance.length; i++) {
-                for (int j = 0; j < edgesDistance[i].length; j++) {
-                    if (edgesDistance[i][j] != distance) {
-                        continue;
-                    }
-
-                    for (int k = 0; k < edgesPermutationMove[i].length; k++) {
-                        int nextPermutation = edgesPermutationMove[i][k];
-                        int nextOrientation = edgesOrientationMove[j][k];
-                        if (edgesDistance[nextPermutation][nextOrientation] < 0) {
-                            edgesDistance[nextPermutation][nextOrientation] =
-                                (byte) (distance + 1);
-                            nVisited++;
-                        }
-                    }
-                }
-            }
-
-            distance++;
-        } while (nVisited > 0);
+        edgesDistance = PruningTableBuilder.build(
+            N_EDGES_PERMUTATIONS,
+            N_EDGES_ORIENTATIONS,
+            goalEdgesPermutation * N_EDGES_ORIENTATIONS + goalEdgesOrientation,
+            PruningTableBuilder.product(edgesPermutationMove, edgesOrientationMove));
+    }
 
+    public static void initialize() {
+        // the tables are built by the static initializers on first access
     }
 
     public static String[] solve(State state) {
@@ -335,8 +283,8 @@ public class RubiksCubeRUSolver {
                    edgesOrientation == goalEdgesOrientation;
         }
 
-        if (cornersDistance[cornersPermutation][cornersOrientation] > depth ||
-            edgesDistance[edgesPermutation][edgesOrientation] > depth) {
+        if (cornersDistance.get(cornersPermutation, cornersOrientation) > depth ||
+            edgesDistance.get(edgesPermutation, edgesOrientation) > depth) {
             return false;
         }
 
@@ -388,8 +336,8 @@ public class RubiksCubeRUSolver {
             int edgesPermutation = random.nextInt(N_EDGES_PERMUTATIONS);
             int edgesOrientation = random.nextInt(N_EDGES_ORIENTATIONS);
 
-            if (cornersDistance[cornersPermutation][cornersOrientation] < 0 ||
-                edgesDistance[edgesPermutation][edgesOrientation] < 0) {
+            if (cornersDistance.get(cornersPermutation, cornersOrientation) == PruningTable.EMPTY ||
+                edgesDistance.get(edgesPermutation, edgesOrientation) == PruningTable.EMPTY) {
                 continue;
             }
 
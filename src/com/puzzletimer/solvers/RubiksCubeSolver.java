@@ -4,9 +4,13 @@
 
 package com.puzzletimer.solvers;
 
-import java.util.ArrayList;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 
+import com.puzzletimer.models.MoveNotation;
+
 public class RubiksCubeSolver {
     public static class State {
         public byte[] cornersPermutation;
@@ -43,13 +47,47 @@ public class RubiksCubeSolver {
             return new State(cornersPermutation, cornersOrientation, edgesPermutation, edgesOrientation);
         }
 
-        public State applySequence(String[] sequence) {
-            State state = this;
-            for (String move : sequence) {
-                state = state.multiply(moves.get(move));
+        public State inverse() {
+            // corners
+            byte[] cornersPermutation = new byte[8];
+            byte[] cornersOrientation = new byte[8];
+
+            for (int i = 0; i < 8; i++) {
+                cornersPermutation[this.cornersPermutation[i]] = (byte) i;
+            }
+
+            for (int i = 0; i < 8; i++) {
+                cornersOrientation[i] = (byte) ((3 - this.cornersOrientation[cornersPermutation[i]]) % 3);
             }
 
-            return state;
+            // edges
+            byte[] edgesPermutation = new byte[12];
+            byte[] edgesOrientation = new byte[12];
+
+            for (int i = 0; i < 12; i++) {
+                edgesPermutation[this.edgesPermutation[i]] = (byte) i;
+            }
+
+            for (int i = 0; i < 12; i++) {
+                edgesOrientation[i] = this.edgesOrientation[edgesPermutation[i]];
+            }
+
+            return new State(cornersPermutation, cornersOrientation, edgesPermutation, edgesOrientation);
+        }
+
+        public State applySequence(String[] sequence) {
+            PackedState state = new PackedState(this);
+            state.applySequence(sequence);
+
+            return state.toState();
+        }
+
+        // moves given as codes of the rubik's cube notation
+        public State applyMoves(byte[] moveCodes) {
+            PackedState state = new PackedState(this);
+            state.applyMoves(moveCodes);
+
+            return state.toState();
         }
 
         public static HashMap<String, State> moves;
@@ -94,6 +132,173 @@ public class RubiksCubeSolver {
         }
     }
 
+    // cube state packed in two longs, composed in place without allocating
+    //
+    // each cubie takes five bits: 3 * permutation + orientation for the
+    // corners and 2 * permutation + orientation for the edges
+    public static class PackedState {
+        // shift of the cubie a code takes its permutation from, and code of
+        // the result of twisting a cubie (high five bits) by the orientation
+        // of a code (low five bits)
+        private static int[] cornerShift;
+        private static long[] cornerCompose;
+        private static int[] edgeShift;
+        private static long[] edgeCompose;
+
+        static {
+            cornerShift = new int[32];
+            cornerCompose = new long[32 * 32];
+            for (int i = 0; i < 24; i++) {
+                cornerShift[i] = 5 * (i / 3);
+                for (int j = 0; j < 24; j++) {
+                    cornerCompose[(i << 5) | j] = 3 * (i / 3) + (i % 3 + j % 3) % 3;
+                }
+            }
+
+            edgeShift = new int[32];
+            edgeCompose = new long[32 * 32];
+            for (int i = 0; i < 24; i++) {
+                edgeShift[i] = 5 * (i / 2);
+                for (int j = 0; j < 24; j++) {
+                    edgeCompose[(i << 5) | j] = i ^ (j & 1);
+                }
+            }
+        }
+
+        private long corners;
+        private long edges;
+
+        public PackedState() {
+            set(State.id);
+        }
+
+        public PackedState(State state) {
+            set(state);
+        }
+
+        public PackedState(PackedState state) {
+            set(state);
+        }
+
+        public void set(State state) {
+            this.corners = 0;
+            for (int i = 0; i < 8; i++) {
+                this.corners |= (long) (3 * state.cornersPermutation[i] + state.cornersOrientation[i]) << (5 * i);
+            }
+
+            this.edges = 0;
+            for (int i = 0; i < 12; i++) {
+                this.edges |= (long) (2 * state.edgesPermutation[i] + state.edgesOrientation[i]) << (5 * i);
+            }
+        }
+
+        public void set(PackedState state) {
+            this.corners = state.corners;
+            this.edges = state.edges;
+        }
+
+        public State toState() {
+            byte[] cornersPermutation = new byte[8];
+            byte[] cornersOrientation = new byte[8];
+            for (int i = 0; i < 8; i++) {
+                int cubie = (int) (this.corners >>> (5 * i)) & 0x1F;
+                cornersPermutation[i] = (byte) (cubie / 3);
+                cornersOrientation[i] = (byte) (cubie % 3);
+            }
+
+            byte[] edgesPermutation = new byte[12];
+            byte[] edgesOrientation = new byte[12];
+            for (int i = 0; i < 12; i++) {
+                int cubie = (int) (this.edges >>> (5 * i)) & 0x1F;
+                edgesPermutation[i] = (byte) (cubie / 2);
+                edgesOrientation[i] = (byte) (cubie % 2);
+            }
+
+            return new State(cornersPermutation, cornersOrientation, edgesPermutation, edgesOrientation);
+        }
+
+        // this = this * move
+        public void multiply(PackedState move) {
+            long corners = 0;
+            long moveCorners = move.corners;
+            for (int i = 0; i < 40; i += 5) {
+                int code = (int) moveCorners & 0x1F;
+                int cubie = (int) (this.corners >>> cornerShift[code]) & 0x1F;
+                corners |= cornerCompose[(cubie << 5) | code] << i;
+                moveCorners >>>= 5;
+            }
+
+            long edges = 0;
+            long moveEdges = move.edges;
+            for (int i = 0; i < 60; i += 5) {
+                int code = (int) moveEdges & 0x1F;
+                int cubie = (int) (this.edges >>> edgeShift[code]) & 0x1F;
+                edges |= edgeCompose[(cubie << 5) | code] << i;
+                moveEdges >>>= 5;
+            }
+
+            this.corners = corners;
+            this.edges = edges;
+        }
+
+        // product of the given states, from left to right
+        public static PackedState product(PackedState... states) {
+            PackedState result = new PackedState(states[0]);
+            for (int i = 1; i < states.length; i++) {
+                result.multiply(states[i]);
+            }
+
+            return result;
+        }
+
+        public void applyMove(String move) {
+            multiply(moves.get(move));
+        }
+
+        public void applySequence(String[] sequence) {
+            for (String move : sequence) {
+                multiply(moves.get(move));
+            }
+        }
+
+        // moves given as codes of the rubik's cube notation
+        public void applyMoves(byte[] moveCodes) {
+            for (byte moveCode : moveCodes) {
+                multiply(notationMoves[moveCode]);
+            }
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof PackedState)) {
+                return false;
+            }
+
+            PackedState state = (PackedState) object;
+            return this.corners == state.corners && this.edges == state.edges;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (this.corners ^ (this.corners >>> 32) ^ this.edges ^ (this.edges >>> 32));
+        }
+
+        public static HashMap<String, PackedState> moves;
+        private static PackedState[] notationMoves;
+
+        static {
+            moves = new HashMap<String, PackedState>();
+            for (String move : State.moves.keySet()) {
+                moves.put(move, new PackedState(State.moves.get(move)));
+            }
+
+            notationMoves = new PackedState[MoveNotation.RUBIKS_CUBE.getNumberOfMoves()];
+            for (int i = 0; i < notationMoves.length; i++) {
+                notationMoves[i] = moves.get(MoveNotation.RUBIKS_CUBE.getMoveName(i));
+            }
+        }
+    }
+
     // constants
     public static final int N_CORNERS_ORIENTATIONS = 2187;
     public static final int N_EDGES_ORIENTATIONS = 2048;
@@ -101,14 +306,20 @@ public class RubiksCubeSolver {
     public static final int N_CORNERS_PERMUTATIONS = 40320;
     public static final int N_U_D_EDGES_PERMUTATIONS = 40320;
     public static final int N_E_EDGES_PERMUTATIONS = 24;
+    public static final int N_EDGES_ARRANGEMENTS = 11880;
     public static final int N_EDGES_PERMUTATIONS = 479001600;
+    public static final int N_SYMMETRIES = 16;
+    public static final int N_FLIP_SLICE_CLASSES = 64430;
 
     // moves
     private static String[] moveNames1;
+    private static byte[] moveCodes1;
     private static State[] moves1;
     private static int[] sides1;
     private static int[] axes1;
+    private static boolean[] isMove2;
     private static String[] moveNames2;
+    private static byte[] moveCodes2;
     private static State[] moves2;
     private static int[] sides2;
     private static int[] axes2;
@@ -124,8 +335,10 @@ public class RubiksCubeSolver {
             "B", "B2", "B'",
         };
 
+        moveCodes1 = new byte[moveNames1.length];
         moves1 = new State[moveNames1.length];
         for (int i = 0; i < moves1.length; i++) {
+            moveCodes1[i] = (byte) MoveNotation.RUBIKS_CUBE.getMoveCode(moveNames1[i]);
             moves1[i] = State.moves.get(moveNames1[i]);
         }
 
@@ -157,8 +370,10 @@ public class RubiksCubeSolver {
             "B2",
         };
 
+        moveCodes2 = new byte[moveNames2.length];
         moves2 = new State[moveNames2.length];
         for (int i = 0; i < moves2.length; i++) {
+            moveCodes2[i] = (byte) MoveNotation.RUBIKS_CUBE.getMoveCode(moveNames2[i]);
             moves2[i] = State.moves.get(moveNames2[i]);
         }
 
@@ -179,6 +394,91 @@ public class RubiksCubeSolver {
             2,
             2,
         };
+
+        // phase 1 moves that are also phase 2 moves
+        isMove2 = new boolean[moves1.length];
+        for (int i = 0; i < moves1.length; i++) {
+            isMove2[i] = Arrays.asList(moveNames2).contains(moveNames1[i]);
+        }
+    }
+
+    // symmetries
+    //
+    // the 16 symmetries of the cube that keep the u-d axis in place, generated
+    // by a quarter turn around the u-d axis, a half turn around the f-b axis
+    // and a reflection through the l-r plane. a symmetry maps a state x to
+    // s * x * s^-1; the reflections reverse the twist of the corners of x
+    // first, as they reverse the direction of every turn.
+    private static State[] symmetries;
+    private static State[] inverseSymmetries;
+    private static boolean[] mirroringSymmetries;
+    private static int[] symmetryInverses;
+
+    static {
+        State symmetryU4 = new State(new byte[] { 3, 0, 1, 2, 7, 4, 5, 6 }, new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 }, new byte[] { 3, 0, 1, 2, 7, 4, 5, 6, 11, 8, 9, 10 }, new byte[] { 1, 1, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0 });
+        State symmetryF2 = new State(new byte[] { 5, 4, 7, 6, 1, 0, 3, 2 }, new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 }, new byte[] { 1, 0, 3, 2, 8, 11, 10, 9, 4, 7, 6, 5 }, new byte[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 });
+        State symmetryLR2 = new State(new byte[] { 1, 0, 3, 2, 5, 4, 7, 6 }, new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 }, new byte[] { 1, 0, 3, 2, 4, 7, 6, 5, 8, 11, 10, 9 }, new byte[] { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 });
+
+        // symmetry i is F2^(i / 8) * U4^(i / 2 % 4) * LR2^(i % 2)
+        symmetries = new State[N_SYMMETRIES];
+        inverseSymmetries = new State[N_SYMMETRIES];
+        mirroringSymmetries = new boolean[N_SYMMETRIES];
+        for (int i = 0; i < N_SYMMETRIES; i++) {
+            State symmetry = State.id;
+            for (int j = 0; j < i / 8; j++) {
+                symmetry = symmetry.multiply(symmetryF2);
+            }
+            for (int j = 0; j < i / 2 % 4; j++) {
+                symmetry = symmetry.multiply(symmetryU4);
+            }
+            for (int j = 0; j < i % 2; j++) {
+                symmetry = symmetry.multiply(symmetryLR2);
+            }
+
+            symmetries[i] = symmetry;
+            inverseSymmetries[i] = symmetry.inverse();
+            mirroringSymmetries[i] = i % 2 == 1;
+        }
+
+        State state = State.id.applySequence(new String[] { "U", "R", "F'", "L", "D2", "B", "R'" });
+        symmetryInverses = new int[N_SYMMETRIES];
+        for (int i = 0; i < N_SYMMETRIES; i++) {
+            for (int j = 0; j < N_SYMMETRIES; j++) {
+                State result = conjugate(conjugate(state, i), j);
+                if (Arrays.equals(result.cornersPermutation, state.cornersPermutation) &&
+                    Arrays.equals(result.cornersOrientation, state.cornersOrientation) &&
+                    Arrays.equals(result.edgesPermutation, state.edgesPermutation) &&
+                    Arrays.equals(result.edgesOrientation, state.edgesOrientation)) {
+                    symmetryInverses[i] = j;
+                    break;
+                }
+            }
+        }
+    }
+
+    private static State conjugate(State state, int symmetry) {
+        if (mirroringSymmetries[symmetry]) {
+            byte[] cornersOrientation = new byte[8];
+            for (int i = 0; i < cornersOrientation.length; i++) {
+                cornersOrientation[i] = (byte) ((3 - state.cornersOrientation[i]) % 3);
+            }
+
+            state = new State(state.cornersPermutation, cornersOrientation, state.edgesPermutation, state.edgesOrientation);
+        }
+
+        return symmetries[symmetry].multiply(state).multiply(inverseSymmetries[symmetry]);
+    }
+
+    // tables cache
+    private static final String CACHE_FILE_NAME = "puzzletimer.rubiks-cube.tables";
+    private static final int CACHE_VERSION = 4;
+
+    private static boolean tablesLoaded;
+
+    static {
+        // the tables are built inside the static initializers below, as
+        // building them from static methods is much slower on some VMs
+        tablesLoaded = loadTables(new TableCache(new File(CACHE_FILE_NAME), CACHE_VERSION));
     }
 
     // move tables
@@ -188,435 +488,816 @@ public class RubiksCubeSolver {
     private static int[][] cornersPermutationMove;
     private static int[][] uDEdgesPermutationMove;
     private static int[][] eEdgesPermutationMove;
+    private static int[][] cornersPermutationMove1;
+    private static int[][] eEdgesArrangementMove;
+    private static int[][] uEdgesArrangementMove;
+    private static int[][] dEdgesArrangementMove;
+    private static int[][] uDEdgesPermutationMerge;
 
     static {
-        // phase 1
-        cornersOrientationMove = new int[N_CORNERS_ORIENTATIONS][moves1.length];
-        for (int i = 0; i < N_CORNERS_ORIENTATIONS; i++) {
-            State state = new State(new byte[8], IndexMapping.indexToZeroSumOrientation(i, 3, 8), new byte[12], new byte[12]);
-            for (int j = 0; j < moves1.length; j++) {
-                cornersOrientationMove[i][j] = IndexMapping.zeroSumOrientationToIndex(state.multiply(moves1[j]).cornersOrientation, 3);
+        if (!tablesLoaded) {
+            // phase 1
+            cornersOrientationMove = new int[N_CORNERS_ORIENTATIONS][moves1.length];
+            for (int i = 0; i < N_CORNERS_ORIENTATIONS; i++) {
+                State state = new State(new byte[8], IndexMapping.indexToZeroSumOrientation(i, 3, 8), new byte[12], new byte[12]);
+                for (int j = 0; j < moves1.length; j++) {
+                    cornersOrientationMove[i][j] = IndexMapping.zeroSumOrientationToIndex(state.cornersOrientation, moves1[j].cornersPermutation, moves1[j].cornersOrientation, 3);
+                }
             }
-        }
 
 
-        edgesOrientationMove = new int[N_EDGES_ORIENTATIONS][moves1.length];
-        for (int i = 0; i < N_EDGES_ORIENTATIONS; i++) {
-            State state = new State(new byte[8], new byte[8], new byte[12], IndexMapping.indexToZeroSumOrientation(i, 2, 12));
-            for (int j = 0; j < moves1.length; j++) {
-                edgesOrientationMove[i][j] = IndexMapping.zeroSumOrientationToIndex(state.multiply(moves1[j]).edgesOrientation, 2);
+            edgesOrientationMove = new int[N_EDGES_ORIENTATIONS][moves1.length];
+            for (int i = 0; i < N_EDGES_ORIENTATIONS; i++) {
+                State state = new State(new byte[8], new byte[8], new byte[12], IndexMapping.indexToZeroSumOrientation(i, 2, 12));
+                for (int j = 0; j < moves1.length; j++) {
+                    edgesOrientationMove[i][j] = IndexMapping.zeroSumOrientationToIndex(state.edgesOrientation, moves1[j].edgesPermutation, moves1[j].edgesOrientation, 2);
+                }
             }
-        }
 
 
-        eEdgesCombinationMove = new int[N_E_EDGES_COMBINATIONS][moves1.length];
-        for (int i = 0; i < N_E_EDGES_COMBINATIONS; i++) {
-            boolean[] combination = IndexMapping.indexToCombination(i, 4, 12);
+            eEdgesCombinationMove = new int[N_E_EDGES_COMBINATIONS][moves1.length];
+            for (int i = 0; i < N_E_EDGES_COMBINATIONS; i++) {
+                boolean[] combination = IndexMapping.indexToCombination(i, 4, 12);
 
-            byte[] edges = new byte[12];
-            byte nextE = 0;
-            byte nextUD = 4;
+                byte[] edges = new byte[12];
+                byte nextE = 0;
+                byte nextUD = 4;
 
-            for (int j = 0; j < edges.length; j++) {
-                if (combination[j]) {
-                    edges[j] = nextE++;
-                } else {
-                    edges[j] = nextUD++;
+                for (int j = 0; j < edges.length; j++) {
+                    if (combination[j]) {
+                        edges[j] = nextE++;
+                    } else {
+                        edges[j] = nextUD++;
+                    }
                 }
-            }
 
-            State state = new State(new byte[8], new byte[8], edges, new byte[12]);
-            for (int j = 0; j < moves1.length; j++) {
-                State result = state.multiply(moves1[j]);
+                State state = new State(new byte[8], new byte[8], edges, new byte[12]);
+                for (int j = 0; j < moves1.length; j++) {
+                    State result = state.multiply(moves1[j]);
 
-                boolean[] isEEdge = new boolean[12];
-                for (int k = 0; k < isEEdge.length; k++) {
-                    isEEdge[k] = result.edgesPermutation[k] < 4;
-                }
+                    boolean[] isEEdge = new boolean[12];
+                    for (int k = 0; k < isEEdge.length; k++) {
+                        isEEdge[k] = result.edgesPermutation[k] < 4;
+                    }
 
-                eEdgesCombinationMove[i][j] = IndexMapping.combinationToIndex(isEEdge, 4);
+                    eEdgesCombinationMove[i][j] = IndexMapping.combinationToIndex(isEEdge, 4);
+                }
             }
-        }
 
 
-        // phase 2
-        cornersPermutationMove = new int[N_CORNERS_PERMUTATIONS][moves2.length];
-        for (int i = 0; i < N_CORNERS_PERMUTATIONS; i++) {
-            State state = new State(IndexMapping.indexToPermutation(i, 8), new byte[8], new byte[12], new byte[12]);
-            for (int j = 0; j < moves2.length; j++) {
-                cornersPermutationMove[i][j] = IndexMapping.permutationToIndex(state.multiply(moves2[j]).cornersPermutation);
+            // phase 2
+            cornersPermutationMove = new int[N_CORNERS_PERMUTATIONS][moves2.length];
+            for (int i = 0; i < N_CORNERS_PERMUTATIONS; i++) {
+                State state = new State(IndexMapping.indexToPermutation(i, 8), new byte[8], new byte[12], new byte[12]);
+                for (int j = 0; j < moves2.length; j++) {
+                    cornersPermutationMove[i][j] = IndexMapping.permutationToIndex(state.cornersPermutation, moves2[j].cornersPermutation);
+                }
             }
-        }
 
 
-        uDEdgesPermutationMove = new int[N_U_D_EDGES_PERMUTATIONS][moves2.length];
-        for (int i = 0; i < N_U_D_EDGES_PERMUTATIONS; i++) {
-            byte[] permutation = IndexMapping.indexToPermutation(i, 8);
+            uDEdgesPermutationMove = new int[N_U_D_EDGES_PERMUTATIONS][moves2.length];
+            for (int i = 0; i < N_U_D_EDGES_PERMUTATIONS; i++) {
+                byte[] permutation = IndexMapping.indexToPermutation(i, 8);
 
-            byte[] edges = new byte[12];
-            for (int j = 0; j < edges.length; j++) {
-                edges[j] = j >= 4 ? permutation[j - 4] : (byte) j;
+                byte[] edges = new byte[12];
+                for (int j = 0; j < edges.length; j++) {
+                    edges[j] = j >= 4 ? permutation[j - 4] : (byte) j;
+                }
+
+                State state = new State(new byte[8], new byte[8], edges, new byte[12]);
+                for (int j = 0; j < moves2.length; j++) {
+                    State result = state.multiply(moves2[j]);
+
+                    byte[] uDEdges = new byte[8];
+                    for (int k = 0; k < uDEdges.length; k++) {
+                        uDEdges[k] = (byte) (result.edgesPermutation[k + 4] - 4);
+                    }
+
+                    uDEdgesPermutationMove[i][j] = IndexMapping.permutationToIndex(uDEdges);
+                }
             }
 
-            State state = new State(new byte[8], new byte[8], edges, new byte[12]);
-            for (int j = 0; j < moves2.length; j++) {
-                State result = state.multiply(moves2[j]);
 
-                byte[] uDEdges = new byte[8];
-                for (int k = 0; k < uDEdges.length; k++) {
-                    uDEdges[k] = (byte) (result.edgesPermutation[k + 4] - 4);
+            eEdgesPermutationMove = new int[N_E_EDGES_PERMUTATIONS][moves2.length];
+            for (int i = 0; i < N_E_EDGES_PERMUTATIONS; i++) {
+                byte[] permutation = IndexMapping.indexToPermutation(i, 4);
+
+                byte[] edges = new byte[12];
+                for (int j = 0; j < edges.length; j++) {
+                    edges[j] = j >= 4 ? (byte) j : permutation[j];
                 }
 
-                uDEdgesPermutationMove[i][j] = IndexMapping.permutationToIndex(uDEdges);
-            }
-        }
+                State state = new State(new byte[8], new byte[8], edges, new byte[12]);
+                for (int j = 0; j < moves2.length; j++) {
+                    State result = state.multiply(moves2[j]);
 
+                    byte[] eEdges = new byte[4];
+                    for (int k = 0; k < eEdges.length; k++) {
+                        eEdges[k] = result.edgesPermutation[k];
+                    }
 
-        eEdgesPermutationMove = new int[N_E_EDGES_PERMUTATIONS][moves2.length];
-        for (int i = 0; i < N_E_EDGES_PERMUTATIONS; i++) {
-            byte[] permutation = IndexMapping.indexToPermutation(i, 4);
+                    eEdgesPermutationMove[i][j] = IndexMapping.permutationToIndex(eEdges);
+                }
+            }
 
-            byte[] edges = new byte[12];
-            for (int j = 0; j < edges.length; j++) {
-                edges[j] = j >= 4 ? (byte) j : permutation[j];
+
+            // phase 2 coordinates along phase 1 solutions
+            cornersPermutationMove1 = new int[N_CORNERS_PERMUTATIONS][moves1.length];
+            for (int i = 0; i < N_CORNERS_PERMUTATIONS; i++) {
+                State state = new State(IndexMapping.indexToPermutation(i, 8), new byte[8], new byte[12], new byte[12]);
+                for (int j = 0; j < moves1.length; j++) {
+                    cornersPermutationMove1[i][j] = IndexMapping.permutationToIndex(state.cornersPermutation, moves1[j].cornersPermutation);
+                }
             }
 
-            State state = new State(new byte[8], new byte[8], edges, new byte[12]);
-            for (int j = 0; j < moves2.length; j++) {
-                State result = state.multiply(moves2[j]);
 
-                byte[] eEdges = new byte[4];
-                for (int k = 0; k < eEdges.length; k++) {
-                    eEdges[k] = result.edgesPermutation[k];
+            eEdgesArrangementMove = edgesArrangementMove(0);
+            uEdgesArrangementMove = edgesArrangementMove(4);
+            dEdgesArrangementMove = edgesArrangementMove(8);
+
+
+            // u and d edges permutation of phase 2 states, by the arrangement
+            // of the u edges and the permutation of the d edges
+            uDEdgesPermutationMerge = new int[N_EDGES_ARRANGEMENTS][24];
+            for (int i = 0; i < N_EDGES_ARRANGEMENTS; i++) {
+                byte[] edges = edgesArrangementState(i, 4).edgesPermutation;
+
+                boolean isPhase2 = true;
+                for (int j = 0; j < 4; j++) {
+                    if (edges[j] >= 4) {
+                        isPhase2 = false;
+                    }
+                }
+
+                if (!isPhase2) {
+                    continue;
                 }
 
-                eEdgesPermutationMove[i][j] = IndexMapping.permutationToIndex(eEdges);
+                for (int j = 0; j < 24; j++) {
+                    byte[] permutation = IndexMapping.indexToPermutation(j, 4);
+
+                    byte[] uDEdges = new byte[8];
+                    int nextD = 0;
+                    for (int k = 0; k < uDEdges.length; k++) {
+                        if (edges[k + 4] < 8) {
+                            uDEdges[k] = (byte) (edges[k + 4] - 4);
+                        } else {
+                            uDEdges[k] = (byte) (permutation[nextD++] + 4);
+                        }
+                    }
+
+                    uDEdgesPermutationMerge[i][j] = IndexMapping.permutationToIndex(uDEdges);
+                }
             }
         }
     }
 
-    // prune tables
-    private static byte[][] cornersOrientationDistance;
-    private static byte[][] edgesOrientationDistance;
-    private static byte[][] cornersPermutationDistance;
-    private static byte[][] uDEdgesPermutationDistance;
-
-    static {
-        // phase 1
-        cornersOrientationDistance = new byte[N_CORNERS_ORIENTATIONS][N_E_EDGES_COMBINATIONS];
-        for (int i = 0; i < cornersOrientationDistance.length; i++) {
-            for (int j = 0; j < cornersOrientationDistance[i].length; j++) {
-                cornersOrientationDistance[i][j] = -1;
+    // arrangement of the four edges starting at firstEdge: the combination of
+    // their positions and their permutation, in order of position
+    private static int edgesArrangement(State state, int firstEdge) {
+        boolean[] combination = new boolean[12];
+        byte[] permutation = new byte[4];
+        int nextEdge = 0;
+
+        for (int i = 0; i < combination.length; i++) {
+            if (state.edgesPermutation[i] >= firstEdge && state.edgesPermutation[i] < firstEdge + 4) {
+                combination[i] = true;
+                permutation[nextEdge++] = (byte) (state.edgesPermutation[i] - firstEdge);
             }
         }
-        cornersOrientationDistance[0][0] = 0;
 
-        int distance = 0;
-        int nVisited = 1;
-        while (nVisited < N_CORNERS_ORIENTATIONS * N_E_EDGES_COMBINATIONS) {
-            for (int i = 0; i < N_CORNERS_ORIENTATIONS; i++) {
-                for (int j = 0; j < N_E_EDGES_COMBINATIONS; j++) {
-                    if (cornersOrientationDistance[i][j] == distance) {
-                        for (int k = 0; k < moves1.length; k++) {
-                            int nextCornersOrientation = cornersOrientationMove[i][k];
-                            int nextEEdgesCombination = eEdgesCombinationMove[j][k];
-                            if (cornersOrientationDistance[nextCornersOrientation][nextEEdgesCombination] < 0) {
-                                cornersOrientationDistance[nextCornersOrientation][nextEEdgesCombination] = (byte) (distance + 1);
-                                nVisited++;
-                            }
-                        }
-                    }
+        return IndexMapping.combinationToIndex(combination, 4) * 24 + IndexMapping.permutationToIndex(permutation);
+    }
+
+    private static State edgesArrangementState(int arrangement, int firstEdge) {
+        boolean[] combination = IndexMapping.indexToCombination(arrangement / 24, 4, 12);
+        byte[] permutation = IndexMapping.indexToPermutation(arrangement % 24, 4);
+
+        byte[] edges = new byte[12];
+        int nextEdge = 0;
+        byte nextOtherEdge = 0;
+
+        for (int i = 0; i < edges.length; i++) {
+            if (combination[i]) {
+                edges[i] = (byte) (permutation[nextEdge++] + firstEdge);
+            } else {
+                if (nextOtherEdge == firstEdge) {
+                    nextOtherEdge += 4;
                 }
+                edges[i] = nextOtherEdge++;
             }
-            distance++;
         }
 
+        return new State(new byte[8], new byte[8], edges, new byte[12]);
+    }
 
-        edgesOrientationDistance = new byte[N_EDGES_ORIENTATIONS][N_E_EDGES_COMBINATIONS];
-        for (int i = 0; i < edgesOrientationDistance.length; i++) {
-            for (int j = 0; j < edgesOrientationDistance[i].length; j++) {
-                edgesOrientationDistance[i][j] = -1;
+    private static int[][] edgesArrangementMove(int firstEdge) {
+        int[][] edgesArrangementMove = new int[N_EDGES_ARRANGEMENTS][moves1.length];
+        for (int i = 0; i < N_EDGES_ARRANGEMENTS; i++) {
+            State state = edgesArrangementState(i, firstEdge);
+            for (int j = 0; j < moves1.length; j++) {
+                edgesArrangementMove[i][j] = edgesArrangement(state.multiply(moves1[j]), firstEdge);
             }
         }
-        edgesOrientationDistance[0][0] = 0;
 
-        distance = 0;
-        nVisited = 1;
-        while (nVisited < N_EDGES_ORIENTATIONS * N_E_EDGES_COMBINATIONS) {
-            for (int i = 0; i < N_EDGES_ORIENTATIONS; i++) {
-                for (int j = 0; j < N_E_EDGES_COMBINATIONS; j++) {
-                    if (edgesOrientationDistance[i][j] == distance) {
-                        for (int k = 0; k < moves1.length; k++) {
-                            int nextEdgesOrientation = edgesOrientationMove[i][k];
-                            int nextEEdgesCombination = eEdgesCombinationMove[j][k];
-                            if (edgesOrientationDistance[nextEdgesOrientation][nextEEdgesCombination] < 0) {
-                                edgesOrientationDistance[nextEdgesOrientation][nextEEdgesCombination] = (byte) (distance + 1);
-                                nVisited++;
-                            }
-                        }
-                    }
+        return edgesArrangementMove;
+    }
+
+    // symmetry tables
+    private static int[][] cornersOrientationConjugate;
+    private static int[][] flipSliceSymmetry;
+    private static Phase1Coordinate phase1Coordinate;
+
+    static {
+        if (!tablesLoaded) {
+            cornersOrientationConjugate = new int[N_CORNERS_ORIENTATIONS][N_SYMMETRIES];
+            for (int i = 0; i < N_CORNERS_ORIENTATIONS; i++) {
+                State state = new State(IndexMapping.indexToPermutation(0, 8), IndexMapping.indexToZeroSumOrientation(i, 3, 8), IndexMapping.indexToPermutation(0, 12), new byte[12]);
+                for (int j = 0; j < N_SYMMETRIES; j++) {
+                    cornersOrientationConjugate[i][j] = IndexMapping.zeroSumOrientationToIndex(conjugate(state, j).cornersOrientation, 3);
                 }
             }
-            distance++;
-        }
 
 
-        // phase 2
-        cornersPermutationDistance = new byte[N_CORNERS_PERMUTATIONS][N_E_EDGES_PERMUTATIONS];
-        for (int i = 0; i < cornersPermutationDistance.length; i++) {
-            for (int j = 0; j < cornersPermutationDistance[i].length; j++) {
-                cornersPermutationDistance[i][j] = -1;
+            // the classes of (e edges combination, edges orientation) pairs are
+            // numbered in the order of their least pair, which is taken as
+            // their representative. each pair is stored with its class and the
+            // symmetry that maps it to the representative
+            flipSliceSymmetry = new int[N_E_EDGES_COMBINATIONS][N_EDGES_ORIENTATIONS];
+            for (int i = 0; i < N_E_EDGES_COMBINATIONS; i++) {
+                Arrays.fill(flipSliceSymmetry[i], -1);
             }
-        }
-        cornersPermutationDistance[0][0] = 0;
 
-        distance = 0;
-        nVisited = 1;
-        while (nVisited < N_CORNERS_PERMUTATIONS * N_E_EDGES_PERMUTATIONS) {
-            for (int i = 0; i < N_CORNERS_PERMUTATIONS; i++) {
-                for (int j = 0; j < N_E_EDGES_PERMUTATIONS; j++) {
-                    if (cornersPermutationDistance[i][j] == distance) {
-                        for (int k = 0; k < moves2.length; k++) {
-                            int nextCornersPermutation = cornersPermutationMove[i][k];
-                            int nextEEdgesPermutation = eEdgesPermutationMove[j][k];
-                            if (cornersPermutationDistance[nextCornersPermutation][nextEEdgesPermutation] < 0) {
-                                cornersPermutationDistance[nextCornersPermutation][nextEEdgesPermutation] = (byte) (distance + 1);
-                                nVisited++;
-                            }
+            int nClasses = 0;
+            for (int i = 0; i < N_E_EDGES_COMBINATIONS; i++) {
+                for (int j = 0; j < N_EDGES_ORIENTATIONS; j++) {
+                    if (flipSliceSymmetry[i][j] >= 0) {
+                        continue;
+                    }
+
+                    State state = flipSliceState(i, j);
+                    for (int k = 0; k < N_SYMMETRIES; k++) {
+                        State result = conjugate(state, k);
+
+                        int eEdgesCombination = eEdgesCombination(result);
+                        int edgesOrientation = IndexMapping.zeroSumOrientationToIndex(result.edgesOrientation, 2);
+                        if (flipSliceSymmetry[eEdgesCombination][edgesOrientation] < 0) {
+                            flipSliceSymmetry[eEdgesCombination][edgesOrientation] = nClasses << 4 | symmetryInverses[k];
                         }
                     }
+
+                    nClasses++;
                 }
             }
-            distance++;
         }
 
-
-        uDEdgesPermutationDistance = new byte[N_U_D_EDGES_PERMUTATIONS][N_E_EDGES_PERMUTATIONS];
-        for (int i = 0; i < uDEdgesPermutationDistance.length; i++) {
-            for (int j = 0; j < uDEdgesPermutationDistance[i].length; j++) {
-                uDEdgesPermutationDistance[i][j] = -1;
+        // representatives and the symmetries that leave them unchanged
+        int[] representatives = new int[N_FLIP_SLICE_CLASSES];
+        int[] classSizes = new int[N_FLIP_SLICE_CLASSES];
+        for (int i = 0; i < N_E_EDGES_COMBINATIONS; i++) {
+            for (int j = 0; j < N_EDGES_ORIENTATIONS; j++) {
+                int flipSliceClass = flipSliceSymmetry[i][j] >> 4;
+                if ((flipSliceSymmetry[i][j] & 15) == 0) {
+                    representatives[flipSliceClass] = i * N_EDGES_ORIENTATIONS + j;
+                }
+                classSizes[flipSliceClass]++;
             }
         }
-        uDEdgesPermutationDistance[0][0] = 0;
 
-        distance = 0;
-        nVisited = 1;
-        while (nVisited < N_U_D_EDGES_PERMUTATIONS * N_E_EDGES_PERMUTATIONS) {
-            for (int i = 0; i < N_U_D_EDGES_PERMUTATIONS; i++) {
-                for (int j = 0; j < N_E_EDGES_PERMUTATIONS; j++) {
-                    if (uDEdgesPermutationDistance[i][j] == distance) {
-                        for (int k = 0; k < moves2.length; k++) {
-                            int nextUDEdgesPermutation = uDEdgesPermutationMove[i][k];
-                            int nextEEdgesPermutation = eEdgesPermutationMove[j][k];
-                            if (uDEdgesPermutationDistance[nextUDEdgesPermutation][nextEEdgesPermutation] < 0) {
-                                uDEdgesPermutationDistance[nextUDEdgesPermutation][nextEEdgesPermutation] = (byte) (distance + 1);
-                                nVisited++;
-                            }
-                        }
-                    }
+        int[] stabilizers = new int[N_FLIP_SLICE_CLASSES];
+        for (int i = 0; i < N_FLIP_SLICE_CLASSES; i++) {
+            stabilizers[i] = 1;
+            if (classSizes[i] == N_SYMMETRIES) {
+                continue;
+            }
+
+            int eEdgesCombination = representatives[i] / N_EDGES_ORIENTATIONS;
+            int edgesOrientation = representatives[i] % N_EDGES_ORIENTATIONS;
+
+            State state = flipSliceState(eEdgesCombination, edgesOrientation);
+            for (int j = 1; j < N_SYMMETRIES; j++) {
+                State result = conjugate(state, j);
+                if (eEdgesCombination(result) == eEdgesCombination &&
+                    IndexMapping.zeroSumOrientationToIndex(result.edgesOrientation, 2) == edgesOrientation) {
+                    stabilizers[i] |= 1 << j;
                 }
             }
-            distance++;
         }
-    }
 
-    // search
-    private static int MAX_SOLUTION_LENGTH = 23;
-    private static int MAX_PHASE_2_SOLUTION_LENGTH = 12;
+        phase1Coordinate = new Phase1Coordinate(cornersOrientationConjugate, flipSliceSymmetry, representatives, stabilizers);
+    }
 
-    private static State initialState;
-    private static ArrayList<Integer> solution1;
-    private static ArrayList<Integer> solution2;
+    private static State flipSliceState(int eEdgesCombination, int edgesOrientation) {
+        boolean[] combination = IndexMapping.indexToCombination(eEdgesCombination, 4, 12);
 
-    private static String[] solution(State state) {
-        initialState = state;
+        byte[] edges = new byte[12];
+        byte nextE = 0;
+        byte nextUD = 4;
 
-        // corners orientation index
-        int cornersOrientation = IndexMapping.zeroSumOrientationToIndex(state.cornersOrientation, 3);
+        for (int i = 0; i < edges.length; i++) {
+            if (combination[i]) {
+                edges[i] = nextE++;
+            } else {
+                edges[i] = nextUD++;
+            }
+        }
 
-        // edges orientation index
-        int edgesOrientation = IndexMapping.zeroSumOrientationToIndex(state.edgesOrientation, 2);
+        return new State(IndexMapping.indexToPermutation(0, 8), new byte[8], edges, IndexMapping.indexToZeroSumOrientation(edgesOrientation, 2, 12));
+    }
 
-        // e edges combination index
+    private static int eEdgesCombination(State state) {
         boolean[] isEEdge = new boolean[12];
         for (int i = 0; i < isEEdge.length; i++) {
             isEEdge[i] = state.edgesPermutation[i] < 4;
         }
-        int eEdgesCombination = IndexMapping.combinationToIndex(isEEdge, 4);
 
-        for (int depth = 0; ; depth++) {
-            solution1 = new ArrayList<Integer>(MAX_SOLUTION_LENGTH);
-            if (search1(cornersOrientation, edgesOrientation, eEdgesCombination, depth)) {
-                ArrayList<String> sequence = new ArrayList<String>();
-                for (int moveIndex : solution1) {
-                    sequence.add(moveNames1[moveIndex]);
-                }
-                for (int moveIndex : solution2) {
-                    sequence.add(moveNames2[moveIndex]);
-                }
+        return IndexMapping.combinationToIndex(isEEdge, 4);
+    }
 
-                String[] sequenceArray = new String[sequence.size()];
-                sequence.toArray(sequenceArray);
+    // phase 1 coordinate reduced by symmetry
+    //
+    // the e edges combination and edges orientation are replaced by their
+    // class, and the corners orientation is conjugated by the symmetry that
+    // maps them to the representative of the class. when other symmetries
+    // leave the representative unchanged, the corners orientation is reduced
+    // to the least of its conjugates under those, so that positions that are
+    // equivalent by symmetry share the same index.
+    //
+    // the coordinate only refers to its own tables, as it's used by the threads
+    // that build the pruning table while the solver is being initialized
+    private static class Phase1Coordinate {
+        private int[][] cornersOrientationConjugate;
+        private int[][] flipSliceSymmetry;
+        private int[] representatives;
+        private int[] stabilizers;
+
+        public Phase1Coordinate(int[][] cornersOrientationConjugate, int[][] flipSliceSymmetry, int[] representatives, int[] stabilizers) {
+            this.cornersOrientationConjugate = cornersOrientationConjugate;
+            this.flipSliceSymmetry = flipSliceSymmetry;
+            this.representatives = representatives;
+            this.stabilizers = stabilizers;
+        }
 
-                return sequenceArray;
+        public int getIndex(int cornersOrientation, int edgesOrientation, int eEdgesCombination) {
+            int symmetry = this.flipSliceSymmetry[eEdgesCombination][edgesOrientation];
+            int flipSliceClass = symmetry >> 4;
+
+            int conjugate = this.cornersOrientationConjugate[cornersOrientation][symmetry & 15];
+            int stabilizer = this.stabilizers[flipSliceClass];
+            if (stabilizer != 1) {
+                int least = conjugate;
+                for (int i = 1; i < N_SYMMETRIES; i++) {
+                    if ((stabilizer & (1 << i)) != 0) {
+                        least = Math.min(least, this.cornersOrientationConjugate[conjugate][i]);
+                    }
+                }
+                conjugate = least;
             }
+
+            return flipSliceClass * N_CORNERS_ORIENTATIONS + conjugate;
+        }
+
+        public int getCornersOrientation(int index) {
+            return index % N_CORNERS_ORIENTATIONS;
+        }
+
+        public int getEdgesOrientation(int index) {
+            return this.representatives[index / N_CORNERS_ORIENTATIONS] % N_EDGES_ORIENTATIONS;
+        }
+
+        public int getEEdgesCombination(int index) {
+            return this.representatives[index / N_CORNERS_ORIENTATIONS] / N_EDGES_ORIENTATIONS;
         }
     }
 
-    private static boolean search1(int cornersOrientation, int edgesOrientation, int eEdgesCombinations, int depth) {
-        if (depth == 0) {
-            if (cornersOrientation == 0 && edgesOrientation == 0 && eEdgesCombinations == 0) {
-                State state = initialState;
-                for (int moveIndex : solution1) {
-                    state = state.multiply(moves1[moveIndex]);
-                }
+    // prune tables
+    private static CompactPruningTable phase1Distance;
+    private static PruningTable cornersPermutationDistance;
+    private static PruningTable uDEdgesPermutationDistance;
 
-                return solution2(state, MAX_SOLUTION_LENGTH - solution1.size());
-            }
+    static {
+        if (!tablesLoaded) {
+            // phase 1
+            //
+            // the graph refers to local copies of the tables, as it's used by
+            // other threads while the solver is still being initialized
+            final Phase1Coordinate coordinate = phase1Coordinate;
+            final int[][] cornersOrientationMove = RubiksCubeSolver.cornersOrientationMove;
+            final int[][] edgesOrientationMove = RubiksCubeSolver.edgesOrientationMove;
+            final int[][] eEdgesCombinationMove = RubiksCubeSolver.eEdgesCombinationMove;
+
+            phase1Distance = PruningTableBuilder.buildCompact(
+                N_FLIP_SLICE_CLASSES * N_CORNERS_ORIENTATIONS,
+                coordinate.getIndex(0, 0, 0),
+                new PruningTableBuilder.Graph() {
+                    @Override
+                    public int getNumberOfMoves() {
+                        return cornersOrientationMove[0].length;
+                    }
 
+                    @Override
+                    public int move(int index, int move) {
+                        return coordinate.getIndex(
+                            cornersOrientationMove[coordinate.getCornersOrientation(index)][move],
+                            edgesOrientationMove[coordinate.getEdgesOrientation(index)][move],
+                            eEdgesCombinationMove[coordinate.getEEdgesCombination(index)][move]);
+                    }
+                });
+
+            // phase 2
+            cornersPermutationDistance = PruningTableBuilder.build(
+                N_CORNERS_PERMUTATIONS,
+                N_E_EDGES_PERMUTATIONS,
+                0,
+                PruningTableBuilder.product(cornersPermutationMove, eEdgesPermutationMove));
+
+            uDEdgesPermutationDistance = PruningTableBuilder.build(
+                N_U_D_EDGES_PERMUTATIONS,
+                N_E_EDGES_PERMUTATIONS,
+                0,
+                PruningTableBuilder.product(uDEdgesPermutationMove, eEdgesPermutationMove));
+        }
+    }
+
+    static {
+        if (!tablesLoaded) {
+            storeTables(new TableCache(new File(CACHE_FILE_NAME), CACHE_VERSION));
+        }
+    }
+
+    private static boolean loadTables(TableCache cache) {
+        if (!cache.open()) {
             return false;
         }
 
-        if (cornersOrientationDistance[cornersOrientation][eEdgesCombinations] <= depth &&
-            edgesOrientationDistance[edgesOrientation][eEdgesCombinations] <= depth) {
-            int[] lastMoves = { -1, -1 };
-            for (int i = 0; i < lastMoves.length && i < solution1.size(); i++) {
-                lastMoves[i] = solution1.get(solution1.size() - 1 - i);
-            }
+        try {
+            cornersOrientationMove = new int[N_CORNERS_ORIENTATIONS][moves1.length];
+            edgesOrientationMove = new int[N_EDGES_ORIENTATIONS][moves1.length];
+            eEdgesCombinationMove = new int[N_E_EDGES_COMBINATIONS][moves1.length];
+            cornersPermutationMove = new int[N_CORNERS_PERMUTATIONS][moves2.length];
+            uDEdgesPermutationMove = new int[N_U_D_EDGES_PERMUTATIONS][moves2.length];
+            eEdgesPermutationMove = new int[N_E_EDGES_PERMUTATIONS][moves2.length];
+            cornersPermutationMove1 = new int[N_CORNERS_PERMUTATIONS][moves1.length];
+            eEdgesArrangementMove = new int[N_EDGES_ARRANGEMENTS][moves1.length];
+            uEdgesArrangementMove = new int[N_EDGES_ARRANGEMENTS][moves1.length];
+            dEdgesArrangementMove = new int[N_EDGES_ARRANGEMENTS][moves1.length];
+            uDEdgesPermutationMerge = new int[N_EDGES_ARRANGEMENTS][24];
+            cornersOrientationConjugate = new int[N_CORNERS_ORIENTATIONS][N_SYMMETRIES];
+            flipSliceSymmetry = new int[N_E_EDGES_COMBINATIONS][N_EDGES_ORIENTATIONS];
+            phase1Distance = new CompactPruningTable(N_FLIP_SLICE_CLASSES * N_CORNERS_ORIENTATIONS);
+            cornersPermutationDistance = new PruningTable(N_CORNERS_PERMUTATIONS, N_E_EDGES_PERMUTATIONS);
+            uDEdgesPermutationDistance = new PruningTable(N_U_D_EDGES_PERMUTATIONS, N_E_EDGES_PERMUTATIONS);
+
+            cache.read(cornersOrientationMove);
+            cache.read(edgesOrientationMove);
+            cache.read(eEdgesCombinationMove);
+            cache.read(cornersPermutationMove);
+            cache.read(uDEdgesPermutationMove);
+            cache.read(eEdgesPermutationMove);
+            cache.read(cornersPermutationMove1);
+            cache.read(eEdgesArrangementMove);
+            cache.read(uEdgesArrangementMove);
+            cache.read(dEdgesArrangementMove);
+            cache.read(uDEdgesPermutationMerge);
+            cache.read(cornersOrientationConjugate);
+            cache.read(flipSliceSymmetry);
+            cache.read(phase1Distance);
+            cache.read(cornersPermutationDistance);
+            cache.read(uDEdgesPermutationDistance);
+        } catch (IOException e) {
+            return false;
+        } finally {
+            cache.close();
+        }
 
-            for (int i = 0; i < moves1.length; i++) {
-                // same side
-                if (lastMoves[0] >= 0 && sides1[i] == sides1[lastMoves[0]]) {
-                    continue;
-                }
+        return true;
+    }
 
-                // same axis three times in a row
-                if (lastMoves[0] >= 0 && axes1[i] == axes1[lastMoves[0]] &&
-                    lastMoves[1] >= 0 && axes1[i] == axes1[lastMoves[1]]) {
-                    continue;
-                }
+    private static void storeTables(TableCache cache) {
+        // the cache is an optimization only; failing to write it is not an error
+        try {
+            cache.create();
+            cache.write(cornersOrientationMove);
+            cache.write(edgesOrientationMove);
+            cache.write(eEdgesCombinationMove);
+            cache.write(cornersPermutationMove);
+            cache.write(uDEdgesPermutationMove);
+            cache.write(eEdgesPermutationMove);
+            cache.write(cornersPermutationMove1);
+            cache.write(eEdgesArrangementMove);
+            cache.write(uEdgesArrangementMove);
+            cache.write(dEdgesArrangementMove);
+            cache.write(uDEdgesPermutationMerge);
+            cache.write(cornersOrientationConjugate);
+            cache.write(flipSliceSymmetry);
+            cache.write(phase1Distance);
+            cache.write(cornersPermutationDistance);
+            cache.write(uDEdgesPermutationDistance);
+            cache.commit();
+        } catch (IOException e) {
+            cache.abort();
+        }
+    }
+
+    // search
+    private static int MAX_SOLUTION_LENGTH = 23;
+    private static int MAX_PHASE_2_SOLUTION_LENGTH = 12;
+    private static int TIME_CHECK_INTERVAL = 1024;
+
+    // state of a single search
+    //
+    // the tables are only read once built, so any number of searches can run
+    // at the same time as long as each one has its own search object. the
+    // moves of the current path are kept on two stacks, and phase 2 is
+    // entered by following the path through the move tables, so that the
+    // search itself doesn't allocate memory.
+    //
+    // once a solution is found, the search goes on looking for shorter ones
+    // until one is at most targetLength moves long or the time limit, in
+    // nanoseconds, runs out. the time is only checked once there's a solution
+    // to return.
+    private static class Search {
+        private State initialState;
+        private long startTime;
+        private long timeLimit;
+        private int targetLength;
+        private boolean stopped;
+        private int nNodes;
+        private byte[] solution;
+        private int lengthLimit;
+        private int cornersPermutation;
+        private int eEdgesArrangement;
+        private int uEdgesArrangement;
+        private int dEdgesArrangement;
+        private int[] solution1;
+        private int solution1Length;
+        private int[] solution2;
+        private int solution2Length;
+
+        public Search(State initialState, long timeLimit, int targetLength) {
+            this.initialState = initialState;
+            this.startTime = System.nanoTime();
+            this.timeLimit = timeLimit;
+            this.targetLength = targetLength;
+            this.stopped = false;
+            this.nNodes = 0;
+            this.solution = null;
+            this.lengthLimit = MAX_SOLUTION_LENGTH;
+            this.cornersPermutation = IndexMapping.permutationToIndex(initialState.cornersPermutation);
+            this.eEdgesArrangement = edgesArrangement(initialState, 0);
+            this.uEdgesArrangement = edgesArrangement(initialState, 4);
+            this.dEdgesArrangement = edgesArrangement(initialState, 8);
+            this.solution1 = new int[MAX_SOLUTION_LENGTH];
+            this.solution1Length = 0;
+            this.solution2 = new int[MAX_PHASE_2_SOLUTION_LENGTH];
+            this.solution2Length = 0;
+        }
+
+        public byte[] solution() {
+            State state = this.initialState;
+
+            // corners orientation index
+            int cornersOrientation = IndexMapping.zeroSumOrientationToIndex(state.cornersOrientation, 3);
+
+            // edges orientation index
+            int edgesOrientation = IndexMapping.zeroSumOrientationToIndex(state.edgesOrientation, 2);
+
+            // e edges combination index
+            int eEdgesCombination = this.eEdgesArrangement / 24;
 
-                solution1.add(i);
-                if (search1(cornersOrientationMove[cornersOrientation][i],
-                            edgesOrientationMove[edgesOrientation][i],
-                            eEdgesCombinationMove[eEdgesCombinations][i],
-                            depth - 1)) {
-                    return true;
+            // no phase 1 solution is shorter than the distance to its goal
+            int distance = getPhase1Distance(cornersOrientation, edgesOrientation, eEdgesCombination);
+
+            // a phase 1 solution as long as the best solution can't improve it
+            for (int depth = distance; this.solution == null || depth < this.lengthLimit; depth++) {
+                this.solution1Length = 0;
+                if (search1(cornersOrientation, edgesOrientation, eEdgesCombination, distance, depth)) {
+                    break;
                 }
-                solution1.remove(solution1.size() - 1);
             }
+
+            return this.solution;
         }
 
-        return false;
-    }
+        // returns true when the search should stop
+        private boolean search1(int cornersOrientation, int edgesOrientation, int eEdgesCombinations, int distance, int depth) {
+            if (isTimeUp()) {
+                return true;
+            }
 
-    private static boolean solution2(State state, int maxDepth) {
-        if (solution1.size() > 0) {
-            int lastMove = solution1.get(solution1.size() - 1);
-            for (int i = 0; i < moveNames2.length; i++) {
-                if (moveNames1[lastMove].equals(moveNames2[i])) {
-                    return false;
+            if (depth == 0) {
+                if (cornersOrientation == 0 && edgesOrientation == 0 && eEdgesCombinations == 0 &&
+                    solution2(this.lengthLimit - this.solution1Length)) {
+                    this.solution = new byte[this.solution1Length + this.solution2Length];
+                    for (int i = 0; i < this.solution1Length; i++) {
+                        this.solution[i] = moveCodes1[this.solution1[i]];
+                    }
+                    for (int i = 0; i < this.solution2Length; i++) {
+                        this.solution[this.solution1Length + i] = moveCodes2[this.solution2[i]];
+                    }
+
+                    this.lengthLimit = this.solution.length;
+                    if (this.solution.length <= this.targetLength) {
+                        this.stopped = true;
+                    }
                 }
+
+                return this.stopped;
             }
-        }
 
-        // corners permutation index
-        int cornersPermutation = IndexMapping.permutationToIndex(state.cornersPermutation);
+            if (distance <= depth) {
+                int lastMove = this.solution1Length > 0 ? this.solution1[this.solution1Length - 1] : -1;
+                int secondLastMove = this.solution1Length > 1 ? this.solution1[this.solution1Length - 2] : -1;
 
-        // u and d eges permutation index
-        byte[] uDEdges = new byte[8];
-        for (int i = 0; i < uDEdges.length; i++) {
-            uDEdges[i] = (byte) (state.edgesPermutation[i + 4] - 4);
-        }
-        int uDEdgesPermutation = IndexMapping.permutationToIndex(uDEdges);
+                for (int i = 0; i < moves1.length; i++) {
+                    // same side
+                    if (lastMove >= 0 && sides1[i] == sides1[lastMove]) {
+                        continue;
+                    }
 
-        // e edges permutation index
-        byte[] eEdges = new byte[4];
-        for (int i = 0; i < eEdges.length; i++) {
-            eEdges[i] = state.edgesPermutation[i];
-        }
-        int eEdgesPermutation = IndexMapping.permutationToIndex(eEdges);
+                    // same axis three times in a row
+                    if (lastMove >= 0 && axes1[i] == axes1[lastMove] &&
+                        secondLastMove >= 0 && axes1[i] == axes1[secondLastMove]) {
+                        continue;
+                    }
 
-        for (int depth = 0; depth < Math.min(MAX_PHASE_2_SOLUTION_LENGTH, maxDepth); depth++) {
-            solution2 = new ArrayList<Integer>(MAX_SOLUTION_LENGTH);
-            if (search2(cornersPermutation, uDEdgesPermutation, eEdgesPermutation, depth)) {
-                return true;
+                    int nextCornersOrientation = cornersOrientationMove[cornersOrientation][i];
+                    int nextEdgesOrientation = edgesOrientationMove[edgesOrientation][i];
+                    int nextEEdgesCombinations = eEdgesCombinationMove[eEdgesCombinations][i];
+                    int nextDistance = phase1Distance.getNeighborDistance(
+                        phase1Coordinate.getIndex(nextCornersOrientation, nextEdgesOrientation, nextEEdgesCombinations),
+                        distance);
+
+                    this.solution1[this.solution1Length++] = i;
+                    if (search1(nextCornersOrientation,
+                                nextEdgesOrientation,
+                                nextEEdgesCombinations,
+                                nextDistance,
+                                depth - 1)) {
+                        return true;
+                    }
+                    this.solution1Length--;
+                }
             }
+
+            return false;
         }
 
-        return false;
-    }
+        private boolean solution2(int maxDepth) {
+            if (this.solution1Length > 0 && isMove2[this.solution1[this.solution1Length - 1]]) {
+                return false;
+            }
+
+            // phase 2 coordinates at the end of the phase 1 solution
+            int cornersPermutation = this.cornersPermutation;
+            int eEdgesArrangement = this.eEdgesArrangement;
+            int uEdgesArrangement = this.uEdgesArrangement;
+            int dEdgesArrangement = this.dEdgesArrangement;
+            for (int i = 0; i < this.solution1Length; i++) {
+                int move = this.solution1[i];
+                cornersPermutation = cornersPermutationMove1[cornersPermutation][move];
+                eEdgesArrangement = eEdgesArrangementMove[eEdgesArrangement][move];
+                uEdgesArrangement = uEdgesArrangementMove[uEdgesArrangement][move];
+                dEdgesArrangement = dEdgesArrangementMove[dEdgesArrangement][move];
+            }
 
-    private static boolean search2(int cornersPermutation, int uDEdgesPermutation, int eEdgesPermutation, int depth) {
-        if (depth == 0) {
-            return cornersPermutation == 0 && uDEdgesPermutation == 0 && eEdgesPermutation == 0;
+            // u and d eges permutation index
+            int uDEdgesPermutation = uDEdgesPermutationMerge[uEdgesArrangement][dEdgesArrangement % 24];
+
+            // e edges permutation index; the e edges are in the e slice
+            int eEdgesPermutation = eEdgesArrangement;
+
+            for (int depth = 0; depth < Math.min(MAX_PHASE_2_SOLUTION_LENGTH, maxDepth); depth++) {
+                this.solution2Length = 0;
+                if (search2(cornersPermutation, uDEdgesPermutation, eEdgesPermutation, depth)) {
+                    return !this.stopped;
+                }
+            }
+
+            return false;
         }
 
-        if (cornersPermutationDistance[cornersPermutation][eEdgesPermutation] <= depth &&
-            uDEdgesPermutationDistance[uDEdgesPermutation][eEdgesPermutation] <= depth) {
-            int lastSide = Integer.MAX_VALUE;
-            if (solution2.size() > 0) {
-                lastSide = sides2[solution2.get(solution2.size() - 1)];
+        // returns true when a solution is found or the search should stop
+        private boolean search2(int cornersPermutation, int uDEdgesPermutation, int eEdgesPermutation, int depth) {
+            if (isTimeUp()) {
+                return true;
+            }
+
+            if (depth == 0) {
+                return cornersPermutation == 0 && uDEdgesPermutation == 0 && eEdgesPermutation == 0;
             }
 
-            for (int i = 0; i < moves2.length; i++) {
-                // avoid superflous moves between phases
-                if (solution2.size() == 0) {
-                    int lastPhase1Axis = Integer.MAX_VALUE;
-                    if (solution1.size() > 0) {
-                        lastPhase1Axis = axes1[solution1.get(solution1.size() - 1)];
+            if (cornersPermutationDistance.get(cornersPermutation, eEdgesPermutation) <= depth &&
+                uDEdgesPermutationDistance.get(uDEdgesPermutation, eEdgesPermutation) <= depth) {
+                int lastSide = Integer.MAX_VALUE;
+                if (this.solution2Length > 0) {
+                    lastSide = sides2[this.solution2[this.solution2Length - 1]];
+                }
+
+                for (int i = 0; i < moves2.length; i++) {
+                    // avoid superflous moves between phases
+                    if (this.solution2Length == 0) {
+                        int lastPhase1Axis = Integer.MAX_VALUE;
+                        if (this.solution1Length > 0) {
+                            lastPhase1Axis = axes1[this.solution1[this.solution1Length - 1]];
+                        }
+
+                        if (axes2[i] == lastPhase1Axis) {
+                            continue;
+                        }
                     }
 
-                    if (axes2[i] == lastPhase1Axis) {
+                    // same side
+                    if (sides2[i] == lastSide) {
                         continue;
                     }
-                }
 
-                // same side
-                if (sides2[i] == lastSide) {
-                    continue;
+                    this.solution2[this.solution2Length++] = i;
+                    if (search2(cornersPermutationMove[cornersPermutation][i],
+                                uDEdgesPermutationMove[uDEdgesPermutation][i],
+                                eEdgesPermutationMove[eEdgesPermutation][i],
+                                depth - 1)) {
+                        return true;
+                    }
+                    this.solution2Length--;
                 }
+            }
 
-                solution2.add(i);
-                if (search2(cornersPermutationMove[cornersPermutation][i],
-                            uDEdgesPermutationMove[uDEdgesPermutation][i],
-                            eEdgesPermutationMove[eEdgesPermutation][i],
-                            depth - 1)) {
-                    return true;
+            return false;
+        }
+
+        private boolean isTimeUp() {
+            if (!this.stopped && this.solution != null && ++this.nNodes % TIME_CHECK_INTERVAL == 0 && System.nanoTime() - this.startTime > this.timeLimit) {
+                this.stopped = true;
+            }
+
+            return this.stopped;
+        }
+    }
+
+    // distance to the phase 1 goal, found by following the distance table
+    // down to the goal
+    private static int getPhase1Distance(int cornersOrientation, int edgesOrientation, int eEdgesCombination) {
+        int distance = 0;
+        while (cornersOrientation != 0 || edgesOrientation != 0 || eEdgesCombination != 0) {
+            int residue = phase1Distance.get(phase1Coordinate.getIndex(cornersOrientation, edgesOrientation, eEdgesCombination));
+            for (int i = 0; i < moves1.length; i++) {
+                int nextCornersOrientation = cornersOrientationMove[cornersOrientation][i];
+                int nextEdgesOrientation = edgesOrientationMove[edgesOrientation][i];
+                int nextEEdgesCombination = eEdgesCombinationMove[eEdgesCombination][i];
+                if (phase1Distance.get(phase1Coordinate.getIndex(nextCornersOrientation, nextEdgesOrientation, nextEEdgesCombination)) == (residue + 2) % 3) {
+                    cornersOrientation = nextCornersOrientation;
+                    edgesOrientation = nextEdgesOrientation;
+                    eEdgesCombination = nextEEdgesCombination;
+                    break;
                 }
-                solution2.remove(solution2.size() - 1);
             }
+
+            distance++;
         }
 
-        return false;
+        return distance;
     }
 
+    public static void initialize() {
+        // the tables are built by the static initializers on first access
+    }
+
+    private static byte[] solution(State state, long timeLimit, int targetLength) {
+        return new Search(state, timeLimit, targetLength).solution();
+    }
+
+    // returns the first solution found
     public static String[] generate(State state) {
-        String[] solution = solution(state);
-
-        HashMap<String, String> inverseMoveNames = new HashMap<String, String>();
-        inverseMoveNames.put("U",  "U'");
-        inverseMoveNames.put("U2", "U2");
-        inverseMoveNames.put("U'", "U");
-        inverseMoveNames.put("D",  "D'");
-        inverseMoveNames.put("D2", "D2");
-        inverseMoveNames.put("D'", "D");
-        inverseMoveNames.put("L",  "L'");
-        inverseMoveNames.put("L2", "L2");
-        inverseMoveNames.put("L'", "L");
-        inverseMoveNames.put("R",  "R'");
-        inverseMoveNames.put("R2", "R2");
-        inverseMoveNames.put("R'", "R");
-        inverseMoveNames.put("F",  "F'");
-        inverseMoveNames.put("F2", "F2");
-        inverseMoveNames.put("F'", "F");
-        inverseMoveNames.put("B",  "B'");
-        inverseMoveNames.put("B2", "B2");
-        inverseMoveNames.put("B'", "B");
-
-        String[] sequence = new String[solution.length];
+        return MoveNotation.RUBIKS_CUBE.decode(generateMoveCodes(state));
+    }
+
+    public static byte[] generateMoveCodes(State state) {
+        return generateMoveCodes(state, Long.MAX_VALUE, MAX_SOLUTION_LENGTH);
+    }
+
+    // keeps looking for shorter solutions until one is at most targetLength
+    // moves long or timeLimit milliseconds have passed, and returns the best
+    // one found. the first solution is returned even if it takes longer than
+    // timeLimit to find
+    public static String[] generate(State state, long timeLimit, int targetLength) {
+        return MoveNotation.RUBIKS_CUBE.decode(generateMoveCodes(state, timeLimit, targetLength));
+    }
+
+    public static byte[] generateMoveCodes(State state, long timeLimit, int targetLength) {
+        long timeLimitNanos = Long.MAX_VALUE;
+        if (timeLimit < Long.MAX_VALUE / 1000000L) {
+            timeLimitNanos = timeLimit * 1000000L;
+        }
+
+        byte[] solution = solution(state, timeLimitNanos, targetLength);
+
+        // the notation lists the three turns of each face in the order
+        // X, X2, X', so the inverse of a turn mirrors its power
+        byte[] sequence = new byte[solution.length];
         for (int i = 0; i < solution.length; i++) {
-            sequence[i] = inverseMoveNames.get(solution[solution.length - i - 1]);
+            int moveCode = solution[solution.length - i - 1];
+            sequence[i] = (byte) (3 * (moveCode / 3) + 2 - moveCode % 3);
         }
 
         return sequence;
@@ -37,8 +37,8 @@ public class RubiksDominoSolver {
     private static int[][] cornersPermutationMove;
     private static int[][] edgesPermutationMove;
 
-    private static byte[] cornersPermutationDistance;
-    private static byte[] edgesPermutationDistance;
+    private static PruningTable cornersPermutationDistance;
+    private static PruningTable edgesPermutationDistance;
 
     static {
         State moveU = new State(new byte[] { 3, 0, 1, 2, 4, 5, 6, 7 }, new byte[] { 3, 0, 1, 2, 4, 5, 6, 7 });
@@ -76,7 +76,7 @@ public class RubiksDominoSolver {
             State state = new State(IndexMapping.indexToPermutation(i, 8), new byte[8]);
             for (int j = 0; j < N_MOVES; j++) {
                 cornersPermutationMove[i][j] =
-                    IndexMapping.permutationToIndex(state.multiply(moves[j]).cornersPermutation);
+                    IndexMapping.permutationToIndex(state.cornersPermutation, moves[j].cornersPermutation);
             }
         }
 
@@ -85,56 +85,24 @@ public class RubiksDominoSolver {
             State state = new State(new byte[8], IndexMapping.indexToPermutation(i, 8));
             for (int j = 0; j < N_MOVES; j++) {
                 edgesPermutationMove[i][j] =
-                    IndexMapping.permutationToIndex(state.multiply(moves[j]).edgesPermutation);
+                    IndexMapping.permutationToIndex(state.edgesPermutation, moves[j].edgesPermutation);
             }
         }
 
         // prune tables
-        cornersPermutationDistance = new byte[N_CORNERS_PERMUTATIONS];
-        for (int i = 0; i < cornersPermutationDistance.length; i++) {
-            cornersPermutationDistance[i] = -1;
-        }
-        cornersPermutationDistance[0] = 0;
-
-        int distance = 0;
-        int nVisited = 1;
-        while (nVisited < N_CORNERS_PERMUTATIONS) {
-            for (int i = 0; i < N_CORNERS_PERMUTATIONS; i++) {
-                if (cornersPermutationDistance[i] == distance) {
-                    for (int k = 0; k < N_MOVES; k++) {
-                        int next = cornersPermutationMove[i][k];
-                        if (cornersPermutationDistance[next] < 0) {
-                            cornersPermutationDistance[next] = (byte) (distance + 1);
-                            nVisited++;
-                        }
-                    }
-                }
-            }
-            distance++;
-        }
+        cornersPermutationDistance = PruningTableBuilder.build(
+            N_CORNERS_PERMUTATIONS,
+            0,
+            PruningTableBuilder.product(cornersPermutationMove));
+
+        edgesPermutationDistance = PruningTableBuilder.build(
+            N_EDGES_PERMUTATIONS,
+            0,
+            PruningTableBuilder.product(edgesPermutationMove));
+    }
 
-        edgesPermutationDistance = new byte[N_CORNERS_PERMUTATIONS];
-        for (int i = 0; i < edgesPermutationDistance.length; i++) {
-            edgesPermutationDistance[i] = -1;
-        }
-        edgesPermutationDistance[0] = 0;
-
-        distance = 0;
-        nVisited = 1;
-        while (nVisited < N_CORNERS_PERMUTATIONS) {
-            for (int i = 0; i < N_CORNERS_PERMUTATIONS; i++) {
-                if (edgesPermutationDistance[i] == distance) {
-                    for (int k = 0; k < N_MOVES; k++) {
-                        int next = edgesPermutationMove[i][k];
-                        if (edgesPermutationDistance[next] < 0) {
-                            edgesPermutationDistance[next] = (byte) (distance + 1);
-                            nVisited++;
-                        }
-                    }
-                }
-            }
-            distance++;
-        }
+    public static void initialize() {
+        // the tables are built by the static initializers on first access
     }
 
     public static String[] solve(State state) {
@@ -163,8 +131,8 @@ public class RubiksDominoSolver {
             return cornersPermutation == 0 && edgesPermutation == 0;
         }
 
-        if (cornersPermutationDistance[cornersPermutation] <= depth &&
-            edgesPermutationDistance[edgesPermutation] <= depth) {
+        if (cornersPermutationDistance.get(cornersPermutation) <= depth &&
+            edgesPermutationDistance.get(edgesPermutation) <= depth) {
             for (int i = 0; i < N_MOVES; i++) {
                 if (faces[i] == lastFace) {
                     continue;
@@ -1,9 +1,12 @@
 package com.puzzletimer.solvers;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Random;
 
+import com.puzzletimer.util.StringUtils;
+
 public class RubiksPocketCubeSolver {
     public static class State {
         public byte[] permutation;
@@ -37,18 +40,31 @@ public class RubiksPocketCubeSolver {
 
     private final int N_PERMUTATIONS = 40320;
     private final int N_ORIENTATIONS = 2187;
+    private final int N_FIXED_CORNER_PERMUTATIONS = 5040;
+    private final int N_FIXED_CORNER_ORIENTATIONS = 729;
+
+    // the corner that U, R and F leave in place
+    private final int FIXED_CORNER = 4;
+
+    // tables cache
+    private static final String CACHE_FILE_NAME = "puzzletimer.2x2x2-cube.%s.tables";
+    private static final int CACHE_VERSION = 1;
 
     private int minScrambleLength;
+    private String[] generatingSet;
+    private boolean isCornerFixed;
     private ArrayList<State> moves;
     private ArrayList<String> moveNames;
-    private boolean initialized;
+    private volatile boolean initialized;
     private int[][] permutationMove;
     private int[][] orientationMove;
-    private byte[] permutationDistance;
-    private byte[] orientationDistance;
+    private PruningTable permutationDistance;
+    private PruningTable orientationDistance;
+    private PruningTable distance;
 
     public RubiksPocketCubeSolver(int minScrambleLenght, String[] generatingSet) {
         this.minScrambleLength = minScrambleLenght;
+        this.generatingSet = generatingSet;
 
         HashMap<String, State> table = new HashMap<String, State>();
         table.put("U", new State(new byte[] { 3, 0, 1, 2, 4, 5, 6, 7 }, new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 }));
@@ -58,10 +74,18 @@ public class RubiksPocketCubeSolver {
         table.put("F", new State(new byte[] { 0, 1, 3, 7, 4, 5, 2, 6 }, new byte[] { 0, 0, 1, 2, 0, 0, 2, 1 }));
         table.put("B", new State(new byte[] { 1, 5, 2, 3, 0, 4, 6, 7 }, new byte[] { 1, 2, 0, 0, 2, 1, 0, 0 }));
 
+        // generating sets within <U, R, F> keep one corner fixed, which leaves
+        // a small enough position space for a table of exact distances
+        this.isCornerFixed = true;
+
         this.moves = new ArrayList<State>();
         this.moveNames = new ArrayList<String>();
         for (String moveName : generatingSet) {
             State move = table.get(moveName);
+            if (move.permutation[this.FIXED_CORNER] != this.FIXED_CORNER ||
+                move.orientation[this.FIXED_CORNER] != 0) {
+                this.isCornerFixed = false;
+            }
 
             this.moves.add(move);
             this.moveNames.add(moveName);
@@ -76,81 +100,175 @@ public class RubiksPocketCubeSolver {
         this.initialized = false;
     }
 
-    private void initialize() {
-        // move tables
-        this.permutationMove = new int[this.N_PERMUTATIONS][this.moves.size()];
-        for (int i = 0; i < this.permutationMove.length; i++) {
-            State state = new State(IndexMapping.indexToPermutation(i, 8), new byte[8]);
-            for (int j = 0; j < this.moves.size(); j++) {
-                this.permutationMove[i][j] =
-                    IndexMapping.permutationToIndex(
-                        state.multiply(this.moves.get(j)).permutation);
-            }
+    public synchronized void initialize() {
+        if (this.initialized) {
+            return;
         }
 
-        this.orientationMove = new int[this.N_ORIENTATIONS][this.moves.size()];
-        for (int i = 0; i < this.orientationMove.length; i++) {
-            State state = new State(new byte[8], IndexMapping.indexToZeroSumOrientation(i, 3, 8));
-            for (int j = 0; j < this.moves.size(); j++) {
-                this.orientationMove[i][j] =
-                    IndexMapping.zeroSumOrientationToIndex(
-                        state.multiply(this.moves.get(j)).orientation, 3);
+        // the tables only depend on the generating set
+        RubiksPocketCubeSolver tables = TableRegistry.get(
+            "2x2x2-CUBE",
+            "<" + StringUtils.join(", ", this.generatingSet) + ">",
+            new TableRegistry.Builder<RubiksPocketCubeSolver>() {
+                @Override
+                public RubiksPocketCubeSolver build() {
+                    RubiksPocketCubeSolver solver = new RubiksPocketCubeSolver(0, RubiksPocketCubeSolver.this.generatingSet);
+                    solver.buildTables();
+                    return solver;
+                }
+
+                @Override
+                public long getMemorySize(RubiksPocketCubeSolver tables) {
+                    return tables.getMemorySize();
+                }
+            });
+        this.permutationMove = tables.permutationMove;
+        this.orientationMove = tables.orientationMove;
+        this.permutationDistance = tables.permutationDistance;
+        this.orientationDistance = tables.orientationDistance;
+        this.distance = tables.distance;
+
+        this.initialized = true;
+    }
+
+    // coordinates
+    //
+    // when a corner is fixed, it's left out of the permutation and orientation
+    // coordinates
+
+    private int getNumberOfPermutations() {
+        return this.isCornerFixed ? this.N_FIXED_CORNER_PERMUTATIONS : this.N_PERMUTATIONS;
+    }
+
+    private int getNumberOfOrientations() {
+        return this.isCornerFixed ? this.N_FIXED_CORNER_ORIENTATIONS : this.N_ORIENTATIONS;
+    }
+
+    private int permutationToIndex(byte[] permutation) {
+        if (!this.isCornerFixed) {
+            return IndexMapping.permutationToIndex(permutation);
+        }
+
+        byte[] freePermutation = new byte[7];
+        for (int i = 0, j = 0; i < permutation.length; i++) {
+            if (i != this.FIXED_CORNER) {
+                freePermutation[j++] = (byte) (permutation[i] > this.FIXED_CORNER ? permutation[i] - 1 : permutation[i]);
             }
         }
 
-        // prune tables
-        this.permutationDistance = new byte[this.N_PERMUTATIONS];
-        for (int i = 0; i < this.permutationDistance.length; i++) {
-            this.permutationDistance[i] = -1;
+        return IndexMapping.permutationToIndex(freePermutation);
+    }
+
+    private byte[] indexToPermutation(int index) {
+        if (!this.isCornerFixed) {
+            return IndexMapping.indexToPermutation(index, 8);
         }
-        this.permutationDistance[0] = 0;
 
-        int nVisited;
-        int depth = 0;
-        do {
-            nVisited = 0;
+        byte[] freePermutation = IndexMapping.indexToPermutation(index, 7);
+        byte[] permutation = new byte[8];
+        for (int i = 0, j = 0; i < permutation.length; i++) {
+            if (i == this.FIXED_CORNER) {
+                permutation[i] = (byte) this.FIXED_CORNER;
+            } else {
+                permutation[i] = (byte) (freePermutation[j] >= this.FIXED_CORNER ? freePermutation[j] + 1 : freePermutation[j]);
+                j++;
+            }
+        }
 
-            for (int i = 0; i < this.permutationDistance.length; i++) {
-                if (this.permutationDistance[i] == depth) {
-                    for (int j = 0; j < this.moves.size(); j++) {
-                        int next = this.permutationMove[i][j];
-                        if (this.permutationDistance[next] < 0) {
-                            this.permutationDistance[next] = (byte) (depth + 1);
-                            nVisited++;
-                        }
-                    }
-                }
+        return permutation;
+    }
+
+    private int orientationToIndex(byte[] orientation) {
+        if (!this.isCornerFixed) {
+            return IndexMapping.zeroSumOrientationToIndex(orientation, 3);
+        }
+
+        byte[] freeOrientation = new byte[7];
+        for (int i = 0, j = 0; i < orientation.length; i++) {
+            if (i != this.FIXED_CORNER) {
+                freeOrientation[j++] = orientation[i];
             }
+        }
 
-            depth++;
-        } while (nVisited > 0);
+        return IndexMapping.zeroSumOrientationToIndex(freeOrientation, 3);
+    }
 
-        this.orientationDistance = new byte[this.N_ORIENTATIONS];
-        for (int i = 0; i < this.orientationDistance.length; i++) {
-            this.orientationDistance[i] = -1;
+    private byte[] indexToOrientation(int index) {
+        if (!this.isCornerFixed) {
+            return IndexMapping.indexToZeroSumOrientation(index, 3, 8);
         }
-        this.orientationDistance[0] = 0;
 
-        depth = 0;
-        do {
-            nVisited = 0;
+        byte[] freeOrientation = IndexMapping.indexToZeroSumOrientation(index, 3, 7);
+        byte[] orientation = new byte[8];
+        for (int i = 0, j = 0; i < orientation.length; i++) {
+            if (i != this.FIXED_CORNER) {
+                orientation[i] = freeOrientation[j++];
+            }
+        }
 
-            for (int i = 0; i < this.orientationDistance.length; i++) {
-                if (this.orientationDistance[i] == depth) {
-                    for (int j = 0; j < this.moves.size(); j++) {
-                        int next = this.orientationMove[i][j];
-                        if (this.orientationDistance[next] < 0) {
-                            this.orientationDistance[next] = (byte) (depth + 1);
-                            nVisited++;
-                        }
-                    }
-                }
+        return orientation;
+    }
+
+    private long getMemorySize() {
+        return
+            TableRegistry.getMemorySize(
+                this.permutationMove,
+                this.orientationMove) +
+            TableRegistry.getMemorySize(
+                this.permutationDistance,
+                this.orientationDistance,
+                this.distance);
+    }
+
+    private void buildTables() {
+        // move tables
+        this.permutationMove = new int[getNumberOfPermutations()][this.moves.size()];
+        for (int i = 0; i < this.permutationMove.length; i++) {
+            State state = new State(indexToPermutation(i), new byte[8]);
+            for (int j = 0; j < this.moves.size(); j++) {
+                this.permutationMove[i][j] =
+                    permutationToIndex(
+                        state.multiply(this.moves.get(j)).permutation);
             }
+        }
 
-            depth++;
-        } while (nVisited > 0);
+        this.orientationMove = new int[getNumberOfOrientations()][this.moves.size()];
+        for (int i = 0; i < this.orientationMove.length; i++) {
+            State state = new State(new byte[8], indexToOrientation(i));
+            for (int j = 0; j < this.moves.size(); j++) {
+                this.orientationMove[i][j] =
+                    orientationToIndex(
+                        state.multiply(this.moves.get(j)).orientation);
+            }
+        }
 
-        this.initialized = true;
+        if (this.isCornerFixed) {
+            // distance table (exact distances of all the positions)
+            File cacheFile =
+                new File(String.format(CACHE_FILE_NAME, StringUtils.join("", this.generatingSet).toLowerCase()));
+            this.distance = TableCache.load(
+                cacheFile, CACHE_VERSION, getNumberOfPermutations(), getNumberOfOrientations());
+            if (this.distance == null) {
+                this.distance = PruningTableBuilder.build(
+                    getNumberOfPermutations(),
+                    getNumberOfOrientations(),
+                    0,
+                    PruningTableBuilder.product(this.permutationMove, this.orientationMove));
+
+                TableCache.store(cacheFile, CACHE_VERSION, this.distance);
+            }
+        } else {
+            // prune tables
+            this.permutationDistance = PruningTableBuilder.build(
+                this.N_PERMUTATIONS,
+                0,
+                PruningTableBuilder.product(this.permutationMove));
+
+            this.orientationDistance = PruningTableBuilder.build(
+                this.N_ORIENTATIONS,
+                0,
+                PruningTableBuilder.product(this.orientationMove));
+        }
     }
 
     public String[] solve(State state) {
@@ -158,10 +276,32 @@ public class RubiksPocketCubeSolver {
             initialize();
         }
 
-        int permutation =
-            IndexMapping.permutationToIndex(state.permutation);
-        int orientation =
-            IndexMapping.zeroSumOrientationToIndex(state.orientation, 3);
+        int permutation = permutationToIndex(state.permutation);
+        int orientation = orientationToIndex(state.orientation);
+
+        // positions at least as far as the minimum scramble length are solved
+        // optimally by walking down the distance table
+        if (this.distance != null) {
+            int distance = this.distance.get(permutation, orientation);
+            if (distance >= this.minScrambleLength) {
+                String[] sequence = new String[distance];
+                for (int i = 0; i < sequence.length; i++) {
+                    for (int k = 0; k < this.moves.size(); k++) {
+                        int nextPermutation = this.permutationMove[permutation][k];
+                        int nextOrientation = this.orientationMove[orientation][k];
+
+                        if (this.distance.get(nextPermutation, nextOrientation) == distance - 1 - i) {
+                            sequence[i] = this.moveNames.get(k);
+                            permutation = nextPermutation;
+                            orientation = nextOrientation;
+                            break;
+                        }
+                    }
+                }
+
+                return sequence;
+            }
+        }
 
         for (int depth = this.minScrambleLength;; depth++) {
             ArrayList<String> solution = new ArrayList<String>();
@@ -179,8 +319,15 @@ public class RubiksPocketCubeSolver {
             return permutation == 0 && orientation == 0;
         }
 
-        if (this.permutationDistance[permutation] <= depth &&
-            this.orientationDistance[orientation] <= depth) {
+        boolean isPruned;
+        if (this.distance != null) {
+            isPruned = this.distance.get(permutation, orientation) > depth;
+        } else {
+            isPruned = this.permutationDistance.get(permutation) > depth ||
+                       this.orientationDistance.get(orientation) > depth;
+        }
+
+        if (!isPruned) {
             for (int i = 0; i < this.moves.size(); i++) {
                 if (i / 3 == lastFace) {
                     continue;
@@ -37,7 +37,7 @@ public class RubiksTowerSolver {
     private final int N_CORNERS_PERMUTATIONS = 40320;
     private final int N_CORNERS_COMBINATIONS = 70;
 
-    private boolean initialized;
+    private volatile boolean initialized;
 
     private State[] moves1;
     private String[] moveNames1;
@@ -50,15 +50,68 @@ public class RubiksTowerSolver {
     private int[][] edgesCombinationMove;
     private int[][] cornersPermutationMove;
     private int[][] cornersCombinationMove;
-    private byte[] orientationDistance;
-    private byte[][] edgesPermutationDistance;
-    private byte[][] cornersPermutationDistance;
+    private PruningTable orientationDistance;
+    private PruningTable edgesPermutationDistance;
+    private PruningTable cornersPermutationDistance;
 
     public RubiksTowerSolver() {
         this.initialized = false;
     }
 
-    private void initialize() {
+    public synchronized void initialize() {
+        if (this.initialized) {
+            return;
+        }
+
+        RubiksTowerSolver tables = TableRegistry.get(
+            "RUBIKS-TOWER",
+            "RUBIKS-TOWER",
+            new TableRegistry.Builder<RubiksTowerSolver>() {
+                @Override
+                public RubiksTowerSolver build() {
+                    RubiksTowerSolver solver = new RubiksTowerSolver();
+                    solver.buildTables();
+                    return solver;
+                }
+
+                @Override
+                public long getMemorySize(RubiksTowerSolver tables) {
+                    return tables.getMemorySize();
+                }
+            });
+        this.moves1 = tables.moves1;
+        this.moveNames1 = tables.moveNames1;
+        this.faces1 = tables.faces1;
+        this.moves2 = tables.moves2;
+        this.moveNames2 = tables.moveNames2;
+        this.faces2 = tables.faces2;
+        this.orientationMove = tables.orientationMove;
+        this.edgesPermutationMove = tables.edgesPermutationMove;
+        this.edgesCombinationMove = tables.edgesCombinationMove;
+        this.cornersPermutationMove = tables.cornersPermutationMove;
+        this.cornersCombinationMove = tables.cornersCombinationMove;
+        this.orientationDistance = tables.orientationDistance;
+        this.edgesPermutationDistance = tables.edgesPermutationDistance;
+        this.cornersPermutationDistance = tables.cornersPermutationDistance;
+
+        this.initialized = true;
+    }
+
+    private long getMemorySize() {
+        return
+            TableRegistry.getMemorySize(
+                this.orientationMove,
+                this.edgesPermutationMove,
+                this.edgesCombinationMove,
+                this.cornersPermutationMove,
+                this.cornersCombinationMove) +
+            TableRegistry.getMemorySize(
+                this.orientationDistance,
+                this.edgesPermutationDistance,
+                this.cornersPermutationDistance);
+    }
+
+    private void buildTables() {
         // moves
         State moveUw = new State(new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 }, new byte[] { 3, 0, 1, 2, 4, 5, 6, 7 }, new byte[] { 3, 0, 1, 2, 4, 5, 6, 7 });
         State moveDw = new State(new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 }, new byte[] { 0, 1, 2, 3, 5, 6, 7, 4 }, new byte[] { 0, 1, 2, 3, 5, 6, 7, 4 });
@@ -239,93 +292,22 @@ public class RubiksTowerSolver {
         }
 
         // prune tables
-        this.orientationDistance = new byte[this.N_ORIENTATIONS];
-        for (int i = 0; i < this.orientationDistance.length; i++) {
-            this.orientationDistance[i] = -1;
-        }
-        this.orientationDistance[0] = 0;
-
-        int depth = 0;
-        int nVisited;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < this.orientationDistance.length; i++) {
-                if (this.orientationDistance[i] == depth) {
-                    for (int j = 0; j < this.moves1.length; j++) {
-                        int next = this.orientationMove[i][j];
-                        if (this.orientationDistance[next] < 0) {
-                            this.orientationDistance[next] = (byte) (depth + 1);
-                            nVisited++;
-                        }
-                    }
-                }
-            }
-
-            depth++;
-        } while (nVisited > 0);
-
-        this.edgesPermutationDistance = new byte[this.N_EDGES_PERMUTATIONS][this.N_CORNERS_COMBINATIONS];
-        for (int i = 0; i < this.edgesPermutationDistance.length; i++) {
-            for (int j = 0; j < this.edgesPermutationDistance[i].length; j++) {
-                this.edgesPermutationDistance[i][j] = -1;
-            }
-        }
-        this.edgesPermutationDistance[0][0] = 0;
-
-        depth = 0;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < this.edgesPermutationDistance.length; i++) {
-                for (int j = 0; j < this.edgesPermutationDistance[i].length; j++) {
-                    if (this.edgesPermutationDistance[i][j] == depth) {
-                        for (int k = 0; k < this.moves2.length; k++) {
-                            int nextPermutation = this.edgesPermutationMove[i][k];
-                            int nextCombination = this.cornersCombinationMove[j][k];
-                            if (this.edgesPermutationDistance[nextPermutation][nextCombination] < 0) {
-                                this.edgesPermutationDistance[nextPermutation][nextCombination] = (byte) (depth + 1);
-                                nVisited++;
-                            }
-                        }
-                    }
-                }
-            }
-
-            depth++;
-        } while (nVisited > 0);
-
-        this.cornersPermutationDistance = new byte[this.N_CORNERS_PERMUTATIONS][this.N_EDGES_COMBINATIONS];
-        for (int i = 0; i < this.cornersPermutationDistance.length; i++) {
-            for (int j = 0; j < this.cornersPermutationDistance[i].length; j++) {
-                this.cornersPermutationDistance[i][j] = -1;
-            }
-        }
-        this.cornersPermutationDistance[0][0] = 0;
-
-        depth = 0;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < this.cornersPermutationDistance.length; i++) {
-                for (int j = 0; j < this.cornersPermutationDistance[i].length; j++) {
-                    if (this.cornersPermutationDistance[i][j] == depth) {
-                        for (int k = 0; k < this.moves2.length; k++) {
-                            int nextPermutation = this.cornersPermutationMove[i][k];
-                            int nextCombination = this.edgesCombinationMove[j][k];
-                            if (this.cornersPermutationDistance[nextPermutation][nextCombination] < 0) {
-                                this.cornersPermutationDistance[nextPermutation][nextCombination] = (byte) (depth + 1);
-                                nVisited++;
-                            }
-                        }
-                    }
-                }
-            }
-
-            depth++;
-        } while (nVisited > 0);
-
-        this.initialized = true;
+        this.orientationDistance = PruningTableBuilder.build(
+            this.N_ORIENTATIONS,
+            0,
+            PruningTableBuilder.product(this.orientationMove));
+
+        this.edgesPermutationDistance = PruningTableBuilder.build(
+            this.N_EDGES_PERMUTATIONS,
+            this.N_CORNERS_COMBINATIONS,
+            0,
+            PruningTableBuilder.product(this.edgesPermutationMove, this.cornersCombinationMove));
+
+        this.cornersPermutationDistance = PruningTableBuilder.build(
+            this.N_CORNERS_PERMUTATIONS,
+            this.N_EDGES_COMBINATIONS,
+            0,
+            PruningTableBuilder.product(this.cornersPermutationMove, this.edgesCombinationMove));
     }
 
     public String[] solve(State state) {
@@ -366,7 +348,7 @@ public class RubiksTowerSolver {
             return orientation == 0;
         }
 
-        if (this.orientationDistance[orientation] <= depth) {
+        if (this.orientationDistance.get(orientation) <= depth) {
             for (int i = 0; i < this.moves1.length; i++) {
                 if (this.faces1[i] == lastFace) {
                     continue;
@@ -435,8 +417,8 @@ public class RubiksTowerSolver {
             return edgesPermutation == 0 && cornersPermutation == 0;
         }
 
-        if (this.edgesPermutationDistance[edgesPermutation][cornersCombination] <= depth &&
-            this.cornersPermutationDistance[cornersPermutation][edgesCombination] <= depth) {
+        if (this.edgesPermutationDistance.get(edgesPermutation, cornersCombination) <= depth &&
+            this.cornersPermutationDistance.get(cornersPermutation, edgesCombination) <= depth) {
             for (int i = 0; i < this.moves2.length; i++) {
                 if (this.faces2[i] == lastFace) {
                     continue;
@@ -1,5 +1,6 @@
 package com.puzzletimer.solvers;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Random;
@@ -63,20 +64,65 @@ public class SkewbSolver {
     private final int N_FREE_CORNERS_ORIENTATION = 27;
     private final int N_FIXED_CORNERS_ORIENTATION = 81;
 
-    private boolean initialized;
+    // tables cache
+    private static final String CACHE_FILE_NAME = "puzzletimer.skewb.tables";
+    private static final int CACHE_VERSION = 1;
+
+    private volatile boolean initialized;
 
     private State[] moves;
     private int[][] facesPermutationMove;
     private int[][] freeCornersPermutationMove;
     private int[][] freeCornersOrientationMove;
     private int[][] fixedCornersOrientationMove;
-    private int[][][][] distance;
+    private PruningTable distance;
 
     public SkewbSolver() {
         this.initialized = false;
     }
 
-    private void initialize() {
+    public synchronized void initialize() {
+        if (this.initialized) {
+            return;
+        }
+
+        SkewbSolver tables = TableRegistry.get(
+            "SKEWB",
+            "SKEWB",
+            new TableRegistry.Builder<SkewbSolver>() {
+                @Override
+                public SkewbSolver build() {
+                    SkewbSolver solver = new SkewbSolver();
+                    solver.buildTables();
+                    return solver;
+                }
+
+                @Override
+                public long getMemorySize(SkewbSolver tables) {
+                    return tables.getMemorySize();
+                }
+            });
+        this.moves = tables.moves;
+        this.facesPermutationMove = tables.facesPermutationMove;
+        this.freeCornersPermutationMove = tables.freeCornersPermutationMove;
+        this.freeCornersOrientationMove = tables.freeCornersOrientationMove;
+        this.fixedCornersOrientationMove = tables.fixedCornersOrientationMove;
+        this.distance = tables.distance;
+
+        this.initialized = true;
+    }
+
+    private long getMemorySize() {
+        return
+            TableRegistry.getMemorySize(
+                this.facesPermutationMove,
+                this.freeCornersPermutationMove,
+                this.freeCornersOrientationMove,
+                this.fixedCornersOrientationMove) +
+            TableRegistry.getMemorySize(this.distance);
+    }
+
+    private void buildTables() {
         // moves
         State moveL = new State(new byte[] { 1, 4, 2, 3, 0, 5 }, new byte[] { 2, 0, 1, 3 }, new byte[] { 2, 2, 2, 0 }, new byte[] { 1, 0, 0, 0 });
         State moveR = new State(new byte[] { 3, 1, 0, 2, 4, 5 }, new byte[] { 1, 3, 2, 0 }, new byte[] { 2, 2, 0, 2 }, new byte[] { 0, 1, 0, 0 });
@@ -152,59 +198,39 @@ public class SkewbSolver {
         }
 
         // distance table
-        this.distance = new int[this.N_FACES_PERMUTATIONS]
-                               [this.N_FREE_CORNERS_PERMUTATION]
-                               [this.N_FREE_CORNERS_ORIENTATION]
-                               [this.N_FIXED_CORNERS_ORIENTATION];
-        for (int i = 0; i < this.distance.length; i++) {
-            for (int j = 0; j < this.distance[i].length; j++) {
-                for (int k = 0; k < this.distance[i][j].length; k++) {
-                    for (int m = 0; m < this.distance[i][j][k].length; m++) {
-                        this.distance[i][j][k][m] = -1;
-                    }
-                }
-            }
+        File cacheFile = new File(CACHE_FILE_NAME);
+        this.distance = TableCache.load(
+            cacheFile,
+            CACHE_VERSION,
+            1,
+            this.N_FACES_PERMUTATIONS *
+            this.N_FREE_CORNERS_PERMUTATION *
+            this.N_FREE_CORNERS_ORIENTATION *
+            this.N_FIXED_CORNERS_ORIENTATION);
+        if (this.distance == null) {
+            this.distance = PruningTableBuilder.build(
+                this.N_FACES_PERMUTATIONS *
+                this.N_FREE_CORNERS_PERMUTATION *
+                this.N_FREE_CORNERS_ORIENTATION *
+                this.N_FIXED_CORNERS_ORIENTATION,
+                distanceIndex(0, 0, 0, 0),
+                PruningTableBuilder.product(
+                    this.facesPermutationMove,
+                    this.freeCornersPermutationMove,
+                    this.freeCornersOrientationMove,
+                    this.fixedCornersOrientationMove));
+
+            TableCache.store(cacheFile, CACHE_VERSION, this.distance);
         }
+    }
 
-        this.distance[0][0][0][0] = 0;
-
-        int nVisited;
-        int depth = 0;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < this.distance.length; i++) {
-                for (int j = 0; j < this.distance[i].length; j++) {
-                    for (int k = 0; k < this.distance[i][j].length; k++) {
-                        for (int m = 0; m < this.distance[i][j][k].length; m++) {
-                            if (this.distance[i][j][k][m] == depth) {
-                                for (int moveIndex = 0; moveIndex < this.moves.length; moveIndex++) {
-                                    int nextFacesPermutation = this.facesPermutationMove[i][moveIndex];
-                                    int nextFreeCornersPemutation = this.freeCornersPermutationMove[j][moveIndex];
-                                    int nextFreeCornersOrientation = this.freeCornersOrientationMove[k][moveIndex];
-                                    int nextFixedCornersOrientation = this.fixedCornersOrientationMove[m][moveIndex];
-
-                                    if (this.distance[nextFacesPermutation]
-                                                     [nextFreeCornersPemutation]
-                                                     [nextFreeCornersOrientation]
-                                                     [nextFixedCornersOrientation] == -1) {
-                                        this.distance[nextFacesPermutation]
-                                                     [nextFreeCornersPemutation]
-                                                     [nextFreeCornersOrientation]
-                                                     [nextFixedCornersOrientation] = depth + 1;
-                                        nVisited++;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-
-            depth++;
-        } while (nVisited > 0);
+    private int distanceIndex(int facesPermutation, int freeCornersPermutation, int freeCornersOrientation, int fixedCornersOrientation) {
+        int index = facesPermutation;
+        index = index * this.N_FREE_CORNERS_PERMUTATION + freeCornersPermutation;
+        index = index * this.N_FREE_CORNERS_ORIENTATION + freeCornersOrientation;
+        index = index * this.N_FIXED_CORNERS_ORIENTATION + fixedCornersOrientation;
 
-        this.initialized = true;
+        return index;
     }
 
     public String[] solve(State state) {
@@ -230,10 +256,13 @@ public class SkewbSolver {
                 state.fixedCornersOrientation, 3);
 
         for (;;) {
-            if (this.distance[facesPermutation]
-                             [freeCornersPermutation]
-                             [freeCornersOrientation]
-                             [fixedCornersOrientation] == 0) {
+            int distance = this.distance.get(
+                distanceIndex(
+                    facesPermutation,
+                    freeCornersPermutation,
+                    freeCornersOrientation,
+                    fixedCornersOrientation));
+            if (distance == 0) {
                 break;
             }
 
@@ -243,14 +272,13 @@ public class SkewbSolver {
                 int nextFreeCornersOrientation = this.freeCornersOrientationMove[freeCornersOrientation][k];
                 int nextFixedCornersOrientation = this.fixedCornersOrientationMove[fixedCornersOrientation][k];
 
-                if (this.distance[nextFacesPermutation]
-                                 [nextFreeCornersPemutation]
-                                 [nextFreeCornersOrientation]
-                                 [nextFixedCornersOrientation] ==
-                    this.distance[facesPermutation]
-                                 [freeCornersPermutation]
-                                 [freeCornersOrientation]
-                                 [fixedCornersOrientation] - 1) {
+                int nextDistance = this.distance.get(
+                    distanceIndex(
+                        nextFacesPermutation,
+                        nextFreeCornersPemutation,
+                        nextFreeCornersOrientation,
+                        nextFixedCornersOrientation));
+                if (nextDistance == distance - 1) {
                     sequence.add(moveNames[k]);
                     facesPermutation = nextFacesPermutation;
                     freeCornersPermutation = nextFreeCornersPemutation;
@@ -303,10 +331,12 @@ public class SkewbSolver {
             int indexFixedCornersOrientation =
                 random.nextInt(this.N_FIXED_CORNERS_ORIENTATION);
 
-            if (this.distance[indexFacesPermutation]
-                             [indexFreeCornersPermutation]
-                             [indexFreeCornersOrientation]
-                             [indexFixedCornersOrientation] == -1) {
+            int index = distanceIndex(
+                indexFacesPermutation,
+                indexFreeCornersPermutation,
+                indexFreeCornersOrientation,
+                indexFixedCornersOrientation);
+            if (this.distance.get(index) == PruningTable.EMPTY) {
                 continue;
             }
 
@@ -0,0 +1,182 @@
+package com.puzzletimer.solvers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// builds solver tables in background threads
+//
+// each solver is registered with the puzzle it belongs to and an initializer
+// that builds its tables. the solvers of the prioritized puzzle are built
+// before the others.
+public class SolverRegistry {
+    public static class Listener {
+        public void solverReady(String solverId) { }
+    }
+
+    private class InitializationTask extends FutureTask<Void> implements Comparable<InitializationTask> {
+        private String solverId;
+        private String puzzleId;
+        private int order;
+        private volatile int priority;
+
+        public InitializationTask(String solverId, String puzzleId, int order, Runnable initializer) {
+            super(initializer, null);
+            this.solverId = solverId;
+            this.puzzleId = puzzleId;
+            this.order = order;
+            this.priority = 1;
+        }
+
+        @Override
+        public int compareTo(InitializationTask task) {
+            if (this.priority != task.priority) {
+                return this.priority < task.priority ? -1 : 1;
+            }
+
+            return this.order < task.order ? -1 : this.order > task.order ? 1 : 0;
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+
+            for (Listener listener : getListeners()) {
+                listener.solverReady(this.solverId);
+            }
+        }
+    }
+
+    private ArrayList<Listener> listeners;
+    private HashMap<String, InitializationTask> tasks;
+    private ArrayList<InitializationTask> pendingTasks;
+    private ThreadPoolExecutor executor;
+    private boolean started;
+
+    public SolverRegistry(int nThreads) {
+        this.listeners = new ArrayList<Listener>();
+        this.tasks = new HashMap<String, InitializationTask>();
+        this.pendingTasks = new ArrayList<InitializationTask>();
+
+        final AtomicInteger nCreatedThreads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            nThreads,
+            nThreads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<Runnable>(),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "solver-initializer-" + nCreatedThreads.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+        this.started = false;
+    }
+
+    public synchronized void register(String solverId, String puzzleId, Runnable initializer) {
+        if (this.tasks.containsKey(solverId)) {
+            return;
+        }
+
+        InitializationTask task = new InitializationTask(solverId, puzzleId, this.tasks.size(), initializer);
+        this.tasks.put(solverId, task);
+
+        if (this.started) {
+            this.executor.execute(task);
+        } else {
+            this.pendingTasks.add(task);
+        }
+    }
+
+    public synchronized void start(String puzzleId) {
+        if (this.started) {
+            prioritize(puzzleId);
+            return;
+        }
+
+        this.started = true;
+        for (InitializationTask task : this.pendingTasks) {
+            if (task.puzzleId.equals(puzzleId)) {
+                task.priority = 0;
+            }
+        }
+
+        // the whole queue is filled before the threads are started so that
+        // the first tasks taken are the prioritized ones rather than the
+        // first registered ones
+        for (InitializationTask task : this.pendingTasks) {
+            this.executor.getQueue().add(task);
+        }
+        this.pendingTasks.clear();
+
+        this.executor.prestartAllCoreThreads();
+    }
+
+    public synchronized void prioritize(String puzzleId) {
+        for (InitializationTask task : this.tasks.values()) {
+            int priority = task.puzzleId.equals(puzzleId) ? 0 : 1;
+            if (task.priority == priority) {
+                continue;
+            }
+
+            // the queue only orders tasks on insertion, so queued tasks
+            // must be reinserted to pick up their new priority
+            if (this.started && this.executor.getQueue().remove(task)) {
+                task.priority = priority;
+                this.executor.execute(task);
+            } else {
+                task.priority = priority;
+            }
+        }
+    }
+
+    public synchronized Future<Void> getFuture(String solverId) {
+        return this.tasks.get(solverId);
+    }
+
+    public synchronized boolean isReady(String solverId) {
+        InitializationTask task = this.tasks.get(solverId);
+        return task == null || task.isDone();
+    }
+
+    // whether every registered solver is ready
+    public synchronized boolean isReady() {
+        for (InitializationTask task : this.tasks.values()) {
+            if (!task.isDone()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    private synchronized Listener[] getListeners() {
+        Listener[] listeners = new Listener[this.listeners.size()];
+        this.listeners.toArray(listeners);
+        return listeners;
+    }
+
+    public synchronized void addListener(Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    public synchronized void removeListener(Listener listener) {
+        this.listeners.remove(listener);
+    }
+}
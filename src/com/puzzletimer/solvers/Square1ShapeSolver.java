@@ -119,68 +119,56 @@ public class Square1ShapeSolver {
     public static final int N_POSITIONS = 16777216;
 
     // distance table
-    public static int[] distance;
+    public static PruningTable distance;
 
     static {
-        distance = new int[N_POSITIONS];
-        for (int i = 0; i < distance.length; i++) {
-            distance[i] = -1;
-        }
-
-        distance[State.id.index] = 0;
-
-        int nVisitedPositions;
-        int depth = 0;
-        do {
-            nVisitedPositions = 0;
-
-            for (int i = 0; i < distance.length; i++) {
-                if (distance[i] == depth) {
-                    State state = new State(i);
+        // moves: twist, then the 11 rotations of the top layer and the 11
+        // rotations of the bottom layer
+        distance = PruningTableBuilder.build(
+            N_POSITIONS,
+            State.id.index,
+            new PruningTableBuilder.Graph() {
+                @Override
+                public int getNumberOfMoves() {
+                    return 23;
+                }
 
-                    // twist
-                    if (state.isTwistable()) {
-                        State next = state.twist();
-                        if (distance[next.index] == -1) {
-                            distance[next.index] = depth + 1;
-                            nVisitedPositions++;
-                        }
+                @Override
+                public int move(int index, int move) {
+                    State state = new State(index);
+                    if (move == 0) {
+                        return state.isTwistable() ? state.twist().index : index;
                     }
 
-                    // rotate top
-                    State nextTop = new State(i);
-                    for (int j = 0; j < 11; j++) {
-                        nextTop = nextTop.rotateTop();
-                        if (distance[nextTop.index] == -1) {
-                            distance[nextTop.index] = depth + 1;
-                            nVisitedPositions++;
+                    int top = state.getTop();
+                    int bottom = state.getBottom();
+                    if (move <= 11) {
+                        for (int i = 0; i < move; i++) {
+                            top = State.rotate(top);
                         }
-                    }
-
-                    // rotate bottom
-                    State nextBottom = new State(i);
-                    for (int j = 0; j < 11; j++) {
-                        nextBottom = nextBottom.rotateBottom();
-                        if (distance[nextBottom.index] == -1) {
-                            distance[nextBottom.index] = depth + 1;
-                            nVisitedPositions++;
+                    } else {
+                        for (int i = 0; i < move - 11; i++) {
+                            bottom = State.rotate(bottom);
                         }
                     }
+
+                    return (bottom << 12) | top;
                 }
-            }
+            });
+    }
 
-            depth++;
-        } while (nVisitedPositions > 0);
+    public static void initialize() {
+        // the tables are built by the static initializers on first access
     }
 
     public static String[] solve(State state) {
         ArrayList<String> sequence = new ArrayList<String>();
 
-        while (distance[state.index] > 0) {
+        while (distance.get(state.index) > 0) {
             // twist
             if (state.isTwistable()) {
                 State next = state.twist();
-                if (distance[next.index] == distance[state.index] - 1) {
+                if (distance.get(next.index) == distance.get(state.index) - 1) {
                     sequence.add("/");
                     state = next;
                 }
@@ -190,7 +178,7 @@ public class Square1ShapeSolver {
             int x = 0;
             State nextTop = new State(state.index);
             for (int i = 0; i < 12; i++) {
-                if (distance[nextTop.index] == distance[state.index] - 1) {
+                if (distance.get(nextTop.index) == distance.get(state.index) - 1) {
                     x = i;
                     state = nextTop;
                     break;
@@ -203,7 +191,7 @@ public class Square1ShapeSolver {
             int y = 0;
             State nextBottom = new State(state.index);
             for (int j = 0; j < 12; j++) {
-                if (distance[nextBottom.index] == distance[state.index] - 1) {
+                if (distance.get(nextBottom.index) == distance.get(state.index) - 1) {
                     y = j;
                     state = nextBottom;
                     break;
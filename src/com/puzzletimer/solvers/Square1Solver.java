@@ -123,7 +123,7 @@ public class Square1Solver {
         }
     }
 
-    private boolean initialized;
+    private volatile boolean initialized;
 
     // phase 1
     private State[] moves1;
@@ -142,14 +142,62 @@ public class Square1Solver {
     private int[][] cornersCombinationMove;
     private int[][] edgesPermutationMove;
     private int[][] edgesCombinationMove;
-    private byte[][] cornersDistance;
-    private byte[][] edgesDistance;
+    private PruningTable cornersDistance;
+    private PruningTable edgesDistance;
 
     public Square1Solver() {
         this.initialized = false;
     }
 
-    private void initialize() {
+    public synchronized void initialize() {
+        if (this.initialized) {
+            return;
+        }
+
+        Square1Solver tables = TableRegistry.get(
+            "SQUARE-1",
+            "SQUARE-1",
+            new TableRegistry.Builder<Square1Solver>() {
+                @Override
+                public Square1Solver build() {
+                    Square1Solver solver = new Square1Solver();
+                    solver.buildTables();
+                    return solver;
+                }
+
+                @Override
+                public long getMemorySize(Square1Solver tables) {
+                    return tables.getMemorySize();
+                }
+            });
+        this.moves1 = tables.moves1;
+        this.shapes = tables.shapes;
+        this.evenShapeDistance = tables.evenShapeDistance;
+        this.oddShapeDistance = tables.oddShapeDistance;
+        this.moves2 = tables.moves2;
+        this.cornersPermutationMove = tables.cornersPermutationMove;
+        this.cornersCombinationMove = tables.cornersCombinationMove;
+        this.edgesPermutationMove = tables.edgesPermutationMove;
+        this.edgesCombinationMove = tables.edgesCombinationMove;
+        this.cornersDistance = tables.cornersDistance;
+        this.edgesDistance = tables.edgesDistance;
+
+        this.initialized = true;
+    }
+
+    private long getMemorySize() {
+        return
+            TableRegistry.getMemorySize(
+                this.cornersPermutationMove,
+                this.cornersCombinationMove,
+                this.edgesPermutationMove,
+                this.edgesCombinationMove) +
+            TableRegistry.getMemorySize(
+                this.cornersDistance,
+                this.edgesDistance);
+    }
+
+    private void buildTables() {
         // -- phase 1 --
 
         // moves
@@ -325,67 +373,17 @@ public class Square1Solver {
         }
 
         // prune tables
-        this.cornersDistance = new byte[this.N_CORNERS_PERMUTATIONS][this.N_EDGES_COMBINATIONS];
-        for (int i = 0; i < this.cornersDistance.length; i++) {
-            for (int j = 0; j < this.cornersDistance[i].length; j++) {
-                this.cornersDistance[i][j] = -1;
-            }
-        }
-        this.cornersDistance[0][0] = 0;
-
-        int nVisited;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < this.cornersDistance.length; i++) {
-                for (int j = 0; j < this.cornersDistance[i].length; j++) {
-                    if (this.cornersDistance[i][j] == depth) {
-                        for (int k = 0; k < this.moves2.length; k++) {
-                            int nextCornerPermutation = this.cornersPermutationMove[i][k];
-                            int nextEdgeCombination = this.edgesCombinationMove[j][k];
-                            if (this.cornersDistance[nextCornerPermutation][nextEdgeCombination] < 0) {
-                                this.cornersDistance[nextCornerPermutation][nextEdgeCombination] = (byte) (depth + 1);
-                                nVisited++;
-                            }
-                        }
-                    }
-                }
-            }
-
-            depth++;
-        } while (nVisited > 0);
-
-        this.edgesDistance = new byte[this.N_EDGES_PERMUTATIONS][this.N_CORNERS_COMBINATIONS];
-        for (int i = 0; i < this.edgesDistance.length; i++) {
-            for (int j = 0; j < this.edgesDistance[i].length; j++) {
-                this.edgesDistance[i][j] = -1;
-            }
-        }
-        this.edgesDistance[0][0] = 0;
-
-        depth = 0;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < this.edgesDistance.length; i++) {
-                for (int j = 0; j < this.edgesDistance[i].length; j++) {
-                    if (this.edgesDistance[i][j] == depth) {
-                        for (int k = 0; k < this.moves2.length; k++) {
-                            int nextEdgesPermutation = this.edgesPermutationMove[i][k];
-                            int nextCornersCombination = this.cornersCombinationMove[j][k];
-                            if (this.edgesDistance[nextEdgesPermutation][nextCornersCombination] < 0) {
-                                this.edgesDistance[nextEdgesPermutation][nextCornersCombination] = (byte) (depth + 1);
-                                nVisited++;
-                            }
-                        }
-                    }
-                }
-            }
-
-            depth++;
-        } while (nVisited > 0);
-
-        this.initialized = true;
+        this.cornersDistance = PruningTableBuilder.build(
+            this.N_CORNERS_PERMUTATIONS,
+            this.N_EDGES_COMBINATIONS,
+            0,
+            PruningTableBuilder.product(this.cornersPermutationMove, this.edgesCombinationMove));
+
+        this.edgesDistance = PruningTableBuilder.build(
+            this.N_EDGES_PERMUTATIONS,
+            this.N_CORNERS_COMBINATIONS,
+            0,
+            PruningTableBuilder.product(this.edgesPermutationMove, this.cornersCombinationMove));
     }
 
     private boolean isEvenPermutation(byte[] permutation) {
@@ -619,8 +617,8 @@ public class Square1Solver {
             return cornersPermutation == 0 && edgesPermutation == 0;
         }
 
-        if (this.cornersDistance[cornersPermutation][edgesCombination] <= depth &&
-            this.edgesDistance[edgesPermutation][cornersCombination] <= depth) {
+        if (this.cornersDistance.get(cornersPermutation, edgesCombination) <= depth &&
+            this.edgesDistance.get(edgesPermutation, cornersCombination) <= depth) {
             for (int i = 0; i < this.moves2.length; i++) {
                 if (solution.length - depth - 1 >= 0 && solution[solution.length - depth - 1] / 3 == i / 3) {
                     continue;
@@ -0,0 +1,296 @@
+package com.puzzletimer.solvers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// binary cache file for solver tables
+//
+// layout: magic, version, tables (each preceded by its dimensions), crc32 of
+// everything before the checksum
+public class TableCache {
+    private static final int MAGIC = 0x50544331; // "PTC1"
+
+    private File file;
+    private int version;
+    private DataInputStream input;
+    private long remaining;
+    private byte[] chunk;
+    private File temporaryFile;
+    private CheckedOutputStream checkedOutput;
+    private DataOutputStream output;
+
+    public TableCache(File file, int version) {
+        this.file = file;
+        this.version = version;
+        this.input = null;
+        this.remaining = 0;
+        this.chunk = null;
+        this.temporaryFile = null;
+        this.checkedOutput = null;
+        this.output = null;
+    }
+
+    public File getFile() {
+        return this.file;
+    }
+
+    // single table caches
+
+    // returns null if the cache is missing, stale or holds a table of
+    // different dimensions
+    public static PruningTable load(File file, int version, int nRows, int nColumns) {
+        TableCache cache = new TableCache(file, version);
+        if (!cache.open()) {
+            return null;
+        }
+
+        try {
+            PruningTable table = new PruningTable(nRows, nColumns);
+            cache.read(table);
+            return table;
+        } catch (IOException e) {
+            return null;
+        } finally {
+            cache.close();
+        }
+    }
+
+    // errors are ignored, as the table can always be built again
+    public static void store(File file, int version, PruningTable table) {
+        TableCache cache = new TableCache(file, version);
+        try {
+            cache.create();
+            cache.write(table);
+            cache.commit();
+        } catch (IOException e) {
+            cache.abort();
+        }
+    }
+
+    // reading
+
+    // the whole file is checked before any table is read. the file is only
+    // kept open between open() and close()
+    public boolean open() {
+        if (!this.file.isFile() || this.file.length() < 16) {
+            return false;
+        }
+
+        long payloadLength = this.file.length() - 8;
+
+        try {
+            // checksum
+            DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(this.file), 65536));
+            try {
+                CRC32 crc = new CRC32();
+                byte[] chunk = new byte[65536];
+                for (long position = 0; position < payloadLength; ) {
+                    int length = (int) Math.min(chunk.length, payloadLength - position);
+                    input.readFully(chunk, 0, length);
+                    crc.update(chunk, 0, length);
+                    position += length;
+                }
+
+                if (input.readLong() != crc.getValue()) {
+                    return false;
+                }
+            } finally {
+                input.close();
+            }
+
+            // header
+            this.input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(this.file), 65536));
+            if (this.input.readInt() != MAGIC || this.input.readInt() != this.version) {
+                close();
+                return false;
+            }
+
+            this.remaining = payloadLength - 8;
+            this.chunk = new byte[65536];
+        } catch (IOException e) {
+            close();
+            return false;
+        }
+
+        return true;
+    }
+
+    public void read(int[][] table) throws IOException {
+        int nColumns = table.length > 0 ? table[0].length : 0;
+        readDimensions(table.length, nColumns, 4L * table.length * nColumns);
+
+        for (int i = 0; i < table.length; i++) {
+            for (int j = 0; j < nColumns; ) {
+                int length = Math.min(nColumns - j, this.chunk.length / 4);
+                readFully(this.chunk, 4 * length);
+                ByteBuffer.wrap(this.chunk, 0, 4 * length).asIntBuffer().get(table[i], j, length);
+                j += length;
+            }
+        }
+    }
+
+    public void read(byte[][] table) throws IOException {
+        int nColumns = table.length > 0 ? table[0].length : 0;
+        readDimensions(table.length, nColumns, (long) table.length * nColumns);
+
+        for (int i = 0; i < table.length; i++) {
+            readFully(table[i], table[i].length);
+        }
+    }
+
+    public void read(byte[] table) throws IOException {
+        readDimensions(1, table.length, table.length);
+
+        readFully(table, table.length);
+    }
+
+    public void read(PruningTable table) throws IOException {
+        readDimensions(table.getNumberOfRows(), table.getNumberOfColumns(), table.getData().length);
+
+        readFully(table.getData(), table.getData().length);
+    }
+
+    public void read(CompactPruningTable table) throws IOException {
+        readDimensions(1, table.size(), table.getData().length);
+
+        readFully(table.getData(), table.getData().length);
+    }
+
+    private void readDimensions(int nRows, int nColumns, long dataLength) throws IOException {
+        if (this.input == null) {
+            throw new IOException("cache not open");
+        }
+
+        if (this.remaining < 8 ||
+            this.input.readInt() != nRows ||
+            this.input.readInt() != nColumns ||
+            this.remaining - 8 < dataLength) {
+            throw new IOException("unexpected table dimensions");
+        }
+
+        this.remaining -= 8;
+    }
+
+    private void readFully(byte[] data, int length) throws IOException {
+        this.input.readFully(data, 0, length);
+        this.remaining -= length;
+    }
+
+    public void close() {
+        if (this.input != null) {
+            try {
+                this.input.close();
+            } catch (IOException e) {
+            }
+            this.input = null;
+        }
+
+        this.chunk = null;
+    }
+
+    // writing
+
+    public void create() throws IOException {
+        File directory = this.file.getAbsoluteFile().getParentFile();
+        this.temporaryFile = File.createTempFile(this.file.getName(), ".tmp", directory);
+        this.checkedOutput = new CheckedOutputStream(
+            new BufferedOutputStream(new FileOutputStream(this.temporaryFile), 65536),
+            new CRC32());
+        this.output = new DataOutputStream(this.checkedOutput);
+
+        this.output.writeInt(MAGIC);
+        this.output.writeInt(this.version);
+    }
+
+    public void write(int[][] table) throws IOException {
+        this.output.writeInt(table.length);
+        this.output.writeInt(table.length > 0 ? table[0].length : 0);
+        for (int i = 0; i < table.length; i++) {
+            for (int j = 0; j < table[i].length; j++) {
+                this.output.writeInt(table[i][j]);
+            }
+        }
+    }
+
+    public void write(byte[][] table) throws IOException {
+        this.output.writeInt(table.length);
+        this.output.writeInt(table.length > 0 ? table[0].length : 0);
+        for (int i = 0; i < table.length; i++) {
+            this.output.write(table[i]);
+        }
+    }
+
+    public void write(byte[] table) throws IOException {
+        this.output.writeInt(1);
+        this.output.writeInt(table.length);
+        this.output.write(table);
+    }
+
+    public void write(PruningTable table) throws IOException {
+        this.output.writeInt(table.getNumberOfRows());
+        this.output.writeInt(table.getNumberOfColumns());
+        this.output.write(table.getData());
+    }
+
+    public void write(CompactPruningTable table) throws IOException {
+        this.output.writeInt(1);
+        this.output.writeInt(table.size());
+        this.output.write(table.getData());
+    }
+
+    public void commit() throws IOException {
+        // the checksum itself is not part of the checked stream
+        this.output.flush();
+        long checksum = this.checkedOutput.getChecksum().getValue();
+        this.output.writeLong(checksum);
+        this.output.close();
+        this.output = null;
+
+        // replace previous cache file. renaming over an existing file fails
+        // on some platforms, in which case the old file is moved aside first
+        // and put back if the new one still can't take its place
+        if (this.temporaryFile.renameTo(this.file)) {
+            return;
+        }
+
+        File previousFile = new File(this.file.getPath() + ".old");
+        previousFile.delete();
+        boolean moved = this.file.exists() && this.file.renameTo(previousFile);
+
+        if (!this.temporaryFile.renameTo(this.file)) {
+            if (moved) {
+                previousFile.renameTo(this.file);
+            }
+
+            this.temporaryFile.delete();
+            throw new IOException("unable to rename " + this.temporaryFile);
+        }
+
+        previousFile.delete();
+    }
+
+    public void abort() {
+        if (this.output != null) {
+            try {
+                this.output.close();
+            } catch (IOException e) {
+            }
+            this.output = null;
+        }
+
+        if (this.temporaryFile != null) {
+            this.temporaryFile.delete();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.puzzletimer.solvers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+// process-wide registry of solver tables
+//
+// tables are identified by puzzle and by a description of what they were
+// built for (usually the generating set). each set of tables is built once,
+// by the first thread that asks for it, and shared by every solver that
+// asks for it afterwards. builders also report the memory used by the
+// tables they build.
+public class TableRegistry {
+    public interface Builder<T> {
+        T build();
+
+        // approximate memory used by the tables, in bytes
+        long getMemorySize(T tables);
+    }
+
+    private static class Entry {
+        private String puzzleId;
+        private FutureTask<Object> task;
+        private long size;
+        private long buildTime;
+    }
+
+    private static ConcurrentHashMap<String, Entry> entries =
+        new ConcurrentHashMap<String, Entry>();
+
+    @SuppressWarnings("unchecked")
+    public static <T> T get(String puzzleId, String tablesId, final Builder<T> builder) {
+        final Entry entry = new Entry();
+        entry.puzzleId = puzzleId;
+        entry.task = new FutureTask<Object>(new Callable<Object>() {
+            @Override
+            public Object call() {
+                long start = System.currentTimeMillis();
+                T tables = builder.build();
+                entry.buildTime = System.currentTimeMillis() - start;
+                entry.size = builder.getMemorySize(tables);
+                return tables;
+            }
+        });
+
+        String key = puzzleId + "/" + tablesId;
+        Entry previousEntry = entries.putIfAbsent(key, entry);
+        if (previousEntry == null) {
+            entry.task.run();
+        }
+
+        try {
+            return (T) (previousEntry == null ? entry : previousEntry).task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            // let the next caller try again
+            entries.remove(key, previousEntry == null ? entry : previousEntry);
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    // approximate memory used by the tables of each puzzle, in bytes
+    public static HashMap<String, Long> getMemoryUsage() {
+        HashMap<String, Long> memoryUsage = new HashMap<String, Long>();
+        for (Entry entry : builtEntries()) {
+            Long size = memoryUsage.get(entry.puzzleId);
+            memoryUsage.put(entry.puzzleId, (size == null ? 0 : size) + entry.size);
+        }
+
+        return memoryUsage;
+    }
+
+    // time spent building the tables of each puzzle, in milliseconds
+    public static HashMap<String, Long> getBuildTimes() {
+        HashMap<String, Long> buildTimes = new HashMap<String, Long>();
+        for (Entry entry : builtEntries()) {
+            Long buildTime = buildTimes.get(entry.puzzleId);
+            buildTimes.put(entry.puzzleId, (buildTime == null ? 0 : buildTime) + entry.buildTime);
+        }
+
+        return buildTimes;
+    }
+
+    private static ArrayList<Entry> builtEntries() {
+        ArrayList<Entry> builtEntries = new ArrayList<Entry>();
+        for (Entry entry : entries.values()) {
+            if (entry.task.isDone()) {
+                builtEntries.add(entry);
+            }
+        }
+
+        return builtEntries;
+    }
+
+    // approximate memory used by move tables, assuming 16 byte array headers
+    // and 4 byte references
+    public static long getMemorySize(int[][]... tables) {
+        long size = 0;
+        for (int[][] table : tables) {
+            if (table == null) {
+                continue;
+            }
+
+            size += align(16 + 4L * table.length);
+            for (int[] row : table) {
+                size += align(16 + 4L * row.length);
+            }
+        }
+
+        return size;
+    }
+
+    public static long getMemorySize(PruningTable... tables) {
+        long size = 0;
+        for (PruningTable table : tables) {
+            if (table != null) {
+                size += 24 + align(16 + table.getMemorySize());
+            }
+        }
+
+        return size;
+    }
+
+    private static long align(long size) {
+        return (size + 7) / 8 * 8;
+    }
+}
@@ -38,7 +38,7 @@ public class TowerCubeSolver {
     private static State[] moves;
     private static int[][] cornersPermutationMove;
     private static int[][] edgesPermutationMove;
-    private static int distance[][];
+    private static PruningTable distance;
 
     static {
         State moveU = new State(new byte[] { 3, 0, 1, 2, 4, 5, 6, 7 }, new byte[] { 0, 1, 2, 3 });
@@ -67,7 +67,7 @@ public class TowerCubeSolver {
             State state = new State(IndexMapping.indexToPermutation(i, 8), new byte[4]);
             for (int j = 0; j < N_MOVES; j++) {
                 cornersPermutationMove[i][j] =
-                    IndexMapping.permutationToIndex(state.multiply(moves[j]).cornersPermutation);
+                    IndexMapping.permutationToIndex(state.cornersPermutation, moves[j].cornersPermutation);
             }
         }
 
@@ -76,43 +76,20 @@ public class TowerCubeSolver {
             State state = new State(new byte[8], IndexMapping.indexToPermutation(i, 4));
             for (int j = 0; j < N_MOVES; j++) {
                 edgesPermutationMove[i][j] =
-                    IndexMapping.permutationToIndex(state.multiply(moves[j]).edgesPermutation);
+                    IndexMapping.permutationToIndex(state.edgesPermutation, moves[j].edgesPermutation);
             }
         }
 
         // distance table
-        distance = new int[N_CORNERS_PERMUTATIONS][N_EDGES_PERMUTATIONS];
-        for (int i = 0; i < distance.length; i++) {
-            for (int j = 0; j < distance[i].length; j++) {
-                distance[i][j] = -1;
-            }
-        }
-
-        distance[0][0] = 0;
-
-        int nVisited;
-        int depth = 0;
-        do {
-            nVisited = 0;
-
-            for (int i = 0; i < N_CORNERS_PERMUTATIONS; i++) {
-                for (int j = 0; j < N_EDGES_PERMUTATIONS; j++) {
-                    if (distance[i][j] == depth) {
-                        for (int k = 0; k < N_MOVES; k++) {
-                            int nextCornersPemutation = cornersPermutationMove[i][k];
-                            int nextEdgesPemutation = edgesPermutationMove[j][k];
-
-                            if (distance[nextCornersPemutation][nextEdgesPemutation] == -1) {
-                                distance[nextCornersPemutation][nextEdgesPemutation] = depth + 1;
-                                nVisited++;
-                            }
-                        }
-                    }
-                }
-            }
+        distance = PruningTableBuilder.build(
+            N_CORNERS_PERMUTATIONS,
+            N_EDGES_PERMUTATIONS,
+            0,
+            PruningTableBuilder.product(cornersPermutationMove, edgesPermutationMove));
+    }
 
-            depth++;
-        } while (nVisited > 0);
+    public static void initialize() {
+        // the tables are built by the static initializers on first access
     }
 
     public static String[] solve(State state) {
@@ -126,7 +103,7 @@ public class TowerCubeSolver {
             IndexMapping.permutationToIndex(state.edgesPermutation);
 
         for (;;) {
-            if (distance[cornersPermutationIndex][edgesPermutationIndex] == 0) {
+            if (distance.get(cornersPermutationIndex, edgesPermutationIndex) == 0) {
                 break;
             }
 
@@ -136,8 +113,8 @@ public class TowerCubeSolver {
                 int nextEdgesPermutationIndex =
                     edgesPermutationMove[edgesPermutationIndex][k];
 
-                if (distance[nextCornersPermutationIndex][nextEdgesPermutationIndex] ==
-                    distance[cornersPermutationIndex][edgesPermutationIndex] - 1) {
+                if (distance.get(nextCornersPermutationIndex, nextEdgesPermutationIndex) ==
+                    distance.get(cornersPermutationIndex, edgesPermutationIndex) - 1) {
                     sequence.add(moveNames[k]);
                     cornersPermutationIndex = nextCornersPermutationIndex;
                     edgesPermutationIndex = nextEdgesPermutationIndex;
@@ -0,0 +1,129 @@
+package com.puzzletimer.state;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
+
+// solutions are indexed by id and kept in start order in a series, so that
+// changes don't need the whole list to be sorted again. every change
+// returns a description of itself, with the next version, to be handed to
+// the listeners
+class IndexedSolutionStore<L extends SolutionsChange.Listener> {
+    private ArrayList<L> listeners;
+    private HashMap<UUID, Solution> solutions;
+    private SortedSolveSeries series;
+    private long version;
+
+    public IndexedSolutionStore() {
+        this.listeners = new ArrayList<L>();
+        this.solutions = new HashMap<UUID, Solution>();
+        this.series = new SortedSolveSeries();
+        this.version = 0;
+    }
+
+    public SolveSeries getSeries() {
+        return this.series;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public boolean contains(Solution solution) {
+        return this.solutions.containsKey(solution.getSolutionId());
+    }
+
+    public SolutionsChange set(Solution[] solutions) {
+        this.solutions.clear();
+        for (Solution solution : solutions) {
+            this.solutions.put(solution.getSolutionId(), solution);
+        }
+        this.series.set(solutions);
+
+        return reset();
+    }
+
+    public SolutionsChange put(Solution solution) {
+        Solution oldSolution = this.solutions.put(solution.getSolutionId(), solution);
+        if (oldSolution == null) {
+            int position = this.series.add(solution);
+            return createChange(SolutionsChange.Type.INSERTED, position, solution);
+        }
+
+        // a solution whose start changed may move
+        boolean moves = !oldSolution.getTiming().getStart().equals(solution.getTiming().getStart());
+
+        int position = this.series.update(solution);
+        if (moves) {
+            return reset();
+        }
+
+        return createChange(SolutionsChange.Type.UPDATED, position, solution);
+    }
+
+    public SolutionsChange putAll(Solution[] solutions) {
+        ArrayList<Solution> newSolutions = new ArrayList<Solution>();
+        for (Solution solution : solutions) {
+            Solution oldSolution = this.solutions.put(solution.getSolutionId(), solution);
+            if (oldSolution == null) {
+                newSolutions.add(solution);
+            } else {
+                this.series.update(solution);
+            }
+        }
+
+        Solution[] newSolutionsArray = new Solution[newSolutions.size()];
+        newSolutions.toArray(newSolutionsArray);
+        this.series.addAll(newSolutionsArray);
+
+        return reset();
+    }
+
+    public SolutionsChange remove(Solution solution) {
+        Solution oldSolution = this.solutions.remove(solution.getSolutionId());
+        if (oldSolution == null) {
+            return reset();
+        }
+
+        int position = this.series.remove(oldSolution);
+        return createChange(SolutionsChange.Type.REMOVED, position, oldSolution);
+    }
+
+    public SolutionsChange clear() {
+        this.solutions.clear();
+        this.series.clear();
+
+        return reset();
+    }
+
+    // a change that lets the listeners start over
+    public SolutionsChange reset() {
+        return createChange(SolutionsChange.Type.RESET, -1, null);
+    }
+
+    private SolutionsChange createChange(SolutionsChange.Type type, int position, Solution solution) {
+        this.version++;
+        return new SolutionsChange(this.version, type, position, solution, this.series);
+    }
+
+    public ArrayList<L> getListeners() {
+        return this.listeners;
+    }
+
+    public void notifyListeners(SolutionsChange change) {
+        for (L listener : this.listeners) {
+            listener.solutionsChanged(change);
+        }
+    }
+
+    public void addListener(L listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removeListener(L listener) {
+        this.listeners.remove(listener);
+    }
+}
@@ -0,0 +1,281 @@
+package com.puzzletimer.state;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.UUID;
+
+import com.puzzletimer.models.Category;
+import com.puzzletimer.models.PersonalRecord;
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.statistics.Best;
+import com.puzzletimer.statistics.BestAverage;
+import com.puzzletimer.statistics.BestMean;
+import com.puzzletimer.statistics.IncrementalStatisticalMeasure;
+
+// keeps the personal records of the current category up to date. a solution
+// only takes part in the windows within k - 1 solutions of it, so adding,
+// updating or removing a solution only needs the windows around it. the
+// whole history is gone through again only when the window holding a record
+// is broken up or gets worse
+public class PersonalRecordManager {
+    public static class Listener {
+        public void personalRecordsUpdated(PersonalRecord[] records) { }
+    }
+
+    private static final String[] measureIds = {
+        "SINGLE",
+        "MEAN-OF-3",
+        "MEAN-OF-100",
+        "AVERAGE-OF-5",
+        "AVERAGE-OF-12",
+    };
+
+    private ArrayList<Listener> listeners;
+    private IncrementalStatisticalMeasure[] measures;
+    private UUID categoryId;
+    private SortedSolveSeries series;
+    private long[] records;
+    private boolean[] isNewestRecord;
+
+    public PersonalRecordManager() {
+        this.listeners = new ArrayList<Listener>();
+
+        this.measures = new IncrementalStatisticalMeasure[] {
+            new Best(1, Integer.MAX_VALUE),
+            new BestMean(3, 3),
+            new BestMean(100, 100),
+            new BestAverage(5, 5),
+            new BestAverage(12, 12),
+        };
+
+        this.series = new SortedSolveSeries();
+
+        this.records = new long[this.measures.length];
+        Arrays.fill(this.records, Long.MAX_VALUE);
+        this.isNewestRecord = new boolean[this.measures.length];
+    }
+
+    public int getNumberOfMeasures() {
+        return this.measures.length;
+    }
+
+    public int getWindowSize(int measure) {
+        return this.measures[measure].getMinimumWindowSize();
+    }
+
+    public PersonalRecord[] getPersonalRecords() {
+        PersonalRecord[] records = new PersonalRecord[this.measures.length];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = new PersonalRecord(this.categoryId, measureIds[i], this.records[i]);
+        }
+
+        return records;
+    }
+
+    // whether the last solution added was the newest one and the window
+    // ending at it equals or beats the previous record
+    public boolean isNewestRecord(int measure) {
+        return this.isNewestRecord[measure];
+    }
+
+    // stored records are trusted; the missing ones are computed
+    public void loadSolutions(Category category, Solution[] solutions, PersonalRecord[] records) {
+        this.categoryId = category.getCategoryId();
+        this.series.set(solutions);
+
+        Arrays.fill(this.records, Long.MAX_VALUE);
+        Arrays.fill(this.isNewestRecord, false);
+
+        boolean[] isStored = new boolean[this.measures.length];
+        for (PersonalRecord record : records) {
+            int measure = Arrays.asList(measureIds).indexOf(record.getMeasureId());
+            if (measure >= 0) {
+                this.records[measure] = record.getValue();
+                isStored[measure] = true;
+            }
+        }
+
+        boolean changed = false;
+        for (int i = 0; i < this.measures.length; i++) {
+            if (!isStored[i]) {
+                recompute(i);
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    public void addSolution(Solution solution) {
+        int index = -this.series.indexOf(solution) - 1;
+        if (index < 0) {
+            Arrays.fill(this.isNewestRecord, false);
+            return;
+        }
+
+        boolean isNewest = index == this.series.size();
+
+        // windows spanning the insertion point are broken up
+        long[] before = new long[this.measures.length];
+        for (int i = 0; i < this.measures.length; i++) {
+            before[i] = bestWindowAcross(i, index);
+        }
+
+        this.series.add(solution);
+
+        boolean changed = false;
+        for (int i = 0; i < this.measures.length; i++) {
+            long after = bestWindowThrough(i, index);
+
+            this.isNewestRecord[i] =
+                isNewest && after != Long.MAX_VALUE && after <= this.records[i];
+
+            changed |= updateRecord(i, before[i], after);
+        }
+
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    public void addSolutions(Solution[] solutions) {
+        this.series.addAll(solutions);
+
+        Arrays.fill(this.isNewestRecord, false);
+
+        recomputeAll();
+    }
+
+    public void updateSolution(Solution solution) {
+        Arrays.fill(this.isNewestRecord, false);
+
+        int index = this.series.indexOf(solution);
+        if (index < 0) {
+            // the start changed
+            if (this.series.indexOf(solution.getSolutionId()) >= 0) {
+                this.series.update(solution);
+                recomputeAll();
+            }
+
+            return;
+        }
+
+        long[] before = new long[this.measures.length];
+        for (int i = 0; i < this.measures.length; i++) {
+            before[i] = bestWindowThrough(i, index);
+        }
+
+        this.series.update(solution);
+
+        boolean changed = false;
+        for (int i = 0; i < this.measures.length; i++) {
+            changed |= updateRecord(i, before[i], bestWindowThrough(i, index));
+        }
+
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    public void removeSolution(Solution solution) {
+        Arrays.fill(this.isNewestRecord, false);
+
+        int index = this.series.indexOf(solution);
+        if (index < 0) {
+            return;
+        }
+
+        long[] before = new long[this.measures.length];
+        for (int i = 0; i < this.measures.length; i++) {
+            before[i] = bestWindowThrough(i, index);
+        }
+
+        // windows spanning the gap are formed
+        this.series.remove(solution);
+
+        boolean changed = false;
+        for (int i = 0; i < this.measures.length; i++) {
+            changed |= updateRecord(i, before[i], bestWindowAcross(i, index));
+        }
+
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    // before and after are the best of the windows that were replaced
+    private boolean updateRecord(int measure, long before, long after) {
+        long record = this.records[measure];
+
+        if (before == record && after > record) {
+            recompute(measure);
+        } else if (after < record) {
+            this.records[measure] = after;
+        }
+
+        return this.records[measure] != record;
+    }
+
+    private void recomputeAll() {
+        boolean changed = false;
+        for (int i = 0; i < this.measures.length; i++) {
+            long record = this.records[i];
+            recompute(i);
+            changed |= this.records[i] != record;
+        }
+
+        if (changed) {
+            notifyListeners();
+        }
+    }
+
+    private void recompute(int measure) {
+        this.measures[measure].setSolutions(this.series, 0, this.series.size());
+        this.records[measure] = this.measures[measure].getValue();
+    }
+
+    // best of the windows that include the solution at the given position
+    private long bestWindowThrough(int measure, int index) {
+        int windowSize = this.measures[measure].getMinimumWindowSize();
+        return bestWindow(
+            measure,
+            Math.max(0, index - windowSize + 1),
+            Math.min(this.series.size(), index + windowSize));
+    }
+
+    // best of the windows that span the gap before the given position
+    private long bestWindowAcross(int measure, int index) {
+        int windowSize = this.measures[measure].getMinimumWindowSize();
+        return bestWindow(
+            measure,
+            Math.max(0, index - windowSize + 1),
+            Math.min(this.series.size(), index + windowSize - 1));
+    }
+
+    private long bestWindow(int measure, int start, int end) {
+        if (end - start < this.measures[measure].getMinimumWindowSize()) {
+            return Long.MAX_VALUE;
+        }
+
+        this.measures[measure].setSolutions(this.series, start, end);
+
+        return this.measures[measure].getValue();
+    }
+
+    private void notifyListeners() {
+        PersonalRecord[] records = getPersonalRecords();
+        for (Listener listener : this.listeners) {
+            listener.personalRecordsUpdated(records);
+        }
+    }
+
+    public void addListener(Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        this.listeners.remove(listener);
+    }
+}
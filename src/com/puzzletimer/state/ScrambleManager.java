@@ -1,11 +1,21 @@
 package com.puzzletimer.state;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.SwingUtilities;
 
 import com.puzzletimer.models.Category;
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.scramblers.Scrambler;
 import com.puzzletimer.scramblers.ScramblerProvider;
+import com.puzzletimer.solvers.SolverRegistry;
 
 public class ScrambleManager {
     public static class Listener {
@@ -13,25 +23,88 @@ public class ScrambleManager {
         public void scramblesRemoved(Scramble[] scrambles) { }
         public void scrambleQueueUpdated(Scramble[] queue) { }
         public void scrambleChanged(Scramble scramble) { }
+        public void scramblePreparing(Scramble scramble) { }
+    }
+
+    public interface ScrambleCallback {
+        void scrambleReady(Scramble scramble);
     }
 
+    // number of scramblers whose pools are kept
+    private static final int N_POOLS = 3;
+    // failed scrambles in a row after which the producer stops retrying
+    // until the scramble is changed again
+    private static final int MAXIMUM_FAILURES = 3;
+
     private ArrayList<Listener> listeners;
     private ScramblerProvider scramblerProvider;
+    private SolverRegistry solverRegistry;
     private Scrambler currentScrambler;
+    // read by the producer thread, which skips the scrambles of scramblers
+    // that are no longer current
+    private volatile String currentScramblerId;
     private ArrayList<Scramble> queue;
     private Scramble currentScramble;
+    private boolean preparing;
+    // solves finished while their scramble was being prepared
+    private ArrayDeque<ScrambleCallback> waitingCallbacks;
 
-    public ScrambleManager(ScramblerProvider scramblerProvider, Scrambler scrambler) {
+    // pre-generated scrambles of the most recently used scramblers. the pools
+    // are only accessed on the EDT; scrambles are generated by the producer
+    // thread and handed back through SwingUtilities.invokeLater
+    private ExecutorService producer;
+    private int poolSize;
+    private LinkedHashMap<String, ArrayDeque<Scramble>> pools;
+    private HashMap<String, Integer> nPendingScrambles;
+    private int nPoolHits;
+    private int nPoolMisses;
+    private int nFailures;
+
+    @SuppressWarnings("serial")
+    public ScrambleManager(ScramblerProvider scramblerProvider, SolverRegistry solverRegistry, Scrambler scrambler, int poolSize) {
         this.listeners = new ArrayList<Listener>();
         this.scramblerProvider = scramblerProvider;
+        this.solverRegistry = solverRegistry;
         this.currentScrambler = scrambler;
+        this.currentScramblerId = scrambler.getScramblerInfo().getScramblerId();
         this.queue = new ArrayList<Scramble>();
-        this.currentScramble = this.currentScrambler.getNextScramble();
+        this.currentScramble = createPlaceholder();
+        this.preparing = true;
+        this.waitingCallbacks = new ArrayDeque<ScrambleCallback>();
+
+        this.producer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "scramble-producer");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+        this.poolSize = Math.max(0, poolSize);
+        this.pools = new LinkedHashMap<String, ArrayDeque<Scramble>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ArrayDeque<Scramble>> eldest) {
+                return size() > N_POOLS;
+            }
+        };
+        this.nPendingScrambles = new HashMap<String, Integer>();
+        this.nPoolHits = 0;
+        this.nPoolMisses = 0;
+        this.nFailures = 0;
     }
 
     public void setCategory(Category category) {
+        // the solves still waiting can't wait for the producer, which only
+        // works for the current scrambler
+        while (!this.waitingCallbacks.isEmpty()) {
+            this.waitingCallbacks.removeFirst().scrambleReady(this.currentScrambler.getNextScramble());
+        }
+
         this.queue.clear();
         this.currentScrambler = this.scramblerProvider.get(category.getScramblerId());
+        this.currentScramblerId = this.currentScrambler.getScramblerInfo().getScramblerId();
+        this.solverRegistry.prioritize(this.currentScrambler.getScramblerInfo().getPuzzleId());
         changeScramble();
         notifyListeners();
     }
@@ -95,17 +168,191 @@ public class ScrambleManager {
         return this.currentScramble;
     }
 
+    public boolean isPreparing() {
+        return this.preparing;
+    }
+
+    // hands the current scramble to the callback. while the current scramble
+    // is being prepared, the callback gets the scramble being prepared once
+    // it's ready, so that a solve never keeps the placeholder
+    public void takeCurrentScramble(ScrambleCallback callback) {
+        if (!this.preparing) {
+            callback.scrambleReady(this.currentScramble);
+            return;
+        }
+
+        this.waitingCallbacks.addLast(callback);
+        refillPool();
+    }
+
+    public int getPoolSize() {
+        return this.poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = Math.max(0, poolSize);
+        refillPool();
+    }
+
+    public int getPoolHits() {
+        return this.nPoolHits;
+    }
+
+    public int getPoolMisses() {
+        return this.nPoolMisses;
+    }
+
     public void changeScramble() {
+        this.nFailures = 0;
+
+        ArrayDeque<Scramble> pool = getPool(this.currentScrambler.getScramblerInfo().getScramblerId());
+
         if (this.queue.size() > 0) {
             this.currentScramble = this.queue.get(0);
             removeScrambles(new int[] { 0 });
+        } else if (!pool.isEmpty()) {
+            this.currentScramble = pool.removeFirst();
+            this.nPoolHits++;
         } else {
-            this.currentScramble = this.currentScrambler.getNextScramble();
+            // wait for the producer
+            this.nPoolMisses++;
+            this.currentScramble = createPlaceholder();
+            this.preparing = true;
+
+            for (Listener listener : this.listeners) {
+                listener.scramblePreparing(this.currentScramble);
+            }
+
+            refillPool();
+            return;
         }
 
+        this.preparing = false;
+
         for (Listener listener : this.listeners) {
             listener.scrambleChanged(this.currentScramble);
         }
+
+        refillPool();
+    }
+
+    private ArrayDeque<Scramble> getPool(String scramblerId) {
+        ArrayDeque<Scramble> pool = this.pools.get(scramblerId);
+        if (pool == null) {
+            pool = new ArrayDeque<Scramble>();
+            this.pools.put(scramblerId, pool);
+        }
+
+        return pool;
+    }
+
+    private void refillPool() {
+        final Scrambler scrambler = this.currentScrambler;
+        final String scramblerId = scrambler.getScramblerInfo().getScramblerId();
+
+        // the waiting solves and, while preparing, the current scramble take
+        // the next generated scrambles right away
+        int nWanted = this.poolSize + this.waitingCallbacks.size() + (this.preparing ? 1 : 0);
+
+        Integer nPending = this.nPendingScrambles.get(scramblerId);
+        if (nPending == null) {
+            nPending = 0;
+        }
+
+        int nMissing = nWanted - getPool(scramblerId).size() - nPending;
+        if (nMissing <= 0) {
+            return;
+        }
+
+        this.nPendingScrambles.put(scramblerId, nPending + nMissing);
+
+        for (int i = 0; i < nMissing; i++) {
+            this.producer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    // don't keep the current scrambler waiting behind the
+                    // jobs of the previous one
+                    if (!scramblerId.equals(ScrambleManager.this.currentScramblerId)) {
+                        SwingUtilities.invokeLater(new Runnable() {
+                            @Override
+                            public void run() {
+                                scrambleSkipped(scramblerId);
+                            }
+                        });
+                        return;
+                    }
+
+                    // the job is accounted for even if the scrambler throws
+                    Scramble scramble = null;
+                    try {
+                        scramble = scrambler.getNextScramble();
+                    } finally {
+                        final Scramble producedScramble = scramble;
+                        SwingUtilities.invokeLater(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (producedScramble == null) {
+                                    scrambleFailed(scramblerId);
+                                } else {
+                                    scrambleProduced(scramblerId, producedScramble);
+                                }
+                            }
+                        });
+                    }
+                }
+            });
+        }
+    }
+
+    private void scrambleProduced(String scramblerId, Scramble scramble) {
+        this.nPendingScrambles.put(scramblerId, this.nPendingScrambles.get(scramblerId) - 1);
+        this.nFailures = 0;
+
+        boolean isCurrentScrambler =
+            this.currentScrambler.getScramblerInfo().getScramblerId().equals(scramblerId);
+        if (isCurrentScrambler && !this.waitingCallbacks.isEmpty()) {
+            this.waitingCallbacks.removeFirst().scrambleReady(scramble);
+            return;
+        }
+
+        if (this.preparing && isCurrentScrambler) {
+            this.currentScramble = scramble;
+            this.preparing = false;
+
+            for (Listener listener : this.listeners) {
+                listener.scrambleChanged(this.currentScramble);
+            }
+
+            return;
+        }
+
+        getPool(scramblerId).addLast(scramble);
+    }
+
+    private void scrambleFailed(String scramblerId) {
+        this.nPendingScrambles.put(scramblerId, this.nPendingScrambles.get(scramblerId) - 1);
+        this.nFailures++;
+
+        // retry, but don't keep the producer busy with a scrambler that
+        // always fails
+        if (this.currentScramblerId.equals(scramblerId) && this.nFailures < MAXIMUM_FAILURES) {
+            refillPool();
+        }
+    }
+
+    private void scrambleSkipped(String scramblerId) {
+        this.nPendingScrambles.put(scramblerId, this.nPendingScrambles.get(scramblerId) - 1);
+
+        // the scrambler may have become current again in the meantime
+        if (this.currentScramblerId.equals(scramblerId)) {
+            refillPool();
+        }
+    }
+
+    private Scramble createPlaceholder() {
+        return new Scramble(
+            this.currentScrambler.getScramblerInfo().getScramblerId(),
+            new String[] { });
     }
 
     private void notifyListeners() {
@@ -1,94 +1,63 @@
 package com.puzzletimer.state;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.UUID;
-
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 
 public class SessionManager {
-    public static class Listener {
-        public void solutionsUpdated(Solution[] solutions) { }
+    public static class Listener extends SolutionsChange.Listener {
     }
 
-    private ArrayList<Listener> listeners;
-    private HashMap<UUID, Solution> solutions;
+    private IndexedSolutionStore<Listener> store;
 
     public SessionManager() {
-        this.listeners = new ArrayList<Listener>();
-        this.solutions = new HashMap<UUID, Solution>();
+        this.store = new IndexedSolutionStore<Listener>();
     }
 
-    public Solution[] getSolutions() {
-        ArrayList<Solution> solutions =
-            new ArrayList<Solution>(this.solutions.values());
+    // live view of the solutions, oldest first
+    public SolveSeries getSolveSeries() {
+        return this.store.getSeries();
+    }
 
-        Collections.sort(solutions,new Comparator<Solution>() {
-            @Override
-            public int compare(Solution solution1, Solution solution2) {
-                Date start1 = solution1.getTiming().getStart();
-                Date start2 = solution2.getTiming().getStart();
-                return start2.compareTo(start1);
-            }
-        });
+    public int getNumberOfSolutions() {
+        return this.store.getSeries().size();
+    }
 
-        Solution[] solutionsArray = new Solution[solutions.size()];
-        solutions.toArray(solutionsArray);
+    // newest first
+    public Solution[] getSolutions() {
+        return this.store.getSeries().getSolutions();
+    }
 
-        return solutionsArray;
+    public long getVersion() {
+        return this.store.getVersion();
     }
 
     public void addSolution(Solution solution) {
-        this.solutions.put(solution.getSolutionId(), solution);
-        notifyListeners();
+        this.store.notifyListeners(this.store.put(solution));
     }
 
     public void updateSolution(Solution solution) {
-        if (this.solutions.containsKey(solution.getSolutionId())) {
-            this.solutions.put(solution.getSolutionId(), solution);
-            notifyListeners();
+        if (this.store.contains(solution)) {
+            this.store.notifyListeners(this.store.put(solution));
         }
     }
 
     public void removeSolution(Solution solution) {
-        this.solutions.remove(solution.getSolutionId());
-        notifyListeners();
+        this.store.notifyListeners(this.store.remove(solution));
     }
 
     public void clearSession() {
-        this.solutions.clear();
-        notifyListeners();
+        this.store.notifyListeners(this.store.clear());
     }
 
     public void notifyListeners() {
-        ArrayList<Solution> solutions =
-            new ArrayList<Solution>(this.solutions.values());
-
-        Collections.sort(solutions,new Comparator<Solution>() {
-            @Override
-            public int compare(Solution solution1, Solution solution2) {
-                Date start1 = solution1.getTiming().getStart();
-                Date start2 = solution2.getTiming().getStart();
-                return start2.compareTo(start1);
-            }
-        });
-
-        Solution[] solutionsArray = new Solution[solutions.size()];
-        solutions.toArray(solutionsArray);
-
-        for (Listener listener : this.listeners) {
-            listener.solutionsUpdated(solutionsArray);
-        }
+        this.store.notifyListeners(this.store.reset());
     }
 
     public void addListener(Listener listener) {
-        this.listeners.add(listener);
+        this.store.addListener(listener);
     }
 
     public void removeListener(Listener listener) {
-        this.listeners.remove(listener);
+        this.store.removeListener(listener);
     }
 }
@@ -1,114 +1,88 @@
 package com.puzzletimer.state;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.UUID;
-
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 
 public class SolutionManager {
-    public static class Listener {
+    public static class Listener extends SolutionsChange.Listener {
         public void solutionAdded(Solution solution) { }
         public void solutionsAdded(Solution[] solutions) { }
         public void solutionRemoved(Solution solution) { }
         public void solutionUpdated(Solution solution) { }
-        public void solutionsUpdated(Solution[] solutions) { }
     }
 
-    private ArrayList<Listener> listeners;
-    private HashMap<UUID, Solution> solutions;
+    // every change is published as soon as it's made, before the callbacks
+    // of single solutions, so that a change made by one of them reaches the
+    // listeners after the change it follows
+    private IndexedSolutionStore<Listener> store;
 
     public SolutionManager() {
-        this.listeners = new ArrayList<Listener>();
-        this.solutions = new HashMap<UUID, Solution>();
+        this.store = new IndexedSolutionStore<Listener>();
+    }
+
+    // live view of the solutions, oldest first
+    public SolveSeries getSolveSeries() {
+        return this.store.getSeries();
+    }
+
+    public int getNumberOfSolutions() {
+        return this.store.getSeries().size();
     }
 
+    // newest first
     public Solution[] getSolutions() {
-        ArrayList<Solution> solutions =
-            new ArrayList<Solution>(this.solutions.values());
-
-        Collections.sort(solutions,new Comparator<Solution>() {
-            @Override
-            public int compare(Solution solution1, Solution solution2) {
-                Date start1 = solution1.getTiming().getStart();
-                Date start2 = solution2.getTiming().getStart();
-                return start2.compareTo(start1);
-            }
-        });
-
-        Solution[] solutionsArray = new Solution[solutions.size()];
-        solutions.toArray(solutionsArray);
-
-        return solutionsArray;
+        return this.store.getSeries().getSolutions();
     }
 
-    public void loadSolutions(Solution[] solutions) {
-        this.solutions.clear();
-        for (Solution solution : solutions) {
-            this.solutions.put(solution.getSolutionId(), solution);
-        }
+    public long getVersion() {
+        return this.store.getVersion();
+    }
 
-        notifyListeners();
+    public void loadSolutions(Solution[] solutions) {
+        this.store.notifyListeners(this.store.set(solutions));
     }
 
     public void addSolution(Solution solution) {
-        this.solutions.put(solution.getSolutionId(), solution);
+        this.store.notifyListeners(this.store.put(solution));
 
-        for (Listener listener : this.listeners) {
+        for (Listener listener : this.store.getListeners()) {
             listener.solutionAdded(solution);
         }
-
-        notifyListeners();
     }
 
     public void addSolutions(Solution[] solutions) {
-        for (Solution solution : solutions) {
-            this.solutions.put(solution.getSolutionId(), solution);
-        }
+        this.store.notifyListeners(this.store.putAll(solutions));
 
-        for (Listener listener : this.listeners) {
+        for (Listener listener : this.store.getListeners()) {
             listener.solutionsAdded(solutions);
         }
-
-        notifyListeners();
     }
 
     public void removeSolution(Solution solution) {
-        this.solutions.remove(solution.getSolutionId());
+        this.store.notifyListeners(this.store.remove(solution));
 
-        for (Listener listener : this.listeners) {
+        for (Listener listener : this.store.getListeners()) {
             listener.solutionRemoved(solution);
         }
-
-        notifyListeners();
     }
 
     public void updateSolution(Solution solution) {
-        this.solutions.put(solution.getSolutionId(), solution);
+        this.store.notifyListeners(this.store.put(solution));
 
-        for (Listener listener : this.listeners) {
+        for (Listener listener : this.store.getListeners()) {
             listener.solutionUpdated(solution);
         }
-
-        notifyListeners();
     }
 
     public void notifyListeners() {
-        Solution[] solutions = getSolutions();
-
-        for (Listener listener : this.listeners) {
-            listener.solutionsUpdated(solutions);
-        }
+        this.store.notifyListeners(this.store.reset());
     }
 
     public void addListener(Listener listener) {
-        this.listeners.add(listener);
+        this.store.addListener(listener);
     }
 
     public void removeListener(Listener listener) {
-        this.listeners.remove(listener);
+        this.store.removeListener(listener);
     }
 }
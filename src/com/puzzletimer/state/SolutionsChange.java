@@ -0,0 +1,79 @@
+package com.puzzletimer.state;
+
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
+
+// a change to the solutions of a manager. positions are indices in its
+// series, oldest first, and refer to the solutions before the change for
+// removals and after it otherwise. changes that touch more than one
+// position are reported as a reset. versions increase by one with every
+// change
+public class SolutionsChange {
+    public static class Listener {
+        public void solutionsUpdated(Solution[] solutions) { }
+
+        // by default, hands the whole list to solutionsUpdated
+        public void solutionsChanged(SolutionsChange change) {
+            solutionsUpdated(change.getSolutions());
+        }
+    }
+
+    public enum Type {
+        INSERTED,
+        REMOVED,
+        UPDATED,
+        RESET,
+    }
+
+    private final long version;
+    private final Type type;
+    private final int position;
+    private final Solution solution;
+    private final SolveSeries series;
+    private Solution[] solutions;
+
+    public SolutionsChange(long version, Type type, int position, Solution solution, SolveSeries series) {
+        this.version = version;
+        this.type = type;
+        this.position = position;
+        this.solution = solution;
+        this.series = series;
+        this.solutions = null;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    public int getPosition() {
+        return this.position;
+    }
+
+    public Solution getSolution() {
+        return this.solution;
+    }
+
+    // live view of the solutions after the change
+    public SolveSeries getSeries() {
+        return this.series;
+    }
+
+    // whether a solution newer than all the others was added
+    public boolean isAppend() {
+        return this.type == Type.INSERTED && this.position == this.series.size() - 1;
+    }
+
+    // all the solutions after the change, newest first. built on first use
+    // and shared by the listeners
+    public Solution[] getSolutions() {
+        if (this.solutions == null) {
+            this.solutions = this.series.getSolutions();
+        }
+
+        return this.solutions;
+    }
+}
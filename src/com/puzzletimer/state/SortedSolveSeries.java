@@ -0,0 +1,287 @@
+package com.puzzletimer.state;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
+
+// solutions stored column by column in parallel arrays, so that statistics
+// and charts can go through their times without boxing or touching the
+// solution objects, which are kept in a column of their own. appending a
+// solution newer than the rest takes amortized constant time. only the
+// owner of a series, in this package, can change it
+public class SortedSolveSeries implements SolveSeries {
+    private static final Comparator<Solution> solutionComparator = new Comparator<Solution>() {
+        @Override
+        public int compare(Solution solution1, Solution solution2) {
+            long start1 = solution1.getTiming().getStart().getTime();
+            long start2 = solution2.getTiming().getStart().getTime();
+            if (start1 != start2) {
+                return start1 < start2 ? -1 : 1;
+            }
+
+            return solution1.getSolutionId().compareTo(solution2.getSolutionId());
+        }
+    };
+
+    private int size;
+    private long[] starts;
+    // centiseconds
+    private int[] elapsedTimes;
+    private byte[] penalties;
+    private Solution[] solutions;
+
+    public SortedSolveSeries() {
+        this.size = 0;
+        this.starts = new long[16];
+        this.elapsedTimes = new int[16];
+        this.penalties = new byte[16];
+        this.solutions = new Solution[16];
+    }
+
+    // solutions in any order
+    public SortedSolveSeries(Solution[] solutions) {
+        this();
+        addAll(solutions);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public long getStart(int index) {
+        return this.starts[index];
+    }
+
+    @Override
+    public long getElapsedTime(int index) {
+        return 10L * this.elapsedTimes[index];
+    }
+
+    @Override
+    public byte getPenalty(int index) {
+        return this.penalties[index];
+    }
+
+    @Override
+    public Solution getSolution(int index) {
+        return this.solutions[index];
+    }
+
+    @Override
+    public UUID getSolutionId(int index) {
+        return this.solutions[index].getSolutionId();
+    }
+
+    @Override
+    public Solution[] getSolutions() {
+        Solution[] solutions = new Solution[this.size];
+        for (int i = 0; i < this.size; i++) {
+            solutions[i] = this.solutions[this.size - 1 - i];
+        }
+
+        return solutions;
+    }
+
+    @Override
+    public long getRealTime(int index) {
+        switch (this.penalties[index]) {
+            case DNF:
+                return Long.MAX_VALUE;
+            case PLUS_TWO:
+                return 10L * this.elapsedTimes[index] + 2000;
+            default:
+                return 10L * this.elapsedTimes[index];
+        }
+    }
+
+    @Override
+    public int getRealTimes(int start, int end, long[] times, boolean filterDNF) {
+        int nTimes = 0;
+        for (int i = start; i < end; i++) {
+            long time = getRealTime(i);
+            if (!filterDNF || time != Long.MAX_VALUE) {
+                times[nTimes++] = time;
+            }
+        }
+
+        return nTimes;
+    }
+
+    // binary search
+    @Override
+    public int indexOf(Solution solution) {
+        int low = 0;
+        int high = this.size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            int comparison = compare(solution, middle);
+            if (comparison > 0) {
+                low = middle + 1;
+            } else if (comparison < 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    // takes linear time
+    @Override
+    public int indexOf(UUID solutionId) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.solutions[i].getSolutionId().equals(solutionId)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    void clear() {
+        Arrays.fill(this.solutions, 0, this.size, null);
+        this.size = 0;
+    }
+
+    void set(Solution[] solutions) {
+        clear();
+        addAll(solutions);
+    }
+
+    // returns the position of the solution
+    int add(Solution solution) {
+        int index = this.size;
+        if (this.size > 0 && compare(solution, this.size - 1) < 0) {
+            index = -indexOf(solution) - 1;
+        }
+
+        ensureCapacity(this.size + 1);
+
+        int nMoved = this.size - index;
+        System.arraycopy(this.starts, index, this.starts, index + 1, nMoved);
+        System.arraycopy(this.elapsedTimes, index, this.elapsedTimes, index + 1, nMoved);
+        System.arraycopy(this.penalties, index, this.penalties, index + 1, nMoved);
+        System.arraycopy(this.solutions, index, this.solutions, index + 1, nMoved);
+        this.size++;
+
+        write(index, solution);
+
+        return index;
+    }
+
+    // sorts the solutions and merges them with the series in a single pass
+    void addAll(Solution[] solutions) {
+        Solution[] sortedSolutions = solutions.clone();
+        Arrays.sort(sortedSolutions, solutionComparator);
+
+        ensureCapacity(this.size + sortedSolutions.length);
+
+        // merge from the back so that no element is overwritten before it
+        // is moved
+        int i = this.size - 1;
+        int j = sortedSolutions.length - 1;
+        for (int k = this.size + sortedSolutions.length - 1; j >= 0; k--) {
+            if (i >= 0 && compare(sortedSolutions[j], i) < 0) {
+                this.starts[k] = this.starts[i];
+                this.elapsedTimes[k] = this.elapsedTimes[i];
+                this.penalties[k] = this.penalties[i];
+                this.solutions[k] = this.solutions[i];
+                i--;
+            } else {
+                write(k, sortedSolutions[j]);
+                j--;
+            }
+        }
+
+        this.size += sortedSolutions.length;
+    }
+
+    // returns the new position of the solution, or -1 if it isn't in the
+    // series
+    int update(Solution solution) {
+        int index = indexOf(solution);
+        if (index >= 0) {
+            write(index, solution);
+            return index;
+        }
+
+        // the start changed
+        index = indexOf(solution.getSolutionId());
+        if (index < 0) {
+            return -1;
+        }
+
+        removeAt(index);
+        return add(solution);
+    }
+
+    // returns the position the solution had, or -1 if it wasn't in the
+    // series
+    int remove(Solution solution) {
+        int index = indexOf(solution);
+        if (index < 0) {
+            return -1;
+        }
+
+        removeAt(index);
+        return index;
+    }
+
+    private void removeAt(int index) {
+        int nMoved = this.size - index - 1;
+        System.arraycopy(this.starts, index + 1, this.starts, index, nMoved);
+        System.arraycopy(this.elapsedTimes, index + 1, this.elapsedTimes, index, nMoved);
+        System.arraycopy(this.penalties, index + 1, this.penalties, index, nMoved);
+        System.arraycopy(this.solutions, index + 1, this.solutions, index, nMoved);
+        this.size--;
+        this.solutions[this.size] = null;
+    }
+
+    private void write(int index, Solution solution) {
+        this.starts[index] = solution.getTiming().getStart().getTime();
+        this.elapsedTimes[index] = (int) (solution.getTiming().getElapsedTime() / 10);
+        this.penalties[index] = penaltyCode(solution.getPenalty());
+        this.solutions[index] = solution;
+    }
+
+    // compares the solution with the one at the given position
+    private int compare(Solution solution, int index) {
+        long start = solution.getTiming().getStart().getTime();
+        if (start != this.starts[index]) {
+            return start < this.starts[index] ? -1 : 1;
+        }
+
+        return solution.getSolutionId().compareTo(this.solutions[index].getSolutionId());
+    }
+
+    private static byte penaltyCode(String penalty) {
+        if (penalty.equals("DNF")) {
+            return DNF;
+        }
+
+        if (penalty.equals("+2")) {
+            return PLUS_TWO;
+        }
+
+        return NO_PENALTY;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.starts.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, 2 * this.starts.length);
+        this.starts = Arrays.copyOf(this.starts, newCapacity);
+        this.elapsedTimes = Arrays.copyOf(this.elapsedTimes, newCapacity);
+        this.penalties = Arrays.copyOf(this.penalties, newCapacity);
+        this.solutions = Arrays.copyOf(this.solutions, newCapacity);
+    }
+}
@@ -0,0 +1,156 @@
+package com.puzzletimer.state;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+// runs the periodic ticks of the timers and of the inspection on a single
+// shared thread. the lateness of every tick, relative to its ideal fixed-rate
+// schedule, is recorded in a histogram
+public class TickService {
+    public class Handle {
+        private Runnable tick;
+        private long period;
+        private long firstTick;
+        private long nTicks;
+        private boolean cancelled;
+        private ScheduledFuture<?> future;
+
+        private Handle(Runnable tick, long period) {
+            this.tick = tick;
+            this.period = period;
+            this.firstTick = 0;
+            this.nTicks = 0;
+            this.cancelled = false;
+            this.future = null;
+        }
+
+        // once it returns, the tick won't run again
+        public void cancel() {
+            synchronized (this) {
+                this.cancelled = true;
+            }
+
+            if (this.future != null) {
+                this.future.cancel(false);
+            }
+
+            synchronized (TickService.this) {
+                TickService.this.handles.remove(this);
+            }
+        }
+
+        public synchronized boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        private synchronized void run() {
+            if (this.cancelled) {
+                return;
+            }
+
+            long lateness = System.nanoTime() - (this.firstTick + this.nTicks * this.period);
+            this.nTicks++;
+            recordLateness(lateness);
+
+            this.tick.run();
+        }
+    }
+
+    // upper bounds of the buckets of the histogram, in nanoseconds. the last
+    // bucket has no bound
+    private static final long[] JITTER_BUCKET_BOUNDS = {
+        50000L, 100000L, 250000L, 500000L, 1000000L, 2000000L, 5000000L, 10000000L,
+    };
+
+    private ScheduledExecutorService executor;
+    private HashSet<Handle> handles;
+    private long[] jitterHistogram;
+    private long maximumJitter;
+
+    public TickService() {
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "timer-ticks");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MAX_PRIORITY);
+                return thread;
+            }
+        });
+        this.handles = new HashSet<Handle>();
+        this.jitterHistogram = new long[JITTER_BUCKET_BOUNDS.length + 1];
+        this.maximumJitter = 0;
+    }
+
+    // runs the tick right away and then at a fixed rate until the handle is
+    // cancelled
+    public Handle schedule(Runnable tick, long period, TimeUnit unit) {
+        final Handle handle = new Handle(tick, unit.toNanos(period));
+
+        synchronized (handle) {
+            handle.firstTick = System.nanoTime();
+            handle.future = this.executor.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    handle.run();
+                }
+            }, 0, handle.period, TimeUnit.NANOSECONDS);
+        }
+
+        synchronized (this) {
+            this.handles.add(handle);
+        }
+
+        return handle;
+    }
+
+    public void cancelAll() {
+        ArrayList<Handle> handles;
+        synchronized (this) {
+            handles = new ArrayList<Handle>(this.handles);
+        }
+
+        for (Handle handle : handles) {
+            handle.cancel();
+        }
+    }
+
+    public synchronized int getNumberOfScheduledTicks() {
+        return this.handles.size();
+    }
+
+    public long[] getJitterBucketBounds() {
+        return JITTER_BUCKET_BOUNDS.clone();
+    }
+
+    // number of ticks by lateness, with one more bucket than there are bounds
+    public synchronized long[] getJitterHistogram() {
+        return this.jitterHistogram.clone();
+    }
+
+    public synchronized long getMaximumJitter() {
+        return this.maximumJitter;
+    }
+
+    public synchronized void resetJitterHistogram() {
+        this.jitterHistogram = new long[JITTER_BUCKET_BOUNDS.length + 1];
+        this.maximumJitter = 0;
+    }
+
+    private synchronized void recordLateness(long lateness) {
+        lateness = Math.max(lateness, 0);
+
+        int bucket = 0;
+        while (bucket < JITTER_BUCKET_BOUNDS.length && lateness >= JITTER_BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+
+        this.jitterHistogram[bucket]++;
+        this.maximumJitter = Math.max(this.maximumJitter, lateness);
+    }
+}
@@ -0,0 +1,234 @@
+package com.puzzletimer.state;
+
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayDeque;
+
+import javax.swing.SwingUtilities;
+
+// delivers timer events on the EDT, in the order they were posted. events
+// may be posted from any thread. an update, such as the running time, only
+// matters until the next one of the same kind, so an update posted right
+// after another of its kind that is still queued replaces it, and updates
+// are delivered about once per display refresh. other events are delivered
+// right away and never dropped, and updates are never moved past them
+public class TimerEventDispatcher {
+    private static class Entry {
+        // null for events that can't be replaced
+        public String updateKind;
+        public Runnable event;
+
+        public Entry(String updateKind, Runnable event) {
+            this.updateKind = updateKind;
+            this.event = event;
+        }
+    }
+
+    private ArrayDeque<Entry> queue;
+    // delivered entries, reused so that posting an update doesn't allocate
+    private ArrayDeque<Entry> freeEntries;
+    private boolean drainScheduled;
+    // while updates keep coming, a timer drains the queue once per frame,
+    // so that posting them doesn't have to wake up the EDT
+    private boolean frameClockRunning;
+    private long frameInterval;
+    private long lastUpdateDelivery;
+    private javax.swing.Timer frameClock;
+    private Runnable drainer;
+    private int maximumQueueDepth;
+    private long nDeliveredEvents;
+    private long nDroppedUpdates;
+
+    public TimerEventDispatcher() {
+        this.queue = new ArrayDeque<Entry>();
+        this.freeEntries = new ArrayDeque<Entry>();
+        this.drainScheduled = false;
+        this.frameClockRunning = false;
+        this.frameInterval = 1000000000L / getRefreshRate();
+        this.lastUpdateDelivery = System.nanoTime() - this.frameInterval;
+
+        int frameDelay = (int) ((this.frameInterval + 999999) / 1000000);
+        this.frameClock = new javax.swing.Timer(frameDelay, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                frameElapsed();
+            }
+        });
+        this.frameClock.setCoalesce(true);
+
+        this.drainer = new Runnable() {
+            @Override
+            public void run() {
+                drain(false);
+            }
+        };
+
+        this.maximumQueueDepth = 0;
+        this.nDeliveredEvents = 0;
+        this.nDroppedUpdates = 0;
+    }
+
+    public void post(Runnable event) {
+        boolean schedule;
+        synchronized (this) {
+            add(null, event);
+
+            // don't wait for the next frame
+            schedule = !this.drainScheduled;
+            this.drainScheduled = true;
+        }
+
+        if (schedule) {
+            SwingUtilities.invokeLater(this.drainer);
+        }
+    }
+
+    public void postUpdate(String updateKind, Runnable update) {
+        boolean schedule;
+        synchronized (this) {
+            Entry last = this.queue.peekLast();
+            if (last != null && updateKind.equals(last.updateKind)) {
+                last.event = update;
+                this.nDroppedUpdates++;
+                return;
+            }
+
+            add(updateKind, update);
+
+            schedule = !this.drainScheduled && !this.frameClockRunning;
+            if (schedule) {
+                this.drainScheduled = true;
+            }
+        }
+
+        if (schedule) {
+            SwingUtilities.invokeLater(this.drainer);
+        }
+    }
+
+    public synchronized int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    public synchronized int getMaximumQueueDepth() {
+        return this.maximumQueueDepth;
+    }
+
+    public synchronized long getNumberOfDeliveredEvents() {
+        return this.nDeliveredEvents;
+    }
+
+    public synchronized long getNumberOfDroppedUpdates() {
+        return this.nDroppedUpdates;
+    }
+
+    private void add(String updateKind, Runnable event) {
+        Entry entry = this.freeEntries.pollFirst();
+        if (entry == null) {
+            entry = new Entry(updateKind, event);
+        } else {
+            entry.updateKind = updateKind;
+            entry.event = event;
+        }
+
+        this.queue.addLast(entry);
+        this.maximumQueueDepth = Math.max(this.maximumQueueDepth, this.queue.size());
+    }
+
+    // runs on the EDT
+    private void frameElapsed() {
+        if (drain(true)) {
+            return;
+        }
+
+        // the updates stopped
+        synchronized (this) {
+            if (!this.queue.isEmpty()) {
+                return;
+            }
+
+            this.frameClockRunning = false;
+        }
+
+        this.frameClock.stop();
+    }
+
+    // runs on the EDT. returns whether an update was delivered
+    private boolean drain(boolean onFrame) {
+        boolean updateDelivered = false;
+
+        Entry entry = null;
+        for (;;) {
+            String updateKind;
+            Runnable event;
+            synchronized (this) {
+                if (entry != null) {
+                    entry.event = null;
+                    this.freeEntries.addLast(entry);
+                }
+
+                entry = this.queue.peekFirst();
+                if (entry == null) {
+                    this.drainScheduled = false;
+                    break;
+                }
+
+                // an update that nothing follows yet may still be replaced,
+                // so it's left for the next frame
+                if (!onFrame && entry.updateKind != null && this.queue.size() == 1 &&
+                        System.nanoTime() - this.lastUpdateDelivery < this.frameInterval) {
+                    this.drainScheduled = false;
+                    break;
+                }
+
+                this.queue.removeFirst();
+                this.nDeliveredEvents++;
+
+                updateKind = entry.updateKind;
+                event = entry.event;
+            }
+
+            if (updateKind != null) {
+                this.lastUpdateDelivery = System.nanoTime();
+                updateDelivered = true;
+            }
+
+            event.run();
+        }
+
+        // keep delivering the updates that follow once per frame
+        boolean start;
+        synchronized (this) {
+            start = (updateDelivered || !this.queue.isEmpty()) && !this.frameClockRunning;
+            if (start) {
+                this.frameClockRunning = true;
+            }
+        }
+
+        if (start) {
+            this.frameClock.start();
+        }
+
+        return updateDelivered;
+    }
+
+    private static int getRefreshRate() {
+        try {
+            if (!GraphicsEnvironment.isHeadless()) {
+                DisplayMode displayMode = GraphicsEnvironment
+                    .getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice()
+                    .getDisplayMode();
+                if (displayMode.getRefreshRate() != DisplayMode.REFRESH_RATE_UNKNOWN) {
+                    return displayMode.getRefreshRate();
+                }
+            }
+        } catch (HeadlessException e) {
+        }
+
+        return 60;
+    }
+}
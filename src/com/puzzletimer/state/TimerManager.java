@@ -2,11 +2,13 @@ package com.puzzletimer.state;
 
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
 import com.puzzletimer.models.Timing;
 import com.puzzletimer.timer.Timer;
 
+// listeners are notified on the EDT, through a dispatcher that coalesces the
+// running time updates
 public class TimerManager {
     public static class Listener {
         // timer
@@ -32,25 +34,63 @@ public class TimerManager {
     }
 
     private ArrayList<Listener> listeners;
+    private TimerEventDispatcher dispatcher;
     private Timer currentTimer;
     private boolean inspectionEnabled;
-    private java.util.Timer repeater;
+    private TickService tickService;
+    private TickService.Handle repeater;
     private Date inspectionStart;
+    private long inspectionStartNanoTime;
     private String penalty;
 
+    // latest running times. the ticks only store them, and the shared
+    // notifiers build the values passed to the listeners once per delivery
+    private volatile long inspectionRemainingTime;
+    private volatile Date solutionStart;
+    private volatile long solutionElapsedNanoTime;
+    private Runnable inspectionRunningNotifier;
+    private Runnable solutionRunningNotifier;
+
     public TimerManager() {
         this.listeners = new ArrayList<Listener>();
+        this.dispatcher = new TimerEventDispatcher();
         this.currentTimer = null;
         this.inspectionEnabled = false;
+        this.tickService = new TickService();
         this.repeater = null;
         this.inspectionStart = null;
+        this.inspectionStartNanoTime = 0;
         this.penalty = "";
+
+        this.inspectionRemainingTime = 0;
+        this.solutionStart = null;
+        this.solutionElapsedNanoTime = 0;
+        this.inspectionRunningNotifier = new Runnable() {
+            @Override
+            public void run() {
+                long remainingTime = TimerManager.this.inspectionRemainingTime;
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.inspectionRunning(remainingTime);
+                }
+            }
+        };
+        this.solutionRunningNotifier = new Runnable() {
+            @Override
+            public void run() {
+                Timing timing = new Timing(
+                    TimerManager.this.solutionStart,
+                    TimerManager.this.solutionElapsedNanoTime);
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.solutionRunning(timing);
+                }
+            }
+        };
     }
 
 
     // timer
 
-    public void setTimer(Timer timer) {
+    public void setTimer(final Timer timer) {
         // suspend running inspection
         if (this.inspectionStart != null) {
             this.repeater.cancel();
@@ -60,48 +100,81 @@ public class TimerManager {
 
         if (this.currentTimer != null) {
             this.currentTimer.stop();
+
+            // ticks the timer left behind
+            this.tickService.cancelAll();
         }
 
         this.currentTimer = timer;
         this.currentTimer.setInspectionEnabled(this.inspectionEnabled);
 
-        for (Listener listener : this.listeners) {
-            listener.timerChanged(timer);
-        }
+        this.dispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.timerChanged(timer);
+                }
+            }
+        });
 
         this.currentTimer.start();
     }
 
     public void resetTimer() {
-        for (Listener listener : this.listeners) {
-            listener.timerReset();
-        }
+        this.dispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.timerReset();
+                }
+            }
+        });
     }
 
     // hands
 
     public void pressLeftHand() {
-        for (Listener listener : this.listeners) {
-            listener.leftHandPressed();
-        }
+        this.dispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.leftHandPressed();
+                }
+            }
+        });
     }
 
     public void releaseLeftHand() {
-        for (Listener listener : this.listeners) {
-            listener.leftHandReleased();
-        }
+        this.dispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.leftHandReleased();
+                }
+            }
+        });
     }
 
     public void pressRightHand() {
-        for (Listener listener : this.listeners) {
-            listener.rightHandPressed();
-        }
+        this.dispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.rightHandPressed();
+                }
+            }
+        });
     }
 
     public void releaseRightHand() {
-        for (Listener listener : this.listeners) {
-            listener.rightHandReleased();
-        }
+        this.dispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.rightHandReleased();
+                }
+            }
+        });
     }
 
 
@@ -111,55 +184,60 @@ public class TimerManager {
         return this.inspectionEnabled;
     }
 
-    public void setInspectionEnabled(boolean inspectionEnabled) {
+    public void setInspectionEnabled(final boolean inspectionEnabled) {
         this.inspectionEnabled = inspectionEnabled;
 
         if (this.currentTimer != null) {
             this.currentTimer.setInspectionEnabled(inspectionEnabled);
         }
 
-        for (Listener listener : this.listeners) {
-            listener.inspectionEnabledSet(inspectionEnabled);
-        }
+        this.dispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.inspectionEnabledSet(inspectionEnabled);
+                }
+            }
+        });
     }
 
     public void startInspection() {
-        for (Listener listener : TimerManager.this.listeners) {
-            listener.inspectionStarted();
-        }
+        this.dispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.inspectionStarted();
+                }
+            }
+        });
 
         this.inspectionStart = new Date();
+        this.inspectionStartNanoTime = System.nanoTime();
         this.penalty = "";
 
-        TimerTask timerTask = new TimerTask() {
+        this.repeater = this.tickService.schedule(new Runnable() {
             @Override
             public void run() {
-                long start = TimerManager.this.inspectionStart.getTime();
-                long now = new Date().getTime();
+                long elapsedTime = (System.nanoTime() - TimerManager.this.inspectionStartNanoTime) / 1000000L;
 
-                for (Listener listener : TimerManager.this.listeners) {
-                    listener.inspectionRunning(15000 - (now - start));
-                }
+                TimerManager.this.inspectionRemainingTime = 15000 - elapsedTime;
+                TimerManager.this.dispatcher.postUpdate(
+                    "INSPECTION-RUNNING", TimerManager.this.inspectionRunningNotifier);
 
-                if (now - start > 17000) {
+                if (elapsedTime > 17000) {
                     TimerManager.this.repeater.cancel();
 
-                    for (Listener listener : TimerManager.this.listeners) {
-                        listener.inspectionFinished();
-                    }
+                    postInspectionFinished();
 
                     TimerManager.this.inspectionStart = null;
                     TimerManager.this.penalty = "DNF";
 
-                    finishSolution(new Timing(new Date(now), new Date(now)));
-                } else if (now - start > 15000) {
+                    finishSolution(new Timing(new Date(), 0L));
+                } else if (elapsedTime > 15000) {
                     TimerManager.this.penalty = "+2";
                 }
             }
-        };
-
-        this.repeater = new java.util.Timer();
-        this.repeater.schedule(timerTask, 0, 10);
+        }, 10, TimeUnit.MILLISECONDS);
     }
 
 
@@ -170,30 +248,86 @@ public class TimerManager {
             this.repeater.cancel();
             this.inspectionStart = null;
 
-            for (Listener listener : TimerManager.this.listeners) {
-                listener.inspectionFinished();
-            }
+            postInspectionFinished();
         }
 
-        for (Listener listener : this.listeners) {
-            listener.solutionStarted();
-        }
+        this.dispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.solutionStarted();
+                }
+            }
+        });
     }
 
-    public void updateSolutionTiming(Timing timing) {
-        for (Listener listener : this.listeners) {
-            listener.solutionRunning(timing);
-        }
+    // running time of a solution that started at the given wall-clock time,
+    // measured with System.nanoTime(). doesn't allocate
+    public void updateSolutionTiming(Date start, long elapsedNanoTime) {
+        this.solutionStart = start;
+        this.solutionElapsedNanoTime = elapsedNanoTime;
+        this.dispatcher.postUpdate("SOLUTION-RUNNING", this.solutionRunningNotifier);
     }
 
-    public void finishSolution(Timing timing) {
-        for (Listener listener : this.listeners) {
-            listener.solutionFinished(timing, this.penalty);
-        }
+    public void updateSolutionTiming(final Timing timing) {
+        this.dispatcher.postUpdate("SOLUTION-RUNNING", new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.solutionRunning(timing);
+                }
+            }
+        });
+    }
+
+    public void finishSolution(final Timing timing) {
+        final String penalty = this.penalty;
+        this.dispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.solutionFinished(timing, penalty);
+                }
+            }
+        });
 
         this.penalty = "";
     }
 
+    private void postInspectionFinished() {
+        this.dispatcher.post(new Runnable() {
+            @Override
+            public void run() {
+                for (Listener listener : TimerManager.this.listeners) {
+                    listener.inspectionFinished();
+                }
+            }
+        });
+    }
+
+
+    // ticks
+
+    // shared by the timers for their periodic work
+    public TickService getTickService() {
+        return this.tickService;
+    }
+
+
+    // dispatcher
+
+    public int getEventQueueDepth() {
+        return this.dispatcher.getQueueDepth();
+    }
+
+    public int getMaximumEventQueueDepth() {
+        return this.dispatcher.getMaximumQueueDepth();
+    }
+
+    public long getNumberOfDroppedUpdates() {
+        return this.dispatcher.getNumberOfDroppedUpdates();
+    }
+
 
     // listeners
 
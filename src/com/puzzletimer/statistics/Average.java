@@ -1,16 +1,21 @@
 package com.puzzletimer.statistics;
 
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.util.SolutionUtils;
 
-public class Average implements StatisticalMeasure {
+public class Average implements IncrementalStatisticalMeasure {
     private int minimumWindowSize;
     private int maximumWindowSize;
-    private long value;
+    private int nDNFs;
+    private SortedTimes times;
+    private long[] buffer;
 
     public Average(int minimumWindowSize, int maximumWindowSize) {
         this.minimumWindowSize = minimumWindowSize;
         this.maximumWindowSize = maximumWindowSize;
+        this.times = new SortedTimes();
+        this.buffer = new long[0];
     }
 
     @Override
@@ -30,41 +35,62 @@ public class Average implements StatisticalMeasure {
 
     @Override
     public long getValue() {
-        return this.value;
+        // if number of DNFs is greater than one, return DNF
+        if (this.nDNFs > 1) {
+            return Long.MAX_VALUE;
+        }
+
+        // a single DNF is the worst time
+        long sum = this.times.sum() - this.times.first();
+        if (this.nDNFs == 0) {
+            sum -= this.times.last();
+        }
+
+        return sum / (this.times.size() + this.nDNFs - 2);
+    }
+
+    @Override
+    public int getNumberOfSolutions() {
+        return this.times.size() + this.nDNFs;
     }
 
     @Override
     public void setSolutions(Solution[] solutions) {
-        long[] times = SolutionUtils.realTimes(solutions, false);
+        long[] times = SolutionUtils.realTimes(solutions, true);
 
-        // if number of DNFs is greater than one, return DNF
-        int nDNFs = 0;
-        for (long time : times) {
-            if (time == Long.MAX_VALUE) {
-                nDNFs++;
-                if (nDNFs > 1) {
-                    this.value = Long.MAX_VALUE;
-                    return;
-                }
-            }
-        }
+        this.nDNFs = solutions.length - times.length;
+        this.times.set(times, times.length);
+    }
 
-        long worst = Long.MIN_VALUE;
-        long best = Long.MAX_VALUE;
+    @Override
+    public void setSolutions(SolveSeries series, int start, int end) {
+        if (this.buffer.length < end - start) {
+            this.buffer = new long[end - start];
+        }
 
-        long sum = 0L;
-        for (long time : times) {
-            if (time > worst) {
-                worst = time;
-            }
+        int nTimes = series.getRealTimes(start, end, this.buffer, true);
 
-            if (time < best) {
-                best = time;
-            }
+        this.nDNFs = end - start - nTimes;
+        this.times.set(this.buffer, nTimes);
+    }
 
-            sum += time;
+    @Override
+    public void addSolution(Solution solution) {
+        long time = SolutionUtils.realTime(solution);
+        if (time == Long.MAX_VALUE) {
+            this.nDNFs++;
+        } else {
+            this.times.add(time);
         }
+    }
 
-        this.value = (sum - worst - best) / (solutions.length - 2);
+    @Override
+    public void removeSolution(Solution solution) {
+        long time = SolutionUtils.realTime(solution);
+        if (time == Long.MAX_VALUE) {
+            this.nDNFs--;
+        } else {
+            this.times.remove(time);
+        }
     }
 }
@@ -1,17 +1,18 @@
 package com.puzzletimer.statistics;
 
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.util.SolutionUtils;
 
-public class Best implements StatisticalMeasure {
+public class Best implements IncrementalStatisticalMeasure {
     private int minimumWindowSize;
     private int maximumWindowSize;
-    private int windowPosition;
-    private long value;
+    private WindowMinimum times;
 
     public Best(int minimumWindowSize, int maximumWindowSize) {
         this.minimumWindowSize = minimumWindowSize;
         this.maximumWindowSize = maximumWindowSize;
+        this.times = new WindowMinimum(false);
     }
 
     @Override
@@ -26,26 +27,53 @@ public class Best implements StatisticalMeasure {
 
     @Override
     public int getWindowPosition() {
-        return this.windowPosition;
+        if (this.times.size() == 0) {
+            return 0;
+        }
+
+        // ties go to the oldest solution
+        return this.times.getMinimumPosition();
     }
 
     @Override
     public long getValue() {
-        return this.value;
+        if (this.times.size() == 0) {
+            return Long.MAX_VALUE;
+        }
+
+        return this.times.getMinimum();
+    }
+
+    @Override
+    public int getNumberOfSolutions() {
+        return this.times.size();
     }
 
     @Override
     public void setSolutions(Solution[] solutions) {
-        long[] times = SolutionUtils.realTimes(solutions, false);
-
-        long best = Long.MAX_VALUE;
-        for (int i = 0; i < times.length; i++) {
-            if (times[i] <= best) {
-                best = times[i];
-                this.windowPosition = i;
-            }
+        this.times.clear();
+
+        for (int i = solutions.length - 1; i >= 0; i--) {
+            addSolution(solutions[i]);
+        }
+    }
+
+    @Override
+    public void setSolutions(SolveSeries series, int start, int end) {
+        this.times.clear();
+
+        for (int i = start; i < end; i++) {
+            this.times.addNewest(series.getRealTime(i));
         }
+    }
 
-        this.value = best;
+    @Override
+    public void addSolution(Solution solution) {
+        this.times.addNewest(SolutionUtils.realTime(solution));
+    }
+
+    @Override
+    public void removeSolution(Solution solution) {
+        this.times.removeOldest();
     }
 }
@@ -1,17 +1,40 @@
 package com.puzzletimer.statistics;
 
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.util.SolutionUtils;
 
-public class BestAverage implements StatisticalMeasure {
+public class BestAverage implements IncrementalStatisticalMeasure {
+    // windows of up to this many solutions are faster to scan one by one
+    // than to slide
+    private static final int MAXIMUM_SCANNED_WINDOW_SIZE = 16;
+
     private int minimumWindowSize;
     private int maximumWindowSize;
-    private int windowPosition;
-    private long value;
+    private int nSolutions;
+    // ring buffer with the times of the newest minimumWindowSize solutions
+    private long[] recent;
+    private int recentHead;
+    private int nRecent;
+    private int recentDNFs;
+    private long recentSum;
+    private WindowMinimum recentBest;
+    // the worst time is the minimum of the negated times
+    private WindowMinimum recentWorst;
+    // values of every window of minimumWindowSize consecutive solutions.
+    // windows that don't count have a value of Long.MAX_VALUE, and ties go
+    // to the newest window
+    private WindowMinimum windows;
+    private long[] buffer;
 
     public BestAverage(int minimumWindowSize, int maximumWindowSize) {
         this.minimumWindowSize = minimumWindowSize;
         this.maximumWindowSize = maximumWindowSize;
+        this.recent = new long[minimumWindowSize];
+        this.recentBest = new WindowMinimum(false);
+        this.recentWorst = new WindowMinimum(false);
+        this.windows = new WindowMinimum(true);
+        this.buffer = new long[0];
     }
 
     @Override
@@ -26,52 +49,183 @@ public class BestAverage implements StatisticalMeasure {
 
     @Override
     public int getWindowPosition() {
-        return this.windowPosition;
+        if (this.windows.size() == 0) {
+            return 0;
+        }
+
+        return this.windows.getMinimumPosition();
     }
 
     @Override
     public long getValue() {
-        return this.value;
+        if (this.windows.size() == 0) {
+            return Long.MAX_VALUE;
+        }
+
+        return this.windows.getMinimum();
+    }
+
+    @Override
+    public int getNumberOfSolutions() {
+        return this.nSolutions;
     }
 
     @Override
     public void setSolutions(Solution[] solutions) {
-        long[] times = SolutionUtils.realTimes(solutions, false);
+        clear();
 
-        long bestAverage = Long.MAX_VALUE;
-        for (int i = 0; i < times.length - this.minimumWindowSize + 1; i++) {
-            long worst = Long.MIN_VALUE;
-            long best = Long.MAX_VALUE;
-            long sum = 0;
-            for (int j = 0; j < this.minimumWindowSize; j++) {
-                if (times[i + j] == Long.MAX_VALUE && worst == Long.MAX_VALUE) {
-                    sum = Long.MAX_VALUE;
-                    break;
-                }
+        for (int i = solutions.length - 1; i >= 0; i--) {
+            addSolution(solutions[i]);
+        }
+    }
 
-                if (times[i + j] > worst) {
-                    worst = times[i + j];
-                }
+    @Override
+    public void setSolutions(SolveSeries series, int start, int end) {
+        clear();
 
-                if (times[i + j] < best) {
-                    best = times[i + j];
+        if (this.minimumWindowSize > MAXIMUM_SCANNED_WINDOW_SIZE || end - start < this.minimumWindowSize) {
+            for (int i = start; i < end; i++) {
+                addTime(series.getRealTime(i));
+            }
+
+            return;
+        }
+
+        if (this.buffer.length < end - start) {
+            this.buffer = new long[end - start];
+        }
+
+        long[] times = this.buffer;
+        int nTimes = series.getRealTimes(start, end, times, false);
+
+        for (int i = nTimes - this.minimumWindowSize; i < nTimes; i++) {
+            this.recent[this.nRecent++] = times[i];
+            addRecent(times[i]);
+        }
+        this.nSolutions = nTimes;
+
+        // the value of each window replaces its oldest time, which no later
+        // window includes
+        int nWindows = nTimes - this.minimumWindowSize + 1;
+        for (int i = 0; i < nWindows; i++) {
+            long best = Long.MAX_VALUE;
+            long worst = Long.MIN_VALUE;
+            long sum = 0L;
+            int nDNFs = 0;
+            for (int j = i; j < i + this.minimumWindowSize; j++) {
+                if (times[j] == Long.MAX_VALUE) {
+                    nDNFs++;
+                    continue;
                 }
 
-                sum += times[i + j];
+                best = Math.min(best, times[j]);
+                worst = Math.max(worst, times[j]);
+                sum += times[j];
             }
 
-            if (sum == Long.MAX_VALUE) {
-                continue;
-            }
+            times[i] = windowValue(sum, best, worst, nDNFs);
+        }
 
-            long average = (sum - worst - best) / (this.minimumWindowSize - 2);
+        this.windows.set(times, nWindows);
+    }
 
-            if (average < bestAverage) {
-                bestAverage = average;
-                this.windowPosition = i;
-            }
+    @Override
+    public void addSolution(Solution solution) {
+        addTime(SolutionUtils.realTime(solution));
+    }
+
+    @Override
+    public void removeSolution(Solution solution) {
+        // the oldest solution only belongs to the recent ones while there
+        // are no more than a window of them
+        if (this.nSolutions <= this.minimumWindowSize) {
+            removeOldestRecent();
+        }
+
+        if (this.windows.size() > 0) {
+            this.windows.removeOldest();
+        }
+
+        this.nSolutions--;
+    }
+
+    private void clear() {
+        this.nSolutions = 0;
+        this.recentHead = 0;
+        this.nRecent = 0;
+        this.recentDNFs = 0;
+        this.recentSum = 0L;
+        this.recentBest.clear();
+        this.recentWorst.clear();
+        this.windows.clear();
+    }
+
+    private void addTime(long time) {
+        if (this.nRecent == this.minimumWindowSize) {
+            removeOldestRecent();
+        }
+
+        int tail = this.recentHead + this.nRecent;
+        if (tail >= this.minimumWindowSize) {
+            tail -= this.minimumWindowSize;
+        }
+        this.recent[tail] = time;
+        this.nRecent++;
+        addRecent(time);
+
+        this.nSolutions++;
+
+        if (this.nRecent == this.minimumWindowSize) {
+            this.windows.addNewest(windowValue(
+                this.recentSum,
+                this.recentBest.getMinimum(),
+                -this.recentWorst.getMinimum(),
+                this.recentDNFs));
+        }
+    }
+
+    // sum, best and worst of the times of the window that aren't DNFs.
+    // windows with more than one DNF have a DNF average and don't count.
+    // with a single DNF, it is the worst time
+    private long windowValue(long sum, long best, long worst, int nDNFs) {
+        if (nDNFs > 1) {
+            return Long.MAX_VALUE;
+        }
+
+        sum -= best;
+        if (nDNFs == 0) {
+            sum -= worst;
+        }
+
+        return sum / (this.minimumWindowSize - 2);
+    }
+
+    private void addRecent(long time) {
+        if (time == Long.MAX_VALUE) {
+            this.recentDNFs++;
+        } else {
+            this.recentSum += time;
+        }
+
+        this.recentBest.addNewest(time);
+        this.recentWorst.addNewest(-time);
+    }
+
+    private void removeOldestRecent() {
+        long time = this.recent[this.recentHead];
+        this.recentHead++;
+        if (this.recentHead == this.minimumWindowSize) {
+            this.recentHead = 0;
+        }
+        this.nRecent--;
+
+        if (time == Long.MAX_VALUE) {
+            this.recentDNFs--;
+        } else {
+            this.recentSum -= time;
         }
 
-        this.value = bestAverage;
+        this.recentBest.removeOldest();
+        this.recentWorst.removeOldest();
     }
 }
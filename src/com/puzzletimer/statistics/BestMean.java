@@ -1,17 +1,31 @@
 package com.puzzletimer.statistics;
 
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.util.SolutionUtils;
 
-public class BestMean implements StatisticalMeasure {
+public class BestMean implements IncrementalStatisticalMeasure {
     private int minimumWindowSize;
     private int maximumWindowSize;
-    private int windowPosition;
-    private long value;
+    private int nSolutions;
+    // ring buffer with the times of the newest minimumWindowSize solutions
+    private long[] recent;
+    private int recentHead;
+    private int nRecent;
+    private int recentDNFs;
+    private long recentSum;
+    // values of every window of minimumWindowSize consecutive solutions.
+    // windows that don't count have a value of Long.MAX_VALUE, and ties go
+    // to the newest window
+    private WindowMinimum windows;
+    private long[] buffer;
 
     public BestMean(int minimumWindowSize, int maximumWindowSize) {
         this.minimumWindowSize = minimumWindowSize;
         this.maximumWindowSize = maximumWindowSize;
+        this.recent = new long[minimumWindowSize];
+        this.windows = new WindowMinimum(true);
+        this.buffer = new long[0];
     }
 
     @Override
@@ -26,42 +40,159 @@ public class BestMean implements StatisticalMeasure {
 
     @Override
     public int getWindowPosition() {
-        return this.windowPosition;
+        if (this.windows.size() == 0) {
+            return 0;
+        }
+
+        return this.windows.getMinimumPosition();
     }
 
     @Override
     public long getValue() {
-        return this.value;
+        if (this.windows.size() == 0) {
+            return Long.MAX_VALUE;
+        }
+
+        return this.windows.getMinimum();
+    }
+
+    @Override
+    public int getNumberOfSolutions() {
+        return this.nSolutions;
     }
 
     @Override
     public void setSolutions(Solution[] solutions) {
-        long[] times = SolutionUtils.realTimes(solutions, false);
-
-        long bestMean = Long.MAX_VALUE;
-        for (int i = 0; i < times.length - this.minimumWindowSize + 1; i++) {
-            long sum = 0;
-            for (int j = 0; j < this.minimumWindowSize; j++) {
-                if (times[i + j] == Long.MAX_VALUE) {
-                    sum = Long.MAX_VALUE;
-                    break;
-                }
+        clear();
+
+        for (int i = solutions.length - 1; i >= 0; i--) {
+            addSolution(solutions[i]);
+        }
+    }
+
+    @Override
+    public void setSolutions(SolveSeries series, int start, int end) {
+        clear();
 
-                sum += times[i + j];
+        if (end - start < this.minimumWindowSize) {
+            for (int i = start; i < end; i++) {
+                addTime(series.getRealTime(i));
             }
 
-            if (sum == Long.MAX_VALUE) {
-                continue;
+            return;
+        }
+
+        if (this.buffer.length < end - start) {
+            this.buffer = new long[end - start];
+        }
+
+        long[] times = this.buffer;
+        int nTimes = series.getRealTimes(start, end, times, false);
+
+        for (int i = nTimes - this.minimumWindowSize; i < nTimes; i++) {
+            this.recent[this.nRecent++] = times[i];
+            addRecent(times[i]);
+        }
+        this.nSolutions = nTimes;
+
+        // the value of each window replaces its oldest time, which no later
+        // window includes
+        int nWindows = nTimes - this.minimumWindowSize + 1;
+        long sum = 0L;
+        int nDNFs = 0;
+        for (int i = 0; i < nTimes; i++) {
+            if (times[i] == Long.MAX_VALUE) {
+                nDNFs++;
+            } else {
+                sum += times[i];
             }
 
-            long mean = sum / this.minimumWindowSize;
+            int oldest = i - this.minimumWindowSize + 1;
+            if (oldest >= 0) {
+                long time = times[oldest];
+                times[oldest] = nDNFs > 0 ? Long.MAX_VALUE : sum / this.minimumWindowSize;
 
-            if (mean < bestMean) {
-                bestMean = mean;
-                this.windowPosition = i;
+                if (time == Long.MAX_VALUE) {
+                    nDNFs--;
+                } else {
+                    sum -= time;
+                }
             }
         }
 
-        this.value = bestMean;
+        this.windows.set(times, nWindows);
+    }
+
+    @Override
+    public void addSolution(Solution solution) {
+        addTime(SolutionUtils.realTime(solution));
+    }
+
+    @Override
+    public void removeSolution(Solution solution) {
+        // the oldest solution only belongs to the recent ones while there
+        // are no more than a window of them
+        if (this.nSolutions <= this.minimumWindowSize) {
+            removeOldestRecent();
+        }
+
+        if (this.windows.size() > 0) {
+            this.windows.removeOldest();
+        }
+
+        this.nSolutions--;
+    }
+
+    private void clear() {
+        this.nSolutions = 0;
+        this.recentHead = 0;
+        this.nRecent = 0;
+        this.recentDNFs = 0;
+        this.recentSum = 0L;
+        this.windows.clear();
+    }
+
+    private void addTime(long time) {
+        if (this.nRecent == this.minimumWindowSize) {
+            removeOldestRecent();
+        }
+
+        int tail = this.recentHead + this.nRecent;
+        if (tail >= this.minimumWindowSize) {
+            tail -= this.minimumWindowSize;
+        }
+        this.recent[tail] = time;
+        this.nRecent++;
+        addRecent(time);
+
+        this.nSolutions++;
+
+        if (this.nRecent == this.minimumWindowSize) {
+            this.windows.addNewest(
+                this.recentDNFs > 0 ? Long.MAX_VALUE : this.recentSum / this.minimumWindowSize);
+        }
+    }
+
+    private void addRecent(long time) {
+        if (time == Long.MAX_VALUE) {
+            this.recentDNFs++;
+        } else {
+            this.recentSum += time;
+        }
+    }
+
+    private void removeOldestRecent() {
+        long time = this.recent[this.recentHead];
+        this.recentHead++;
+        if (this.recentHead == this.minimumWindowSize) {
+            this.recentHead = 0;
+        }
+        this.nRecent--;
+
+        if (time == Long.MAX_VALUE) {
+            this.recentDNFs--;
+        } else {
+            this.recentSum -= time;
+        }
     }
 }
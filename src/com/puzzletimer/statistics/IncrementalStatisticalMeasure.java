@@ -0,0 +1,15 @@
+package com.puzzletimer.statistics;
+
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
+
+// a measure that keeps its window up to date one solution at a time.
+// addSolution appends the newest solution of the window, and removeSolution
+// drops its oldest one. setSolutions resets the window to the given solutions,
+// newest first, or to a range of a series, oldest first
+public interface IncrementalStatisticalMeasure extends StatisticalMeasure {
+    int getNumberOfSolutions();
+    void addSolution(Solution solution);
+    void removeSolution(Solution solution);
+    void setSolutions(SolveSeries series, int start, int end);
+}
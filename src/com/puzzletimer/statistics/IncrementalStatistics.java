@@ -0,0 +1,66 @@
+package com.puzzletimer.statistics;
+
+import java.util.ArrayList;
+
+import com.puzzletimer.models.Solution;
+
+// keeps a set of measures up to date as solutions are appended. each measure
+// sees the newest solutions up to its maximum window size, so appending a
+// solution adds it to every measure and drops the solution that falls out of
+// the bounded windows. any other change resets the measures; callers tell
+// appends apart through SolutionsChange.isAppend, without comparing lists
+public class IncrementalStatistics {
+    private IncrementalStatisticalMeasure[] measures;
+    // oldest first
+    private ArrayList<Solution> solutions;
+
+    public IncrementalStatistics(IncrementalStatisticalMeasure[] measures) {
+        this.measures = measures;
+        this.solutions = new ArrayList<Solution>();
+    }
+
+    public IncrementalStatisticalMeasure[] getMeasures() {
+        return this.measures;
+    }
+
+    public int getNumberOfSolutions() {
+        return this.solutions.size();
+    }
+
+    public boolean isAvailable(int measure) {
+        return this.solutions.size() >= this.measures[measure].getMinimumWindowSize();
+    }
+
+    public void addSolution(Solution solution) {
+        this.solutions.add(solution);
+
+        for (IncrementalStatisticalMeasure measure : this.measures) {
+            measure.addSolution(solution);
+
+            int maximumWindowSize = measure.getMaximumWindowSize();
+            if (maximumWindowSize < this.solutions.size()) {
+                measure.removeSolution(
+                    this.solutions.get(this.solutions.size() - 1 - maximumWindowSize));
+            }
+        }
+    }
+
+    // solutions are given newest first
+    public void setSolutions(Solution[] solutions) {
+        this.solutions.clear();
+        for (int i = solutions.length - 1; i >= 0; i--) {
+            this.solutions.add(solutions[i]);
+        }
+
+        for (IncrementalStatisticalMeasure measure : this.measures) {
+            int size = Math.min(solutions.length, measure.getMaximumWindowSize());
+
+            Solution[] window = new Solution[size];
+            for (int j = 0; j < size; j++) {
+                window[j] = solutions[j];
+            }
+
+            measure.setSolutions(window);
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.puzzletimer.statistics;
 
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.util.SolutionUtils;
 
-public class InterquartileMean implements StatisticalMeasure {
+public class InterquartileMean implements IncrementalStatisticalMeasure {
     private int minimumWindowSize;
     private int maximumWindowSize;
-    private long value;
+    private int nDNFs;
+    private SortedTimes times;
+    private long[] buffer;
 
     public InterquartileMean(int minimumWindowSize, int maximumWindowSize) {
         this.minimumWindowSize = minimumWindowSize;
         this.maximumWindowSize = maximumWindowSize;
+        this.times = new SortedTimes();
+        this.buffer = new long[0];
     }
 
     @Override
@@ -30,37 +35,69 @@ public class InterquartileMean implements StatisticalMeasure {
 
     @Override
     public long getValue() {
-        return this.value;
+        long lowerQuartile = Percentile.percentile(this.times, this.nDNFs, 0.25);
+        long upperQuartile = Percentile.percentile(this.times, this.nDNFs, 0.75);
+
+        // the DNFs lie between the quartiles only if the upper one is a DNF
+        if (upperQuartile == Long.MAX_VALUE) {
+            if (this.nDNFs > 0) {
+                return Long.MAX_VALUE;
+            }
+
+            long sum = this.times.sum() - this.times.sumBelow(lowerQuartile);
+            int nTimes = this.times.size() - this.times.countBelow(lowerQuartile);
+
+            return sum / nTimes;
+        }
+
+        long sum = this.times.sumBelow(upperQuartile + 1) - this.times.sumBelow(lowerQuartile);
+        int nTimes = this.times.countBelow(upperQuartile + 1) - this.times.countBelow(lowerQuartile);
+
+        return sum / nTimes;
+    }
+
+    @Override
+    public int getNumberOfSolutions() {
+        return this.times.size() + this.nDNFs;
     }
 
     @Override
     public void setSolutions(Solution[] solutions) {
-        long[] times = SolutionUtils.realTimes(solutions, false);
+        long[] times = SolutionUtils.realTimes(solutions, true);
 
-        Percentile lowerQuartile =
-            new Percentile(1, Integer.MAX_VALUE, 0.25);
-        lowerQuartile.setSolutions(solutions);
+        this.nDNFs = solutions.length - times.length;
+        this.times.set(times, times.length);
+    }
 
-        Percentile upperQuartile =
-            new Percentile(1, Integer.MAX_VALUE, 0.75);
-        upperQuartile.setSolutions(solutions);
+    @Override
+    public void setSolutions(SolveSeries series, int start, int end) {
+        if (this.buffer.length < end - start) {
+            this.buffer = new long[end - start];
+        }
 
-        long sum = 0L;
-        int nTimes = 0;
-        for (long time : times) {
-            if (time < lowerQuartile.getValue() || time > upperQuartile.getValue()) {
-                continue;
-            }
+        int nTimes = series.getRealTimes(start, end, this.buffer, true);
 
-            if (time == Long.MAX_VALUE) {
-                this.value = Long.MAX_VALUE;
-                return;
-            }
+        this.nDNFs = end - start - nTimes;
+        this.times.set(this.buffer, nTimes);
+    }
 
-            sum += time;
-            nTimes++;
+    @Override
+    public void addSolution(Solution solution) {
+        long time = SolutionUtils.realTime(solution);
+        if (time == Long.MAX_VALUE) {
+            this.nDNFs++;
+        } else {
+            this.times.add(time);
         }
+    }
 
-        this.value = sum / nTimes;
+    @Override
+    public void removeSolution(Solution solution) {
+        long time = SolutionUtils.realTime(solution);
+        if (time == Long.MAX_VALUE) {
+            this.nDNFs--;
+        } else {
+            this.times.remove(time);
+        }
     }
 }
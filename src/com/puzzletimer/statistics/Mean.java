@@ -1,12 +1,15 @@
 package com.puzzletimer.statistics;
 
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.util.SolutionUtils;
 
-public class Mean implements StatisticalMeasure {
+public class Mean implements IncrementalStatisticalMeasure {
     private int minimumWindowSize;
     private int maximumWindowSize;
-    private long value;
+    private int nSolutions;
+    private int nDNFs;
+    private long sum;
 
     public Mean(int minimumWindowSize, int maximumWindowSize) {
         this.minimumWindowSize = minimumWindowSize;
@@ -30,23 +33,66 @@ public class Mean implements StatisticalMeasure {
 
     @Override
     public long getValue() {
-        return this.value;
+        if (this.nDNFs > 0) {
+            return Long.MAX_VALUE;
+        }
+
+        return this.sum / this.nSolutions;
+    }
+
+    @Override
+    public int getNumberOfSolutions() {
+        return this.nSolutions;
     }
 
     @Override
     public void setSolutions(Solution[] solutions) {
-        long[] times = SolutionUtils.realTimes(solutions, false);
+        clear();
+
+        for (int i = solutions.length - 1; i >= 0; i--) {
+            addSolution(solutions[i]);
+        }
+    }
+
+    @Override
+    public void setSolutions(SolveSeries series, int start, int end) {
+        clear();
+
+        for (int i = start; i < end; i++) {
+            addTime(series.getRealTime(i));
+        }
+    }
+
+    @Override
+    public void addSolution(Solution solution) {
+        addTime(SolutionUtils.realTime(solution));
+    }
 
-        long sum = 0L;
-        for (long time : times) {
-            if (time == Long.MAX_VALUE) {
-                this.value = Long.MAX_VALUE;
-                return;
-            }
+    @Override
+    public void removeSolution(Solution solution) {
+        long time = SolutionUtils.realTime(solution);
+        if (time == Long.MAX_VALUE) {
+            this.nDNFs--;
+        } else {
+            this.sum -= time;
+        }
+
+        this.nSolutions--;
+    }
+
+    private void clear() {
+        this.nSolutions = 0;
+        this.nDNFs = 0;
+        this.sum = 0L;
+    }
 
-            sum += time;
+    private void addTime(long time) {
+        if (time == Long.MAX_VALUE) {
+            this.nDNFs++;
+        } else {
+            this.sum += time;
         }
 
-        this.value = sum / solutions.length;
+        this.nSolutions++;
     }
 }
@@ -1,20 +1,23 @@
 package com.puzzletimer.statistics;
 
-import java.util.Arrays;
-
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.util.SolutionUtils;
 
-public class Percentile implements StatisticalMeasure {
+public class Percentile implements IncrementalStatisticalMeasure {
     private int minimumWindowSize;
     private int maximumWindowSize;
-    private long value;
     private double p;
+    private int nDNFs;
+    private SortedTimes times;
+    private long[] buffer;
 
     public Percentile(int minimumWindowSize, int maximumWindowSize, double p) {
         this.minimumWindowSize = minimumWindowSize;
         this.maximumWindowSize = maximumWindowSize;
         this.p = p;
+        this.times = new SortedTimes();
+        this.buffer = new long[0];
     }
 
     @Override
@@ -34,30 +37,77 @@ public class Percentile implements StatisticalMeasure {
 
     @Override
     public long getValue() {
-        return this.value;
+        return percentile(this.times, this.nDNFs, this.p);
     }
 
-    @Override
-    public void setSolutions(Solution[] solutions) {
-        long[] times = SolutionUtils.realTimes(solutions, false);
-        Arrays.sort(times);
+    // the DNFs sort after the finite times
+    private static long get(SortedTimes times, int k) {
+        return k < times.size() ? times.get(k) : Long.MAX_VALUE;
+    }
 
-        double position = this.p * (solutions.length + 1);
+    static long percentile(SortedTimes times, int nDNFs, double p) {
+        int nSolutions = times.size() + nDNFs;
+
+        double position = p * (nSolutions + 1);
         if (position < 1d) {
-            this.value = times[0];
-            return;
-        } else if (position >= times.length) {
-            this.value = times[times.length - 1];
-            return;
+            return get(times, 0);
+        } else if (position >= nSolutions) {
+            return get(times, nSolutions - 1);
         }
 
         int index = (int) Math.floor(position);
 
-        if (times[index - 1] == Long.MAX_VALUE || (position - index != 0d && times[index] == Long.MAX_VALUE)) {
-            this.value = Long.MAX_VALUE;
-            return;
+        long lower = get(times, index - 1);
+        long upper = get(times, index);
+        if (lower == Long.MAX_VALUE || (position - index != 0d && upper == Long.MAX_VALUE)) {
+            return Long.MAX_VALUE;
         }
 
-        this.value = (long) (times[index - 1] + (position - index) * (times[index] - times[index - 1]));
+        return (long) (lower + (position - index) * (upper - lower));
+    }
+
+    @Override
+    public int getNumberOfSolutions() {
+        return this.times.size() + this.nDNFs;
+    }
+
+    @Override
+    public void setSolutions(Solution[] solutions) {
+        long[] times = SolutionUtils.realTimes(solutions, true);
+
+        this.nDNFs = solutions.length - times.length;
+        this.times.set(times, times.length);
+    }
+
+    @Override
+    public void setSolutions(SolveSeries series, int start, int end) {
+        if (this.buffer.length < end - start) {
+            this.buffer = new long[end - start];
+        }
+
+        int nTimes = series.getRealTimes(start, end, this.buffer, true);
+
+        this.nDNFs = end - start - nTimes;
+        this.times.set(this.buffer, nTimes);
+    }
+
+    @Override
+    public void addSolution(Solution solution) {
+        long time = SolutionUtils.realTime(solution);
+        if (time == Long.MAX_VALUE) {
+            this.nDNFs++;
+        } else {
+            this.times.add(time);
+        }
+    }
+
+    @Override
+    public void removeSolution(Solution solution) {
+        long time = SolutionUtils.realTime(solution);
+        if (time == Long.MAX_VALUE) {
+            this.nDNFs--;
+        } else {
+            this.times.remove(time);
+        }
     }
 }
@@ -0,0 +1,261 @@
+package com.puzzletimer.statistics;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+// multiset of times kept in a treap. each node holds one distinct time, the
+// number of times it was added, and the count and sum of its whole subtree, so
+// that finding the k-th smallest time or summing the times below a bound takes
+// O(log n)
+class SortedTimes {
+    private static class Node {
+        public long time;
+        public int priority;
+        public int multiplicity;
+        public int size;
+        public long sum;
+        public Node left;
+        public Node right;
+
+        public Node(long time, int priority) {
+            this.time = time;
+            this.priority = priority;
+            this.multiplicity = 1;
+            this.size = 1;
+            this.sum = time;
+        }
+
+        public void update() {
+            this.size = this.multiplicity;
+            this.sum = this.multiplicity * this.time;
+
+            if (this.left != null) {
+                this.size += this.left.size;
+                this.sum += this.left.sum;
+            }
+
+            if (this.right != null) {
+                this.size += this.right.size;
+                this.sum += this.right.sum;
+            }
+        }
+    }
+
+    private Random random;
+    private Node root;
+
+    public SortedTimes() {
+        this.random = new Random();
+        this.root = null;
+    }
+
+    public int size() {
+        return this.root == null ? 0 : this.root.size;
+    }
+
+    public long sum() {
+        return this.root == null ? 0L : this.root.sum;
+    }
+
+    // replaces the contents with the first nTimes of the given times, sorting
+    // them in place. the tree is built balanced, then priorities are handed
+    // out in decreasing order level by level, so that it is a valid treap
+    public void set(long[] times, int nTimes) {
+        Arrays.sort(times, 0, nTimes);
+
+        int nNodes = 0;
+        Node[] nodes = new Node[nTimes];
+        for (int i = 0; i < nTimes; i++) {
+            if (nNodes > 0 && nodes[nNodes - 1].time == times[i]) {
+                nodes[nNodes - 1].multiplicity++;
+            } else {
+                nodes[nNodes++] = new Node(times[i], 0);
+            }
+        }
+
+        this.root = build(nodes, 0, nNodes);
+
+        int[] priorities = new int[nNodes];
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = this.random.nextInt();
+        }
+        Arrays.sort(priorities);
+
+        ArrayDeque<Node> queue = new ArrayDeque<Node>();
+        if (this.root != null) {
+            queue.add(this.root);
+        }
+
+        for (int i = nNodes - 1; !queue.isEmpty(); i--) {
+            Node node = queue.remove();
+            node.priority = priorities[i];
+
+            if (node.left != null) {
+                queue.add(node.left);
+            }
+
+            if (node.right != null) {
+                queue.add(node.right);
+            }
+        }
+    }
+
+    private static Node build(Node[] nodes, int begin, int end) {
+        if (begin >= end) {
+            return null;
+        }
+
+        int middle = (begin + end) / 2;
+        Node node = nodes[middle];
+        node.left = build(nodes, begin, middle);
+        node.right = build(nodes, middle + 1, end);
+        node.update();
+
+        return node;
+    }
+
+    public void add(long time) {
+        this.root = add(this.root, time);
+    }
+
+    private Node add(Node node, long time) {
+        if (node == null) {
+            return new Node(time, this.random.nextInt());
+        }
+
+        if (time == node.time) {
+            node.multiplicity++;
+        } else if (time < node.time) {
+            node.left = add(node.left, time);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = add(node.right, time);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+
+        node.update();
+        return node;
+    }
+
+    public void remove(long time) {
+        this.root = remove(this.root, time);
+    }
+
+    private Node remove(Node node, long time) {
+        if (node == null) {
+            return null;
+        }
+
+        if (time < node.time) {
+            node.left = remove(node.left, time);
+        } else if (time > node.time) {
+            node.right = remove(node.right, time);
+        } else if (node.multiplicity > 1) {
+            node.multiplicity--;
+        } else {
+            return removeRoot(node);
+        }
+
+        node.update();
+        return node;
+    }
+
+    // rotates the node down until it becomes a leaf, then drops it
+    private Node removeRoot(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+
+        if (node.right == null) {
+            return node.left;
+        }
+
+        if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = removeRoot(node.right);
+        } else {
+            node = rotateLeft(node);
+            node.left = removeRoot(node.left);
+        }
+
+        node.update();
+        return node;
+    }
+
+    // k-th smallest time, starting at 0
+    public long get(int k) {
+        Node node = this.root;
+        for (;;) {
+            int leftSize = node.left == null ? 0 : node.left.size;
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k < leftSize + node.multiplicity) {
+                return node.time;
+            } else {
+                k -= leftSize + node.multiplicity;
+                node = node.right;
+            }
+        }
+    }
+
+    public long first() {
+        return get(0);
+    }
+
+    public long last() {
+        return get(size() - 1);
+    }
+
+    // number of times smaller than the given bound
+    public int countBelow(long bound) {
+        int count = 0;
+        for (Node node = this.root; node != null; ) {
+            if (node.time < bound) {
+                count += node.multiplicity + (node.left == null ? 0 : node.left.size);
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+
+        return count;
+    }
+
+    // sum of the times smaller than the given bound
+    public long sumBelow(long bound) {
+        long sum = 0L;
+        for (Node node = this.root; node != null; ) {
+            if (node.time < bound) {
+                sum += node.multiplicity * node.time + (node.left == null ? 0L : node.left.sum);
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+
+        return sum;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        node.update();
+        left.right = node;
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        node.update();
+        right.left = node;
+        right.update();
+        return right;
+    }
+}
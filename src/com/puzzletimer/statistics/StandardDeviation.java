@@ -1,12 +1,16 @@
 package com.puzzletimer.statistics;
 
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.util.SolutionUtils;
 
-public class StandardDeviation implements StatisticalMeasure {
+public class StandardDeviation implements IncrementalStatisticalMeasure {
     private int minimumWindowSize;
     private int maximumWindowSize;
-    private long value;
+    private int nSolutions;
+    private int nTimes;
+    private long sum;
+    private long sumOfSquares;
 
     public StandardDeviation(int minimumWindowSize, int maximumWindowSize) {
         this.minimumWindowSize = minimumWindowSize;
@@ -30,30 +34,71 @@ public class StandardDeviation implements StatisticalMeasure {
 
     @Override
     public long getValue() {
-        return this.value;
+        // DNFs are left out
+        if (this.nTimes == 0) {
+            return 0L;
+        }
+
+        double n = this.nTimes;
+        double variance = (n * this.sumOfSquares - (double) this.sum * this.sum) / (n * n);
+
+        return (long) Math.sqrt(Math.max(variance, 0d));
+    }
+
+    @Override
+    public int getNumberOfSolutions() {
+        return this.nSolutions;
     }
 
     @Override
     public void setSolutions(Solution[] solutions) {
-        long[] times = SolutionUtils.realTimes(solutions, true);
+        clear();
+
+        for (int i = solutions.length - 1; i >= 0; i--) {
+            addSolution(solutions[i]);
+        }
+    }
+
+    @Override
+    public void setSolutions(SolveSeries series, int start, int end) {
+        clear();
 
-        if (times.length == 0) {
-            this.value = 0L;
-            return;
+        for (int i = start; i < end; i++) {
+            addTime(series.getRealTime(i));
         }
+    }
+
+    @Override
+    public void addSolution(Solution solution) {
+        addTime(SolutionUtils.realTime(solution));
+    }
 
-        double mean = 0d;
-        for (long time : times) {
-            mean += time;
+    @Override
+    public void removeSolution(Solution solution) {
+        long time = SolutionUtils.realTime(solution);
+        if (time != Long.MAX_VALUE) {
+            this.nTimes--;
+            this.sum -= time;
+            this.sumOfSquares -= time * time;
         }
-        mean /= times.length;
 
-        double variance = 0d;
-        for (long time : times) {
-            variance += Math.pow(time - mean, 2d);
+        this.nSolutions--;
+    }
+
+    private void clear() {
+        this.nSolutions = 0;
+        this.nTimes = 0;
+        this.sum = 0L;
+        this.sumOfSquares = 0L;
+    }
+
+    private void addTime(long time) {
+        if (time != Long.MAX_VALUE) {
+            this.nTimes++;
+            this.sum += time;
+            this.sumOfSquares += time * time;
         }
-        variance /= times.length;
 
-        this.value = (long) Math.sqrt(variance);
+        this.nSolutions++;
     }
 }
@@ -0,0 +1,126 @@
+package com.puzzletimer.statistics;
+
+// minimum of a window of values that slides forward: values are added as the
+// newest and removed as the oldest. the values that may still become the
+// minimum are kept in a deque, increasing from its front, so that each
+// operation takes amortized constant time. ties go to the oldest or to the
+// newest value, as chosen on construction
+class WindowMinimum {
+    private boolean tiesToNewest;
+    // ring buffer of the candidates and their sequence numbers
+    private long[] values;
+    private long[] sequenceNumbers;
+    private int head;
+    private int nCandidates;
+    private long nAdded;
+    private long nRemoved;
+
+    public WindowMinimum(boolean tiesToNewest) {
+        this.tiesToNewest = tiesToNewest;
+        this.values = new long[16];
+        this.sequenceNumbers = new long[16];
+        clear();
+    }
+
+    public void clear() {
+        this.head = 0;
+        this.nCandidates = 0;
+        this.nAdded = 0;
+        this.nRemoved = 0;
+    }
+
+    // replaces the window with the given values, oldest first
+    public void set(long[] values, int nValues) {
+        // the candidates are the values less than all the newer ones, or
+        // not greater if ties go to the oldest value
+        int nCandidates = 0;
+        long minimum = 0L;
+        for (int i = nValues - 1; i >= 0; i--) {
+            if (nCandidates == 0 || values[i] < minimum || (values[i] == minimum && !this.tiesToNewest)) {
+                minimum = values[i];
+                nCandidates++;
+            }
+        }
+
+        int capacity = this.values.length;
+        while (capacity < nCandidates) {
+            capacity *= 2;
+        }
+        if (capacity != this.values.length) {
+            this.values = new long[capacity];
+            this.sequenceNumbers = new long[capacity];
+        }
+
+        this.head = 0;
+        this.nCandidates = nCandidates;
+        this.nAdded = nValues;
+        this.nRemoved = 0;
+
+        for (int i = nValues - 1; i >= 0; i--) {
+            if (nCandidates == this.nCandidates || values[i] < minimum || (values[i] == minimum && !this.tiesToNewest)) {
+                minimum = values[i];
+                nCandidates--;
+                this.values[nCandidates] = values[i];
+                this.sequenceNumbers[nCandidates] = i;
+            }
+        }
+    }
+
+    public int size() {
+        return (int) (this.nAdded - this.nRemoved);
+    }
+
+    public void addNewest(long value) {
+        // candidates greater than the new value can no longer be the minimum,
+        // and neither can equal ones if ties go to the newest value
+        while (this.nCandidates > 0) {
+            long last = this.values[(this.head + this.nCandidates - 1) & (this.values.length - 1)];
+            if (last < value || (last == value && !this.tiesToNewest)) {
+                break;
+            }
+
+            this.nCandidates--;
+        }
+
+        if (this.nCandidates == this.values.length) {
+            grow();
+        }
+
+        int tail = (this.head + this.nCandidates) & (this.values.length - 1);
+        this.values[tail] = value;
+        this.sequenceNumbers[tail] = this.nAdded;
+        this.nCandidates++;
+        this.nAdded++;
+    }
+
+    public void removeOldest() {
+        if (this.nCandidates > 0 && this.sequenceNumbers[this.head] == this.nRemoved) {
+            this.head = (this.head + 1) & (this.values.length - 1);
+            this.nCandidates--;
+        }
+
+        this.nRemoved++;
+    }
+
+    public long getMinimum() {
+        return this.values[this.head];
+    }
+
+    // number of values newer than the minimum
+    public int getMinimumPosition() {
+        return (int) (this.nAdded - 1 - this.sequenceNumbers[this.head]);
+    }
+
+    private void grow() {
+        long[] values = new long[2 * this.values.length];
+        long[] sequenceNumbers = new long[2 * this.sequenceNumbers.length];
+        for (int i = 0; i < this.nCandidates; i++) {
+            values[i] = this.values[(this.head + i) & (this.values.length - 1)];
+            sequenceNumbers[i] = this.sequenceNumbers[(this.head + i) & (this.values.length - 1)];
+        }
+
+        this.values = values;
+        this.sequenceNumbers = sequenceNumbers;
+        this.head = 0;
+    }
+}
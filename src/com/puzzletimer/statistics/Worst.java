@@ -1,17 +1,19 @@
 package com.puzzletimer.statistics;
 
 import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
 import com.puzzletimer.util.SolutionUtils;
 
-public class Worst implements StatisticalMeasure {
+public class Worst implements IncrementalStatisticalMeasure {
     private int minimumWindowSize;
     private int maximumWindowSize;
-    private int windowPosition;
-    private long value;
+    // the worst time is the minimum of the negated times
+    private WindowMinimum negatedTimes;
 
     public Worst(int minimumWindowSize, int maximumWindowSize) {
         this.minimumWindowSize = minimumWindowSize;
         this.maximumWindowSize = maximumWindowSize;
+        this.negatedTimes = new WindowMinimum(false);
     }
 
     @Override
@@ -26,26 +28,53 @@ public class Worst implements StatisticalMeasure {
 
     @Override
     public int getWindowPosition() {
-        return this.windowPosition;
+        if (this.negatedTimes.size() == 0) {
+            return 0;
+        }
+
+        // ties go to the oldest solution
+        return this.negatedTimes.getMinimumPosition();
     }
 
     @Override
     public long getValue() {
-        return this.value;
+        if (this.negatedTimes.size() == 0) {
+            return 0L;
+        }
+
+        return -this.negatedTimes.getMinimum();
+    }
+
+    @Override
+    public int getNumberOfSolutions() {
+        return this.negatedTimes.size();
     }
 
     @Override
     public void setSolutions(Solution[] solutions) {
-        long[] times = SolutionUtils.realTimes(solutions, false);
-
-        long worst = 0L;
-        for (int i = 0; i < times.length; i++) {
-            if (times[i] >= worst) {
-                worst = times[i];
-                this.windowPosition = i;
-            }
+        this.negatedTimes.clear();
+
+        for (int i = solutions.length - 1; i >= 0; i--) {
+            addSolution(solutions[i]);
+        }
+    }
+
+    @Override
+    public void setSolutions(SolveSeries series, int start, int end) {
+        this.negatedTimes.clear();
+
+        for (int i = start; i < end; i++) {
+            this.negatedTimes.addNewest(-series.getRealTime(i));
         }
+    }
 
-        this.value = worst;
+    @Override
+    public void addSolution(Solution solution) {
+        this.negatedTimes.addNewest(-SolutionUtils.realTime(solution));
+    }
+
+    @Override
+    public void removeSolution(Solution solution) {
+        this.negatedTimes.removeOldest();
     }
 }
@@ -4,11 +4,12 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.util.Date;
-import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JFrame;
 
 import com.puzzletimer.models.Timing;
+import com.puzzletimer.state.TickService;
 import com.puzzletimer.state.TimerManager;
 
 public class ControlKeysTimer implements Timer {
@@ -27,9 +28,12 @@ public class ControlKeysTimer implements Timer {
     private boolean rightPressed;
     private KeyListener keyListener;
     private TimerManager.Listener timerListener;
-    private java.util.Timer repeater;
+    private Runnable tick;
+    private TickService.Handle repeater;
+    // wall-clock start, and System.nanoTime() at the input events
     private Date start;
-    private Date finish;
+    private long startNanoTime;
+    private long finishNanoTime;
     private State state;
 
     public ControlKeysTimer(JFrame frame, TimerManager timerManager) {
@@ -38,9 +42,11 @@ public class ControlKeysTimer implements Timer {
         this.inspectionEnabled = false;
         this.leftPressed = false;
         this.rightPressed = false;
+        this.tick = null;
         this.repeater = null;
         this.start = null;
-        this.finish = new Date(0);
+        this.startNanoTime = 0;
+        this.finishNanoTime = System.nanoTime() - 250000000L;
         this.state = ControlKeysTimer.this.inspectionEnabled ?
             State.READY_FOR_INSPECTION : State.NOT_READY;
     }
@@ -71,9 +77,19 @@ public class ControlKeysTimer implements Timer {
 
     @Override
     public void start() {
+        this.tick = new Runnable() {
+            @Override
+            public void run() {
+                ControlKeysTimer.this.timerManager.updateSolutionTiming(
+                    ControlKeysTimer.this.start, System.nanoTime() - ControlKeysTimer.this.startNanoTime);
+            }
+        };
+
         this.keyListener = new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent keyEvent) {
+                long nanoTime = System.nanoTime();
+
                 if (keyEvent.getKeyCode() != KeyEvent.VK_CONTROL) {
                     return;
                 }
@@ -92,7 +108,7 @@ public class ControlKeysTimer implements Timer {
 
                 switch (ControlKeysTimer.this.state) {
                     case READY_FOR_INSPECTION:
-                        if (new Date().getTime() - ControlKeysTimer.this.finish.getTime() < 250) {
+                        if (nanoTime - ControlKeysTimer.this.finishNanoTime < 250000000L) {
                             break;
                         }
 
@@ -109,15 +125,15 @@ public class ControlKeysTimer implements Timer {
 
                     case RUNNING:
                         if (ControlKeysTimer.this.leftPressed && ControlKeysTimer.this.rightPressed) {
-                            ControlKeysTimer.this.finish = new Date();
-                            if (ControlKeysTimer.this.finish.getTime() - ControlKeysTimer.this.start.getTime() < 250) {
+                            ControlKeysTimer.this.finishNanoTime = nanoTime;
+                            if (nanoTime - ControlKeysTimer.this.startNanoTime < 250000000L) {
                                 break;
                             }
 
                             ControlKeysTimer.this.repeater.cancel();
 
                             ControlKeysTimer.this.timerManager.finishSolution(
-                                new Timing(ControlKeysTimer.this.start, ControlKeysTimer.this.finish));
+                                new Timing(ControlKeysTimer.this.start, nanoTime - ControlKeysTimer.this.startNanoTime));
 
                             ControlKeysTimer.this.state = State.FINISHED;
                         }
@@ -127,6 +143,8 @@ public class ControlKeysTimer implements Timer {
 
             @Override
             public void keyReleased(KeyEvent keyEvent) {
+                long nanoTime = System.nanoTime();
+
                 if (keyEvent.getKeyCode() != KeyEvent.VK_CONTROL) {
                     return;
                 }
@@ -145,21 +163,16 @@ public class ControlKeysTimer implements Timer {
 
                 switch (ControlKeysTimer.this.state) {
                     case READY:
-                        if (new Date().getTime() - ControlKeysTimer.this.finish.getTime() < 250) {
+                        if (nanoTime - ControlKeysTimer.this.finishNanoTime < 250000000L) {
                             break;
                         }
 
                         ControlKeysTimer.this.timerManager.startSolution();
 
                         ControlKeysTimer.this.start = new Date();
-                        ControlKeysTimer.this.repeater = new java.util.Timer();
-                        ControlKeysTimer.this.repeater.schedule(new TimerTask() {
-                            @Override
-                            public void run() {
-                                ControlKeysTimer.this.timerManager.updateSolutionTiming(
-                                    new Timing(ControlKeysTimer.this.start, new Date()));
-                            }
-                        }, 0, 5);
+                        ControlKeysTimer.this.startNanoTime = nanoTime;
+                        ControlKeysTimer.this.repeater = ControlKeysTimer.this.timerManager.getTickService().schedule(
+                            ControlKeysTimer.this.tick, 5, TimeUnit.MILLISECONDS);
 
                         ControlKeysTimer.this.state = State.RUNNING;
                         break;
@@ -178,8 +191,12 @@ public class ControlKeysTimer implements Timer {
         this.timerListener = new TimerManager.Listener() {
             @Override
             public void inspectionFinished() {
-                ControlKeysTimer.this.state = ControlKeysTimer.this.inspectionEnabled ?
-                    State.READY_FOR_INSPECTION : State.NOT_READY;
+                // events arrive later on the EDT, after the solution
+                // that ended the inspection may have started
+                if (ControlKeysTimer.this.state != State.RUNNING) {
+                    ControlKeysTimer.this.state = ControlKeysTimer.this.inspectionEnabled ?
+                        State.READY_FOR_INSPECTION : State.NOT_READY;
+                }
             }
         };
         this.timerManager.addListener(this.timerListener);
@@ -189,6 +206,7 @@ public class ControlKeysTimer implements Timer {
     public void stop() {
         if (this.repeater != null) {
             this.repeater.cancel();
+            this.repeater = null;
         }
 
         this.frame.removeKeyListener(this.keyListener);
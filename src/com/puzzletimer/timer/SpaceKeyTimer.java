@@ -4,11 +4,12 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.util.Date;
-import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JFrame;
 
 import com.puzzletimer.models.Timing;
+import com.puzzletimer.state.TickService;
 import com.puzzletimer.state.TimerManager;
 
 public class SpaceKeyTimer implements Timer {
@@ -24,18 +25,23 @@ public class SpaceKeyTimer implements Timer {
     private boolean inspectionEnabled;
     private KeyListener keyListener;
     private TimerManager.Listener timerListener;
-    private java.util.Timer repeater;
+    private Runnable tick;
+    private TickService.Handle repeater;
+    // wall-clock start, and System.nanoTime() at the input events
     private Date start;
-    private Date finish;
+    private long startNanoTime;
+    private long finishNanoTime;
     private State state;
 
     public SpaceKeyTimer(JFrame frame, TimerManager timerManager) {
         this.frame = frame;
         this.timerManager = timerManager;
         this.inspectionEnabled = false;
+        this.tick = null;
         this.repeater = null;
         this.start = null;
-        this.finish = new Date(0);
+        this.startNanoTime = 0;
+        this.finishNanoTime = System.nanoTime() - 250000000L;
         this.state = this.inspectionEnabled ?
             State.READY_FOR_INSPECTION : State.READY;
     }
@@ -66,24 +72,34 @@ public class SpaceKeyTimer implements Timer {
 
     @Override
     public void start() {
+        this.tick = new Runnable() {
+            @Override
+            public void run() {
+                SpaceKeyTimer.this.timerManager.updateSolutionTiming(
+                    SpaceKeyTimer.this.start, System.nanoTime() - SpaceKeyTimer.this.startNanoTime);
+            }
+        };
+
         this.keyListener = new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent keyEvent) {
+                long nanoTime = System.nanoTime();
+
                 if (keyEvent.getKeyCode() != KeyEvent.VK_SPACE) {
                     return;
                 }
 
                 switch (SpaceKeyTimer.this.state) {
                     case RUNNING:
-                        SpaceKeyTimer.this.finish = new Date();
-                        if (SpaceKeyTimer.this.finish.getTime() - SpaceKeyTimer.this.start.getTime() < 250) {
+                        SpaceKeyTimer.this.finishNanoTime = nanoTime;
+                        if (nanoTime - SpaceKeyTimer.this.startNanoTime < 250000000L) {
                             break;
                         }
 
                         SpaceKeyTimer.this.repeater.cancel();
 
                         SpaceKeyTimer.this.timerManager.finishSolution(
-                            new Timing(SpaceKeyTimer.this.start, SpaceKeyTimer.this.finish));
+                            new Timing(SpaceKeyTimer.this.start, nanoTime - SpaceKeyTimer.this.startNanoTime));
 
                         SpaceKeyTimer.this.state = State.FINISHED;
                         break;
@@ -95,13 +111,15 @@ public class SpaceKeyTimer implements Timer {
 
             @Override
             public void keyReleased(KeyEvent keyEvent) {
+                long nanoTime = System.nanoTime();
+
                 if (keyEvent.getKeyCode() != KeyEvent.VK_SPACE) {
                     return;
                 }
 
                 switch (SpaceKeyTimer.this.state) {
                     case READY_FOR_INSPECTION:
-                        if (new Date().getTime() - SpaceKeyTimer.this.finish.getTime() < 250) {
+                        if (nanoTime - SpaceKeyTimer.this.finishNanoTime < 250000000L) {
                             break;
                         }
 
@@ -111,21 +129,16 @@ public class SpaceKeyTimer implements Timer {
                         break;
 
                     case READY:
-                        if (new Date().getTime() - SpaceKeyTimer.this.finish.getTime() < 250) {
+                        if (nanoTime - SpaceKeyTimer.this.finishNanoTime < 250000000L) {
                             break;
                         }
 
                         SpaceKeyTimer.this.timerManager.startSolution();
 
                         SpaceKeyTimer.this.start = new Date();
-                        SpaceKeyTimer.this.repeater = new java.util.Timer();
-                        SpaceKeyTimer.this.repeater.schedule(new TimerTask() {
-                            @Override
-                            public void run() {
-                                SpaceKeyTimer.this.timerManager.updateSolutionTiming(
-                                    new Timing(SpaceKeyTimer.this.start, new Date()));
-                            }
-                        }, 0, 5);
+                        SpaceKeyTimer.this.startNanoTime = nanoTime;
+                        SpaceKeyTimer.this.repeater = SpaceKeyTimer.this.timerManager.getTickService().schedule(
+                            SpaceKeyTimer.this.tick, 5, TimeUnit.MILLISECONDS);
 
                         SpaceKeyTimer.this.state = State.RUNNING;
                         break;
@@ -145,8 +158,12 @@ public class SpaceKeyTimer implements Timer {
         this.timerListener = new TimerManager.Listener() {
             @Override
             public void inspectionFinished() {
-                SpaceKeyTimer.this.state = SpaceKeyTimer.this.inspectionEnabled ?
-                        State.READY_FOR_INSPECTION : State.READY;
+                // events arrive later on the EDT, after the solution
+                // that ended the inspection may have started
+                if (SpaceKeyTimer.this.state != State.RUNNING) {
+                    SpaceKeyTimer.this.state = SpaceKeyTimer.this.inspectionEnabled ?
+                            State.READY_FOR_INSPECTION : State.READY;
+                }
             }
         };
         this.timerManager.addListener(this.timerListener);
@@ -156,6 +173,7 @@ public class SpaceKeyTimer implements Timer {
     public void stop() {
         if (this.repeater != null) {
             this.repeater.cancel();
+            this.repeater = null;
         }
 
         this.frame.removeKeyListener(this.keyListener);
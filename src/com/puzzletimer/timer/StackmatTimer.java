@@ -5,12 +5,13 @@ package com.puzzletimer.timer;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.TimerTask;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
 import javax.sound.sampled.TargetDataLine;
 
 import com.puzzletimer.models.Timing;
+import com.puzzletimer.state.TickService;
 import com.puzzletimer.state.TimerManager;
 
 interface StackmatTimerReaderListener {
@@ -198,8 +199,10 @@ public class StackmatTimer implements StackmatTimerReaderListener, Timer {
     private TimerManager timerManager;
     private boolean inspectionEnabled;
     private TimerManager.Listener timerListener;
-    private java.util.Timer repeater;
+    private TickService.Handle repeater;
+    // wall-clock start, and the System.nanoTime() value it corresponds to
     private Date start;
+    private long startNanoTime;
     private State state;
 
     public StackmatTimer(TargetDataLine targetDataLine, TimerManager timerManager) {
@@ -207,6 +210,7 @@ public class StackmatTimer implements StackmatTimerReaderListener, Timer {
         this.timerManager = timerManager;
         this.inspectionEnabled = false;
         this.start = null;
+        this.startNanoTime = 0;
         this.state = State.NOT_READY;
     }
 
@@ -239,7 +243,11 @@ public class StackmatTimer implements StackmatTimerReaderListener, Timer {
         this.timerListener = new TimerManager.Listener() {
             @Override
             public void inspectionFinished() {
-                StackmatTimer.this.state = State.NOT_READY;
+                // events arrive later on the EDT, after the solution
+                // that ended the inspection may have started
+                if (StackmatTimer.this.state != State.RUNNING) {
+                    StackmatTimer.this.state = State.NOT_READY;
+                }
             }
         };
         this.timerManager.addListener(this.timerListener);
@@ -248,18 +256,17 @@ public class StackmatTimer implements StackmatTimerReaderListener, Timer {
         Thread readerThread = new Thread(this.stackmatTimerReader);
         readerThread.start();
 
-        this.repeater = new java.util.Timer();
-        this.repeater.schedule(new TimerTask() {
+        this.repeater = this.timerManager.getTickService().schedule(new Runnable() {
             @Override
             public void run() {
                 switch (StackmatTimer.this.state) {
                     case RUNNING:
                         StackmatTimer.this.timerManager.updateSolutionTiming(
-                            new Timing(StackmatTimer.this.start, new Date()));
+                            StackmatTimer.this.start, System.nanoTime() - StackmatTimer.this.startNanoTime);
                         break;
                 }
             }
-        }, 0, 5);
+        }, 5, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -274,6 +281,8 @@ public class StackmatTimer implements StackmatTimerReaderListener, Timer {
 
     @Override
     public void dataReceived(byte[] data) {
+        long nanoTime = System.nanoTime();
+
         // hands status
         if (data[0] == 'A' || data[0] == 'L' || data[0] == 'C') {
             this.timerManager.pressLeftHand();
@@ -292,12 +301,13 @@ public class StackmatTimer implements StackmatTimerReaderListener, Timer {
         int seconds = 10 * (data[2] - '0') + data[3] - '0';
         int centiseconds = 10 * (data[4] - '0') + data[5] - '0';
 
+        // the timer's own reading is authoritative
         long time = 60000 * minutes + 1000 * seconds + 10 * centiseconds;
-        Date end = new Date();
-        Date start = new Date(end.getTime() - time);
-        Timing timing = new Timing(start, end);
+        Date start = new Date(new Date().getTime() - time);
+        Timing timing = new Timing(start, 1000000L * time);
 
         this.start = start;
+        this.startNanoTime = nanoTime - 1000000L * time;
 
         // state transitions
         switch (this.state) {
@@ -4,6 +4,7 @@ import static com.puzzletimer.Internationalization._;
 
 import java.util.ArrayList;
 
+import com.puzzletimer.models.MoveNotation;
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.solvers.RubiksCubeSolver;
 
@@ -23,6 +24,10 @@ public class RubiksCube3OPCycles implements Tip {
         return _("tip.RUBIKS-CUBE-3OP-CYCLES");
     }
 
+    @Override
+    public void initialize() {
+    }
+
     @Override
     public String getTip(Scramble scramble) {
         StringBuilder tip = new StringBuilder();
@@ -30,7 +35,7 @@ public class RubiksCube3OPCycles implements Tip {
         tip.append(_("tip.RUBIKS-CUBE-3OP-CYCLES") + ":\n  ");
 
         RubiksCubeSolver.State cubeState =
-            RubiksCubeSolver.State.id.applySequence(scramble.getSequence());
+            RubiksCubeSolver.State.id.applyMoves(scramble.getMoveCodes(MoveNotation.RUBIKS_CUBE));
 
         // corner cycles
         int[] cornersOrder = { 3, 2, 1, 0, 7, 6, 5, 4 };
@@ -5,6 +5,7 @@ import static com.puzzletimer.Internationalization._;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import com.puzzletimer.models.MoveNotation;
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.solvers.RubiksCubeSolver.State;
 
@@ -24,9 +25,13 @@ public class RubiksCubeClassicPochmannCorners implements Tip {
         return _("tip.RUBIKS-CUBE-CLASSIC-POCHMANN-CORNERS");
     }
 
+    @Override
+    public void initialize() {
+    }
+
     @Override
     public String getTip(Scramble scramble) {
-        State state = State.id.applySequence(scramble.getSequence());
+        State state = State.id.applyMoves(scramble.getMoveCodes(MoveNotation.RUBIKS_CUBE));
 
         // pieces already solved
         boolean[] solved = new boolean[8];
@@ -4,34 +4,36 @@ import static com.puzzletimer.Internationalization._;
 
 import java.util.ArrayList;
 
+import com.puzzletimer.models.MoveNotation;
 import com.puzzletimer.models.Scramble;
 import com.puzzletimer.solvers.RubiksCubeXCrossSolver;
+import com.puzzletimer.solvers.RubiksCubeSolver.PackedState;
 import com.puzzletimer.solvers.RubiksCubeSolver.State;
 import com.puzzletimer.util.StringUtils;
 
 public class RubiksCubeOptimalXCross implements Tip {
-    private static State x;
-    private static State y;
-    private static State z;
+    private static PackedState x;
+    private static PackedState y;
+    private static PackedState z;
 
     static {
-        x = new State(
-            new byte[] { 3, 2, 6, 7, 0, 1, 5, 4 },
-            new byte[] { 2, 1, 2, 1, 1, 2, 1, 2 },
-            new byte[] { 7, 5, 9, 11, 6, 2, 10, 3, 4, 1, 8, 0 },
-            new byte[] { 0, 0, 0,  0, 1, 0,  1, 0, 1, 0, 1, 0 });
-
-        y = new State(
-            new byte[] { 3, 0, 1, 2, 7, 4, 5, 6 },
-            new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 },
-            new byte[] { 3, 0, 1, 2, 7, 4, 5, 6, 11, 8, 9, 10 },
-            new byte[] { 1, 1, 1, 1, 0, 0, 0, 0,  0, 0, 0,  0 });
-
-        z = new State(
-            new byte[] { 4, 0, 3, 7, 5, 1, 2, 6 },
-            new byte[] { 1, 2, 1, 2, 2, 1, 2, 1 },
-            new byte[] { 8, 4, 6, 10, 0, 7, 3, 11, 1, 5, 2, 9 },
-            new byte[] { 1, 1, 1,  1, 1, 1, 1, 1,  1, 1, 1, 1 });
+        x = new PackedState(new State(
+                new byte[] { 3, 2, 6, 7, 0, 1, 5, 4 },
+                new byte[] { 2, 1, 2, 1, 1, 2, 1, 2 },
+                new byte[] { 7, 5, 9, 11, 6, 2, 10, 3, 4, 1, 8, 0 },
+                new byte[] { 0, 0, 0,  0, 1, 0,  1, 0, 1, 0, 1, 0 }));
+
+        y = new PackedState(new State(
+                new byte[] { 3, 0, 1, 2, 7, 4, 5, 6 },
+                new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 },
+                new byte[] { 3, 0, 1, 2, 7, 4, 5, 6, 11, 8, 9, 10 },
+                new byte[] { 1, 1, 1, 1, 0, 0, 0, 0,  0, 0, 0,  0 }));
+
+        z = new PackedState(new State(
+                new byte[] { 4, 0, 3, 7, 5, 1, 2, 6 },
+                new byte[] { 1, 2, 1, 2, 2, 1, 2, 1 },
+                new byte[] { 8, 4, 6, 10, 0, 7, 3, 11, 1, 5, 2, 9 },
+                new byte[] { 1, 1, 1,  1, 1, 1, 1, 1,  1, 1, 1, 1 }));
     }
 
     @Override
@@ -49,49 +51,55 @@ public class RubiksCubeOptimalXCross implements Tip {
         return _("tip.RUBIKS-CUBE-OPTIMAL-X-CROSS");
     }
 
+    @Override
+    public void initialize() {
+        RubiksCubeXCrossSolver.initialize();
+    }
+
     @Override
     public String getTip(Scramble scramble) {
-        State state = State.id.applySequence(scramble.getSequence());
+        PackedState state = new PackedState();
+        state.applyMoves(scramble.getMoveCodes(MoveNotation.RUBIKS_CUBE));
 
         StringBuilder tip = new StringBuilder();
 
         // x-cross on U
-        State stateU =
-            x.multiply(x).multiply(state).multiply(x).multiply(x);
+        PackedState stateU =
+            PackedState.product(x, x, state, x, x);
         tip.append(_("tip.RUBIKS-CUBE-OPTIMAL-X-CROSS.optimal_x_cross_on_u") + ":\n");
         tip.append(getOptimalSolutions(stateU, "x2 "));
         tip.append("\n");
 
         // x-cross on D
-        State stateD = state;
+        PackedState stateD = state;
         tip.append(_("tip.RUBIKS-CUBE-OPTIMAL-X-CROSS.optimal_x_cross_on_d") + ":\n");
         tip.append(getOptimalSolutions(stateD, ""));
         tip.append("\n");
 
         // x-cross on L
-        State stateL =
-            z.multiply(state).multiply(z).multiply(z).multiply(z);
+        PackedState stateL =
+            PackedState.product(z, state, z, z, z);
         tip.append(_("tip.RUBIKS-CUBE-OPTIMAL-X-CROSS.optimal_x_cross_on_l") + ":\n");
         tip.append(getOptimalSolutions(stateL, "z' "));
         tip.append("\n");
 
         // x-cross on R
-        State stateR =
-            z.multiply(z).multiply(z).multiply(state).multiply(z);
+        PackedState stateR =
+            PackedState.product(z, z, z, state, z);
         tip.append(_("tip.RUBIKS-CUBE-OPTIMAL-X-CROSS.optimal_x_cross_on_r") + ":\n");
         tip.append(getOptimalSolutions(stateR, "z "));
         tip.append("\n");
 
         // x-cross on F
-        State stateF =
-            x.multiply(state).multiply(x).multiply(x).multiply(x);
+        PackedState stateF =
+            PackedState.product(x, state, x, x, x);
         tip.append(_("tip.RUBIKS-CUBE-OPTIMAL-X-CROSS.optimal_x_cross_on_f") + ":\n");
         tip.append(getOptimalSolutions(stateF, "x' "));
         tip.append("\n");
 
         // x-cross on B
-        State stateB =
-            x.multiply(x).multiply(x).multiply(state).multiply(x);
+        PackedState stateB =
+            PackedState.product(x, x, x, state, x);
         tip.append(_("tip.RUBIKS-CUBE-OPTIMAL-X-CROSS.optimal_x_cross_on_b") + ":\n");
         tip.append(getOptimalSolutions(stateB, "x "));
         tip.append("\n");
@@ -99,12 +107,12 @@ public class RubiksCubeOptimalXCross implements Tip {
         return tip.toString().trim();
     }
 
-    private String getOptimalSolutions(State state, String prefix) {
+    private String getOptimalSolutions(PackedState state, String prefix) {
         ArrayList<String> prefixes = new ArrayList<String>();
         ArrayList<String[]> solutions = new ArrayList<String[]>();
 
         // id
-        State stateId = state;
+        State stateId = state.toState();
         for (String[] solution : RubiksCubeXCrossSolver.solve(stateId)) {
             prefixes.add(prefix);
             solutions.add(solution);
@@ -112,7 +120,7 @@ public class RubiksCubeOptimalXCross implements Tip {
 
         // y
         State stateY =
-            y.multiply(y).multiply(y).multiply(state).multiply(y);
+            PackedState.product(y, y, y, state, y).toState();
         for (String[] solution : RubiksCubeXCrossSolver.solve(stateY)) {
             prefixes.add(prefix + "y ");
             solutions.add(solution);
@@ -120,7 +128,7 @@ public class RubiksCubeOptimalXCross implements Tip {
 
         // y2
         State stateY2 =
-            y.multiply(y).multiply(state).multiply(y).multiply(y);
+            PackedState.product(y, y, state, y, y).toState();
         for (String[] solution : RubiksCubeXCrossSolver.solve(stateY2)) {
             prefixes.add(prefix + "y2 ");
             solutions.add(solution);
@@ -128,7 +136,7 @@ public class RubiksCubeOptimalXCross implements Tip {
 
         // y'
         State stateY3 =
-            y.multiply(state).multiply(y).multiply(y).multiply(y);
+            PackedState.product(y, state, y, y, y).toState();
         for (String[] solution : RubiksCubeXCrossSolver.solve(stateY3)) {
             prefixes.add(prefix + "y' ");
             solutions.add(solution);
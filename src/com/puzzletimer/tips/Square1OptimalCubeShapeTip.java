@@ -22,6 +22,11 @@ public class Square1OptimalCubeShapeTip implements Tip {
         return _("tip.SQUARE-1-OPTIMAL-CUBE-SHAPE");
     }
 
+    @Override
+    public void initialize() {
+        Square1ShapeSolver.initialize();
+    }
+
     @Override
     public String getTip(Scramble scramble) {
         String[] solution = Square1ShapeSolver.solve(
@@ -6,5 +6,6 @@ public interface Tip {
     String getTipId();
     String getPuzzleId();
     String getTipDescription();
+    void initialize();
     String getTip(Scramble scramble);
 }
@@ -1,6 +1,6 @@
 package com.puzzletimer.util;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Locale;
 import java.util.Scanner;
 
@@ -139,19 +139,19 @@ public class SolutionUtils {
     }
 
     public static long[] realTimes(Solution[] solutions, boolean filterDNF) {
-        ArrayList<Long> realTimes = new ArrayList<Long>();
+        long[] realTimes = new long[solutions.length];
+        int nRealTimes = 0;
         for (int i = 0; i < solutions.length; i++) {
             long actualTime = realTime(solutions[i]);
             if (!filterDNF || actualTime != Long.MAX_VALUE) {
-                realTimes.add(actualTime);
+                realTimes[nRealTimes++] = actualTime;
             }
         }
 
-        long[] realTimesArray = new long[realTimes.size()];
-        for (int i = 0; i < realTimesArray.length; i++) {
-            realTimesArray[i] = realTimes.get(i);
+        if (nRealTimes < realTimes.length) {
+            realTimes = Arrays.copyOf(realTimes, nRealTimes);
         }
 
-        return realTimesArray;
+        return realTimes;
     }
 }
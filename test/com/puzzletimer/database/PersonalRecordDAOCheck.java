@@ -0,0 +1,69 @@
+package com.puzzletimer.database;
+
+import java.io.InputStreamReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+
+import org.h2.tools.RunScript;
+
+import com.puzzletimer.models.Category;
+import com.puzzletimer.models.PersonalRecord;
+
+// runs every schema script on an in-memory database, as Main does on an old
+// one, then stores, replaces and reads back personal records, which must go
+// away with their category.
+// usage: PersonalRecordDAOCheck
+public class PersonalRecordDAOCheck {
+    private static final String[] VERSIONS = { "0.3", "0.4", "0.5", "0.6", "0.7" };
+
+    public static void main(String[] args) throws Exception {
+        Class.forName("org.h2.Driver");
+        Connection connection = DriverManager.getConnection("jdbc:h2:mem:check", "sa", "");
+        for (String version : VERSIONS) {
+            RunScript.execute(
+                connection,
+                new InputStreamReader(PersonalRecordDAOCheck.class.getResourceAsStream(
+                    "/com/puzzletimer/resources/database/puzzletimer" + version + ".sql")));
+        }
+
+        ResultSet resultSet = connection.createStatement().executeQuery(
+            "SELECT VALUE FROM CONFIGURATION WHERE KEY = 'VERSION'");
+        resultSet.next();
+        check(resultSet.getString(1).equals(VERSIONS[VERSIONS.length - 1]), "schema version " + resultSet.getString(1));
+
+        CategoryDAO categoryDAO = new CategoryDAO(connection);
+        PersonalRecordDAO personalRecordDAO = new PersonalRecordDAO(connection);
+
+        Category category = categoryDAO.getAll()[0];
+        check(personalRecordDAO.getAll(category).length == 0, "a new database has records");
+
+        personalRecordDAO.update(new PersonalRecord[] {
+            new PersonalRecord(category.getCategoryId(), "SINGLE", 1234),
+            new PersonalRecord(category.getCategoryId(), "MEAN-OF-3", Long.MAX_VALUE),
+        });
+        personalRecordDAO.update(new PersonalRecord[] {
+            new PersonalRecord(category.getCategoryId(), "SINGLE", 999),
+        });
+
+        PersonalRecord[] records = personalRecordDAO.getAll(category);
+        check(records.length == 2, records.length + " records instead of 2");
+        for (PersonalRecord record : records) {
+            long expected = record.getMeasureId().equals("SINGLE") ? 999 : Long.MAX_VALUE;
+            check(record.getValue() == expected, record.getMeasureId() + " is " + record.getValue() + " instead of " + expected);
+        }
+
+        categoryDAO.delete(category);
+        check(personalRecordDAO.getAll(category).length == 0, "the records outlived their category");
+
+        connection.close();
+
+        System.out.println("ok");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new RuntimeException(message);
+        }
+    }
+}
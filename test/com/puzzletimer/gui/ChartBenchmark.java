@@ -0,0 +1,53 @@
+package com.puzzletimer.gui;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.UUID;
+
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.Timing;
+import com.puzzletimer.state.SortedSolveSeries;
+
+// time taken to update the history's graph and histogram with a whole
+// history of the given sizes, the figures being those of the last round.
+// usage: ChartBenchmark [history sizes...]
+public class ChartBenchmark {
+    private static final int N_ROUNDS = 5;
+    private static final int N_UPDATES = 50;
+
+    public static void main(String[] args) {
+        String[] sizes = args.length > 0 ? args : new String[] { "10000", "100000" };
+
+        Random random = new Random(1);
+        for (String size : sizes) {
+            int nSolutions = Integer.parseInt(size);
+
+            Solution[] solutions = new Solution[nSolutions];
+            for (int i = 0; i < nSolutions; i++) {
+                long start = 1300000000000L + i * 20000L;
+                solutions[i] = new Solution(
+                    UUID.randomUUID(),
+                    null,
+                    null,
+                    new Timing(new Date(start), new Date(start + 5000 + random.nextInt(20000))),
+                    random.nextInt(20) == 0 ? "DNF" : "");
+            }
+
+            SortedSolveSeries series = new SortedSolveSeries(solutions);
+            GraphPanel graphPanel = new GraphPanel(series);
+            HistogramPanel histogramPanel = new HistogramPanel(series, 17);
+
+            double updateTime = 0d;
+            for (int round = 0; round < N_ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < N_UPDATES; i++) {
+                    graphPanel.setSolutions(series);
+                    histogramPanel.setSolutions(series);
+                }
+                updateTime = (System.nanoTime() - start) / 1e6 / N_UPDATES;
+            }
+
+            System.out.printf("%6d solves   graph and histogram update %.2f ms%n", nSolutions, updateTime);
+        }
+    }
+}
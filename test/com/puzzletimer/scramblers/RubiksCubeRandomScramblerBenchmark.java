@@ -0,0 +1,38 @@
+package com.puzzletimer.scramblers;
+
+// average time of RubiksCubeRandomScrambler.getRandomState for every
+// scrambler defined through that class.
+// usage: RubiksCubeRandomScramblerBenchmark [calls] [scrambler id regex]
+public class RubiksCubeRandomScramblerBenchmark {
+    public static void main(String[] args) {
+        int nCalls = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        String scramblerIds = args.length > 1 ? args[1] : ".*";
+
+        for (Scrambler scrambler : new ScramblerProvider().getAll()) {
+            String scramblerId = scrambler.getScramblerInfo().getScramblerId();
+            if (!(scrambler instanceof RubiksCubeRandomScrambler) || !scramblerId.matches(scramblerIds)) {
+                continue;
+            }
+
+            RubiksCubeRandomScrambler randomScrambler = (RubiksCubeRandomScrambler) scrambler;
+
+            // warm up
+            long sink = 0;
+            for (int i = 0; i < nCalls / 5; i++) {
+                sink += randomScrambler.getRandomState().edgesPermutation[0];
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < nCalls; i++) {
+                sink += randomScrambler.getRandomState().edgesPermutation[0];
+            }
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf(
+                "%-45s %6.0f ns/state (%d)%n",
+                scramblerId,
+                elapsed / (double) nCalls,
+                sink % 2);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.puzzletimer.scramblers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.puzzletimer.solvers.RubiksCubeSolver;
+
+// chi-square test of the states drawn by every RubiksCubeRandomScrambler
+// against the uniform distribution. scramblers with few states are tested
+// over whole states, the others over the permutation of up to four of the
+// free corners and edges and over the orientations. the number of cells is
+// derived from the pieces that vary, so that states that are never drawn
+// count against uniformity. every state must also have corner and edge
+// permutations of the same parity.
+// usage: RubiksCubeRandomScramblerUniformity [samples] [scrambler id regex]
+public class RubiksCubeRandomScramblerUniformity {
+    private interface Key {
+        String get(RubiksCubeSolver.State state);
+    }
+
+    // states a scrambler may have for the whole state to be tested
+    private static final int MAXIMUM_STATE_CELLS = 5000;
+    // samples used to find the pieces that vary
+    private static final int N_PILOT_SAMPLES = 1000;
+    // |z| above which a distribution is reported as not uniform
+    private static final double MAXIMUM_Z = 4.0;
+
+    public static void main(String[] args) {
+        int nSamples = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        String scramblerIds = args.length > 1 ? args[1] : ".*";
+
+        int nFailures = 0;
+        for (Scrambler scrambler : new ScramblerProvider().getAll()) {
+            String scramblerId = scrambler.getScramblerInfo().getScramblerId();
+            if (!(scrambler instanceof RubiksCubeRandomScrambler) || !scramblerId.matches(scramblerIds)) {
+                continue;
+            }
+
+            nFailures += test((RubiksCubeRandomScrambler) scrambler, nSamples);
+        }
+
+        if (nFailures > 0) {
+            throw new RuntimeException(nFailures + " distributions aren't uniform");
+        }
+
+        System.out.println("ok");
+    }
+
+    private static int test(RubiksCubeRandomScrambler scrambler, int nSamples) {
+        String scramblerId = scrambler.getScramblerInfo().getScramblerId();
+
+        ArrayList<RubiksCubeSolver.State> pilotStates = new ArrayList<RubiksCubeSolver.State>();
+        for (int i = 0; i < N_PILOT_SAMPLES; i++) {
+            pilotStates.add(scrambler.getRandomState());
+        }
+
+        int nFreeCorners = nVaryingPositions(pilotStates, 0);
+        int nFreeCornersOrientations = nVaryingPositions(pilotStates, 1);
+        int nFreeEdges = nVaryingPositions(pilotStates, 2);
+        int nFreeEdgesOrientations = nVaryingPositions(pilotStates, 3);
+
+        // swapping two free pieces changes the parity, which is then fixed
+        // by the other pieces. a double, as a random cube has more states
+        // than a long can hold
+        double nStates =
+            (double) nArrangements(nFreeCorners, nFreeCorners) *
+            nArrangements(nFreeEdges, nFreeEdges) *
+            nOrientations(3, nFreeCornersOrientations) *
+            nOrientations(2, nFreeEdgesOrientations);
+        if (nFreeCorners >= 2 || nFreeEdges >= 2) {
+            nStates /= 2;
+        }
+
+        ArrayList<String> names = new ArrayList<String>();
+        ArrayList<Long> nCells = new ArrayList<Long>();
+        ArrayList<Key> keys = new ArrayList<Key>();
+        if (nStates <= MAXIMUM_STATE_CELLS) {
+            names.add("state");
+            nCells.add((long) nStates);
+            keys.add(new Key() {
+                @Override
+                public String get(RubiksCubeSolver.State state) {
+                    return stateKey(state);
+                }
+            });
+        } else {
+            final int[] cornerPositions = freePositions(pilotStates, true);
+            final int[] edgePositions = freePositions(pilotStates, false);
+
+            names.add("corners permutation");
+            nCells.add(nPartialArrangements(nFreeCorners, cornerPositions.length, nFreeEdges));
+            keys.add(new Key() {
+                @Override
+                public String get(RubiksCubeSolver.State state) {
+                    return permutationKey(state.cornersPermutation, cornerPositions);
+                }
+            });
+
+            names.add("corners orientation");
+            nCells.add(nOrientations(3, nFreeCornersOrientations));
+            keys.add(new Key() {
+                @Override
+                public String get(RubiksCubeSolver.State state) {
+                    return Arrays.toString(state.cornersOrientation);
+                }
+            });
+
+            names.add("edges permutation");
+            nCells.add(nPartialArrangements(nFreeEdges, edgePositions.length, nFreeCorners));
+            keys.add(new Key() {
+                @Override
+                public String get(RubiksCubeSolver.State state) {
+                    return permutationKey(state.edgesPermutation, edgePositions);
+                }
+            });
+
+            names.add("edges orientation");
+            nCells.add(nOrientations(2, nFreeEdgesOrientations));
+            keys.add(new Key() {
+                @Override
+                public String get(RubiksCubeSolver.State state) {
+                    return Arrays.toString(state.edgesOrientation);
+                }
+            });
+        }
+
+        ArrayList<HashMap<String, int[]>> counts = new ArrayList<HashMap<String, int[]>>();
+        for (int i = 0; i < keys.size(); i++) {
+            counts.add(new HashMap<String, int[]>());
+        }
+
+        for (int i = 0; i < nSamples; i++) {
+            RubiksCubeSolver.State state = scrambler.getRandomState();
+            if (parity(state.cornersPermutation) != parity(state.edgesPermutation)) {
+                throw new RuntimeException(scramblerId + ": corner and edge parities differ");
+            }
+
+            for (int j = 0; j < keys.size(); j++) {
+                String key = keys.get(j).get(state);
+                int[] count = counts.get(j).get(key);
+                if (count == null) {
+                    count = new int[1];
+                    counts.get(j).put(key, count);
+                }
+                count[0]++;
+            }
+        }
+
+        int nFailures = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            long nExpectedCells = nCells.get(i);
+            int nDrawnCells = counts.get(i).size();
+            if (nExpectedCells <= 1) {
+                continue;
+            }
+
+            // cells that were never drawn contribute (0 - expected)^2 / expected
+            double expected = nSamples / (double) nExpectedCells;
+            double chiSquare = (nExpectedCells - nDrawnCells) * expected;
+            for (int[] count : counts.get(i).values()) {
+                chiSquare += (count[0] - expected) * (count[0] - expected) / expected;
+            }
+
+            long degreesOfFreedom = nExpectedCells - 1;
+            double z = (chiSquare - degreesOfFreedom) / Math.sqrt(2.0 * degreesOfFreedom);
+            boolean uniform = nDrawnCells <= nExpectedCells && Math.abs(z) <= MAXIMUM_Z;
+            if (!uniform) {
+                nFailures++;
+            }
+
+            System.out.printf(
+                "%-45s %-20s cells=%6d/%-6d chi2=%9.1f z=%6.2f%s%n",
+                scramblerId,
+                names.get(i),
+                nDrawnCells,
+                nExpectedCells,
+                chiSquare,
+                z,
+                uniform ? "" : "  NOT UNIFORM");
+        }
+
+        return nFailures;
+    }
+
+    // number of positions of the corners permutation (0), corners
+    // orientation (1), edges permutation (2) or edges orientation (3) that
+    // vary between the given states
+    private static int nVaryingPositions(ArrayList<RubiksCubeSolver.State> states, int component) {
+        byte[] first = component(states.get(0), component);
+
+        int nPositions = 0;
+        for (int i = 0; i < first.length; i++) {
+            for (RubiksCubeSolver.State state : states) {
+                if (component(state, component)[i] != first[i]) {
+                    nPositions++;
+                    break;
+                }
+            }
+        }
+
+        return nPositions;
+    }
+
+    private static byte[] component(RubiksCubeSolver.State state, int component) {
+        switch (component) {
+            case 0:
+                return state.cornersPermutation;
+            case 1:
+                return state.cornersOrientation;
+            case 2:
+                return state.edgesPermutation;
+            default:
+                return state.edgesOrientation;
+        }
+    }
+
+    // ways of placing nPlaced of nFree pieces
+    private static long nArrangements(int nFree, int nPlaced) {
+        long nArrangements = 1;
+        for (int i = 0; i < nPlaced; i++) {
+            nArrangements *= nFree - i;
+        }
+
+        return nArrangements;
+    }
+
+    // arrangements of nPlaced of nFree pieces that can be drawn. when the
+    // placed pieces determine the permutation and the other kind of piece
+    // can't fix the parity, only half of them can
+    private static long nPartialArrangements(int nFree, int nPlaced, int nOtherFree) {
+        long nArrangements = nArrangements(nFree, nPlaced);
+        if (nFree >= 2 && nFree - nPlaced <= 1 && nOtherFree < 2) {
+            nArrangements /= 2;
+        }
+
+        return nArrangements;
+    }
+
+    // the orientations of nFree pieces add up to a multiple of nValues
+    private static long nOrientations(int nValues, int nFree) {
+        long nOrientations = 1;
+        for (int i = 1; i < nFree; i++) {
+            nOrientations *= nValues;
+        }
+
+        return nOrientations;
+    }
+
+    // up to four positions whose pieces vary between the given states
+    private static int[] freePositions(ArrayList<RubiksCubeSolver.State> states, boolean corners) {
+        byte[] first = corners ? states.get(0).cornersPermutation : states.get(0).edgesPermutation;
+
+        int[] positions = new int[4];
+        int nPositions = 0;
+        for (int i = 0; i < first.length && nPositions < positions.length; i++) {
+            for (RubiksCubeSolver.State state : states) {
+                byte[] permutation = corners ? state.cornersPermutation : state.edgesPermutation;
+                if (permutation[i] != first[i]) {
+                    positions[nPositions++] = i;
+                    break;
+                }
+            }
+        }
+
+        return Arrays.copyOf(positions, nPositions);
+    }
+
+    private static String permutationKey(byte[] permutation, int[] positions) {
+        StringBuilder key = new StringBuilder();
+        for (int position : positions) {
+            key.append(permutation[position]).append(',');
+        }
+
+        return key.toString();
+    }
+
+    private static String stateKey(RubiksCubeSolver.State state) {
+        return
+            Arrays.toString(state.cornersPermutation) +
+            Arrays.toString(state.cornersOrientation) +
+            Arrays.toString(state.edgesPermutation) +
+            Arrays.toString(state.edgesOrientation);
+    }
+
+    private static int parity(byte[] permutation) {
+        int nInversions = 0;
+        for (int i = 0; i < permutation.length; i++) {
+            for (int j = i + 1; j < permutation.length; j++) {
+                if (permutation[i] > permutation[j]) {
+                    nInversions++;
+                }
+            }
+        }
+
+        return nInversions % 2;
+    }
+}
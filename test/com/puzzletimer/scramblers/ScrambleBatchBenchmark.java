@@ -0,0 +1,91 @@
+package com.puzzletimer.scramblers;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.puzzletimer.models.Scramble;
+
+// times a ScrambleBatch with 1, 2 and 4 workers, checking that every
+// scramble is reported once and that the scrambles differ, then cancels a
+// long batch and times how long the workers take to stop.
+// usage: ScrambleBatchBenchmark [scrambler id] [scrambles]
+public class ScrambleBatchBenchmark {
+    private static final int[] N_WORKERS = { 1, 2, 4 };
+
+    public static void main(String[] args) throws InterruptedException {
+        String scramblerId = args.length > 0 ? args[0] : "RUBIKS-CUBE-RANDOM";
+        int nScrambles = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        Scrambler scrambler = new ScramblerProvider().get(scramblerId);
+        scrambler.initialize();
+        scrambler.getNextScramble();
+
+        for (int nWorkers : N_WORKERS) {
+            final Set<String> sequences = Collections.synchronizedSet(new HashSet<String>());
+            final int[] result = new int[2];
+            final CountDownLatch finished = new CountDownLatch(1);
+
+            ExecutorService executor = Executors.newFixedThreadPool(nWorkers);
+            ScrambleBatch batch = new ScrambleBatch(scrambler, nScrambles, new ScrambleBatch.Listener() {
+                @Override
+                public void scrambleGenerated(Scramble scramble, int nGenerated, int nScrambles) {
+                    sequences.add(scramble.getRawSequence());
+                }
+
+                @Override
+                public void batchFinished(int nGenerated, int nScrambles, boolean cancelled) {
+                    result[0] = nGenerated;
+                    result[1] = cancelled ? 1 : 0;
+                    finished.countDown();
+                }
+            });
+
+            long start = System.nanoTime();
+            batch.start(executor, nWorkers);
+            finished.await();
+            long elapsed = System.nanoTime() - start;
+            executor.shutdown();
+
+            if (result[0] != nScrambles || result[1] != 0) {
+                throw new RuntimeException(nWorkers + " workers: " + result[0] + " of " + nScrambles + " scrambles generated");
+            }
+            if (sequences.size() != nScrambles) {
+                throw new RuntimeException(nWorkers + " workers: " + sequences.size() + " distinct scrambles");
+            }
+
+            System.out.printf("%-20s %d workers  %d scrambles  %7.1f s%n", scramblerId, nWorkers, nScrambles, elapsed / 1e9);
+        }
+
+        // cancellation
+        final int[] result = new int[2];
+        final CountDownLatch finished = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ScrambleBatch batch = new ScrambleBatch(scrambler, Integer.MAX_VALUE, new ScrambleBatch.Listener() {
+            @Override
+            public void batchFinished(int nGenerated, int nScrambles, boolean cancelled) {
+                result[0] = nGenerated;
+                result[1] = cancelled ? 1 : 0;
+                finished.countDown();
+            }
+        });
+        batch.start(executor, 2);
+        Thread.sleep(500);
+
+        long start = System.nanoTime();
+        batch.cancel();
+        finished.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        if (result[1] != 1) {
+            throw new RuntimeException("the batch wasn't reported as cancelled");
+        }
+
+        System.out.printf("cancelled after %d scrambles, stopped in %.0f ms%n", result[0], elapsed / 1e6);
+        System.out.println("ok");
+    }
+}
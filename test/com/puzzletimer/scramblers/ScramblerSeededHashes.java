@@ -0,0 +1,114 @@
+package com.puzzletimer.scramblers;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+// hashes the scrambles every scrambler generates from a fixed seed, to
+// check that a change leaves the scrambles as they were. the hashes are
+// written to the given file if it doesn't exist, and compared against it
+// otherwise, so the file of one revision can be checked against another.
+// usage: ScramblerSeededHashes [scrambles] [file] [scrambler id regex]
+public class ScramblerSeededHashes {
+    private static final long SEED = 1234;
+
+    public static void main(String[] args) throws Exception {
+        int nScrambles = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        File file = args.length > 1 ? new File(args[1]) : null;
+        String scramblerIds = args.length > 2 ? args[2] : ".*";
+
+        LinkedHashMap<String, Integer> hashes = new LinkedHashMap<String, Integer>();
+        for (Scrambler scrambler : new ScramblerProvider().getAll()) {
+            String scramblerId = scrambler.getScramblerInfo().getScramblerId();
+            if (!scramblerId.matches(scramblerIds)) {
+                continue;
+            }
+
+            seed(scrambler, SEED);
+
+            long start = System.nanoTime();
+            int hash = 0;
+            for (int i = 0; i < nScrambles; i++) {
+                hash = 31 * hash + Arrays.hashCode(scrambler.getNextScramble().getSequence());
+            }
+
+            hashes.put(scramblerId, hash);
+            System.out.printf("%-45s %11d %8.0f ms%n", scramblerId, hash, (System.nanoTime() - start) / 1e6);
+        }
+
+        if (file == null) {
+            return;
+        }
+
+        if (!file.exists()) {
+            write(file, hashes);
+            System.out.println("written to " + file);
+            return;
+        }
+
+        Map<String, Integer> expected = read(file);
+        int nDifferences = 0;
+        for (Map.Entry<String, Integer> entry : hashes.entrySet()) {
+            Integer expectedHash = expected.get(entry.getKey());
+            if (expectedHash != null && !expectedHash.equals(entry.getValue())) {
+                System.out.println(entry.getKey() + " differs");
+                nDifferences++;
+            }
+        }
+
+        if (nDifferences > 0) {
+            throw new RuntimeException(nDifferences + " scramblers differ from " + file);
+        }
+
+        System.out.println("ok, same as " + file);
+    }
+
+    // scramblers draw from a PerThreadRandom, possibly through other
+    // scramblers, which get seeds of their own
+    private static void seed(Object scrambler, long seed) throws IllegalAccessException {
+        for (Class<?> c = scrambler.getClass(); c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+
+                field.setAccessible(true);
+                Object value = field.get(scrambler);
+                if (value instanceof PerThreadRandom) {
+                    ((PerThreadRandom) value).set(new Random(seed));
+                } else if (value instanceof Scrambler) {
+                    seed(value, seed + 1);
+                }
+            }
+        }
+    }
+
+    private static void write(File file, Map<String, Integer> hashes) throws IOException {
+        PrintWriter writer = new PrintWriter(new FileWriter(file));
+        for (Map.Entry<String, Integer> entry : hashes.entrySet()) {
+            writer.println(entry.getKey() + " " + entry.getValue());
+        }
+        writer.close();
+    }
+
+    private static Map<String, Integer> read(File file) throws IOException {
+        LinkedHashMap<String, Integer> hashes = new LinkedHashMap<String, Integer>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            String[] fields = line.split(" ");
+            hashes.put(fields[0], Integer.parseInt(fields[1]));
+        }
+        reader.close();
+
+        return hashes;
+    }
+}
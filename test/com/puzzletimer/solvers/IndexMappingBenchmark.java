@@ -0,0 +1,102 @@
+package com.puzzletimer.solvers;
+
+import java.util.Random;
+
+// ns/op of permutation ranking, unranking and ranking after a move, for
+// the quadratic reference and for IndexMapping, on random permutations of
+// 4, 6, 8 and 12 elements. the figures are those of the last round.
+// usage: IndexMappingBenchmark [rounds]
+public class IndexMappingBenchmark {
+    private static final int[] LENGTHS = { 4, 6, 8, 12 };
+    private static final int N_PERMUTATIONS = 4096;
+    private static final int N_REPETITIONS = 200;
+
+    private static int sink;
+
+    public static void main(String[] args) {
+        int nRounds = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+
+        for (int n : LENGTHS) {
+            int nPermutations = 1;
+            for (int i = 2; i <= n; i++) {
+                nPermutations *= i;
+            }
+
+            Random random = new Random(n);
+            int[] indices = new int[N_PERMUTATIONS];
+            byte[][] permutations = new byte[N_PERMUTATIONS][];
+            byte[][] movePermutations = new byte[N_PERMUTATIONS][];
+            byte[][] products = new byte[N_PERMUTATIONS][];
+            for (int i = 0; i < N_PERMUTATIONS; i++) {
+                indices[i] = random.nextInt(nPermutations);
+                permutations[i] = IndexMapping.indexToPermutation(indices[i], n);
+                movePermutations[i] = IndexMapping.indexToPermutation(random.nextInt(nPermutations), n);
+                products[i] = new byte[n];
+            }
+
+            double[] times = new double[6];
+            for (int round = 0; round < nRounds; round++) {
+                long[] t = new long[7];
+                t[0] = System.nanoTime();
+                for (int k = 0; k < N_REPETITIONS; k++) {
+                    for (int i = 0; i < N_PERMUTATIONS; i++) {
+                        sink += ReferenceIndexMapping.permutationToIndex(permutations[i]);
+                    }
+                }
+
+                t[1] = System.nanoTime();
+                for (int k = 0; k < N_REPETITIONS; k++) {
+                    for (int i = 0; i < N_PERMUTATIONS; i++) {
+                        sink += IndexMapping.permutationToIndex(permutations[i]);
+                    }
+                }
+
+                t[2] = System.nanoTime();
+                for (int k = 0; k < N_REPETITIONS; k++) {
+                    for (int i = 0; i < N_PERMUTATIONS; i++) {
+                        sink += ReferenceIndexMapping.indexToPermutation(indices[i], n)[0];
+                    }
+                }
+
+                t[3] = System.nanoTime();
+                for (int k = 0; k < N_REPETITIONS; k++) {
+                    for (int i = 0; i < N_PERMUTATIONS; i++) {
+                        sink += IndexMapping.indexToPermutation(indices[i], n)[0];
+                    }
+                }
+
+                t[4] = System.nanoTime();
+                for (int k = 0; k < N_REPETITIONS; k++) {
+                    for (int i = 0; i < N_PERMUTATIONS; i++) {
+                        byte[] permutation = permutations[i];
+                        byte[] movePermutation = movePermutations[i];
+                        byte[] product = products[i];
+                        for (int j = 0; j < n; j++) {
+                            product[j] = permutation[movePermutation[j]];
+                        }
+
+                        sink += ReferenceIndexMapping.permutationToIndex(product);
+                    }
+                }
+
+                t[5] = System.nanoTime();
+                for (int k = 0; k < N_REPETITIONS; k++) {
+                    for (int i = 0; i < N_PERMUTATIONS; i++) {
+                        sink += IndexMapping.permutationToIndex(permutations[i], movePermutations[i]);
+                    }
+                }
+
+                t[6] = System.nanoTime();
+                for (int i = 0; i < times.length; i++) {
+                    times[i] = (t[i + 1] - t[i]) / ((double) N_REPETITIONS * N_PERMUTATIONS);
+                }
+            }
+
+            System.out.printf(
+                "n=%-2d  rank %5.1f -> %5.1f ns  unrank %5.1f -> %5.1f ns  move+rank %5.1f -> %5.1f ns%n",
+                n, times[0], times[1], times[2], times[3], times[4], times[5]);
+        }
+
+        System.out.println("(" + sink % 2 + ")");
+    }
+}
@@ -0,0 +1,133 @@
+package com.puzzletimer.solvers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// compares IndexMapping with the quadratic reference for every permutation
+// and even permutation up to 9 elements and a stride of them up to 12, for
+// random entries with negative, repeated and sparse values (with and
+// without a move applied by the fused overloads) and for every combination.
+// usage: IndexMappingEquivalence [random trials per length]
+public class IndexMappingEquivalence {
+    private static final int MAX_LENGTH = 12;
+    private static final int MAX_EXHAUSTIVE_LENGTH = 9;
+    private static final int STRIDE = 997;
+
+    public static void main(String[] args) {
+        int nTrials = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+
+        Random random = new Random(1);
+        for (int n = 1; n <= MAX_LENGTH; n++) {
+            int nPermutations = factorial(n);
+
+            // all permutations, or a stride of them
+            int step = n <= MAX_EXHAUSTIVE_LENGTH ? 1 : STRIDE;
+            for (int i = 0; i < nPermutations; i += step) {
+                byte[] permutation = IndexMapping.indexToPermutation(i, n);
+                check(Arrays.equals(permutation, ReferenceIndexMapping.indexToPermutation(i, n)), "permutation " + i + " of " + n);
+                check(IndexMapping.permutationToIndex(permutation) == i, "index of permutation " + i + " of " + n);
+
+                if (n >= 2 && i < nPermutations / 2) {
+                    byte[] evenPermutation = IndexMapping.indexToEvenPermutation(i, n);
+                    check(Arrays.equals(evenPermutation, ReferenceIndexMapping.indexToEvenPermutation(i, n)), "even permutation " + i + " of " + n);
+                    check(IndexMapping.evenPermutationToIndex(evenPermutation) == i, "index of even permutation " + i + " of " + n);
+                }
+            }
+
+            // repeated values, negative ones every other trial
+            for (int trial = 0; trial < nTrials; trial++) {
+                byte[] permutation = new byte[n];
+                for (int i = 0; i < n; i++) {
+                    permutation[i] = (byte) (random.nextInt(12) - (trial % 2 == 0 ? 4 : 0));
+                }
+
+                checkRanks(permutation, IndexMapping.indexToPermutation(random.nextInt(nPermutations), n), "repeated values of " + n);
+            }
+
+            // distinct sparse values, as solvers ranking a subset of the
+            // pieces use
+            List<Byte> values = new ArrayList<Byte>();
+            for (int value = 0; value < 20; value++) {
+                values.add((byte) value);
+            }
+
+            for (int trial = 0; trial < nTrials; trial++) {
+                Collections.shuffle(values, random);
+                byte[] permutation = new byte[n];
+                for (int i = 0; i < n; i++) {
+                    permutation[i] = values.get(i);
+                }
+
+                byte[] movePermutation = IndexMapping.indexToPermutation(random.nextInt(nPermutations), n);
+                checkRanks(permutation, movePermutation, "sparse values of " + n);
+
+                byte[] orientation = new byte[n];
+                byte[] moveOrientation = new byte[n];
+                for (int i = 0; i < n; i++) {
+                    orientation[i] = (byte) random.nextInt(3);
+                    moveOrientation[i] = (byte) random.nextInt(3);
+                }
+
+                byte[] product = new byte[n];
+                for (int i = 0; i < n; i++) {
+                    product[i] = (byte) ((orientation[movePermutation[i]] + moveOrientation[i]) % 3);
+                }
+
+                check(
+                    IndexMapping.zeroSumOrientationToIndex(orientation, movePermutation, moveOrientation, 3) ==
+                        ReferenceIndexMapping.zeroSumOrientationToIndex(product, 3),
+                    "orientation after a move of " + n);
+            }
+
+            // combinations
+            for (int k = 0; k <= n; k++) {
+                int nCombinations = 1;
+                for (int i = 0; i < k; i++) {
+                    nCombinations = nCombinations * (n - i) / (i + 1);
+                }
+
+                for (int i = 0; i < nCombinations; i++) {
+                    boolean[] combination = IndexMapping.indexToCombination(i, k, n);
+                    check(Arrays.equals(combination, ReferenceIndexMapping.indexToCombination(i, k, n)), "combination " + i + " of " + n + " choose " + k);
+                    check(IndexMapping.combinationToIndex(combination, k) == ReferenceIndexMapping.combinationToIndex(combination, k), "index of combination " + i + " of " + n + " choose " + k);
+                }
+            }
+        }
+
+        System.out.println("ok");
+    }
+
+    // ranks of the permutation and of the permutation after the move
+    private static void checkRanks(byte[] permutation, byte[] movePermutation, String message) {
+        byte[] product = new byte[permutation.length];
+        for (int i = 0; i < permutation.length; i++) {
+            product[i] = permutation[movePermutation[i]];
+        }
+
+        check(IndexMapping.permutationToIndex(permutation) == ReferenceIndexMapping.permutationToIndex(permutation), message);
+        check(IndexMapping.permutationToIndex(permutation, movePermutation) == ReferenceIndexMapping.permutationToIndex(product), message + " after a move");
+
+        if (permutation.length >= 2) {
+            check(IndexMapping.evenPermutationToIndex(permutation) == ReferenceIndexMapping.evenPermutationToIndex(permutation), message + ", even");
+            check(IndexMapping.evenPermutationToIndex(permutation, movePermutation) == ReferenceIndexMapping.evenPermutationToIndex(product), message + ", even after a move");
+        }
+    }
+
+    private static int factorial(int n) {
+        int factorial = 1;
+        for (int i = 2; i <= n; i++) {
+            factorial *= i;
+        }
+
+        return factorial;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new RuntimeException(message);
+        }
+    }
+}
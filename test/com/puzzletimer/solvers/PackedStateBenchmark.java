@@ -0,0 +1,105 @@
+package com.puzzletimer.solvers;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.puzzletimer.solvers.RubiksCubeSolver.PackedState;
+import com.puzzletimer.solvers.RubiksCubeSolver.State;
+
+// checks that random move sequences give the same state move by move with
+// State.multiply, with State.applySequence and with PackedState, then
+// times a long run of moves both ways and reports the bytes the thread
+// allocates per move. needs a VM with com.sun.management.ThreadMXBean.
+// usage: PackedStateBenchmark [sequences] [moves] [rounds]
+public class PackedStateBenchmark {
+    private static final int MAX_SEQUENCE_LENGTH = 40;
+
+    public static void main(String[] args) {
+        int nSequences = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int nMoves = args.length > 1 ? Integer.parseInt(args[1]) : 20000000;
+        int nRounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        String[] moveNames = State.moves.keySet().toArray(new String[0]);
+        Arrays.sort(moveNames);
+
+        Random random = new Random(1);
+        for (int i = 0; i < nSequences; i++) {
+            String[] sequence = new String[random.nextInt(MAX_SEQUENCE_LENGTH)];
+            for (int j = 0; j < sequence.length; j++) {
+                sequence[j] = moveNames[random.nextInt(moveNames.length)];
+            }
+
+            State state = State.id;
+            for (String move : sequence) {
+                state = state.multiply(State.moves.get(move));
+            }
+
+            PackedState packedState = new PackedState();
+            packedState.applySequence(sequence);
+
+            State sequenceState = State.id.applySequence(sequence);
+            if (!sameState(state, sequenceState) || !sameState(state, packedState.toState())) {
+                throw new RuntimeException("sequence " + i + ": the states differ");
+            }
+
+            PackedState product = new PackedState(state);
+            product.multiply(new PackedState(sequenceState));
+            if (!product.equals(new PackedState(state.multiply(sequenceState)))) {
+                throw new RuntimeException("sequence " + i + ": the products differ");
+            }
+        }
+        System.out.println(nSequences + " sequences give the same states");
+
+        State[] moves = new State[moveNames.length];
+        PackedState[] packedMoves = new PackedState[moveNames.length];
+        for (int i = 0; i < moveNames.length; i++) {
+            moves[i] = State.moves.get(moveNames[i]);
+            packedMoves[i] = PackedState.moves.get(moveNames[i]);
+        }
+
+        com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int round = 0; round < nRounds; round++) {
+            long bytes0 = threadMXBean.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            State state = State.id;
+            for (int i = 0; i < nMoves; i++) {
+                state = state.multiply(moves[i % moves.length]);
+            }
+
+            long middle = System.nanoTime();
+            long bytes1 = threadMXBean.getThreadAllocatedBytes(threadId);
+            PackedState packedState = new PackedState();
+            for (int i = 0; i < nMoves; i++) {
+                packedState.multiply(packedMoves[i % packedMoves.length]);
+            }
+
+            long end = System.nanoTime();
+            long bytes2 = threadMXBean.getThreadAllocatedBytes(threadId);
+
+            if (!packedState.equals(new PackedState(state))) {
+                throw new RuntimeException("the final states differ");
+            }
+
+            System.out.printf(
+                "State.multiply %5.1f M moves/s %4.0f B/move   PackedState.multiply %5.1f M moves/s %6.3f B/move%n",
+                nMoves / ((middle - start) / 1e3),
+                (bytes1 - bytes0) / (double) nMoves,
+                nMoves / ((end - middle) / 1e3),
+                (bytes2 - bytes1) / (double) nMoves);
+        }
+
+        System.out.println("ok");
+    }
+
+    private static boolean sameState(State state1, State state2) {
+        return
+            Arrays.equals(state1.cornersPermutation, state2.cornersPermutation) &&
+            Arrays.equals(state1.cornersOrientation, state2.cornersOrientation) &&
+            Arrays.equals(state1.edgesPermutation, state2.edgesPermutation) &&
+            Arrays.equals(state1.edgesOrientation, state2.edgesOrientation);
+    }
+}
@@ -0,0 +1,68 @@
+package com.puzzletimer.solvers;
+
+import java.util.Random;
+
+// random lookups into a 40320 x 24 distance table (a corners permutation
+// by an edges permutation) stored as byte[][] and as a PruningTable. both must
+// hold the same distances, with 15 and up read back as EMPTY.
+// usage: PruningTableBenchmark [lookups] [rounds]
+public class PruningTableBenchmark {
+    private static final int N_ROWS = 40320;
+    private static final int N_COLUMNS = 24;
+
+    public static void main(String[] args) {
+        int nLookups = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 22;
+        int nRounds = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        Random random = new Random(1);
+
+        byte[][] bytes = new byte[N_ROWS][N_COLUMNS];
+        PruningTable table = new PruningTable(N_ROWS, N_COLUMNS);
+        for (int i = 0; i < N_ROWS; i++) {
+            for (int j = 0; j < N_COLUMNS; j++) {
+                int distance = random.nextInt(20);
+                bytes[i][j] = (byte) Math.min(distance, PruningTable.EMPTY);
+                table.set(i, j, distance);
+            }
+        }
+
+        for (int i = 0; i < N_ROWS; i++) {
+            for (int j = 0; j < N_COLUMNS; j++) {
+                if (table.get(i, j) != bytes[i][j] || table.get(i * N_COLUMNS + j) != bytes[i][j]) {
+                    throw new RuntimeException("entry (" + i + ", " + j + ") differs");
+                }
+            }
+        }
+
+        int[] rows = new int[nLookups];
+        int[] columns = new int[nLookups];
+        for (int i = 0; i < nLookups; i++) {
+            rows[i] = random.nextInt(N_ROWS);
+            columns[i] = random.nextInt(N_COLUMNS);
+        }
+
+        for (int round = 0; round < nRounds; round++) {
+            long start = System.nanoTime();
+            long bytesSum = 0;
+            for (int i = 0; i < nLookups; i++) {
+                bytesSum += bytes[rows[i]][columns[i]];
+            }
+
+            long middle = System.nanoTime();
+            long tableSum = 0;
+            for (int i = 0; i < nLookups; i++) {
+                tableSum += table.get(rows[i], columns[i]);
+            }
+            long end = System.nanoTime();
+
+            if (bytesSum != tableSum) {
+                throw new RuntimeException("lookups differ");
+            }
+
+            System.out.printf(
+                "byte[][] %5.2f ns/lookup   packed %5.2f ns/lookup%n",
+                (middle - start) / (double) nLookups,
+                (end - middle) / (double) nLookups);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.puzzletimer.solvers;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+// solves uniformly random 3x3 states on one thread after a warm up and
+// reports the throughput with the bytes the thread allocates per solve, as
+// counted by the VM, and the number of garbage collections meanwhile.
+// needs a VM with com.sun.management.ThreadMXBean.
+// usage: RubiksCubeSolverAllocation [states] [seed]
+public class RubiksCubeSolverAllocation {
+    private static final int N_WARM_UP_STATES = 300;
+
+    public static void main(String[] args) {
+        int nStates = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 99L;
+
+        RubiksCubeSolver.initialize();
+
+        Random random = new Random(seed);
+        RubiksCubeSolver.State[] states = new RubiksCubeSolver.State[nStates];
+        for (int i = 0; i < nStates; i++) {
+            states[i] = randomState(random);
+        }
+
+        com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < Math.min(N_WARM_UP_STATES, nStates); i++) {
+            RubiksCubeSolver.generate(states[i]);
+        }
+
+        long nCollections = getNumberOfCollections();
+        long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int hash = 0;
+        for (int i = 0; i < nStates; i++) {
+            hash = 31 * hash + Arrays.hashCode(RubiksCubeSolver.generate(states[i]));
+        }
+        long elapsed = System.nanoTime() - start;
+        allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytes;
+        nCollections = getNumberOfCollections() - nCollections;
+
+        System.out.printf("%d states, hash %d%n", nStates, hash);
+        System.out.printf("  solves/s     %10.1f%n", nStates / (elapsed / 1e9));
+        System.out.printf("  ms/solve     %10.2f%n", elapsed / 1e6 / nStates);
+        System.out.printf("  bytes/solve  %10.0f%n", allocatedBytes / (double) nStates);
+        System.out.printf("  collections  %10d%n", nCollections);
+    }
+
+    private static long getNumberOfCollections() {
+        long nCollections = 0;
+        for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            nCollections += garbageCollector.getCollectionCount();
+        }
+
+        return nCollections;
+    }
+
+    private static RubiksCubeSolver.State randomState(Random random) {
+        byte[] cornersPermutation;
+        byte[] edgesPermutation;
+        do {
+            cornersPermutation = IndexMapping.indexToPermutation(random.nextInt(RubiksCubeSolver.N_CORNERS_PERMUTATIONS), 8);
+            edgesPermutation = IndexMapping.indexToPermutation(random.nextInt(RubiksCubeSolver.N_EDGES_PERMUTATIONS), 12);
+        } while (parity(cornersPermutation) != parity(edgesPermutation));
+
+        return new RubiksCubeSolver.State(
+            cornersPermutation,
+            IndexMapping.indexToZeroSumOrientation(random.nextInt(RubiksCubeSolver.N_CORNERS_ORIENTATIONS), 3, 8),
+            edgesPermutation,
+            IndexMapping.indexToZeroSumOrientation(random.nextInt(RubiksCubeSolver.N_EDGES_ORIENTATIONS), 2, 12));
+    }
+
+    private static int parity(byte[] permutation) {
+        int nInversions = 0;
+        for (int i = 0; i < permutation.length; i++) {
+            for (int j = i + 1; j < permutation.length; j++) {
+                if (permutation[i] > permutation[j]) {
+                    nInversions++;
+                }
+            }
+        }
+
+        return nInversions % 2;
+    }
+}
@@ -0,0 +1,104 @@
+package com.puzzletimer.solvers;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// solves uniformly random 3x3 states on one thread after a warm up, checking
+// that every scramble takes the solved cube to its state, and reports the
+// average time and length of the scrambles with a hash of them (which must
+// not change when only the search gets faster), and the heap the solver's
+// tables take.
+// usage: RubiksCubeSolverBenchmark [states] [seed]
+public class RubiksCubeSolverBenchmark {
+    private static final int N_WARM_UP_STATES = 200;
+
+    public static void main(String[] args) throws InterruptedException {
+        int nStates = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1234L;
+
+        long start = System.nanoTime();
+        RubiksCubeSolver.initialize();
+        RubiksCubeSolver.generate(RubiksCubeSolver.State.id.applySequence(new String[] { "R", "U" }));
+        System.out.printf("initialization: %.0f ms%n", (System.nanoTime() - start) / 1e6);
+
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        System.out.printf("heap used after initialization: %.1f MB%n", (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0);
+
+        Random random = new Random(seed);
+        RubiksCubeSolver.State[] states = new RubiksCubeSolver.State[nStates];
+        for (int i = 0; i < nStates; i++) {
+            states[i] = randomState(random);
+        }
+
+        for (int i = 0; i < Math.min(N_WARM_UP_STATES, nStates); i++) {
+            RubiksCubeSolver.generate(states[i]);
+        }
+
+        String[][] scrambles = new String[nStates][];
+        start = System.nanoTime();
+        for (int i = 0; i < nStates; i++) {
+            scrambles[i] = RubiksCubeSolver.generate(states[i]);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long length = 0;
+        int hash = 0;
+        for (int i = 0; i < nStates; i++) {
+            RubiksCubeSolver.State state = RubiksCubeSolver.State.id.applySequence(scrambles[i]);
+            if (!sameState(state, states[i])) {
+                throw new RuntimeException("state " + i + ": the scramble doesn't reach it");
+            }
+
+            length += scrambles[i].length;
+            hash = 31 * hash + Arrays.hashCode(scrambles[i]);
+        }
+
+        System.out.printf(
+            "%d states: %.2f ms/state, %.2f moves on average, hash %d%n",
+            nStates,
+            elapsed / 1e6 / nStates,
+            length / (double) nStates,
+            hash);
+        System.out.println("ok");
+    }
+
+    private static RubiksCubeSolver.State randomState(Random random) {
+        byte[] cornersPermutation;
+        byte[] edgesPermutation;
+        do {
+            cornersPermutation = IndexMapping.indexToPermutation(random.nextInt(RubiksCubeSolver.N_CORNERS_PERMUTATIONS), 8);
+            edgesPermutation = IndexMapping.indexToPermutation(random.nextInt(RubiksCubeSolver.N_EDGES_PERMUTATIONS), 12);
+        } while (parity(cornersPermutation) != parity(edgesPermutation));
+
+        return new RubiksCubeSolver.State(
+            cornersPermutation,
+            IndexMapping.indexToZeroSumOrientation(random.nextInt(RubiksCubeSolver.N_CORNERS_ORIENTATIONS), 3, 8),
+            edgesPermutation,
+            IndexMapping.indexToZeroSumOrientation(random.nextInt(RubiksCubeSolver.N_EDGES_ORIENTATIONS), 2, 12));
+    }
+
+    private static int parity(byte[] permutation) {
+        int nInversions = 0;
+        for (int i = 0; i < permutation.length; i++) {
+            for (int j = i + 1; j < permutation.length; j++) {
+                if (permutation[i] > permutation[j]) {
+                    nInversions++;
+                }
+            }
+        }
+
+        return nInversions % 2;
+    }
+
+    private static boolean sameState(RubiksCubeSolver.State state1, RubiksCubeSolver.State state2) {
+        return
+            Arrays.equals(state1.cornersPermutation, state2.cornersPermutation) &&
+            Arrays.equals(state1.cornersOrientation, state2.cornersOrientation) &&
+            Arrays.equals(state1.edgesPermutation, state2.edgesPermutation) &&
+            Arrays.equals(state1.edgesOrientation, state2.edgesOrientation);
+    }
+}
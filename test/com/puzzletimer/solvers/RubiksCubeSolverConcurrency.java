@@ -0,0 +1,97 @@
+package com.puzzletimer.solvers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// generates 3x3 scrambles from several threads at once. every thread draws
+// random states from its own seed, and every scramble must take the solved
+// cube to its state and be the same as the scramble generated for that
+// state by a single thread.
+// usage: RubiksCubeSolverConcurrency [threads] [scrambles per thread]
+public class RubiksCubeSolverConcurrency {
+    private static final String[] FACES = { "U", "D", "L", "R", "F", "B" };
+    private static final int N_RANDOM_MOVES = 40;
+
+    public static void main(String[] args) throws Exception {
+        int nThreads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        final int nScrambles = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        RubiksCubeSolver.initialize();
+
+        // the scrambles of a single thread
+        final String[][][] expected = new String[nThreads][nScrambles][];
+        for (int i = 0; i < nThreads; i++) {
+            RubiksCubeSolver.State[] states = randomStates(i, nScrambles);
+            for (int j = 0; j < nScrambles; j++) {
+                expected[i][j] = RubiksCubeSolver.generate(states[j]);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        final CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Future<Integer>> results = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < nThreads; i++) {
+            final int thread = i;
+            results.add(executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    RubiksCubeSolver.State[] states = randomStates(thread, nScrambles);
+                    start.await();
+
+                    for (int j = 0; j < nScrambles; j++) {
+                        String[] scramble = RubiksCubeSolver.generate(states[j]);
+                        if (!sameState(RubiksCubeSolver.State.id.applySequence(scramble), states[j])) {
+                            throw new RuntimeException("thread " + thread + ", scramble " + j + ": wrong state");
+                        }
+
+                        if (!Arrays.equals(scramble, expected[thread][j])) {
+                            throw new RuntimeException("thread " + thread + ", scramble " + j + ": differs from the single thread one");
+                        }
+                    }
+
+                    return nScrambles;
+                }
+            }));
+        }
+
+        start.countDown();
+
+        int nChecked = 0;
+        for (Future<Integer> result : results) {
+            nChecked += result.get();
+        }
+        executor.shutdown();
+
+        System.out.println("ok, " + nChecked + " scrambles from " + nThreads + " threads");
+    }
+
+    private static RubiksCubeSolver.State[] randomStates(int seed, int nStates) {
+        Random random = new Random(seed);
+
+        RubiksCubeSolver.State[] states = new RubiksCubeSolver.State[nStates];
+        for (int i = 0; i < nStates; i++) {
+            String[] sequence = new String[N_RANDOM_MOVES];
+            for (int j = 0; j < sequence.length; j++) {
+                sequence[j] = FACES[random.nextInt(FACES.length)];
+            }
+
+            states[i] = RubiksCubeSolver.State.id.applySequence(sequence);
+        }
+
+        return states;
+    }
+
+    private static boolean sameState(RubiksCubeSolver.State state1, RubiksCubeSolver.State state2) {
+        return
+            Arrays.equals(state1.cornersPermutation, state2.cornersPermutation) &&
+            Arrays.equals(state1.cornersOrientation, state2.cornersOrientation) &&
+            Arrays.equals(state1.edgesPermutation, state2.edgesPermutation) &&
+            Arrays.equals(state1.edgesOrientation, state2.edgesOrientation);
+    }
+}
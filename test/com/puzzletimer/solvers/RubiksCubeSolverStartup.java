@@ -0,0 +1,124 @@
+package com.puzzletimer.solvers;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Random;
+
+// times the start of RubiksCubeSolver (class initialization and a first
+// solve) in new VMs, in an empty working directory: without a table cache,
+// with the cache written by the first start, with a corrupted cache and
+// with a truncated one. a bad cache must be rebuilt and rewritten, and every
+// start must generate the same scrambles for seeded random states.
+// usage: RubiksCubeSolverStartup [states]
+public class RubiksCubeSolverStartup {
+    private static final String CACHE_FILE_NAME = "puzzletimer.rubiks-cube.tables";
+    private static final String[] FACES = { "U", "D", "L", "R", "F", "B" };
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("child")) {
+            child(Integer.parseInt(args[1]));
+            return;
+        }
+
+        int nStates = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+
+        File directory = File.createTempFile("ptab", "");
+        directory.delete();
+        directory.mkdir();
+        File cacheFile = new File(directory, CACHE_FILE_NAME);
+
+        String[] cold = start(directory, nStates);
+        check(cacheFile.exists(), "the cache wasn't written");
+        long cacheLength = cacheFile.length();
+
+        String[] warm = start(directory, nStates);
+
+        RandomAccessFile file = new RandomAccessFile(cacheFile, "rw");
+        file.seek(cacheLength / 2);
+        int value = file.read();
+        file.seek(cacheLength / 2);
+        file.write(value ^ 1);
+        file.close();
+        String[] corrupted = start(directory, nStates);
+        String[] repaired = start(directory, nStates);
+
+        file = new RandomAccessFile(cacheFile, "rw");
+        file.setLength(cacheLength / 3);
+        file.close();
+        String[] truncated = start(directory, nStates);
+        check(cacheFile.length() == cacheLength, "the truncated cache wasn't rewritten");
+
+        String[][] runs = { cold, warm, corrupted, repaired, truncated };
+        String[] names = { "cold build", "warm load", "corrupted cache", "after repair", "truncated cache" };
+        for (int i = 0; i < runs.length; i++) {
+            check(runs[i][1].equals(cold[1]), names[i] + ": the scrambles differ");
+            System.out.printf("%-16s %6s ms%n", names[i], runs[i][0]);
+        }
+
+        String[] files = directory.list();
+        check(files.length == 1, "files left behind: " + Arrays.toString(files));
+
+        cacheFile.delete();
+        directory.delete();
+
+        System.out.println("ok, " + nStates + " scrambles per start");
+    }
+
+    // prints the start time in milliseconds and a hash of the scrambles
+    private static void child(int nStates) {
+        long start = System.nanoTime();
+        RubiksCubeSolver.initialize();
+        RubiksCubeSolver.generate(RubiksCubeSolver.State.id.applySequence(new String[] { "R", "U" }));
+        long startTime = (System.nanoTime() - start) / 1000000L;
+
+        Random random = new Random(1);
+        int hash = 0;
+        for (int i = 0; i < nStates; i++) {
+            String[] sequence = new String[40];
+            for (int j = 0; j < sequence.length; j++) {
+                sequence[j] = FACES[random.nextInt(FACES.length)];
+            }
+
+            String[] scramble = RubiksCubeSolver.generate(RubiksCubeSolver.State.id.applySequence(sequence));
+            hash = 31 * hash + Arrays.hashCode(scramble);
+        }
+
+        System.out.println(startTime + " " + hash);
+    }
+
+    private static String[] start(File directory, int nStates) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(
+            new File(new File(System.getProperty("java.home"), "bin"), "java").getPath(),
+            "-cp",
+            System.getProperty("java.class.path"),
+            RubiksCubeSolverStartup.class.getName(),
+            "child",
+            Integer.toString(nStates));
+        builder.directory(directory);
+        builder.redirectErrorStream(true);
+
+        Process process = builder.start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String output = "";
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            output = line;
+        }
+        reader.close();
+
+        if (process.waitFor() != 0) {
+            throw new RuntimeException("start failed: " + output);
+        }
+
+        return output.split(" ");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new RuntimeException(message);
+        }
+    }
+}
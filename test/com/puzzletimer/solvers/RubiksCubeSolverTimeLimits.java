@@ -0,0 +1,109 @@
+package com.puzzletimer.solvers;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// latency percentiles and average length of the 3x3 scrambles generated for
+// uniformly random states with the first solution found, and with several
+// time limits and target lengths. every scramble must take the solved cube
+// to its state.
+// usage: RubiksCubeSolverTimeLimits [states] [seed]
+public class RubiksCubeSolverTimeLimits {
+    private static final int N_WARM_UP_STATES = 300;
+
+    // time limit in milliseconds and target length, a negative time limit
+    // standing for the first solution found
+    private static final long[][] MODES = {
+        { -1, 0 },
+        { 5, 0 },
+        { 10, 0 },
+        { 25, 0 },
+        { 50, 0 },
+        { 100, 0 },
+        { 250, 0 },
+        { 1000, 20 },
+    };
+
+    public static void main(String[] args) {
+        int nStates = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 7L;
+
+        RubiksCubeSolver.initialize();
+
+        Random random = new Random(seed);
+        RubiksCubeSolver.State[] states = new RubiksCubeSolver.State[nStates];
+        for (int i = 0; i < nStates; i++) {
+            states[i] = randomState(random);
+        }
+
+        for (int i = 0; i < N_WARM_UP_STATES; i++) {
+            RubiksCubeSolver.generate(states[i % nStates], 20, 0);
+        }
+
+        System.out.println("mode                      p50      p90      p99      max   avg len");
+        for (long[] mode : MODES) {
+            double[] latencies = new double[nStates];
+            long length = 0;
+            for (int i = 0; i < nStates; i++) {
+                long start = System.nanoTime();
+                String[] scramble = mode[0] < 0 ?
+                    RubiksCubeSolver.generate(states[i]) :
+                    RubiksCubeSolver.generate(states[i], mode[0], (int) mode[1]);
+                latencies[i] = (System.nanoTime() - start) / 1e6;
+                length += scramble.length;
+
+                if (!sameState(RubiksCubeSolver.State.id.applySequence(scramble), states[i])) {
+                    throw new RuntimeException("state " + i + ": the scramble doesn't reach it");
+                }
+            }
+
+            Arrays.sort(latencies);
+            System.out.printf(
+                "%-22s %8.1f %8.1f %8.1f %8.1f %9.2f%n",
+                mode[0] < 0 ? "first solution" : mode[0] + " ms, target " + mode[1],
+                latencies[nStates / 2],
+                latencies[nStates * 9 / 10],
+                latencies[nStates * 99 / 100],
+                latencies[nStates - 1],
+                length / (double) nStates);
+        }
+
+        System.out.println("ok");
+    }
+
+    private static RubiksCubeSolver.State randomState(Random random) {
+        byte[] cornersPermutation;
+        byte[] edgesPermutation;
+        do {
+            cornersPermutation = IndexMapping.indexToPermutation(random.nextInt(RubiksCubeSolver.N_CORNERS_PERMUTATIONS), 8);
+            edgesPermutation = IndexMapping.indexToPermutation(random.nextInt(RubiksCubeSolver.N_EDGES_PERMUTATIONS), 12);
+        } while (parity(cornersPermutation) != parity(edgesPermutation));
+
+        return new RubiksCubeSolver.State(
+            cornersPermutation,
+            IndexMapping.indexToZeroSumOrientation(random.nextInt(RubiksCubeSolver.N_CORNERS_ORIENTATIONS), 3, 8),
+            edgesPermutation,
+            IndexMapping.indexToZeroSumOrientation(random.nextInt(RubiksCubeSolver.N_EDGES_ORIENTATIONS), 2, 12));
+    }
+
+    private static int parity(byte[] permutation) {
+        int nInversions = 0;
+        for (int i = 0; i < permutation.length; i++) {
+            for (int j = i + 1; j < permutation.length; j++) {
+                if (permutation[i] > permutation[j]) {
+                    nInversions++;
+                }
+            }
+        }
+
+        return nInversions % 2;
+    }
+
+    private static boolean sameState(RubiksCubeSolver.State state1, RubiksCubeSolver.State state2) {
+        return
+            Arrays.equals(state1.cornersPermutation, state2.cornersPermutation) &&
+            Arrays.equals(state1.cornersOrientation, state2.cornersOrientation) &&
+            Arrays.equals(state1.edgesPermutation, state2.edgesPermutation) &&
+            Arrays.equals(state1.edgesOrientation, state2.edgesOrientation);
+    }
+}
@@ -0,0 +1,88 @@
+package com.puzzletimer.solvers;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+// builds the 3x3 solver's tables from scratch in new VMs limited to
+// different numbers of processors, and so of table builder threads, and
+// checks that the table caches they write are byte for byte the same.
+// usage: RubiksCubeTableDeterminism [processors...]
+public class RubiksCubeTableDeterminism {
+    private static final String CACHE_FILE_NAME = "puzzletimer.rubiks-cube.tables";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("child")) {
+            RubiksCubeSolver.initialize();
+            RubiksCubeSolver.generate(RubiksCubeSolver.State.id.applySequence(new String[] { "R", "U" }));
+            return;
+        }
+
+        String[] nProcessors = args.length > 0 ? args : new String[] { "1", "4" };
+
+        byte[] first = null;
+        for (int i = 0; i < nProcessors.length; i++) {
+            File directory = File.createTempFile("ptab", "");
+            directory.delete();
+            directory.mkdir();
+            File cacheFile = new File(directory, CACHE_FILE_NAME);
+
+            long start = System.nanoTime();
+            build(directory, Integer.parseInt(nProcessors[i]));
+            long elapsed = System.nanoTime() - start;
+
+            if (!cacheFile.exists()) {
+                throw new RuntimeException("the cache wasn't written");
+            }
+
+            byte[] contents = readFile(cacheFile);
+            cacheFile.delete();
+            directory.delete();
+
+            System.out.printf("%2s processors: %6.1f s, %.1f MB%n", nProcessors[i], elapsed / 1e9, contents.length / 1048576.0);
+
+            if (first == null) {
+                first = contents;
+            } else if (!Arrays.equals(contents, first)) {
+                throw new RuntimeException(nProcessors[i] + " processors: the cache differs");
+            }
+        }
+
+        System.out.println("ok");
+    }
+
+    private static void build(File directory, int nProcessors) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(
+            new File(new File(System.getProperty("java.home"), "bin"), "java").getPath(),
+            "-XX:ActiveProcessorCount=" + nProcessors,
+            "-cp",
+            System.getProperty("java.class.path"),
+            RubiksCubeTableDeterminism.class.getName(),
+            "child");
+        builder.directory(directory);
+        builder.redirectErrorStream(true);
+
+        Process process = builder.start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String output = "";
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            output = line;
+        }
+        reader.close();
+
+        if (process.waitFor() != 0) {
+            throw new RuntimeException("build failed: " + output);
+        }
+    }
+
+    private static byte[] readFile(File file) throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        byte[] contents = new byte[(int) input.length()];
+        input.readFully(contents);
+        input.close();
+        return contents;
+    }
+}
@@ -0,0 +1,42 @@
+package com.puzzletimer.solvers;
+
+import java.util.TreeMap;
+
+import com.puzzletimer.scramblers.Scrambler;
+import com.puzzletimer.scramblers.ScramblerProvider;
+
+// heap retained once every scrambler has generated a scramble, with the
+// memory the registry reports for the tables of each puzzle, and the time
+// taken by a number of random-state Square-1 scrambles, table build
+// included. run with a heap large enough for every table, e.g. -Xmx1g.
+// usage: SolverMemory [square-1 scrambles]
+public class SolverMemory {
+    public static void main(String[] args) throws InterruptedException {
+        int nSquare1Scrambles = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        ScramblerProvider scramblerProvider = new ScramblerProvider();
+
+        long start = System.nanoTime();
+        Scrambler square1Scrambler = scramblerProvider.get("SQUARE-1-RANDOM");
+        for (int i = 0; i < nSquare1Scrambles; i++) {
+            square1Scrambler.getNextScramble();
+        }
+        System.out.printf("%d square-1 random-state scrambles: %.1f s%n", nSquare1Scrambles, (System.nanoTime() - start) / 1e9);
+
+        for (Scrambler scrambler : scramblerProvider.getAll()) {
+            scrambler.getNextScramble();
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        System.out.printf("heap used after every scrambler: %.1f MB%n", (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0);
+
+        TreeMap<String, Long> memoryUsage = new TreeMap<String, Long>(TableRegistry.getMemoryUsage());
+        for (String puzzleId : memoryUsage.keySet()) {
+            System.out.printf("  %-15s %6.1f MB in shared tables%n", puzzleId, memoryUsage.get(puzzleId) / 1048576.0);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.puzzletimer.solvers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Random;
+
+// writes the five kinds of tables to a cache file twice over, reads them
+// back and checks that they are identical. a cache of another version, a
+// read with the wrong dimensions, a flipped byte and a truncated file must
+// all be rejected, and no temporary files may be left behind.
+// usage: TableCacheRoundTrip [seed]
+public class TableCacheRoundTrip {
+    private static final int VERSION = 3;
+
+    public static void main(String[] args) throws IOException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1L;
+        Random random = new Random(seed);
+
+        int[][] intTable = new int[40000][18];
+        for (int[] row : intTable) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = random.nextInt();
+            }
+        }
+
+        byte[][] byteTable = new byte[300][77];
+        for (byte[] row : byteTable) {
+            random.nextBytes(row);
+        }
+
+        byte[] flatTable = new byte[100001];
+        random.nextBytes(flatTable);
+
+        PruningTable pruningTable = new PruningTable(1001, 33);
+        random.nextBytes(pruningTable.getData());
+
+        CompactPruningTable compactTable = new CompactPruningTable(99999);
+        random.nextBytes(compactTable.getData());
+
+        File directory = createDirectory();
+        File file = new File(directory, "tables");
+
+        // the second time replaces the first file
+        for (int i = 0; i < 2; i++) {
+            TableCache cache = new TableCache(file, VERSION);
+            cache.create();
+            cache.write(intTable);
+            cache.write(byteTable);
+            cache.write(flatTable);
+            cache.write(pruningTable);
+            cache.write(compactTable);
+            cache.commit();
+        }
+
+        TableCache cache = new TableCache(file, VERSION);
+        check(cache.open(), "the cache can't be opened");
+        int[][] intTableRead = new int[40000][18];
+        byte[][] byteTableRead = new byte[300][77];
+        byte[] flatTableRead = new byte[100001];
+        PruningTable pruningTableRead = new PruningTable(1001, 33);
+        CompactPruningTable compactTableRead = new CompactPruningTable(99999);
+        cache.read(intTableRead);
+        cache.read(byteTableRead);
+        cache.read(flatTableRead);
+        cache.read(pruningTableRead);
+        cache.read(compactTableRead);
+        cache.close();
+
+        check(Arrays.deepEquals(intTable, intTableRead), "int table differs");
+        check(Arrays.deepEquals(byteTable, byteTableRead), "byte table differs");
+        check(Arrays.equals(flatTable, flatTableRead), "flat table differs");
+        check(Arrays.equals(pruningTable.getData(), pruningTableRead.getData()), "pruning table differs");
+        check(Arrays.equals(compactTable.getData(), compactTableRead.getData()), "compact pruning table differs");
+
+        check(!new TableCache(file, VERSION + 1).open(), "a cache of another version was accepted");
+
+        cache = new TableCache(file, VERSION);
+        cache.open();
+        boolean rejected = false;
+        try {
+            cache.read(new int[40000][17]);
+        } catch (IOException e) {
+            rejected = true;
+        }
+        cache.close();
+        check(rejected, "wrong dimensions were accepted");
+
+        byte[] contents = readFile(file);
+
+        RandomAccessFile output = new RandomAccessFile(file, "rw");
+        output.seek(12345);
+        output.write(contents[12345] ^ 1);
+        output.close();
+        check(!new TableCache(file, VERSION).open(), "a flipped byte was accepted");
+
+        output = new RandomAccessFile(file, "rw");
+        output.seek(12345);
+        output.write(contents[12345]);
+        output.setLength(contents.length / 2);
+        output.close();
+        check(!new TableCache(file, VERSION).open(), "a truncated file was accepted");
+
+        String[] files = directory.list();
+        check(files.length == 1, "files left behind: " + Arrays.toString(files));
+
+        file.delete();
+        directory.delete();
+
+        System.out.println("ok");
+    }
+
+    private static File createDirectory() throws IOException {
+        File directory = File.createTempFile("ptab", "");
+        directory.delete();
+        directory.mkdir();
+        return directory;
+    }
+
+    private static byte[] readFile(File file) throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        byte[] contents = new byte[(int) input.length()];
+        input.readFully(contents);
+        input.close();
+        return contents;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new RuntimeException(message);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.puzzletimer.state;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.UUID;
+
+import com.puzzletimer.models.Category;
+import com.puzzletimer.models.PersonalRecord;
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.Timing;
+import com.puzzletimer.statistics.Best;
+import com.puzzletimer.statistics.BestAverage;
+import com.puzzletimer.statistics.BestMean;
+import com.puzzletimer.statistics.StatisticalMeasure;
+
+// per-solve cost of keeping the personal records of a history of the given
+// sizes up to date, against computing the same five measures over the
+// whole history, as was done on every solve before.
+// usage: PersonalRecordManagerBenchmark [history sizes...]
+public class PersonalRecordManagerBenchmark {
+    private static final int N_ROUNDS = 3;
+    private static final int N_APPENDS = 2000;
+    private static final int N_RECOMPUTES = 20;
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        String[] sizes = args.length > 0 ? args : new String[] { "10000", "100000" };
+
+        Random random = new Random(1);
+        for (String size : sizes) {
+            int nSolutions = Integer.parseInt(size);
+
+            // newest first
+            Solution[] solutions = new Solution[nSolutions];
+            for (int i = 0; i < nSolutions; i++) {
+                solutions[nSolutions - 1 - i] = createSolution(random, i * 1000L, random.nextInt(20) == 0 ? "DNF" : "");
+            }
+
+            Category category = new Category(UUID.randomUUID(), "SCRAMBLER", "category", true, new String[0]);
+            PersonalRecordManager manager = new PersonalRecordManager();
+            manager.loadSolutions(category, solutions, new PersonalRecord[0]);
+
+            StatisticalMeasure[] measures = {
+                new Best(1, Integer.MAX_VALUE),
+                new BestMean(3, 3),
+                new BestMean(100, 100),
+                new BestAverage(5, 5),
+                new BestAverage(12, 12),
+            };
+
+            for (int round = 0; round < N_ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < N_APPENDS; i++) {
+                    long solutionStart = (nSolutions + round * N_APPENDS + i) * 1000L;
+                    manager.addSolution(createSolution(random, solutionStart, ""));
+                }
+                long middle = System.nanoTime();
+
+                for (int i = 0; i < N_RECOMPUTES; i++) {
+                    for (StatisticalMeasure measure : measures) {
+                        measure.setSolutions(solutions);
+                        sink += measure.getValue();
+                    }
+                }
+                long end = System.nanoTime();
+
+                System.out.printf(
+                    "%6d solves   records %6.1f us/solve   full recompute %8.1f us/solve%n",
+                    nSolutions,
+                    (middle - start) / 1e3 / N_APPENDS,
+                    (end - middle) / 1e3 / N_RECOMPUTES);
+            }
+        }
+
+        System.out.println("(" + sink % 2 + ")");
+    }
+
+    private static Solution createSolution(Random random, long start, String penalty) {
+        return new Solution(
+            UUID.randomUUID(),
+            null,
+            null,
+            new Timing(new Date(start), new Date(start + 8000 + random.nextInt(8000))),
+            penalty);
+    }
+}
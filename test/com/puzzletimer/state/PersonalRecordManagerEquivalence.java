@@ -0,0 +1,212 @@
+package com.puzzletimer.state;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.puzzletimer.models.Category;
+import com.puzzletimer.models.PersonalRecord;
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.Timing;
+import com.puzzletimer.statistics.Best;
+import com.puzzletimer.statistics.BestAverage;
+import com.puzzletimer.statistics.BestMean;
+import com.puzzletimer.statistics.StatisticalMeasure;
+
+// applies random appends, out of order insertions, penalty and time edits,
+// removals and batch imports to a PersonalRecordManager, loaded from
+// scratch or from some of the stored records of an earlier run. after every
+// step the records are compared with those of the whole history, and the
+// newest record flags with the rule of the previous announcements: the
+// window ending at a newly appended solve counts and equals or beats the
+// record before it.
+// usage: PersonalRecordManagerEquivalence [seed] [trials]
+public class PersonalRecordManagerEquivalence {
+    private static final int N_OPERATIONS = 300;
+    private static final String[] PENALTIES = { "", "+2", "DNF" };
+
+    private Random random;
+    private long clock;
+    private long nChecks;
+    private long nFlags;
+
+    public PersonalRecordManagerEquivalence(long seed) {
+        this.random = new Random(seed);
+        this.clock = 0L;
+        this.nChecks = 0;
+        this.nFlags = 0;
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1L;
+        int nTrials = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+
+        PersonalRecordManagerEquivalence equivalence = new PersonalRecordManagerEquivalence(seed);
+        for (int i = 0; i < nTrials; i++) {
+            equivalence.runTrial();
+        }
+
+        System.out.println("ok, " + equivalence.nChecks + " record checks, " + equivalence.nFlags + " records announced");
+    }
+
+    private void runTrial() {
+        Category category = new Category(UUID.randomUUID(), "SCRAMBLER", "category", true, new String[0]);
+
+        ArrayList<Solution> solutions = new ArrayList<Solution>();
+        int nSolutions = this.random.nextInt(200);
+        for (int i = 0; i < nSolutions; i++) {
+            this.clock += 1000L;
+            solutions.add(createSolution(this.clock));
+        }
+
+        // the records stored by an earlier run, some of them missing
+        PersonalRecord[] storedRecords = new PersonalRecord[0];
+        if (nSolutions > 0 && this.random.nextBoolean()) {
+            PersonalRecordManager earlierManager = new PersonalRecordManager();
+            earlierManager.loadSolutions(category, solutions.toArray(new Solution[solutions.size()]), new PersonalRecord[0]);
+            storedRecords = Arrays.copyOf(earlierManager.getPersonalRecords(), this.random.nextInt(6));
+        }
+
+        PersonalRecordManager manager = new PersonalRecordManager();
+        manager.loadSolutions(category, solutions.toArray(new Solution[solutions.size()]), storedRecords);
+
+        for (int i = 0; i < N_OPERATIONS; i++) {
+            long[] previousRecords = computeRecords(solutions, manager);
+
+            Solution added = null;
+            int roll = this.random.nextInt(100);
+            if (roll < 55 || solutions.isEmpty()) {
+                this.clock += 1000L;
+                added = createSolution(this.clock);
+                solutions.add(added);
+                manager.addSolution(added);
+            } else if (roll < 65) {
+                added = this.random.nextInt(4) == 0 ?
+                    // starting at the same time as another solution
+                    new Solution(
+                        UUID.randomUUID(),
+                        null,
+                        null,
+                        new Timing(solutions.get(this.random.nextInt(solutions.size())).getTiming().getStart(), new Date(this.clock)),
+                        "") :
+                    createSolution(this.random.nextInt((int) Math.max(this.clock, 1)));
+                solutions.add(added);
+                manager.addSolution(added);
+            } else if (roll < 80) {
+                int index = this.random.nextInt(solutions.size());
+                Solution solution = solutions.get(index);
+                Solution updated = solution.setPenalty(PENALTIES[this.random.nextInt(PENALTIES.length)]);
+                if (this.random.nextBoolean()) {
+                    long start = solution.getTiming().getStart().getTime();
+                    updated = updated.setTiming(new Timing(new Date(start), new Date(start + 3000 + this.random.nextInt(30000))));
+                }
+                solutions.set(index, updated);
+                manager.updateSolution(updated);
+            } else if (roll < 97) {
+                manager.removeSolution(solutions.remove(this.random.nextInt(solutions.size())));
+            } else {
+                Solution[] batch = new Solution[this.random.nextInt(30)];
+                for (int j = 0; j < batch.length; j++) {
+                    batch[j] = createSolution(this.random.nextInt((int) Math.max(this.clock, 1)));
+                    solutions.add(batch[j]);
+                }
+                manager.addSolutions(batch);
+            }
+
+            check(manager, solutions, added, previousRecords);
+        }
+    }
+
+    private void check(PersonalRecordManager manager, List<Solution> solutions, Solution added, long[] previousRecords) {
+        long[] expected = computeRecords(solutions, manager);
+        PersonalRecord[] records = manager.getPersonalRecords();
+
+        Solution[] newestFirst = newestFirst(solutions);
+        boolean isNewest = added != null && newestFirst[0] == added;
+
+        for (int i = 0; i < records.length; i++) {
+            if (records[i].getValue() != expected[i]) {
+                throw new RuntimeException(records[i].getMeasureId() + ": expected " + expected[i] + ", got " + records[i].getValue());
+            }
+            this.nChecks++;
+
+            boolean expectedFlag = false;
+            int windowSize = manager.getWindowSize(i);
+            if (isNewest && newestFirst.length >= windowSize) {
+                StatisticalMeasure measure = createMeasure(i, windowSize);
+                measure.setSolutions(Arrays.copyOf(newestFirst, windowSize));
+                expectedFlag = measure.getValue() != Long.MAX_VALUE && measure.getValue() <= previousRecords[i];
+            }
+
+            if (manager.isNewestRecord(i) != expectedFlag) {
+                throw new RuntimeException(records[i].getMeasureId() + ": the newest record flag should be " + expectedFlag);
+            }
+
+            if (expectedFlag) {
+                this.nFlags++;
+            }
+        }
+    }
+
+    // the records over the whole history
+    private static long[] computeRecords(List<Solution> solutions, PersonalRecordManager manager) {
+        Solution[] newestFirst = newestFirst(solutions);
+
+        long[] records = new long[manager.getNumberOfMeasures()];
+        for (int i = 0; i < records.length; i++) {
+            StatisticalMeasure measure = createMeasure(i, manager.getWindowSize(i));
+            measure.setSolutions(newestFirst);
+            records[i] = measure.getValue();
+        }
+
+        return records;
+    }
+
+    private static StatisticalMeasure createMeasure(int measure, int windowSize) {
+        if (measure == 0) {
+            return new Best(1, Integer.MAX_VALUE);
+        }
+
+        if (measure < 3) {
+            return new BestMean(windowSize, windowSize);
+        }
+
+        return new BestAverage(windowSize, windowSize);
+    }
+
+    private static Solution[] newestFirst(List<Solution> solutions) {
+        Solution[] array = solutions.toArray(new Solution[solutions.size()]);
+        Arrays.sort(array, new Comparator<Solution>() {
+            @Override
+            public int compare(Solution solution1, Solution solution2) {
+                int comparison = solution2.getTiming().getStart().compareTo(solution1.getTiming().getStart());
+                if (comparison != 0) {
+                    return comparison;
+                }
+
+                return solution2.getSolutionId().compareTo(solution1.getSolutionId());
+            }
+        });
+
+        return array;
+    }
+
+    private Solution createSolution(long start) {
+        int roll = this.random.nextInt(100);
+        String penalty = roll < 8 ? "DNF" : roll < 13 ? "+2" : "";
+
+        // few distinct times, so that ties are common
+        long time = 5000 + this.random.nextInt(20) * 250;
+
+        return new Solution(
+            UUID.randomUUID(),
+            null,
+            null,
+            new Timing(new Date(start), new Date(start + time)),
+            penalty);
+    }
+}
@@ -0,0 +1,224 @@
+package com.puzzletimer.state;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.Timing;
+import com.puzzletimer.statistics.Average;
+import com.puzzletimer.statistics.Best;
+import com.puzzletimer.statistics.BestAverage;
+import com.puzzletimer.statistics.BestMean;
+import com.puzzletimer.statistics.IncrementalStatisticalMeasure;
+import com.puzzletimer.statistics.InterquartileMean;
+import com.puzzletimer.statistics.Mean;
+import com.puzzletimer.statistics.Percentile;
+import com.puzzletimer.statistics.StandardDeviation;
+import com.puzzletimer.statistics.Worst;
+import com.puzzletimer.util.SolutionUtils;
+
+// applies random appends, out of order insertions, batches, edits (start
+// changes included), removals and clears to a SortedSolveSeries and checks
+// every column against a sorted list of the same solutions. after every
+// step, every measure is fed a random range of the series and the same
+// solutions as an array, and must agree, also after one incremental step.
+// usage: SortedSolveSeriesEquivalence [seed] [trials]
+public class SortedSolveSeriesEquivalence {
+    private static final int N_OPERATIONS = 200;
+    private static final String[] PENALTIES = { "", "+2", "DNF" };
+
+    private static final Comparator<Solution> solutionComparator = new Comparator<Solution>() {
+        @Override
+        public int compare(Solution solution1, Solution solution2) {
+            int comparison = solution1.getTiming().getStart().compareTo(solution2.getTiming().getStart());
+            if (comparison != 0) {
+                return comparison;
+            }
+
+            return solution1.getSolutionId().compareTo(solution2.getSolutionId());
+        }
+    };
+
+    private Random random;
+    private long nChecks;
+
+    public SortedSolveSeriesEquivalence(long seed) {
+        this.random = new Random(seed);
+        this.nChecks = 0;
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1L;
+        int nTrials = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        SortedSolveSeriesEquivalence equivalence = new SortedSolveSeriesEquivalence(seed);
+        for (int i = 0; i < nTrials; i++) {
+            equivalence.runTrial();
+        }
+
+        System.out.println("ok, " + equivalence.nChecks + " checks");
+    }
+
+    private void runTrial() {
+        SortedSolveSeries series = new SortedSolveSeries();
+        ArrayList<Solution> solutions = new ArrayList<Solution>();
+        long clock = 0L;
+
+        Solution[] initialSolutions = new Solution[this.random.nextInt(50)];
+        for (int i = 0; i < initialSolutions.length; i++) {
+            clock += 1000L;
+            initialSolutions[i] = createSolution(this.random.nextInt(3) == 0 ? this.random.nextInt((int) clock) : clock);
+            solutions.add(initialSolutions[i]);
+        }
+        if (this.random.nextBoolean()) {
+            Collections.reverse(Arrays.asList(initialSolutions));
+        }
+        series.set(initialSolutions);
+        check(series, solutions);
+
+        for (int i = 0; i < N_OPERATIONS; i++) {
+            int roll = this.random.nextInt(100);
+            if (roll < 50 || solutions.isEmpty()) {
+                clock += 1000L;
+                Solution solution = createSolution(this.random.nextInt(4) == 0 ? this.random.nextInt((int) clock) : clock);
+                if (!solutions.isEmpty() && this.random.nextInt(10) == 0) {
+                    // the same timing as another solution
+                    solution = new Solution(UUID.randomUUID(), null, null, solutions.get(this.random.nextInt(solutions.size())).getTiming(), "");
+                }
+                solutions.add(solution);
+                series.add(solution);
+            } else if (roll < 65) {
+                Solution[] batch = new Solution[this.random.nextInt(20)];
+                for (int j = 0; j < batch.length; j++) {
+                    batch[j] = createSolution(this.random.nextInt((int) clock + 1));
+                    solutions.add(batch[j]);
+                }
+                series.addAll(batch);
+            } else if (roll < 80) {
+                int index = this.random.nextInt(solutions.size());
+                Solution updated = solutions.get(index).setPenalty(PENALTIES[this.random.nextInt(PENALTIES.length)]);
+                if (this.random.nextInt(5) == 0) {
+                    updated = updated.setTiming(new Timing(new Date(this.random.nextInt((int) clock + 1)), new Date(clock + 50000)));
+                }
+                solutions.set(index, updated);
+                series.update(updated);
+            } else if (roll < 97) {
+                series.remove(solutions.remove(this.random.nextInt(solutions.size())));
+            } else {
+                series.clear();
+                solutions.clear();
+            }
+
+            check(series, solutions);
+            if (series.size() > 0) {
+                checkMeasures(series, solutions);
+            }
+        }
+    }
+
+    private void check(SortedSolveSeries series, List<Solution> solutions) {
+        ArrayList<Solution> sortedSolutions = new ArrayList<Solution>(solutions);
+        Collections.sort(sortedSolutions, solutionComparator);
+
+        if (series.size() != sortedSolutions.size()) {
+            throw new RuntimeException(series.size() + " solutions instead of " + sortedSolutions.size());
+        }
+
+        for (int i = 0; i < sortedSolutions.size(); i++) {
+            Solution solution = sortedSolutions.get(i);
+            if (series.getStart(i) != solution.getTiming().getStart().getTime() ||
+                !series.getSolutionId(i).equals(solution.getSolutionId()) ||
+                series.getElapsedTime(i) != solution.getTiming().getElapsedTime() ||
+                series.getRealTime(i) != SolutionUtils.realTime(solution)) {
+                throw new RuntimeException("solution " + i + " differs");
+            }
+        }
+
+        this.nChecks++;
+    }
+
+    private void checkMeasures(SortedSolveSeries series, List<Solution> solutions) {
+        ArrayList<Solution> sortedSolutions = new ArrayList<Solution>(solutions);
+        Collections.sort(sortedSolutions, solutionComparator);
+
+        int start = this.random.nextInt(series.size());
+        int end = start + 1 + this.random.nextInt(series.size() - start);
+
+        // newest first
+        Solution[] window = new Solution[end - start];
+        for (int i = 0; i < window.length; i++) {
+            window[i] = sortedSolutions.get(end - 1 - i);
+        }
+
+        int windowSize = 1 + this.random.nextInt(6);
+        IncrementalStatisticalMeasure[] seriesMeasures = createMeasures(windowSize);
+        IncrementalStatisticalMeasure[] arrayMeasures = createMeasures(windowSize);
+        for (int i = 0; i < seriesMeasures.length; i++) {
+            if (window.length < seriesMeasures[i].getMinimumWindowSize()) {
+                continue;
+            }
+
+            seriesMeasures[i].setSolutions(series, start, end);
+            arrayMeasures[i].setSolutions(window);
+            check(seriesMeasures[i], arrayMeasures[i], "range");
+
+            if (end < sortedSolutions.size() && window.length > seriesMeasures[i].getMinimumWindowSize()) {
+                seriesMeasures[i].addSolution(sortedSolutions.get(end));
+                arrayMeasures[i].addSolution(sortedSolutions.get(end));
+                seriesMeasures[i].removeSolution(sortedSolutions.get(start));
+                arrayMeasures[i].removeSolution(sortedSolutions.get(start));
+                check(seriesMeasures[i], arrayMeasures[i], "incremental step");
+            }
+
+            this.nChecks++;
+        }
+    }
+
+    private static void check(IncrementalStatisticalMeasure seriesMeasure, IncrementalStatisticalMeasure arrayMeasure, String path) {
+        if (seriesMeasure.getValue() != arrayMeasure.getValue() ||
+            seriesMeasure.getWindowPosition() != arrayMeasure.getWindowPosition() ||
+            seriesMeasure.getNumberOfSolutions() != arrayMeasure.getNumberOfSolutions()) {
+            throw new RuntimeException(String.format(
+                "%s, %s: %d at %d from the series, %d at %d from the array",
+                seriesMeasure.getClass().getSimpleName(),
+                path,
+                seriesMeasure.getValue(),
+                seriesMeasure.getWindowPosition(),
+                arrayMeasure.getValue(),
+                arrayMeasure.getWindowPosition()));
+        }
+    }
+
+    private static IncrementalStatisticalMeasure[] createMeasures(int windowSize) {
+        return new IncrementalStatisticalMeasure[] {
+            new Best(1, 1000),
+            new Worst(1, 1000),
+            new Mean(windowSize, windowSize),
+            new StandardDeviation(1, 1000),
+            new Average(Math.max(3, windowSize), 1000),
+            new Percentile(1, 1000, 0.5),
+            new Percentile(1, 1000, 0.25),
+            new InterquartileMean(3, 1000),
+            new BestMean(windowSize, windowSize),
+            new BestAverage(Math.max(3, windowSize), Math.max(3, windowSize)),
+        };
+    }
+
+    private Solution createSolution(long start) {
+        int roll = this.random.nextInt(100);
+        String penalty = roll < 10 ? "DNF" : roll < 18 ? "+2" : "";
+
+        return new Solution(
+            UUID.randomUUID(),
+            null,
+            null,
+            new Timing(new Date(start), new Date(start + 3000 + this.random.nextInt(40000))),
+            penalty);
+    }
+}
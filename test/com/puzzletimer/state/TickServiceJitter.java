@@ -0,0 +1,124 @@
+package com.puzzletimer.state;
+
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// runs the 5 ms running time tick of a TimerManager, idle and with a busy
+// thread per processor, and prints the tick service's jitter histogram
+// with the bytes the tick thread allocates per tick. a tick scheduled
+// every millisecond is then cancelled a number of times, and must never
+// run after cancel returns. needs a VM with com.sun.management.ThreadMXBean.
+// usage: TickServiceJitter [ticks] [cancellations]
+public class TickServiceJitter {
+    private static final int N_WARM_UP_TICKS = 200;
+
+    private static volatile boolean busy;
+
+    public static void main(String[] args) throws Exception {
+        int nTicks = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int nCancellations = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        TimerManager timerManager = new TimerManager();
+
+        measure(timerManager, nTicks, 0);
+        measure(timerManager, nTicks, Runtime.getRuntime().availableProcessors());
+
+        TickService tickService = timerManager.getTickService();
+        int nLateTicks = 0;
+        for (int i = 0; i < nCancellations; i++) {
+            final AtomicInteger nRuns = new AtomicInteger();
+            TickService.Handle handle = tickService.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    nRuns.incrementAndGet();
+                }
+            }, 1, TimeUnit.MILLISECONDS);
+
+            Thread.sleep(5 + i % 7);
+            handle.cancel();
+            int nRunsAtCancel = nRuns.get();
+            Thread.sleep(10);
+            nLateTicks += nRuns.get() - nRunsAtCancel;
+        }
+
+        System.out.printf("%d cancellations, %d ticks ran after cancel returned%n", nCancellations, nLateTicks);
+        if (nLateTicks > 0 || tickService.getNumberOfScheduledTicks() != 0) {
+            throw new RuntimeException("ticks ran after being cancelled");
+        }
+
+        System.out.println("ok");
+        System.exit(0);
+    }
+
+    private static void measure(final TimerManager timerManager, final int nTicks, int nBusyThreads) throws InterruptedException {
+        busy = true;
+        for (int i = 0; i < nBusyThreads; i++) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    double x = 0d;
+                    while (busy) {
+                        x += Math.sin(x);
+                    }
+                }
+            };
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final Date start = new Date();
+        final long startNanoTime = System.nanoTime();
+        final long[] allocatedBytes = new long[1];
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        TickService tickService = timerManager.getTickService();
+        tickService.resetJitterHistogram();
+        TickService.Handle handle = tickService.schedule(new Runnable() {
+            private int nRuns = 0;
+
+            @Override
+            public void run() {
+                long threadId = Thread.currentThread().getId();
+                if (this.nRuns == N_WARM_UP_TICKS) {
+                    allocatedBytes[0] = threadMXBean.getThreadAllocatedBytes(threadId);
+                }
+
+                timerManager.updateSolutionTiming(start, System.nanoTime() - startNanoTime);
+                this.nRuns++;
+
+                if (this.nRuns == N_WARM_UP_TICKS + nTicks) {
+                    allocatedBytes[0] = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytes[0];
+                    finished.countDown();
+                }
+            }
+        }, 5, TimeUnit.MILLISECONDS);
+
+        finished.await();
+        handle.cancel();
+        busy = false;
+
+        long[] bounds = tickService.getJitterBucketBounds();
+        long[] histogram = tickService.getJitterHistogram();
+        StringBuilder buckets = new StringBuilder();
+        for (int i = 0; i < histogram.length; i++) {
+            if (i < bounds.length) {
+                buckets.append(String.format(" <%d us: %d", bounds[i] / 1000, histogram[i]));
+            } else {
+                buckets.append(String.format(" more: %d", histogram[i]));
+            }
+        }
+
+        System.out.printf(
+            "%d busy threads, %d ticks, %.0f bytes/tick, maximum jitter %d us%n ",
+            nBusyThreads,
+            nTicks,
+            allocatedBytes[0] / (double) nTicks,
+            tickService.getMaximumJitter() / 1000);
+        System.out.println(buckets);
+    }
+}
@@ -0,0 +1,104 @@
+package com.puzzletimer.state;
+
+import java.util.Random;
+
+import javax.swing.SwingUtilities;
+
+// posts timer events to a TimerEventDispatcher from a background thread
+// for a few seconds, first running time updates every 5 ms with a rare
+// transition, then a mixed load of two kinds of updates and frequent
+// transitions. every transition must be delivered, in order, and no update
+// may be delivered out of order or past a later transition.
+// usage: TimerEventDispatcherOrdering [seconds per load]
+public class TimerEventDispatcherOrdering {
+    // only touched on the EDT
+    private int nDeliveredTransitions;
+    private long lastUpdate;
+    private int nDeliveredUpdates;
+    private int nErrors;
+
+    public TimerEventDispatcherOrdering() {
+        this.nDeliveredTransitions = 0;
+        this.lastUpdate = -1;
+        this.nDeliveredUpdates = 0;
+        this.nErrors = 0;
+    }
+
+    public static void main(String[] args) throws Exception {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 3d;
+
+        new TimerEventDispatcherOrdering().run("updates every 5 ms", seconds, 2, 1000, 0, 5000000);
+        new TimerEventDispatcherOrdering().run("mixed load", seconds, 3, 100, 20, 0);
+
+        System.out.println("ok");
+        System.exit(0);
+    }
+
+    // a post is a transition transitionsPer times out of outOf, and an
+    // update of a second kind one time in otherKindOneIn, if not 0. the
+    // pause between posts is pauseNanos, or random between 0.1 and 0.9 ms
+    // if 0
+    private void run(String name, double seconds, int transitionsPer, int outOf, int otherKindOneIn, int pauseNanos) throws Exception {
+        TimerEventDispatcher dispatcher = new TimerEventDispatcher();
+        Random random = new Random(1);
+
+        int nTransitions = 0;
+        long nUpdates = 0;
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < seconds * 1e9) {
+            if (random.nextInt(outOf) < transitionsPer) {
+                final int transition = nTransitions++;
+                dispatcher.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (TimerEventDispatcherOrdering.this.nDeliveredTransitions != transition) {
+                            TimerEventDispatcherOrdering.this.nErrors++;
+                        }
+                        TimerEventDispatcherOrdering.this.nDeliveredTransitions++;
+                    }
+                });
+            } else {
+                final long update = nUpdates++;
+                final int nPreviousTransitions = nTransitions;
+                String updateKind = otherKindOneIn > 0 && random.nextInt(otherKindOneIn) == 0 ? "B" : "A";
+                dispatcher.postUpdate(updateKind, new Runnable() {
+                    @Override
+                    public void run() {
+                        if (TimerEventDispatcherOrdering.this.nDeliveredTransitions != nPreviousTransitions ||
+                            update <= TimerEventDispatcherOrdering.this.lastUpdate) {
+                            TimerEventDispatcherOrdering.this.nErrors++;
+                        }
+                        TimerEventDispatcherOrdering.this.lastUpdate = update;
+                        TimerEventDispatcherOrdering.this.nDeliveredUpdates++;
+                    }
+                });
+            }
+
+            int pause = pauseNanos > 0 ? pauseNanos : 100000 * (1 + random.nextInt(9));
+            Thread.sleep(pause / 1000000, pause % 1000000);
+        }
+
+        // let the held update through
+        Thread.sleep(200);
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+
+        System.out.printf(
+            "%-20s transitions %d/%d   updates posted %d, delivered %d (%.0f/s), dropped %d   maximum queue depth %d%n",
+            name,
+            this.nDeliveredTransitions,
+            nTransitions,
+            nUpdates,
+            this.nDeliveredUpdates,
+            this.nDeliveredUpdates / seconds,
+            dispatcher.getNumberOfDroppedUpdates(),
+            dispatcher.getMaximumQueueDepth());
+
+        if (this.nErrors > 0 || this.nDeliveredTransitions != nTransitions || dispatcher.getQueueDepth() != 0) {
+            throw new RuntimeException(name + ": " + this.nErrors + " events out of order");
+        }
+    }
+}
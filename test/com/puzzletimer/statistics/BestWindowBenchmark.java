@@ -0,0 +1,188 @@
+package com.puzzletimer.statistics;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.UUID;
+
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
+import com.puzzletimer.models.Timing;
+import com.puzzletimer.state.SortedSolveSeries;
+
+// times BestAverage and BestMean over whole histories of 10k, 100k and 1M
+// solutions with 1% DNFs. the scan column is a scan of every window over an
+// array of times, the bulk column is setSolutions over the series, and the
+// appends column adds the solutions one at a time
+public class BestWindowBenchmark {
+    private interface Run {
+        long run();
+    }
+
+    private static final int[] N_SOLUTIONS = { 10000, 100000, 1000000 };
+    private static final int[] AVERAGE_SIZES = { 5, 12, 50, 100 };
+    private static final int[] MEAN_SIZES = { 3, 100 };
+
+    public static void main(String[] args) {
+        Random random = new Random(3);
+
+        for (int nSolutions : N_SOLUTIONS) {
+            final Solution[] solutions = createSolutions(random, nSolutions);
+            final SolveSeries series = new SortedSolveSeries(solutions);
+
+            final long[] times = new long[nSolutions];
+            series.getRealTimes(0, nSolutions, times, false);
+
+            for (final int windowSize : AVERAGE_SIZES) {
+                benchmark(nSolutions, "ao" + windowSize, new Run[] {
+                    new Run() {
+                        @Override
+                        public long run() {
+                            return scanBestAverage(times, windowSize);
+                        }
+                    },
+                    new Run() {
+                        @Override
+                        public long run() {
+                            BestAverage measure = new BestAverage(windowSize, Integer.MAX_VALUE);
+                            measure.setSolutions(series, 0, series.size());
+                            return measure.getValue();
+                        }
+                    },
+                    new Run() {
+                        @Override
+                        public long run() {
+                            BestAverage measure = new BestAverage(windowSize, Integer.MAX_VALUE);
+                            for (Solution solution : solutions) {
+                                measure.addSolution(solution);
+                            }
+                            return measure.getValue();
+                        }
+                    },
+                });
+            }
+
+            for (final int windowSize : MEAN_SIZES) {
+                benchmark(nSolutions, "mo" + windowSize, new Run[] {
+                    new Run() {
+                        @Override
+                        public long run() {
+                            return scanBestMean(times, windowSize);
+                        }
+                    },
+                    new Run() {
+                        @Override
+                        public long run() {
+                            BestMean measure = new BestMean(windowSize, Integer.MAX_VALUE);
+                            measure.setSolutions(series, 0, series.size());
+                            return measure.getValue();
+                        }
+                    },
+                    new Run() {
+                        @Override
+                        public long run() {
+                            BestMean measure = new BestMean(windowSize, Integer.MAX_VALUE);
+                            for (Solution solution : solutions) {
+                                measure.addSolution(solution);
+                            }
+                            return measure.getValue();
+                        }
+                    },
+                });
+            }
+        }
+    }
+
+    private static void benchmark(int nSolutions, String name, Run[] runs) {
+        int nRepetitions = nSolutions >= 1000000 ? 5 : 20;
+
+        double[] bestTimes = new double[runs.length];
+        long[] values = new long[runs.length];
+        for (int i = 0; i < runs.length; i++) {
+            bestTimes[i] = Double.MAX_VALUE;
+        }
+
+        for (int repetition = 0; repetition < nRepetitions; repetition++) {
+            for (int i = 0; i < runs.length; i++) {
+                long start = System.nanoTime();
+                values[i] = runs[i].run();
+                bestTimes[i] = Math.min(bestTimes[i], (System.nanoTime() - start) / 1e6);
+            }
+        }
+
+        for (int i = 1; i < runs.length; i++) {
+            if (values[i] != values[0]) {
+                throw new RuntimeException(name + " of " + nSolutions + " solutions: values differ");
+            }
+        }
+
+        System.out.printf(
+            "n=%7d %-5s  scan %7.1f ms  bulk %7.1f ms  appends %7.1f ms%n",
+            nSolutions,
+            name,
+            bestTimes[0],
+            bestTimes[1],
+            bestTimes[2]);
+    }
+
+    // oldest first
+    private static Solution[] createSolutions(Random random, int nSolutions) {
+        Solution[] solutions = new Solution[nSolutions];
+        long clock = 0L;
+        for (int i = 0; i < nSolutions; i++) {
+            clock += 60000L;
+            long time = 5000 + 10 * random.nextInt(10000);
+            String penalty = random.nextInt(100) == 0 ? "DNF" : "";
+            solutions[i] = new Solution(
+                UUID.randomUUID(),
+                null,
+                null,
+                new Timing(new Date(clock), new Date(clock + time)),
+                penalty);
+        }
+
+        return solutions;
+    }
+
+    private static long scanBestAverage(long[] times, int windowSize) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i + windowSize <= times.length; i++) {
+            long sum = 0L;
+            long minimum = Long.MAX_VALUE;
+            long maximum = Long.MIN_VALUE;
+            int nDNFs = 0;
+            for (int j = i; j < i + windowSize; j++) {
+                if (times[j] == Long.MAX_VALUE) {
+                    nDNFs++;
+                } else {
+                    sum += times[j];
+                    minimum = Math.min(minimum, times[j]);
+                    maximum = Math.max(maximum, times[j]);
+                }
+            }
+
+            if (nDNFs <= 1) {
+                best = Math.min(best, (sum - minimum - (nDNFs == 0 ? maximum : 0L)) / (windowSize - 2));
+            }
+        }
+
+        return best;
+    }
+
+    private static long scanBestMean(long[] times, int windowSize) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i + windowSize <= times.length; i++) {
+            long sum = 0L;
+            boolean dnf = false;
+            for (int j = i; j < i + windowSize && !dnf; j++) {
+                dnf = times[j] == Long.MAX_VALUE;
+                sum += times[j];
+            }
+
+            if (!dnf) {
+                best = Math.min(best, sum / windowSize);
+            }
+        }
+
+        return best;
+    }
+}
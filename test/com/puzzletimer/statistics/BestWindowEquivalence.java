@@ -0,0 +1,217 @@
+package com.puzzletimer.statistics;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.SolveSeries;
+import com.puzzletimer.models.Timing;
+import com.puzzletimer.state.SortedSolveSeries;
+import com.puzzletimer.util.SolutionUtils;
+
+// checks BestAverage and BestMean against a scan of every window, on random
+// series, through the bulk setSolutions paths and through appends and
+// removals of single solutions. usage: BestWindowEquivalence [seed] [trials]
+public class BestWindowEquivalence {
+    private static final int[] WINDOW_SIZES = { 3, 5, 12, 16, 17, 50, 100 };
+    private static final int[] DNF_PERCENTAGES = { 0, 1, 8, 30, 40 };
+
+    private Random random;
+    private long clock;
+    private long nChecks;
+
+    public BestWindowEquivalence(long seed) {
+        this.random = new Random(seed);
+        this.clock = 0L;
+        this.nChecks = 0;
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1L;
+        int nTrials = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        BestWindowEquivalence equivalence = new BestWindowEquivalence(seed);
+        for (int i = 0; i < nTrials; i++) {
+            equivalence.runTrial();
+        }
+
+        System.out.println("ok, " + equivalence.nChecks + " checks");
+    }
+
+    private void runTrial() {
+        int windowSize = WINDOW_SIZES[this.random.nextInt(WINDOW_SIZES.length)];
+        int dnfPercentage = DNF_PERCENTAGES[this.random.nextInt(DNF_PERCENTAGES.length)];
+        boolean average = this.random.nextBoolean();
+
+        // oldest first
+        ArrayList<Solution> solutions = new ArrayList<Solution>();
+        int nSolutions = this.random.nextInt(4 * windowSize + 100);
+        for (int i = 0; i < nSolutions; i++) {
+            solutions.add(nextSolution(dnfPercentage));
+        }
+
+        SolveSeries series = new SortedSolveSeries(solutions.toArray(new Solution[solutions.size()]));
+
+        // bulk, over a range of the series
+        int start = this.random.nextInt(nSolutions + 1);
+        int end = start + this.random.nextInt(nSolutions - start + 1);
+        IncrementalStatisticalMeasure measure = createMeasure(average, windowSize);
+        measure.setSolutions(series, start, end);
+        check(measure, average, windowSize, solutions.subList(start, end), "range");
+
+        // bulk, from solutions newest first
+        IncrementalStatisticalMeasure arrayMeasure = createMeasure(average, windowSize);
+        arrayMeasure.setSolutions(newestFirst(solutions.subList(start, end)));
+        check(arrayMeasure, average, windowSize, solutions.subList(start, end), "array");
+
+        // appends and removals, starting from the bulk state. the window
+        // either grows or keeps a bounded size
+        ArrayList<Solution> window = new ArrayList<Solution>(solutions.subList(start, end));
+        int maximumSize = this.random.nextBoolean() ? Integer.MAX_VALUE : windowSize + this.random.nextInt(3 * windowSize);
+        int nAppends = this.random.nextInt(3 * windowSize + 20);
+        for (int i = 0; i < nAppends; i++) {
+            Solution solution = nextSolution(dnfPercentage);
+            window.add(solution);
+            measure.addSolution(solution);
+
+            while (window.size() > maximumSize) {
+                measure.removeSolution(window.remove(0));
+            }
+
+            check(measure, average, windowSize, window, "incremental");
+        }
+    }
+
+    private IncrementalStatisticalMeasure createMeasure(boolean average, int windowSize) {
+        if (average) {
+            return new BestAverage(windowSize, Integer.MAX_VALUE);
+        }
+
+        return new BestMean(windowSize, Integer.MAX_VALUE);
+    }
+
+    private Solution nextSolution(int dnfPercentage) {
+        this.clock += 60000L;
+
+        // clusters of equal times, so that ties between windows are common
+        long time = this.random.nextInt(3) == 0 ?
+            8000 + 10 * this.random.nextInt(40) :
+            5000 + 10 * this.random.nextInt(10000);
+
+        int roll = this.random.nextInt(100);
+        String penalty = roll < dnfPercentage ? "DNF" : roll < dnfPercentage + 5 ? "+2" : "";
+
+        return new Solution(
+            UUID.randomUUID(),
+            null,
+            null,
+            new Timing(new Date(this.clock), new Date(this.clock + time)),
+            penalty);
+    }
+
+    private Solution[] newestFirst(List<Solution> solutions) {
+        Solution[] array = new Solution[solutions.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = solutions.get(solutions.size() - 1 - i);
+        }
+
+        return array;
+    }
+
+    private void check(StatisticalMeasure measure, boolean average, int windowSize, List<Solution> solutions, String path) {
+        long[] times = new long[solutions.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = SolutionUtils.realTime(solutions.get(i));
+        }
+
+        long[] expected = average ?
+            scanBestAverage(times, windowSize) :
+            scanBestMean(times, windowSize);
+
+        boolean matches = measure.getValue() == expected[0];
+        // the position of a best window that doesn't count is meaningless
+        if (expected[0] != Long.MAX_VALUE) {
+            matches &= measure.getWindowPosition() == expected[1];
+        }
+
+        if (!matches) {
+            throw new RuntimeException(String.format(
+                "%s of %d, %s path, %d solutions: expected %d at %d, got %d at %d",
+                average ? "best average" : "best mean",
+                windowSize,
+                path,
+                times.length,
+                expected[0],
+                expected[1],
+                measure.getValue(),
+                measure.getWindowPosition()));
+        }
+
+        this.nChecks++;
+    }
+
+    // value and position, counted in windows from the newest, of the best
+    // window. ties go to the newest window
+    private static long[] scanBestAverage(long[] times, int windowSize) {
+        long[] best = { Long.MAX_VALUE, 0 };
+        for (int i = times.length - windowSize; i >= 0; i--) {
+            long sum = 0L;
+            long minimum = Long.MAX_VALUE;
+            long maximum = Long.MIN_VALUE;
+            int nDNFs = 0;
+            for (int j = i; j < i + windowSize; j++) {
+                if (times[j] == Long.MAX_VALUE) {
+                    nDNFs++;
+                } else {
+                    sum += times[j];
+                    minimum = Math.min(minimum, times[j]);
+                    maximum = Math.max(maximum, times[j]);
+                }
+            }
+
+            if (nDNFs > 1) {
+                continue;
+            }
+
+            // a single DNF is the worst time
+            long value = (sum - minimum - (nDNFs == 0 ? maximum : 0L)) / (windowSize - 2);
+            if (value < best[0]) {
+                best[0] = value;
+                best[1] = times.length - windowSize - i;
+            }
+        }
+
+        return best;
+    }
+
+    private static long[] scanBestMean(long[] times, int windowSize) {
+        long[] best = { Long.MAX_VALUE, 0 };
+        for (int i = times.length - windowSize; i >= 0; i--) {
+            long sum = 0L;
+            boolean dnf = false;
+            for (int j = i; j < i + windowSize; j++) {
+                if (times[j] == Long.MAX_VALUE) {
+                    dnf = true;
+                    break;
+                }
+
+                sum += times[j];
+            }
+
+            if (dnf) {
+                continue;
+            }
+
+            long value = sum / windowSize;
+            if (value < best[0]) {
+                best[0] = value;
+                best[1] = times.length - windowSize - i;
+            }
+        }
+
+        return best;
+    }
+}
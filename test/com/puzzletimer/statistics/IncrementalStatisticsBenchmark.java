@@ -0,0 +1,118 @@
+package com.puzzletimer.statistics;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Random;
+import java.util.UUID;
+
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.Timing;
+import com.puzzletimer.util.SolutionUtils;
+
+// per-solve cost of the main window's 12 measures on sessions of 100, 1000
+// and 10000 solves: rescanning every window, as the panel did before the
+// measures became incremental, against appending the solve to an
+// IncrementalStatistics. the figures are those of the last round.
+// usage: IncrementalStatisticsBenchmark [solves per round] [rounds]
+public class IncrementalStatisticsBenchmark {
+    private static final int[] SESSION_SIZES = { 100, 1000, 10000 };
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        int nSolves = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int nRounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        Random random = new Random(7);
+        for (int sessionSize : SESSION_SIZES) {
+            // newest first, the last nSolves solutions being solved during
+            // the round
+            Solution[] solutions = new Solution[sessionSize + nSolves];
+            for (int i = solutions.length - 1; i >= 0; i--) {
+                solutions[i] = nextSolution(random, solutions.length - i);
+            }
+
+            double rescanTime = 0d;
+            double incrementalTime = 0d;
+            for (int round = 0; round < nRounds; round++) {
+                long start = System.nanoTime();
+                for (int i = 1; i <= nSolves; i++) {
+                    rescan(SolutionUtils.realTimes(Arrays.copyOfRange(solutions, nSolves - i, solutions.length), false));
+                }
+                long middle = System.nanoTime();
+
+                IncrementalStatistics statistics = new IncrementalStatistics(createMeasures());
+                statistics.setSolutions(Arrays.copyOfRange(solutions, nSolves, solutions.length));
+                long load = System.nanoTime();
+                for (int i = 1; i <= nSolves; i++) {
+                    statistics.addSolution(solutions[nSolves - i]);
+                    for (IncrementalStatisticalMeasure measure : statistics.getMeasures()) {
+                        sink += measure.getValue();
+                    }
+                }
+                long end = System.nanoTime();
+
+                rescanTime = (middle - start) / 1e3 / nSolves;
+                incrementalTime = (end - load) / 1e3 / nSolves;
+            }
+
+            System.out.printf(
+                "%5d solves   rescan %8.1f us/solve   incremental %6.2f us/solve%n",
+                sessionSize,
+                rescanTime,
+                incrementalTime);
+        }
+
+        System.out.println("(" + sink % 2 + ")");
+    }
+
+    private static IncrementalStatisticalMeasure[] createMeasures() {
+        return new IncrementalStatisticalMeasure[] {
+            new Mean(1, Integer.MAX_VALUE),
+            new Average(3, Integer.MAX_VALUE),
+            new Best(1, Integer.MAX_VALUE),
+            new Percentile(1, Integer.MAX_VALUE, 0.5),
+            new Worst(1, Integer.MAX_VALUE),
+            new StandardDeviation(1, Integer.MAX_VALUE),
+            new Mean(3, 3),
+            new BestMean(3, Integer.MAX_VALUE),
+            new Average(5, 5),
+            new BestAverage(5, Integer.MAX_VALUE),
+            new Average(12, 12),
+            new BestAverage(12, Integer.MAX_VALUE),
+        };
+    }
+
+    // the same measures by full scans, times newest first
+    private static void rescan(long[] times) {
+        sink += ReferenceStatistics.mean(times)[0];
+        sink += ReferenceStatistics.average(times)[0];
+        sink += ReferenceStatistics.best(times)[0];
+        sink += ReferenceStatistics.percentile(times, 0.5)[0];
+        sink += ReferenceStatistics.worst(times)[0];
+        sink += ReferenceStatistics.standardDeviation(times)[0];
+        sink += ReferenceStatistics.mean(Arrays.copyOf(times, 3))[0];
+        sink += ReferenceStatistics.bestMean(times, 3)[0];
+        sink += ReferenceStatistics.average(Arrays.copyOf(times, 5))[0];
+        sink += ReferenceStatistics.bestAverage(times, 5)[0];
+        sink += ReferenceStatistics.average(Arrays.copyOf(times, 12))[0];
+        sink += ReferenceStatistics.bestAverage(times, 12)[0];
+    }
+
+    private static Solution nextSolution(Random random, long n) {
+        long clock = 1000L * n;
+        long time = random.nextInt(3) == 0 ?
+            800 + 10 * random.nextInt(40) :
+            500 + random.nextInt(100000);
+
+        int roll = random.nextInt(100);
+        String penalty = roll < 8 ? "DNF" : roll < 13 ? "+2" : "";
+
+        return new Solution(
+            UUID.randomUUID(),
+            null,
+            null,
+            new Timing(new Date(clock), new Date(clock + time)),
+            penalty);
+    }
+}
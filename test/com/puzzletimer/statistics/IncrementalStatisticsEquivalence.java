@@ -0,0 +1,255 @@
+package com.puzzletimer.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Random;
+import java.util.UUID;
+
+import com.puzzletimer.models.Solution;
+import com.puzzletimer.models.Timing;
+import com.puzzletimer.util.SolutionUtils;
+
+// applies random appends, removals, penalty changes and resets to an
+// IncrementalStatistics over every kind of measure, with bounded and
+// unbounded windows, feeding appends through addSolution and anything else
+// through setSolutions, as the statistics panels do. after every step each
+// measure is compared with a full scan of its window, and with a measure
+// built from that window in bulk. standard deviations may differ by one
+// from the scan, which sums in another order.
+// usage: IncrementalStatisticsEquivalence [seed] [trials]
+public class IncrementalStatisticsEquivalence {
+    // kind, minimum window size, maximum window size (0 for unbounded) and
+    // percentile
+    private static final Object[][] MEASURES = {
+        { "best", 1, 0, 0d },
+        { "best", 1, 5, 0d },
+        { "worst", 1, 0, 0d },
+        { "worst", 1, 7, 0d },
+        { "mean", 1, 0, 0d },
+        { "mean", 3, 3, 0d },
+        { "mean", 10, 10, 0d },
+        { "mean", 100, 100, 0d },
+        { "average", 3, 0, 0d },
+        { "average", 3, 3, 0d },
+        { "average", 5, 5, 0d },
+        { "average", 12, 12, 0d },
+        { "best mean", 3, 0, 0d },
+        { "best mean", 10, 0, 0d },
+        { "best mean", 100, 0, 0d },
+        { "best mean", 3, 3, 0d },
+        { "best mean", 3, 8, 0d },
+        { "best mean", 100, 100, 0d },
+        { "best average", 5, 0, 0d },
+        { "best average", 12, 0, 0d },
+        { "best average", 5, 5, 0d },
+        { "best average", 5, 9, 0d },
+        { "best average", 12, 12, 0d },
+        { "percentile", 1, 0, 0.25 },
+        { "percentile", 1, 0, 0.5 },
+        { "percentile", 1, 0, 0.75 },
+        { "percentile", 1, 9, 0.1 },
+        { "interquartile mean", 3, 0, 0d },
+        { "interquartile mean", 3, 20, 0d },
+        { "standard deviation", 1, 0, 0d },
+        { "standard deviation", 1, 4, 0d },
+    };
+
+    private static final int DNF_PERCENTAGE = 8;
+
+    private Random random;
+    private long clock;
+    private long nChecks;
+
+    public IncrementalStatisticsEquivalence(long seed) {
+        this.random = new Random(seed);
+        this.clock = 0L;
+        this.nChecks = 0;
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1L;
+        int nTrials = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        IncrementalStatisticsEquivalence equivalence = new IncrementalStatisticsEquivalence(seed);
+        for (int i = 0; i < nTrials; i++) {
+            equivalence.runTrial();
+        }
+
+        System.out.println("ok, " + equivalence.nChecks + " checks");
+    }
+
+    private void runTrial() {
+        IncrementalStatisticalMeasure[] measures = new IncrementalStatisticalMeasure[MEASURES.length];
+        for (int i = 0; i < measures.length; i++) {
+            measures[i] = createMeasure(MEASURES[i]);
+        }
+        IncrementalStatistics statistics = new IncrementalStatistics(measures);
+
+        // newest first
+        ArrayList<Solution> solutions = new ArrayList<Solution>();
+        int nOperations = 1 + this.random.nextInt(300);
+        for (int i = 0; i < nOperations; i++) {
+            int roll = this.random.nextInt(100);
+            if (roll < 85 || solutions.isEmpty()) {
+                Solution solution = nextSolution();
+                solutions.add(0, solution);
+                statistics.addSolution(solution);
+            } else {
+                if (roll < 92) {
+                    solutions.remove(this.random.nextInt(solutions.size()));
+                } else if (roll < 97) {
+                    int index = this.random.nextInt(solutions.size());
+                    Solution solution = solutions.get(index);
+                    solutions.set(index, solution.setPenalty(solution.getPenalty().equals("DNF") ? "" : "DNF"));
+                }
+
+                statistics.setSolutions(solutions.toArray(new Solution[solutions.size()]));
+            }
+
+            check(statistics, solutions.toArray(new Solution[solutions.size()]));
+        }
+    }
+
+    private void check(IncrementalStatistics statistics, Solution[] solutions) {
+        if (statistics.getNumberOfSolutions() != solutions.length) {
+            throw new RuntimeException(statistics.getNumberOfSolutions() + " solutions instead of " + solutions.length);
+        }
+
+        for (int i = 0; i < MEASURES.length; i++) {
+            IncrementalStatisticalMeasure measure = statistics.getMeasures()[i];
+
+            boolean available = solutions.length >= measure.getMinimumWindowSize();
+            if (statistics.isAvailable(i) != available) {
+                throw new RuntimeException(describe(MEASURES[i]) + ": wrong availability");
+            }
+
+            if (!available) {
+                continue;
+            }
+
+            Solution[] window = Arrays.copyOf(solutions, Math.min(solutions.length, measure.getMaximumWindowSize()));
+            long[] expected = reference(MEASURES[i], window);
+
+            boolean matches;
+            if (MEASURES[i][0].equals("standard deviation")) {
+                matches = Math.abs(measure.getValue() - expected[0]) <= 1;
+            } else {
+                matches = measure.getValue() == expected[0];
+                // the position of a best window that doesn't count is
+                // meaningless
+                if (expected[0] != Long.MAX_VALUE || MEASURES[i][0].equals("best") || MEASURES[i][0].equals("worst")) {
+                    matches &= measure.getWindowPosition() == expected[1];
+                }
+            }
+
+            if (!matches) {
+                throw new RuntimeException(String.format(
+                    "%s, %d solutions: expected %d at %d, got %d at %d",
+                    describe(MEASURES[i]),
+                    solutions.length,
+                    expected[0],
+                    expected[1],
+                    measure.getValue(),
+                    measure.getWindowPosition()));
+            }
+
+            // the same window in bulk
+            IncrementalStatisticalMeasure bulkMeasure = createMeasure(MEASURES[i]);
+            bulkMeasure.setSolutions(window);
+            if (bulkMeasure.getValue() != measure.getValue() || bulkMeasure.getWindowPosition() != measure.getWindowPosition()) {
+                throw new RuntimeException(describe(MEASURES[i]) + ", " + solutions.length + " solutions: the bulk measure differs");
+            }
+
+            this.nChecks++;
+        }
+    }
+
+    private static IncrementalStatisticalMeasure createMeasure(Object[] description) {
+        String kind = (String) description[0];
+        int minimumWindowSize = (Integer) description[1];
+        int maximumWindowSize = (Integer) description[2] == 0 ? Integer.MAX_VALUE : (Integer) description[2];
+
+        if (kind.equals("best")) {
+            return new Best(minimumWindowSize, maximumWindowSize);
+        }
+        if (kind.equals("worst")) {
+            return new Worst(minimumWindowSize, maximumWindowSize);
+        }
+        if (kind.equals("mean")) {
+            return new Mean(minimumWindowSize, maximumWindowSize);
+        }
+        if (kind.equals("average")) {
+            return new Average(minimumWindowSize, maximumWindowSize);
+        }
+        if (kind.equals("best mean")) {
+            return new BestMean(minimumWindowSize, maximumWindowSize);
+        }
+        if (kind.equals("best average")) {
+            return new BestAverage(minimumWindowSize, maximumWindowSize);
+        }
+        if (kind.equals("percentile")) {
+            return new Percentile(minimumWindowSize, maximumWindowSize, (Double) description[3]);
+        }
+        if (kind.equals("interquartile mean")) {
+            return new InterquartileMean(minimumWindowSize, maximumWindowSize);
+        }
+
+        return new StandardDeviation(minimumWindowSize, maximumWindowSize);
+    }
+
+    private static long[] reference(Object[] description, Solution[] window) {
+        String kind = (String) description[0];
+        long[] times = SolutionUtils.realTimes(window, false);
+
+        if (kind.equals("best")) {
+            return ReferenceStatistics.best(times);
+        }
+        if (kind.equals("worst")) {
+            return ReferenceStatistics.worst(times);
+        }
+        if (kind.equals("mean")) {
+            return ReferenceStatistics.mean(times);
+        }
+        if (kind.equals("average")) {
+            return ReferenceStatistics.average(times);
+        }
+        if (kind.equals("best mean")) {
+            return ReferenceStatistics.bestMean(times, (Integer) description[1]);
+        }
+        if (kind.equals("best average")) {
+            return ReferenceStatistics.bestAverage(times, (Integer) description[1]);
+        }
+        if (kind.equals("percentile")) {
+            return ReferenceStatistics.percentile(times, (Double) description[3]);
+        }
+        if (kind.equals("interquartile mean")) {
+            return ReferenceStatistics.interquartileMean(times);
+        }
+
+        return ReferenceStatistics.standardDeviation(times);
+    }
+
+    private static String describe(Object[] description) {
+        return description[0] + " of " + description[1] + " to " + description[2];
+    }
+
+    private Solution nextSolution() {
+        this.clock += 1000L;
+
+        // clusters of equal times, so that ties are common
+        long time = this.random.nextInt(3) == 0 ?
+            800 + 10 * this.random.nextInt(40) :
+            500 + this.random.nextInt(100000);
+
+        int roll = this.random.nextInt(100);
+        String penalty = roll < DNF_PERCENTAGE ? "DNF" : roll < DNF_PERCENTAGE + 5 ? "+2" : "";
+
+        return new Solution(
+            UUID.randomUUID(),
+            null,
+            null,
+            new Timing(new Date(this.clock), new Date(this.clock + time)),
+            penalty);
+    }
+}
@@ -0,0 +1,165 @@
+package com.puzzletimer.statistics;
+
+import java.util.Arrays;
+
+// the measures as they were computed before they became incremental, by a
+// full scan of the window on every change. times are given newest first,
+// with DNFs as Long.MAX_VALUE, and each method returns the value and the
+// window position
+class ReferenceStatistics {
+    public static long[] best(long[] times) {
+        long[] best = { Long.MAX_VALUE, 0 };
+        for (int i = 0; i < times.length; i++) {
+            if (times[i] <= best[0]) {
+                best[0] = times[i];
+                best[1] = i;
+            }
+        }
+
+        return best;
+    }
+
+    public static long[] worst(long[] times) {
+        long[] worst = { 0L, 0 };
+        for (int i = 0; i < times.length; i++) {
+            if (times[i] >= worst[0]) {
+                worst[0] = times[i];
+                worst[1] = i;
+            }
+        }
+
+        return worst;
+    }
+
+    public static long[] mean(long[] times) {
+        long sum = 0L;
+        for (long time : times) {
+            if (time == Long.MAX_VALUE) {
+                return new long[] { Long.MAX_VALUE, 0 };
+            }
+
+            sum += time;
+        }
+
+        return new long[] { sum / times.length, 0 };
+    }
+
+    public static long[] average(long[] times) {
+        int nDNFs = 0;
+        long worst = Long.MIN_VALUE;
+        long best = Long.MAX_VALUE;
+        long sum = 0L;
+        for (long time : times) {
+            if (time == Long.MAX_VALUE) {
+                nDNFs++;
+            }
+
+            worst = Math.max(worst, time);
+            best = Math.min(best, time);
+            sum += time;
+        }
+
+        if (nDNFs > 1) {
+            return new long[] { Long.MAX_VALUE, 0 };
+        }
+
+        return new long[] { (sum - worst - best) / (times.length - 2), 0 };
+    }
+
+    public static long[] bestMean(long[] times, int windowSize) {
+        long[] best = { Long.MAX_VALUE, 0 };
+        for (int i = 0; i < times.length - windowSize + 1; i++) {
+            long[] mean = mean(Arrays.copyOfRange(times, i, i + windowSize));
+            if (mean[0] < best[0]) {
+                best[0] = mean[0];
+                best[1] = i;
+            }
+        }
+
+        return best;
+    }
+
+    public static long[] bestAverage(long[] times, int windowSize) {
+        long[] best = { Long.MAX_VALUE, 0 };
+        for (int i = 0; i < times.length - windowSize + 1; i++) {
+            long[] average = average(Arrays.copyOfRange(times, i, i + windowSize));
+            if (average[0] < best[0]) {
+                best[0] = average[0];
+                best[1] = i;
+            }
+        }
+
+        return best;
+    }
+
+    public static long[] percentile(long[] times, double p) {
+        long[] sortedTimes = times.clone();
+        Arrays.sort(sortedTimes);
+
+        double position = p * (sortedTimes.length + 1);
+        if (position < 1d) {
+            return new long[] { sortedTimes[0], 0 };
+        }
+
+        if (position >= sortedTimes.length) {
+            return new long[] { sortedTimes[sortedTimes.length - 1], 0 };
+        }
+
+        int index = (int) Math.floor(position);
+        if (sortedTimes[index - 1] == Long.MAX_VALUE || (position - index != 0d && sortedTimes[index] == Long.MAX_VALUE)) {
+            return new long[] { Long.MAX_VALUE, 0 };
+        }
+
+        return new long[] { (long) (sortedTimes[index - 1] + (position - index) * (sortedTimes[index] - sortedTimes[index - 1])), 0 };
+    }
+
+    public static long[] interquartileMean(long[] times) {
+        long lowerQuartile = percentile(times, 0.25)[0];
+        long upperQuartile = percentile(times, 0.75)[0];
+
+        long sum = 0L;
+        int nTimes = 0;
+        for (long time : times) {
+            if (time < lowerQuartile || time > upperQuartile) {
+                continue;
+            }
+
+            if (time == Long.MAX_VALUE) {
+                return new long[] { Long.MAX_VALUE, 0 };
+            }
+
+            sum += time;
+            nTimes++;
+        }
+
+        return new long[] { sum / nTimes, 0 };
+    }
+
+    // DNFs don't count
+    public static long[] standardDeviation(long[] times) {
+        int nTimes = 0;
+        double mean = 0d;
+        for (long time : times) {
+            if (time != Long.MAX_VALUE) {
+                mean += time;
+                nTimes++;
+            }
+        }
+
+        if (nTimes == 0) {
+            return new long[] { 0L, 0 };
+        }
+
+        mean /= nTimes;
+
+        double variance = 0d;
+        for (long time : times) {
+            if (time != Long.MAX_VALUE) {
+                variance += Math.pow(time - mean, 2d);
+            }
+        }
+        variance /= nTimes;
+
+        return new long[] { (long) Math.sqrt(variance), 0 };
+    }
+}
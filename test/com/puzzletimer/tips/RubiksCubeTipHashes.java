@@ -0,0 +1,101 @@
+package com.puzzletimer.tips;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.puzzletimer.models.Scramble;
+import com.puzzletimer.solvers.RubiksCubeSolver.State;
+
+// hashes the tips every 3x3 tip gives for seeded random scrambles, to check
+// that a change leaves the tips as they were. the hashes are written to the
+// given file if it doesn't exist, and compared against it otherwise.
+// usage: RubiksCubeTipHashes [scrambles] [file]
+public class RubiksCubeTipHashes {
+    private static final int SCRAMBLE_LENGTH = 25;
+
+    public static void main(String[] args) throws IOException {
+        int nScrambles = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        File file = args.length > 1 ? new File(args[1]) : null;
+
+        String[] moveNames = State.moves.keySet().toArray(new String[0]);
+        Arrays.sort(moveNames);
+
+        LinkedHashMap<String, Integer> hashes = new LinkedHashMap<String, Integer>();
+        for (Tip tip : new TipProvider().getAll()) {
+            if (!tip.getPuzzleId().equals("RUBIKS-CUBE")) {
+                continue;
+            }
+
+            tip.initialize();
+
+            Random random = new Random(7);
+            long start = System.nanoTime();
+            int hash = 0;
+            for (int i = 0; i < nScrambles; i++) {
+                String[] sequence = new String[SCRAMBLE_LENGTH];
+                for (int j = 0; j < sequence.length; j++) {
+                    sequence[j] = moveNames[random.nextInt(moveNames.length)];
+                }
+
+                hash = 31 * hash + tip.getTip(new Scramble("RUBIKS-CUBE-RANDOM", sequence)).hashCode();
+            }
+
+            hashes.put(tip.getTipId(), hash);
+            System.out.printf("%-40s %11d %8.0f ms%n", tip.getTipId(), hash, (System.nanoTime() - start) / 1e6);
+        }
+
+        if (file == null) {
+            return;
+        }
+
+        if (!file.exists()) {
+            write(file, hashes);
+            System.out.println("written to " + file);
+            return;
+        }
+
+        Map<String, Integer> expected = read(file);
+        int nDifferences = 0;
+        for (Map.Entry<String, Integer> entry : hashes.entrySet()) {
+            Integer expectedHash = expected.get(entry.getKey());
+            if (expectedHash != null && !expectedHash.equals(entry.getValue())) {
+                System.out.println(entry.getKey() + " differs");
+                nDifferences++;
+            }
+        }
+
+        if (nDifferences > 0) {
+            throw new RuntimeException(nDifferences + " tips differ from " + file);
+        }
+
+        System.out.println("ok, same as " + file);
+    }
+
+    private static void write(File file, Map<String, Integer> hashes) throws IOException {
+        PrintWriter writer = new PrintWriter(new FileWriter(file));
+        for (Map.Entry<String, Integer> entry : hashes.entrySet()) {
+            writer.println(entry.getKey() + " " + entry.getValue());
+        }
+        writer.close();
+    }
+
+    private static Map<String, Integer> read(File file) throws IOException {
+        LinkedHashMap<String, Integer> hashes = new LinkedHashMap<String, Integer>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            String[] fields = line.split(" ");
+            hashes.put(fields[0], Integer.parseInt(fields[1]));
+        }
+        reader.close();
+
+        return hashes;
+    }
+}